@@ -0,0 +1,4 @@
+package org.apache.ivy.benchmark.jmh_generated;
+public class InternBenchmark_Ids_jmhType extends InternBenchmark_Ids_jmhType_B3 {
+}
+
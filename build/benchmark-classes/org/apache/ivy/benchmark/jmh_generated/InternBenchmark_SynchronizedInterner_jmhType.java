@@ -0,0 +1,4 @@
+package org.apache.ivy.benchmark.jmh_generated;
+public class InternBenchmark_SynchronizedInterner_jmhType extends InternBenchmark_SynchronizedInterner_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package org.apache.ivy.benchmark.jmh_generated;
+public class LatestRevisionStrategyBenchmark_jmhType extends LatestRevisionStrategyBenchmark_jmhType_B3 {
+}
+
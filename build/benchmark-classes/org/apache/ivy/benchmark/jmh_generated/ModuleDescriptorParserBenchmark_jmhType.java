@@ -0,0 +1,4 @@
+package org.apache.ivy.benchmark.jmh_generated;
+public class ModuleDescriptorParserBenchmark_jmhType extends ModuleDescriptorParserBenchmark_jmhType_B3 {
+}
+
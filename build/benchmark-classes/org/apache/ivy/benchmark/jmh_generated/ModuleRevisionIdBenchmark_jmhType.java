@@ -0,0 +1,4 @@
+package org.apache.ivy.benchmark.jmh_generated;
+public class ModuleRevisionIdBenchmark_jmhType extends ModuleRevisionIdBenchmark_jmhType_B3 {
+}
+
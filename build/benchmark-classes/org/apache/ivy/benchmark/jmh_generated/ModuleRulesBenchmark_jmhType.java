@@ -0,0 +1,4 @@
+package org.apache.ivy.benchmark.jmh_generated;
+public class ModuleRulesBenchmark_jmhType extends ModuleRulesBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package org.apache.ivy.benchmark.jmh_generated;
+public class ResolveBenchmark_jmhType extends ResolveBenchmark_jmhType_B3 {
+}
+
@@ -35,8 +35,11 @@ import org.apache.ivy.core.check.CheckEngine;
 import org.apache.ivy.core.deliver.DeliverEngine;
 import org.apache.ivy.core.deliver.DeliverOptions;
 import org.apache.ivy.core.event.EventManager;
+import org.apache.ivy.core.event.SynchronousListener;
 import org.apache.ivy.core.install.InstallEngine;
 import org.apache.ivy.core.install.InstallOptions;
+import org.apache.ivy.core.metrics.IvyMetrics;
+import org.apache.ivy.core.metrics.MetricsListener;
 import org.apache.ivy.core.module.descriptor.Artifact;
 import org.apache.ivy.core.module.descriptor.ModuleDescriptor;
 import org.apache.ivy.core.module.id.ModuleId;
@@ -229,6 +232,10 @@ public class Ivy {
 
     private EventManager eventManager;
 
+    private IvyMetrics metrics;
+
+    private MetricsListener metricsListener;
+
     private SortEngine sortEngine;
 
     private SearchEngine searchEngine;
@@ -306,29 +313,7 @@ public class Ivy {
                         resolveEngine);
             }
 
-            eventManager.addTransferListener(new TransferListener() {
-                public void transferProgress(TransferEvent evt) {
-                    ResolveData resolve;
-                    switch (evt.getEventType()) {
-                        case TransferEvent.TRANSFER_PROGRESS:
-                            resolve = IvyContext.getContext().getResolveData();
-                            if (resolve == null
-                                    || !LogOptions.LOG_QUIET.equals(resolve.getOptions().getLog())) {
-                                Message.progress();
-                            }
-                            break;
-                        case TransferEvent.TRANSFER_COMPLETED:
-                            resolve = IvyContext.getContext().getResolveData();
-                            if (resolve == null
-                                    || !LogOptions.LOG_QUIET.equals(resolve.getOptions().getLog())) {
-                                Message.endProgress(" (" + (evt.getTotalLength() / KILO) + "kB)");
-                            }
-                            break;
-                        default:
-                            break;
-                    }
-                }
-            });
+            eventManager.addTransferListener(new ProgressListener());
 
             bound = true;
         } finally {
@@ -827,6 +812,18 @@ public class Ivy {
         }
     }
 
+    /**
+     * Releases the resources held by this instance which would outlive it otherwise, that is the
+     * thread dispatching events when <code>ivy.events.async</code> is set. The events already
+     * fired are dispatched before. The instance can still be used afterwards, its events are then
+     * dispatched synchronously until it is configured again.
+     */
+    public void dispose() {
+        if (eventManager != null) {
+            eventManager.stopAsyncDispatch();
+        }
+    }
+
     public static String getWorkingRevision() {
         return "working@" + HostUtil.getLocalHostName();
     }
@@ -841,6 +838,34 @@ public class Ivy {
         }
     }
 
+    /**
+     * Reports download progress in the log. It relies on the context of the thread downloading,
+     * and is thus always notified synchronously.
+     */
+    private static final class ProgressListener implements TransferListener, SynchronousListener {
+        public void transferProgress(TransferEvent evt) {
+            ResolveData resolve;
+            switch (evt.getEventType()) {
+                case TransferEvent.TRANSFER_PROGRESS:
+                    resolve = IvyContext.getContext().getResolveData();
+                    if (resolve == null
+                            || !LogOptions.LOG_QUIET.equals(resolve.getOptions().getLog())) {
+                        Message.progress();
+                    }
+                    break;
+                case TransferEvent.TRANSFER_COMPLETED:
+                    resolve = IvyContext.getContext().getResolveData();
+                    if (resolve == null
+                            || !LogOptions.LOG_QUIET.equals(resolve.getOptions().getLog())) {
+                        Message.endProgress(" (" + (evt.getTotalLength() / KILO) + "kB)");
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
     private void postConfigure() {
         List<Trigger> triggers = settings.getTriggers();
         for (Trigger trigger : triggers) {
@@ -852,6 +877,27 @@ public class Ivy {
                 ((BasicResolver) resolver).setEventManager(eventManager);
             }
         }
+
+        if (settings.isMetricsEnabled()) {
+            if (metrics == null) {
+                metrics = new IvyMetrics(settings);
+                metricsListener = new MetricsListener(metrics);
+                eventManager.addIvyListener(metricsListener);
+                eventManager.addTransferListener(metricsListener);
+            }
+        } else if (metrics != null) {
+            eventManager.removeIvyListener(metricsListener);
+            eventManager.removeTransferListener(metricsListener);
+            metrics = null;
+            metricsListener = null;
+        }
+
+        if (settings.isAsyncEventDispatch()) {
+            eventManager.startAsyncDispatch(settings.getEventQueueSize(),
+                settings.getEventProgressPolicy());
+        } else {
+            eventManager.stopAsyncDispatch();
+        }
     }
 
     public String getVariable(String name) {
@@ -896,6 +942,16 @@ public class Ivy {
         return eventManager;
     }
 
+    /**
+     * Returns the metrics recorded by this Ivy instance, if the <code>ivy.metrics</code> variable
+     * was <code>true</code> when it was configured.
+     *
+     * @return the metrics, or <code>null</code> if they are not recorded
+     */
+    public IvyMetrics getMetrics() {
+        return metrics;
+    }
+
     public CheckEngine getCheckEngine() {
         return checkEngine;
     }
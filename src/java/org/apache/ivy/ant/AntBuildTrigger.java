@@ -25,6 +25,7 @@ import java.util.Map;
 import org.apache.ivy.core.IvyContext;
 import org.apache.ivy.core.IvyPatternHelper;
 import org.apache.ivy.core.event.IvyEvent;
+import org.apache.ivy.core.event.SynchronousListener;
 import org.apache.ivy.plugins.trigger.AbstractTrigger;
 import org.apache.ivy.plugins.trigger.Trigger;
 import org.apache.ivy.util.Message;
@@ -52,11 +53,15 @@ import org.apache.tools.ant.taskdefs.Property;
  * The onlyonce property is used to tell if the ant build should be triggered only once, or several
  * times in the same build.
  * </p>
+ * <p>
+ * The build is always run in the thread firing the event, even when events are dispatched
+ * asynchronously, so that its outcome is available to the operation which fired the event.
+ * </p>
  *
  * @see AntCallTrigger
  * @since 1.4
  */
-public class AntBuildTrigger extends AbstractTrigger implements Trigger {
+public class AntBuildTrigger extends AbstractTrigger implements Trigger, SynchronousListener {
     private boolean onlyOnce = true;
 
     private String target = null;
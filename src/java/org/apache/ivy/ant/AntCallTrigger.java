@@ -24,6 +24,7 @@ import java.util.Map;
 import org.apache.ivy.core.IvyContext;
 import org.apache.ivy.core.IvyPatternHelper;
 import org.apache.ivy.core.event.IvyEvent;
+import org.apache.ivy.core.event.SynchronousListener;
 import org.apache.ivy.plugins.trigger.AbstractTrigger;
 import org.apache.ivy.plugins.trigger.Trigger;
 import org.apache.ivy.util.Message;
@@ -45,11 +46,14 @@ import org.apache.tools.ant.taskdefs.Property;
  * </pre>
  *
  * Triggers a call to the target "unzip" for any downloaded artifact of type zip
+ * <p>
+ * Ant projects are not thread safe, so the call is always made in the thread firing the event,
+ * even when events are dispatched asynchronously.
  *
  * @see AntBuildTrigger
  * @since 1.4
  */
-public class AntCallTrigger extends AbstractTrigger implements Trigger {
+public class AntCallTrigger extends AbstractTrigger implements Trigger, SynchronousListener {
     private boolean onlyonce = true;
 
     private String target = null;
@@ -33,9 +33,11 @@ import org.apache.ivy.util.url.CredentialsStore;
 import org.apache.ivy.util.url.TimeoutConstrainedURLHandler;
 import org.apache.ivy.util.url.URLHandlerDispatcher;
 import org.apache.ivy.util.url.URLHandlerRegistry;
+import org.apache.tools.ant.BuildEvent;
 import org.apache.tools.ant.BuildException;
 import org.apache.tools.ant.Project;
 import org.apache.tools.ant.ProjectComponent;
+import org.apache.tools.ant.SubBuildListener;
 import org.apache.tools.ant.Task;
 import org.apache.tools.ant.taskdefs.Property;
 import org.apache.tools.ant.types.DataType;
@@ -306,6 +308,9 @@ public class IvyAntSettings extends DataType {
             }
             ivyAntVariableContainer.updateProject(id);
             ivyEngine = ivy;
+            if (ivy.getEventManager().isAsyncDispatch()) {
+                disposeWhenFinished(project, ivy);
+            }
         } catch (ParseException | IOException e) {
             throw new BuildException("impossible to configure ivy:settings with given "
                     + (file != null ? "file: " + file : "url: " + url) + " : " + e, e);
@@ -314,6 +319,50 @@ public class IvyAntSettings extends DataType {
         }
     }
 
+    /**
+     * Disposes the given Ivy instance when the build of the given project is finished, so that the
+     * thread dispatching its events doesn't outlive the build in a long running JVM.
+     */
+    private static void disposeWhenFinished(final Project project, final Ivy ivy) {
+        project.addBuildListener(new SubBuildListener() {
+            public void buildFinished(BuildEvent event) {
+                dispose(event.getProject());
+            }
+
+            public void subBuildFinished(BuildEvent event) {
+                if (event.getProject() == project) {
+                    dispose(event.getProject());
+                }
+            }
+
+            private void dispose(Project finished) {
+                ivy.dispose();
+                finished.removeBuildListener(this);
+            }
+
+            public void buildStarted(BuildEvent event) {
+            }
+
+            public void subBuildStarted(BuildEvent event) {
+            }
+
+            public void targetStarted(BuildEvent event) {
+            }
+
+            public void targetFinished(BuildEvent event) {
+            }
+
+            public void taskStarted(BuildEvent event) {
+            }
+
+            public void taskFinished(BuildEvent event) {
+            }
+
+            public void messageLogged(BuildEvent event) {
+            }
+        });
+    }
+
     protected Properties getDefaultProperties(ProjectComponent task) {
         URL url = IvySettings.getDefaultPropertiesURL();
         // this is copy of loadURL code from ant Property task (not available in 1.5.1)
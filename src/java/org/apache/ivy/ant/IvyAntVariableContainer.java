@@ -56,6 +56,13 @@ class IvyAntVariableContainer extends IvyVariableContainerImpl implements IvyVar
         }
     }
 
+    @Override
+    protected Map<String, String> getVariables() {
+        Map<String, String> variables = new HashMap<>(super.getVariables());
+        variables.putAll(overwrittenProperties);
+        return variables;
+    }
+
     /**
      * Updates the Ant Project used in this container with variables set in Ivy.
      *
@@ -71,8 +78,7 @@ class IvyAntVariableContainer extends IvyVariableContainerImpl implements IvyVar
      *            be used as property names suffix
      */
     public void updateProject(String id) {
-        Map<String, String> r = new HashMap<>(super.getVariables());
-        r.putAll(overwrittenProperties);
+        Map<String, String> r = getVariables();
         for (Map.Entry<String, String> entry : r.entrySet()) {
             setPropertyIfNotSet(entry.getKey(), entry.getValue());
             if (id != null) {
@@ -44,6 +44,10 @@ public class IvyRetrieve extends IvyPostResolveTask {
         RetrieveOptions.OVERWRITEMODE_ALWAYS, RetrieveOptions.OVERWRITEMODE_NEVER,
         RetrieveOptions.OVERWRITEMODE_NEWER, RetrieveOptions.OVERWRITEMODE_DIFFERENT);
 
+    private static final Collection<String> METHOD_VALUES = Arrays.asList(
+        RetrieveOptions.METHOD_COPY, RetrieveOptions.METHOD_SYMLINK,
+        RetrieveOptions.METHOD_HARDLINK, RetrieveOptions.METHOD_REFLINK);
+
     private String pattern;
 
     private String ivypattern = null;
@@ -54,6 +58,10 @@ public class IvyRetrieve extends IvyPostResolveTask {
 
     private boolean symlinkmass = false;
 
+    private boolean incremental = false;
+
+    private String method = null;
+
     private String overwriteMode = RetrieveOptions.OVERWRITEMODE_NEWER;
 
     private String pathId = null;
@@ -104,7 +112,7 @@ public class IvyRetrieve extends IvyPostResolveTask {
                     .setDestIvyPattern(ivypattern).setArtifactFilter(artifactFilter)
                     .setSync(sync).setOverwriteMode(getOverwriteMode())
                     .setUseOrigin(isUseOrigin()).setMakeSymlinks(symlink)
-                    .setResolveId(getResolveId())
+                    .setMethod(method).setResolveId(getResolveId()).setIncremental(incremental)
                     .setMapper(mapper == null ? null : new MapperAdapter(mapper));
             // only set this if the user has explicitly enabled this deprecated option
             if (symlinkmass) {
@@ -171,6 +179,14 @@ public class IvyRetrieve extends IvyPostResolveTask {
         this.sync = sync;
     }
 
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    public void setIncremental(boolean incremental) {
+        this.incremental = incremental;
+    }
+
     /**
      * Option to create symlinks instead of copying.
      *
@@ -191,6 +207,20 @@ public class IvyRetrieve extends IvyPostResolveTask {
         this.symlinkmass = symlinkmass;
     }
 
+    /**
+     * How to retrieve the artifacts: copy, symlink, hardlink or reflink. Hard links and reflinks
+     * fall back to a copy when the filesystem doesn't support them.
+     *
+     * @param method String
+     */
+    public void setMethod(String method) {
+        if (!METHOD_VALUES.contains(method)) {
+            throw new IllegalArgumentException("invalid method value '" + method + "'. "
+                    + "Valid values are " + METHOD_VALUES);
+        }
+        this.method = method;
+    }
+
     public void setOverwriteMode(String overwriteMode) {
         if (!OVERWRITEMODE_VALUES.contains(overwriteMode)) {
             throw new IllegalArgumentException("invalid overwriteMode value '" + overwriteMode
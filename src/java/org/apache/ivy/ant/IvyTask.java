@@ -17,6 +17,7 @@
  */
 package org.apache.ivy.ant;
 
+import java.io.IOException;
 import java.util.Date;
 import java.util.Locale;
 
@@ -243,6 +244,21 @@ public abstract class IvyTask extends Task {
      * example)
      */
     protected void finalizeTask() {
+        // let the listeners handle the events of this task before it ends
+        Ivy ivy = IvyContext.getContext().peekIvy();
+        if (ivy != null && ivy.getEventManager() != null) {
+            ivy.getEventManager().flush();
+        }
+        if (ivy != null && ivy.getMetrics() != null) {
+            String metricsFile = ivy.getSettings().getVariable("ivy.metrics.file");
+            if (metricsFile != null) {
+                try {
+                    ivy.getMetrics().writeJson(getProject().resolveFile(metricsFile));
+                } catch (IOException e) {
+                    Message.warn("impossible to write metrics to " + metricsFile, e);
+                }
+            }
+        }
         if (!IvyContext.getContext().pop(ANT_PROJECT_CONTEXT_KEY, getProject())) {
             Message.error("ANT project popped from stack not equals current! Ignoring");
         }
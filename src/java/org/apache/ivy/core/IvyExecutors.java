@@ -0,0 +1,140 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.core;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ivy.Ivy;
+import org.apache.ivy.util.MessageLogger;
+import org.apache.ivy.util.MessageLoggerEngine;
+
+/**
+ * Factory methods for the worker pools used by Ivy to run parts of an operation concurrently.
+ * <p>
+ * Worker threads are daemon {@link IvyThread}s, and tasks wrapped with
+ * {@link #withContext(Callable)} run with a private copy of the {@link IvyContext} of the thread
+ * which submitted them, so that resolvers see the same Ivy instance and resolve data without
+ * sharing mutable context state between workers. They also log their messages with the logger
+ * used by the submitting thread.
+ * </p>
+ */
+public final class IvyExecutors {
+
+    private IvyExecutors() {
+    }
+
+    /**
+     * Creates a fixed size pool of daemon worker threads.
+     *
+     * @param name
+     *            the prefix used to name the worker threads
+     * @param nThreads
+     *            the number of worker threads
+     * @return a new {@link ExecutorService}, which should be shut down by the caller when done
+     */
+    public static ExecutorService newFixedThreadPool(final String name, int nThreads) {
+        return Executors.newFixedThreadPool(nThreads, newThreadFactory(name));
+    }
+
+    /**
+     * Creates a pool of at most the given number of daemon worker threads, which are created as
+     * needed and die after the given time of inactivity, so that an idle pool holds no thread
+     * even if it is never shut down.
+     *
+     * @param name
+     *            the prefix used to name the worker threads
+     * @param nThreads
+     *            the maximum number of worker threads
+     * @param keepAliveMillis
+     *            the time in milliseconds after which an idle worker thread dies
+     * @return a new {@link ExecutorService}
+     */
+    public static ExecutorService newFixedThreadPool(final String name, int nThreads,
+            long keepAliveMillis) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(nThreads, nThreads, keepAliveMillis,
+                TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(),
+                newThreadFactory(name));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Creates a pool of daemon worker threads, which creates new threads as needed and lets them
+     * die after one minute of inactivity.
+     *
+     * @param name
+     *            the prefix used to name the worker threads
+     * @return a new {@link ExecutorService}
+     */
+    public static ExecutorService newCachedThreadPool(final String name) {
+        return Executors.newCachedThreadPool(newThreadFactory(name));
+    }
+
+    private static ThreadFactory newThreadFactory(final String name) {
+        return new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            public Thread newThread(Runnable r) {
+                Thread t = new IvyThread(r, name + "-" + count.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            }
+        };
+    }
+
+    /**
+     * Wraps a task so that it runs with a copy of the {@link IvyContext} current at the time of
+     * this call.
+     *
+     * @param <T>
+     *            the result type of the task
+     * @param task
+     *            the task to wrap
+     * @return a task pushing a copy of the caller context before delegating to the given task, and
+     *         popping it afterwards
+     */
+    public static <T> Callable<T> withContext(final Callable<T> task) {
+        final IvyContext context = IvyContext.getContext();
+        Ivy ivy = context.peekIvy();
+        final MessageLoggerEngine loggerEngine = ivy == null ? null : ivy.getLoggerEngine();
+        final MessageLogger logger = loggerEngine == null ? null : loggerEngine.peekLogger();
+        return new Callable<T>() {
+            public T call() throws Exception {
+                IvyContext.pushContext(new IvyContext(context));
+                if (loggerEngine != null) {
+                    loggerEngine.pushLogger(logger);
+                }
+                try {
+                    return task.call();
+                } finally {
+                    if (loggerEngine != null) {
+                        loggerEngine.popLogger();
+                    }
+                    IvyContext.popContext();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,930 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.core.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ivy.core.module.descriptor.Artifact;
+import org.apache.ivy.core.module.descriptor.Configuration;
+import org.apache.ivy.core.module.descriptor.Configuration.Visibility;
+import org.apache.ivy.core.module.descriptor.ConfigurationAware;
+import org.apache.ivy.core.module.descriptor.DefaultArtifact;
+import org.apache.ivy.core.module.descriptor.DefaultDependencyArtifactDescriptor;
+import org.apache.ivy.core.module.descriptor.DefaultDependencyDescriptor;
+import org.apache.ivy.core.module.descriptor.DefaultExcludeRule;
+import org.apache.ivy.core.module.descriptor.DefaultIncludeRule;
+import org.apache.ivy.core.module.descriptor.DefaultModuleDescriptor;
+import org.apache.ivy.core.module.descriptor.DependencyArtifactDescriptor;
+import org.apache.ivy.core.module.descriptor.DependencyDescriptor;
+import org.apache.ivy.core.module.descriptor.DependencyDescriptorMediator;
+import org.apache.ivy.core.module.descriptor.ExcludeRule;
+import org.apache.ivy.core.module.descriptor.ExtraInfoHolder;
+import org.apache.ivy.core.module.descriptor.IncludeRule;
+import org.apache.ivy.core.module.descriptor.License;
+import org.apache.ivy.core.module.descriptor.MDArtifact;
+import org.apache.ivy.core.module.descriptor.ModuleDescriptor;
+import org.apache.ivy.core.module.descriptor.OverrideDependencyDescriptorMediator;
+import org.apache.ivy.core.module.id.ArtifactId;
+import org.apache.ivy.core.module.id.ModuleId;
+import org.apache.ivy.core.module.id.ModuleRevisionId;
+import org.apache.ivy.plugins.conflict.ConflictManager;
+import org.apache.ivy.plugins.conflict.FixedConflictManager;
+import org.apache.ivy.plugins.matcher.MapMatcher;
+import org.apache.ivy.plugins.matcher.PatternMatcher;
+import org.apache.ivy.plugins.namespace.Namespace;
+import org.apache.ivy.plugins.parser.ModuleDescriptorParser;
+import org.apache.ivy.plugins.parser.ParserSettings;
+import org.apache.ivy.plugins.repository.url.URLResource;
+import org.apache.ivy.util.Message;
+
+/**
+ * A compact binary form of a module descriptor parsed from an Ivy file of a repository cache,
+ * stored next to the Ivy file so that another process can load the descriptor without parsing the
+ * Ivy file again.
+ * <p>
+ * The binary file records the length and the last modification date of the Ivy file it has been
+ * produced from, whether the Ivy file has been validated, the parser used, and the values
+ * substituted while parsing with their substitution. It is ignored as soon as one of them doesn't
+ * match anymore. The settings objects referenced by a descriptor, such as pattern matchers,
+ * conflict managers and namespaces, are stored by name and looked up again in the settings.
+ * </p>
+ * <p>
+ * Descriptors which can't be stored exactly, such as descriptors extending other descriptors or
+ * using custom implementations of the descriptor classes, are not written: they are parsed from
+ * their Ivy file every time.
+ * </p>
+ */
+final class BinaryDescriptorFile {
+    static final String SUFFIX = ".bin";
+
+    private static final int MAGIC = 0x49564442;
+
+    private static final int VERSION = 1;
+
+    private static final String[] NO_STRINGS = new String[0];
+
+    private BinaryDescriptorFile() {
+    }
+
+    static File getFile(File ivyFile) {
+        return new File(ivyFile.getPath() + SUFFIX);
+    }
+
+    /**
+     * Returns the last modification date of a file with the precision of the file system, which
+     * may be finer than the one of {@link File#lastModified()}.
+     *
+     * @param file
+     *            the file
+     * @return the last modification date, in nanoseconds
+     * @throws IOException
+     *             if the file can't be read
+     */
+    static long getLastModified(File file) throws IOException {
+        return Files.getLastModifiedTime(file.toPath()).to(TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Reads the module descriptor stored in the binary file of the given Ivy file.
+     *
+     * @param ivyFile
+     *            the Ivy file
+     * @param parser
+     *            the parser which would parse the Ivy file
+     * @param settings
+     *            the settings which would be used to parse the Ivy file
+     * @param validate
+     *            true if the Ivy file would be validated
+     * @return the module descriptor, or null if there is no binary file, or if it is outdated
+     */
+    static ModuleDescriptor read(File ivyFile, ModuleDescriptorParser parser,
+            ParserSettings settings, boolean validate) {
+        File file = getFile(ivyFile);
+        try {
+            byte[] data;
+            try {
+                data = Files.readAllBytes(file.toPath());
+            } catch (NoSuchFileException e) {
+                return null;
+            }
+            Input in = new Input(data);
+            if (in.readInt() != MAGIC || in.readInt() != VERSION
+                    || in.readLong() != ivyFile.length()
+                    || in.readLong() != getLastModified(ivyFile)) {
+                return null;
+            }
+            boolean validated = in.readBoolean();
+            if (validate && !validated || !parser.getClass().getName().equals(in.readString())) {
+                return null;
+            }
+            for (Map.Entry<String, String> substitute : in.readMap().entrySet()) {
+                if (!substitute.getValue().equals(settings.substitute(substitute.getKey()))) {
+                    Message.debug("settings variable has changed for : " + substitute.getKey());
+                    return null;
+                }
+            }
+            DefaultModuleDescriptor md = new DefaultModuleDescriptor(parser, new URLResource(
+                    ivyFile.toURI().toURL()));
+            in.readModuleDescriptor(md, settings);
+            return md;
+        } catch (IOException | RuntimeException e) {
+            Message.debug("ignoring parsed module descriptor " + file + ": " + e);
+            return null;
+        }
+    }
+
+    /**
+     * Writes the binary file of an Ivy file, if its module descriptor can be stored.
+     *
+     * @param ivyFile
+     *            the Ivy file
+     * @param length
+     *            the length of the Ivy file when it was parsed
+     * @param lastModified
+     *            the last modification date of the Ivy file when it was parsed, as returned by
+     *            {@link #getLastModified(File)}
+     * @param validated
+     *            true if the Ivy file has been validated
+     * @param md
+     *            the module descriptor parsed from the Ivy file
+     * @param settings
+     *            the settings used to parse the Ivy file
+     * @param substitutes
+     *            the values substituted while parsing the Ivy file, with their substitution
+     * @return true if the binary file has been written
+     */
+    static boolean write(File ivyFile, long length, long lastModified, boolean validated,
+            ModuleDescriptor md, ParserSettings settings, Map<String, String> substitutes) {
+        File file = getFile(ivyFile);
+        byte[] data;
+        try {
+            Output out = new Output(settings);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(length);
+            out.writeLong(lastModified);
+            out.writeBoolean(validated);
+            out.writeString(md.getParser().getClass().getName());
+            out.writeMap(substitutes);
+            out.writeModuleDescriptor(md);
+            data = out.toByteArray();
+        } catch (UnsupportedDescriptorException e) {
+            Message.debug("not storing parsed module descriptor of " + ivyFile + ": "
+                    + e.getMessage());
+            return false;
+        } catch (IOException e) {
+            // can't happen when writing to memory
+            throw new IllegalStateException(e);
+        }
+        Path tmp = null;
+        try {
+            tmp = Files.createTempFile(ivyFile.getParentFile().toPath(), ivyFile.getName(),
+                ".tmp");
+            Files.write(tmp, data);
+            try {
+                Files.move(tmp, file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            return true;
+        } catch (IOException e) {
+            Message.verbose("impossible to store parsed module descriptor " + file + ": " + e);
+            if (tmp != null) {
+                tmp.toFile().delete();
+            }
+            return false;
+        }
+    }
+
+    private static final class UnsupportedDescriptorException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        private UnsupportedDescriptorException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Writes the data of a module descriptor, sharing the strings written more than once.
+     */
+    private static final class Output {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+
+        private final DataOutputStream out = new DataOutputStream(bytes);
+
+        private final Map<String, Integer> strings = new HashMap<>();
+
+        private final ParserSettings settings;
+
+        private Output(ParserSettings settings) {
+            this.settings = settings;
+        }
+
+        private byte[] toByteArray() throws IOException {
+            out.flush();
+            return bytes.toByteArray();
+        }
+
+        private void writeModuleDescriptor(ModuleDescriptor md) throws IOException,
+                UnsupportedDescriptorException {
+            if (md.getClass() != DefaultModuleDescriptor.class) {
+                throw new UnsupportedDescriptorException("unsupported descriptor class "
+                        + md.getClass().getName());
+            }
+            DefaultModuleDescriptor dmd = (DefaultModuleDescriptor) md;
+            if (md.getInheritedDescriptors().length > 0) {
+                throw new UnsupportedDescriptorException("extended descriptor");
+            }
+            Artifact metadataArtifact = DefaultArtifact.newIvyArtifact(
+                md.getResolvedModuleRevisionId(), md.getPublicationDate());
+            if (!metadataArtifact.equals(md.getMetadataArtifact())) {
+                throw new UnsupportedDescriptorException("unsupported metadata artifact "
+                        + md.getMetadataArtifact());
+            }
+            writeModuleRevisionId(md.getModuleRevisionId());
+            writeModuleRevisionId(md.getResolvedModuleRevisionId());
+            writeString(md.getStatus());
+            writeDate(md.getPublicationDate());
+            writeDate(md.getResolvedPublicationDate());
+            writeBoolean(md.isDefault());
+            writeLong(md.getLastModified());
+            Namespace namespace = dmd.getNamespace();
+            if (namespace != null && settings.getNamespace(namespace.getName()) != namespace) {
+                throw new UnsupportedDescriptorException("unknown namespace "
+                        + namespace.getName());
+            }
+            writeString(namespace == null ? null : namespace.getName());
+            writeString(dmd.getDefaultConf());
+            writeString(dmd.getDefaultConfMapping());
+            writeBoolean(dmd.isMappingOverride());
+            writeString(md.getDescription());
+            writeString(md.getHomePage());
+            writeSize(md.getLicenses().length);
+            for (License license : md.getLicenses()) {
+                writeString(license.getName());
+                writeString(license.getUrl());
+            }
+            writeMap(md.getExtraAttributesNamespaces());
+            writeExtraInfos(md.getExtraInfos());
+            writeConfigurations(md.getConfigurations());
+            writeArtifacts(md);
+            writeSize(md.getDependencies().length);
+            for (DependencyDescriptor dd : md.getDependencies()) {
+                writeDependency(md, dd);
+            }
+            ExcludeRule[] excludeRules = md.getAllExcludeRules();
+            writeSize(excludeRules.length);
+            checkClasses(excludeRules, DefaultExcludeRule.class);
+            for (ExcludeRule rule : excludeRules) {
+                writeRule(rule);
+            }
+            Map<MapMatcher, ConflictManager> conflictManagers = dmd.getAllConflictManagers()
+                    .getAllRules();
+            writeSize(conflictManagers.size());
+            for (Map.Entry<MapMatcher, ConflictManager> rule : conflictManagers.entrySet()) {
+                writeMapMatcher(rule.getKey());
+                ConflictManager cm = rule.getValue();
+                if (cm.getClass() == FixedConflictManager.class) {
+                    writeBoolean(true);
+                    Collection<String> revs = ((FixedConflictManager) cm).getRevs();
+                    writeStrings(revs.toArray(new String[revs.size()]));
+                } else if (settings.getConflictManager(cm.getName()) == cm) {
+                    writeBoolean(false);
+                    writeString(cm.getName());
+                } else {
+                    throw new UnsupportedDescriptorException("unknown conflict manager "
+                            + cm.getName());
+                }
+            }
+            Map<MapMatcher, DependencyDescriptorMediator> mediators = md
+                    .getAllDependencyDescriptorMediators().getAllRules();
+            writeSize(mediators.size());
+            for (Map.Entry<MapMatcher, DependencyDescriptorMediator> rule : mediators.entrySet()) {
+                if (rule.getValue().getClass() != OverrideDependencyDescriptorMediator.class) {
+                    throw new UnsupportedDescriptorException("unsupported mediator "
+                            + rule.getValue());
+                }
+                OverrideDependencyDescriptorMediator mediator =
+                        (OverrideDependencyDescriptorMediator) rule.getValue();
+                writeMapMatcher(rule.getKey());
+                writeString(mediator.getBranch());
+                writeString(mediator.getVersion());
+            }
+        }
+
+        private void writeExtraInfos(List<ExtraInfoHolder> extraInfos) throws IOException {
+            writeSize(extraInfos.size());
+            for (ExtraInfoHolder extraInfo : extraInfos) {
+                writeString(extraInfo.getName());
+                writeString(extraInfo.getContent());
+                writeMap(extraInfo.getAttributes());
+                writeExtraInfos(extraInfo.getNestedExtraInfoHolder());
+            }
+        }
+
+        private void writeConfigurations(Configuration[] configurations) throws IOException,
+                UnsupportedDescriptorException {
+            writeSize(configurations.length);
+            for (Configuration conf : configurations) {
+                if (conf.getClass() != Configuration.class) {
+                    throw new UnsupportedDescriptorException("unsupported configuration "
+                            + conf.getName());
+                }
+                writeString(conf.getName());
+                writeString(conf.getVisibility().toString());
+                writeString(conf.getDescription());
+                writeStrings(conf.getExtends());
+                writeBoolean(conf.isTransitive());
+                writeString(conf.getDeprecated());
+                writeMap(conf.getQualifiedExtraAttributes());
+                writeModuleRevisionId(conf.getSourceModule());
+            }
+        }
+
+        /**
+         * Writes the artifacts of each configuration. The same artifact may have been added to
+         * several configurations, and equal artifacts to different configurations, so artifacts
+         * are written once each and then referenced by index from the configurations, and are
+         * added back artifact by artifact, as done by the parser.
+         */
+        private void writeArtifacts(ModuleDescriptor md) throws IOException,
+                UnsupportedDescriptorException {
+            Set<String> confNames = new LinkedHashSet<>(Arrays.asList(
+                md.getConfigurationsNames()));
+            Map<Artifact, Integer> indexes = new IdentityHashMap<>();
+            List<Artifact> artifacts = new ArrayList<>();
+            for (Artifact artifact : md.getAllArtifacts()) {
+                indexes.put(artifact, artifacts.size());
+                artifacts.add(artifact);
+            }
+            Set<Artifact> inConfs = Collections.newSetFromMap(new IdentityHashMap<Artifact,
+                    Boolean>());
+            List<int[]> confIndexes = new ArrayList<>();
+            for (String conf : confNames) {
+                Artifact[] confArtifacts = md.getArtifacts(conf);
+                int[] confIndex = new int[confArtifacts.length];
+                for (int i = 0; i < confArtifacts.length; i++) {
+                    Artifact artifact = confArtifacts[i];
+                    Integer index = indexes.get(artifact);
+                    if (index == null) {
+                        index = artifacts.size();
+                        indexes.put(artifact, index);
+                        artifacts.add(artifact);
+                    }
+                    if (i > 0 && index <= confIndex[i - 1]) {
+                        throw new UnsupportedDescriptorException("artifacts out of order in "
+                                + conf);
+                    }
+                    confIndex[i] = index;
+                    inConfs.add(artifact);
+                }
+                confIndexes.add(confIndex);
+            }
+            writeSize(artifacts.size());
+            for (Artifact artifact : artifacts) {
+                if (artifact.getClass() != MDArtifact.class || !inConfs.contains(artifact)
+                        || !confNames.containsAll(Arrays.asList(artifact.getConfigurations()))) {
+                    throw new UnsupportedDescriptorException("unsupported artifact "
+                            + artifact);
+                }
+                writeString(artifact.getName());
+                writeString(artifact.getType());
+                writeString(artifact.getExt());
+                writeUrl(artifact.getUrl());
+                writeMap(artifact.getQualifiedExtraAttributes());
+                writeBoolean(artifact.isMetadata());
+                writeStrings(artifact.getConfigurations());
+            }
+            for (int[] confIndex : confIndexes) {
+                writeSize(confIndex.length);
+                for (int index : confIndex) {
+                    writeSize(index);
+                }
+            }
+        }
+
+        private void writeDependency(ModuleDescriptor md, DependencyDescriptor dd)
+                throws IOException, UnsupportedDescriptorException {
+            if (dd.getClass() != DefaultDependencyDescriptor.class || dd.getNamespace() != null
+                    || !md.getModuleRevisionId().equals(dd.getSourceModule())
+                    || !md.getResolvedModuleRevisionId().equals(dd.getParentRevisionId())) {
+                throw new UnsupportedDescriptorException("unsupported dependency " + dd);
+            }
+            DefaultDependencyDescriptor ddd = (DefaultDependencyDescriptor) dd;
+            writeModuleRevisionId(dd.getDependencyRevisionId());
+            writeModuleRevisionId(dd.getDynamicConstraintDependencyRevisionId());
+            writeBoolean(dd.isForce());
+            writeBoolean(dd.isChanging());
+            writeBoolean(dd.isTransitive());
+            writeSize(dd.getModuleConfigurations().length);
+            for (String conf : dd.getModuleConfigurations()) {
+                writeString(conf);
+                writeStrings(ddd.getMappedDependencyConfigurations(conf));
+            }
+            DependencyArtifactDescriptor[] artifacts = dd.getAllDependencyArtifacts();
+            IncludeRule[] includeRules = dd.getAllIncludeRules();
+            ExcludeRule[] excludeRules = dd.getAllExcludeRules();
+            checkClasses(artifacts, DefaultDependencyArtifactDescriptor.class);
+            checkClasses(includeRules, DefaultIncludeRule.class);
+            checkClasses(excludeRules, DefaultExcludeRule.class);
+            for (String conf : getItemConfigurations(md, artifacts, includeRules,
+                excludeRules)) {
+                checkConfigurationItems(conf, artifacts, dd.getDependencyArtifacts(conf));
+                checkConfigurationItems(conf, includeRules, dd.getIncludeRules(conf));
+                checkConfigurationItems(conf, excludeRules, dd.getExcludeRules(conf));
+            }
+            writeSize(artifacts.length);
+            for (DependencyArtifactDescriptor dad : artifacts) {
+                writeString(dad.getName());
+                writeString(dad.getType());
+                writeString(dad.getExt());
+                writeUrl(dad.getUrl());
+                writeMap(dad.getQualifiedExtraAttributes());
+                writeStrings(dad.getConfigurations());
+            }
+            writeSize(includeRules.length);
+            for (IncludeRule rule : includeRules) {
+                writeRule(rule);
+            }
+            writeSize(excludeRules.length);
+            for (ExcludeRule rule : excludeRules) {
+                writeRule(rule);
+            }
+        }
+
+        private static void checkClasses(Object[] items, Class<?> expectedClass)
+                throws UnsupportedDescriptorException {
+            for (Object item : items) {
+                if (item.getClass() != expectedClass) {
+                    throw new UnsupportedDescriptorException("unsupported " + item);
+                }
+            }
+        }
+
+        private static Set<String> getItemConfigurations(ModuleDescriptor md,
+                Object[]... items) {
+            Set<String> confs = new LinkedHashSet<>(Arrays.asList(md.getConfigurationsNames()));
+            confs.add("*");
+            for (Object[] itemsOfAKind : items) {
+                for (Object item : itemsOfAKind) {
+                    confs.addAll(Arrays.asList(((ConfigurationAware) item).getConfigurations()));
+                }
+            }
+            return confs;
+        }
+
+        /**
+         * Checks that the items of a dependency returned for a configuration are the ones which
+         * are returned once each item is added back to its configurations, in the order of all
+         * the items of the dependency. Equal items hidden by each other are not written, so they
+         * must not change the items of any configuration.
+         */
+        private static void checkConfigurationItems(String conf, Object[] all,
+                Object[] confItems) throws UnsupportedDescriptorException {
+            Set<Object> expected = new LinkedHashSet<>();
+            for (String itemConf : new String[] {conf, "*"}) {
+                for (Object item : all) {
+                    if (Arrays.asList(((ConfigurationAware) item).getConfigurations()).contains(
+                        itemConf)) {
+                        expected.add(item);
+                    }
+                }
+            }
+            boolean same = expected.size() == confItems.length;
+            int i = 0;
+            for (Object item : expected) {
+                same = same && item == confItems[i++];
+            }
+            if (!same) {
+                throw new UnsupportedDescriptorException("hidden dependency items in " + conf);
+            }
+        }
+
+        private void writeRule(Object rule) throws IOException, UnsupportedDescriptorException {
+            ExcludeRule excludeRule = rule instanceof ExcludeRule ? (ExcludeRule) rule : null;
+            IncludeRule includeRule = rule instanceof IncludeRule ? (IncludeRule) rule : null;
+            ArtifactId id = excludeRule == null ? includeRule.getId() : excludeRule.getId();
+            writeString(id.getModuleId().getOrganisation());
+            writeString(id.getModuleId().getName());
+            writeString(id.getName());
+            writeString(id.getType());
+            writeString(id.getExt());
+            writeMatcher(excludeRule == null ? includeRule.getMatcher()
+                    : excludeRule.getMatcher());
+            writeMap(excludeRule == null ? includeRule.getQualifiedExtraAttributes()
+                    : excludeRule.getQualifiedExtraAttributes());
+            writeStrings(((ConfigurationAware) rule).getConfigurations());
+        }
+
+        private void writeMapMatcher(MapMatcher matcher) throws IOException,
+                UnsupportedDescriptorException {
+            Map<String, String> attributes = matcher.getAttributes();
+            ModuleId mid = new ModuleId(attributes.get("organisation"),
+                    attributes.get("module"));
+            if (!mid.getAttributes().equals(attributes)) {
+                throw new UnsupportedDescriptorException("unsupported module rule " + matcher);
+            }
+            writeString(mid.getOrganisation());
+            writeString(mid.getName());
+            writeMatcher(matcher.getPatternMatcher());
+        }
+
+        private void writeMatcher(PatternMatcher matcher) throws IOException,
+                UnsupportedDescriptorException {
+            if (settings.getMatcher(matcher.getName()) != matcher) {
+                throw new UnsupportedDescriptorException("unknown matcher " + matcher.getName());
+            }
+            writeString(matcher.getName());
+        }
+
+        private void writeModuleRevisionId(ModuleRevisionId mrid) throws IOException {
+            writeBoolean(mrid != null);
+            if (mrid != null) {
+                writeString(mrid.getOrganisation());
+                writeString(mrid.getName());
+                writeString(mrid.getBranch());
+                writeString(mrid.getRevision());
+                writeMap(mrid.getQualifiedExtraAttributes());
+            }
+        }
+
+        private void writeDate(Date date) throws IOException {
+            writeBoolean(date != null);
+            if (date != null) {
+                writeLong(date.getTime());
+            }
+        }
+
+        private void writeUrl(URL url) throws IOException {
+            writeString(url == null ? null : url.toExternalForm());
+        }
+
+        private void writeStrings(String[] values) throws IOException {
+            writeSize(values.length);
+            for (String value : values) {
+                writeString(value);
+            }
+        }
+
+        private void writeMap(Map<String, String> map) throws IOException {
+            writeSize(map.size());
+            for (Map.Entry<String, String> entry : map.entrySet()) {
+                writeString(entry.getKey());
+                writeString(entry.getValue());
+            }
+        }
+
+        /**
+         * Writes 0 for null, 1 followed by the string the first time a string is written, and
+         * the index of the string plus 2 afterwards.
+         */
+        private void writeString(String value) throws IOException {
+            if (value == null) {
+                writeSize(0);
+                return;
+            }
+            Integer index = strings.get(value);
+            if (index != null) {
+                writeSize(index + 2);
+                return;
+            }
+            strings.put(value, strings.size());
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            writeSize(1);
+            writeSize(utf8.length);
+            out.write(utf8);
+        }
+
+        /**
+         * Writes a positive int in as few bytes as possible, 7 bits per byte.
+         */
+        private void writeSize(int size) throws IOException {
+            while ((size & ~0x7F) != 0) {
+                out.write(size & 0x7F | 0x80);
+                size >>>= 7;
+            }
+            out.write(size);
+        }
+
+        private void writeBoolean(boolean value) throws IOException {
+            out.writeBoolean(value);
+        }
+
+        private void writeInt(int value) throws IOException {
+            out.writeInt(value);
+        }
+
+        private void writeLong(long value) throws IOException {
+            out.writeLong(value);
+        }
+    }
+
+    /**
+     * Reads the data written by {@link Output}.
+     */
+    private static final class Input {
+        private final DataInputStream in;
+
+        private final List<String> strings = new ArrayList<>();
+
+        private Input(byte[] data) {
+            in = new DataInputStream(new ByteArrayInputStream(data));
+        }
+
+        private void readModuleDescriptor(DefaultModuleDescriptor md, ParserSettings settings)
+                throws IOException {
+            md.setModuleRevisionId(readModuleRevisionId());
+            md.setResolvedModuleRevisionId(readModuleRevisionId());
+            md.setStatus(readString());
+            md.setPublicationDate(readDate());
+            md.setResolvedPublicationDate(readDate());
+            md.setDefault(readBoolean());
+            md.setLastModified(readLong());
+            String namespace = readString();
+            if (namespace != null) {
+                Namespace ns = settings.getNamespace(namespace);
+                if (ns == null) {
+                    throw new IOException("unknown namespace " + namespace);
+                }
+                md.setNamespace(ns);
+            }
+            md.setDefaultConf(readString());
+            md.setDefaultConfMapping(readString());
+            md.setMappingOverride(readBoolean());
+            md.setDescription(readString());
+            md.setHomePage(readString());
+            for (int i = readSize(); i > 0; i--) {
+                md.addLicense(new License(readString(), readString()));
+            }
+            for (Map.Entry<String, String> ns : readMap().entrySet()) {
+                md.addExtraAttributeNamespace(ns.getKey(), ns.getValue());
+            }
+            md.getExtraInfos().addAll(readExtraInfos());
+            for (int i = readSize(); i > 0; i--) {
+                md.addConfiguration(readConfiguration());
+            }
+            readArtifacts(md);
+            for (int i = readSize(); i > 0; i--) {
+                md.addDependency(readDependency(md, settings));
+            }
+            for (int i = readSize(); i > 0; i--) {
+                md.addExcludeRule((ExcludeRule) readRule(settings, false));
+            }
+            for (int i = readSize(); i > 0; i--) {
+                ModuleId mid = readModuleId();
+                PatternMatcher matcher = readMatcher(settings);
+                ConflictManager cm;
+                if (readBoolean()) {
+                    cm = new FixedConflictManager(readStrings());
+                } else {
+                    String name = readString();
+                    cm = settings.getConflictManager(name);
+                    if (cm == null) {
+                        throw new IOException("unknown conflict manager " + name);
+                    }
+                }
+                md.addConflictManager(mid, matcher, cm);
+            }
+            for (int i = readSize(); i > 0; i--) {
+                ModuleId mid = readModuleId();
+                PatternMatcher matcher = readMatcher(settings);
+                md.addDependencyDescriptorMediator(mid, matcher,
+                    new OverrideDependencyDescriptorMediator(readString(), readString()));
+            }
+            md.setModuleArtifact(DefaultArtifact.newIvyArtifact(
+                md.getResolvedModuleRevisionId(), md.getPublicationDate()));
+        }
+
+        private List<ExtraInfoHolder> readExtraInfos() throws IOException {
+            int size = readSize();
+            List<ExtraInfoHolder> extraInfos = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                ExtraInfoHolder extraInfo = new ExtraInfoHolder(readString(), readString());
+                extraInfo.setAttributes(readMap());
+                extraInfo.setNestedExtraInfoHolder(readExtraInfos());
+                extraInfos.add(extraInfo);
+            }
+            return extraInfos;
+        }
+
+        private Configuration readConfiguration() throws IOException {
+            Configuration conf = new Configuration(readString(),
+                    Visibility.getVisibility(readString()), readString(), readStrings(),
+                    readBoolean(), readString());
+            for (Map.Entry<String, String> extra : readMap().entrySet()) {
+                conf.setExtraAttribute(extra.getKey(), extra.getValue());
+            }
+            ModuleRevisionId sourceModule = readModuleRevisionId();
+            return sourceModule == null ? conf : new Configuration(conf, sourceModule);
+        }
+
+        private void readArtifacts(DefaultModuleDescriptor md) throws IOException {
+            MDArtifact[] artifacts = new MDArtifact[readSize()];
+            for (int i = 0; i < artifacts.length; i++) {
+                String name = readString();
+                String type = readString();
+                String ext = readString();
+                URL url = readUrl();
+                Map<String, String> extraAttributes = readMap();
+                artifacts[i] = readBoolean() ? new MDArtifact(md, name, type, ext, true)
+                        : new MDArtifact(md, name, type, ext, url, extraAttributes);
+                for (String conf : readStrings()) {
+                    artifacts[i].addConfiguration(conf);
+                }
+            }
+            List<List<String>> artifactConfs = new ArrayList<>(artifacts.length);
+            for (int i = 0; i < artifacts.length; i++) {
+                artifactConfs.add(new ArrayList<String>());
+            }
+            for (String conf : md.getConfigurationsNames()) {
+                for (int i = readSize(); i > 0; i--) {
+                    artifactConfs.get(readSize()).add(conf);
+                }
+            }
+            for (int i = 0; i < artifacts.length; i++) {
+                for (String conf : artifactConfs.get(i)) {
+                    md.addArtifact(conf, artifacts[i]);
+                }
+            }
+        }
+
+        private DependencyDescriptor readDependency(DefaultModuleDescriptor md,
+                ParserSettings settings) throws IOException {
+            DefaultDependencyDescriptor dd = new DefaultDependencyDescriptor(md,
+                    readModuleRevisionId(), readModuleRevisionId(), readBoolean(), readBoolean(),
+                    readBoolean());
+            for (int i = readSize(); i > 0; i--) {
+                String conf = readString();
+                for (String depConf : readStrings()) {
+                    dd.addDependencyConfiguration(conf, depConf);
+                }
+            }
+            for (int i = readSize(); i > 0; i--) {
+                DefaultDependencyArtifactDescriptor dad = new DefaultDependencyArtifactDescriptor(
+                        dd, readString(), readString(), readString(), readUrl(), readMap());
+                for (String conf : readStrings()) {
+                    dad.addConfiguration(conf);
+                    dd.addDependencyArtifact(conf, dad);
+                }
+            }
+            for (int i = readSize(); i > 0; i--) {
+                IncludeRule rule = (IncludeRule) readRule(settings, true);
+                for (String conf : rule.getConfigurations()) {
+                    dd.addIncludeRule(conf, rule);
+                }
+            }
+            for (int i = readSize(); i > 0; i--) {
+                ExcludeRule rule = (ExcludeRule) readRule(settings, false);
+                for (String conf : rule.getConfigurations()) {
+                    dd.addExcludeRule(conf, rule);
+                }
+            }
+            return dd;
+        }
+
+        private ConfigurationAware readRule(ParserSettings settings, boolean include)
+                throws IOException {
+            ArtifactId aid = new ArtifactId(new ModuleId(readString(), readString()),
+                    readString(), readString(), readString());
+            PatternMatcher matcher = readMatcher(settings);
+            Map<String, String> extraAttributes = readMap();
+            ConfigurationAware rule = include ? new DefaultIncludeRule(aid, matcher,
+                    extraAttributes) : new DefaultExcludeRule(aid, matcher, extraAttributes);
+            for (String conf : readStrings()) {
+                rule.addConfiguration(conf);
+            }
+            return rule;
+        }
+
+        private ModuleId readModuleId() throws IOException {
+            return new ModuleId(readString(), readString());
+        }
+
+        private PatternMatcher readMatcher(ParserSettings settings) throws IOException {
+            String name = readString();
+            PatternMatcher matcher = settings.getMatcher(name);
+            if (matcher == null) {
+                throw new IOException("unknown matcher " + name);
+            }
+            return matcher;
+        }
+
+        private ModuleRevisionId readModuleRevisionId() throws IOException {
+            if (!readBoolean()) {
+                return null;
+            }
+            return ModuleRevisionId.newInstance(readString(), readString(), readString(),
+                readString(), readMap());
+        }
+
+        private Date readDate() throws IOException {
+            return readBoolean() ? new Date(readLong()) : null;
+        }
+
+        private URL readUrl() throws IOException {
+            String url = readString();
+            return url == null ? null : new URL(url);
+        }
+
+        private String[] readStrings() throws IOException {
+            int size = readSize();
+            if (size == 0) {
+                return NO_STRINGS;
+            }
+            String[] values = new String[size];
+            for (int i = 0; i < size; i++) {
+                values[i] = readString();
+            }
+            return values;
+        }
+
+        private Map<String, String> readMap() throws IOException {
+            int size = readSize();
+            Map<String, String> map = new LinkedHashMap<>(size * 2);
+            for (int i = 0; i < size; i++) {
+                map.put(readString(), readString());
+            }
+            return map;
+        }
+
+        private String readString() throws IOException {
+            int index = readSize();
+            if (index == 0) {
+                return null;
+            }
+            if (index > 1) {
+                return strings.get(index - 2);
+            }
+            byte[] utf8 = new byte[readSize()];
+            in.readFully(utf8);
+            String value = new String(utf8, StandardCharsets.UTF_8);
+            strings.add(value);
+            return value;
+        }
+
+        private int readSize() throws IOException {
+            int size = 0;
+            for (int shift = 0; shift < 32; shift += 7) {
+                int b = in.readUnsignedByte();
+                size |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return size;
+                }
+            }
+            throw new IOException("malformed size");
+        }
+
+        private boolean readBoolean() throws IOException {
+            return in.readBoolean();
+        }
+
+        private int readInt() throws IOException {
+            return in.readInt();
+        }
+
+        private long readLong() throws IOException {
+            return in.readLong();
+        }
+    }
+}
@@ -0,0 +1,536 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.core.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.ivy.util.Message;
+import org.apache.ivy.util.PropertiesFile;
+
+/**
+ * A cache wide index of the data stored in the ivydata properties files of a repository cache.
+ * <p>
+ * The index is an append only log of records, each one holding all the properties of a data file,
+ * keyed by the path of the data file relative to the cache root. It is read once, and then only
+ * the records appended since the last read, by this process or by others, are read. The log is
+ * compacted when it holds too many outdated records. Appends and compaction are done with a lock
+ * on a separate lock file, so that the index can be shared by several processes.
+ * </p>
+ * <p>
+ * The log starts with a header holding a generation number, which changes each time the log is
+ * compacted. Readers check it before and after reading new records, so that they read the whole
+ * log again rather than records from another generation when another process has compacted it.
+ * Lookups only take a lock when the index file has changed since it was last read.
+ * </p>
+ * <p>
+ * Data files which are not in the index yet are imported from their properties file the first
+ * time they are read, so that existing caches can start using the index transparently.
+ * </p>
+ * <p>
+ * The same format is used for other cache wide data, such as the resources known to be missing,
+ * each kind of data being stored in its own index file. Data holding an {@link #EXPIRES_KEY}
+ * property is dropped when the log is compacted after this time, and the log is compacted at most
+ * once per hour for this purpose once it holds enough records.
+ * </p>
+ */
+final class CacheDataIndex {
+    static final String INDEX_FILE_NAME = "ivydata.index";
+
+    /**
+     * The property holding the time, in milliseconds since the epoch, after which data can be
+     * dropped from the index.
+     */
+    static final String EXPIRES_KEY = "expires";
+
+    private static final int MIN_RECORDS_TO_COMPACT = 1000;
+
+    private static final long EXPIRED_COMPACTION_INTERVAL = 60 * 60 * 1000L;
+
+    private static final int MAGIC = 0x49564458;
+
+    private static final int HEADER_LENGTH = 12;
+
+    /**
+     * The generation of a log which has no valid header.
+     */
+    private static final long NO_GENERATION = 0;
+
+    /**
+     * Indexes must be shared to the entire process, so that only one lock on the index is
+     * requested at a time by this process.
+     */
+    private static final ConcurrentMap<File, CacheDataIndex> INDEXES = new ConcurrentHashMap<>();
+
+    private final File file;
+
+    private final File lockFile;
+
+    /**
+     * The data read from the log. It is replaced when the log is read again from its beginning,
+     * and records are only applied to it while holding the lock of this object, so that lookups
+     * can read it at any time.
+     */
+    private volatile ConcurrentMap<String, Map<String, String>> entries = new ConcurrentHashMap<>();
+
+    /**
+     * The size and last modification time of the log when it was last read, -1 if it didn't exist.
+     */
+    private volatile long readSize = -1;
+
+    private volatile long readLastModified;
+
+    /**
+     * Whether the log has been read at least once, so that {@link #entries} reflects it.
+     */
+    private volatile boolean read;
+
+    private long generation = NO_GENERATION;
+
+    private long offset;
+
+    private int records;
+
+    private long earliestExpiration = Long.MAX_VALUE;
+
+    private long lastCompaction;
+
+    CacheDataIndex(File file) {
+        this.file = file;
+        this.lockFile = new File(file.getPath() + ".lock");
+    }
+
+    static CacheDataIndex getInstance(File cacheRoot) {
+        return getInstance(cacheRoot, INDEX_FILE_NAME);
+    }
+
+    static CacheDataIndex getInstance(File cacheRoot, String fileName) {
+        File file = new File(cacheRoot, fileName).toPath().toAbsolutePath().normalize().toFile();
+        CacheDataIndex index = INDEXES.get(file);
+        if (index == null) {
+            CacheDataIndex newIndex = new CacheDataIndex(file);
+            index = INDEXES.putIfAbsent(file, newIndex);
+            if (index == null) {
+                index = newIndex;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Returns the data stored under the given key, importing it from the given properties file if
+     * it is not in the index yet.
+     *
+     * @param key
+     *            the path of the data file relative to the cache root
+     * @param dataFile
+     *            the data file
+     * @param header
+     *            the header of the data file
+     * @return the data, saved in this index when {@link PropertiesFile#save()} is called
+     */
+    PropertiesFile open(String key, File dataFile, String header) {
+        Map<String, String> data = get(key);
+        IndexedPropertiesFile indexed = new IndexedPropertiesFile(this, key, header);
+        if (data != null) {
+            indexed.putAll(data);
+        } else if (dataFile.exists()) {
+            Message.debug("importing " + dataFile + " in " + file);
+            indexed.putAll(new PropertiesFile(dataFile, header));
+            indexed.save();
+        }
+        return indexed;
+    }
+
+    Map<String, String> get(String key) {
+        if (!isUpToDate()) {
+            synchronized (this) {
+                refreshQuietly();
+            }
+        }
+        Map<String, String> data = entries.get(key);
+        return data == null ? null : new HashMap<>(data);
+    }
+
+    synchronized void put(String key, Map<String, String> data) {
+        append(key, data);
+    }
+
+    /**
+     * Removes the data stored under the given key, if any. A key which wasn't in the index when
+     * it was last read is not looked up again, so that removing an absent key doesn't lock.
+     *
+     * @param key
+     *            the key of the data to remove
+     */
+    void remove(String key) {
+        if (read && !entries.containsKey(key)) {
+            // not there when last read, which lookups usually did just before
+            return;
+        }
+        synchronized (this) {
+            refreshQuietly();
+            if (entries.containsKey(key)) {
+                append(key, null);
+            }
+        }
+    }
+
+    /**
+     * Tells whether the log hasn't changed since it was last read.
+     */
+    private boolean isUpToDate() {
+        BasicFileAttributes attributes = readAttributes();
+        if (attributes == null) {
+            return readSize == -1;
+        }
+        return attributes.size() == readSize
+                && attributes.lastModifiedTime().toMillis() == readLastModified;
+    }
+
+    private BasicFileAttributes readAttributes() {
+        try {
+            return Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh(false);
+        } catch (IOException e) {
+            Message.warn("exception occurred while reading cache data index " + file, e);
+        }
+    }
+
+    /**
+     * Appends a record to the index, a <code>null</code> data meaning that the key is removed.
+     */
+    private void append(String key, Map<String, String> data) {
+        if (!file.getParentFile().exists()) {
+            file.getParentFile().mkdirs();
+        }
+        try (RandomAccessFile lock = new RandomAccessFile(lockFile, "rw")) {
+            FileLock l = lock.getChannel().lock();
+            try {
+                refresh(true);
+                if (generation == NO_GENERATION) {
+                    // new log, or log in an unknown format which can't be appended to
+                    replace(new ByteArrayOutputStream());
+                }
+                try (FileOutputStream out = new FileOutputStream(file, true)) {
+                    // a single write, so that concurrent readers see either nothing or the full
+                    // record
+                    out.write(toRecord(key, data));
+                }
+                refresh(true);
+                if (records > Math.max(MIN_RECORDS_TO_COMPACT, 2 * entries.size())
+                        || (records >= MIN_RECORDS_TO_COMPACT && hasExpired())) {
+                    compact();
+                }
+            } finally {
+                l.release();
+            }
+        } catch (IOException e) {
+            Message.warn("exception occurred while writing cache data index " + file, e);
+        }
+    }
+
+    /**
+     * Reads the records appended to the index since the last read, or the whole index if it has
+     * been compacted meanwhile.
+     *
+     * @param locked
+     *            true if the lock file is held by the caller
+     */
+    private void refresh(boolean locked) throws IOException {
+        while (true) {
+            BasicFileAttributes attributes = readAttributes();
+            if (attributes == null) {
+                reset(NO_GENERATION);
+                entries = new ConcurrentHashMap<>();
+                readSize = -1;
+                read = true;
+                return;
+            }
+            long size = attributes.size();
+            long lastModified = attributes.lastModifiedTime().toMillis();
+            if (size == readSize && lastModified == readLastModified) {
+                return;
+            }
+            byte[] bytes;
+            long gen;
+            try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+                gen = readGeneration(raf);
+                if (gen == NO_GENERATION && !locked) {
+                    // the log is being created or compacted in place by another process
+                    refreshLocked();
+                    return;
+                }
+                bytes = gen == NO_GENERATION ? new byte[0]
+                        : readRecords(raf, gen == generation ? offset : HEADER_LENGTH, size, gen);
+            } catch (NoSuchFileException e) {
+                // replaced meanwhile
+                continue;
+            }
+            if (bytes == null) {
+                // compacted meanwhile
+                continue;
+            }
+            ConcurrentMap<String, Map<String, String>> target = entries;
+            if (gen != generation) {
+                // published once filled, so that lookups never see a partially read log
+                reset(gen);
+                target = new ConcurrentHashMap<>();
+            }
+            offset += apply(bytes, target);
+            entries = target;
+            readSize = size;
+            readLastModified = lastModified;
+            read = true;
+            return;
+        }
+    }
+
+    private void refreshLocked() throws IOException {
+        if (!file.getParentFile().exists()) {
+            file.getParentFile().mkdirs();
+        }
+        try (RandomAccessFile lock = new RandomAccessFile(lockFile, "rw")) {
+            FileLock l = lock.getChannel().lock();
+            try {
+                refresh(true);
+            } finally {
+                l.release();
+            }
+        }
+    }
+
+    /**
+     * Returns the generation of the log, or {@link #NO_GENERATION} if it has no valid header.
+     */
+    private static long readGeneration(RandomAccessFile raf) throws IOException {
+        if (raf.length() < HEADER_LENGTH) {
+            return NO_GENERATION;
+        }
+        raf.seek(0);
+        if (raf.readInt() != MAGIC) {
+            return NO_GENERATION;
+        }
+        return raf.readLong();
+    }
+
+    /**
+     * Reads the log from the given offset up to the given size.
+     *
+     * @return the bytes read, or <code>null</code> if the log is not of the given generation
+     *         anymore once read
+     */
+    private static byte[] readRecords(RandomAccessFile raf, long from, long size, long gen)
+            throws IOException {
+        byte[] bytes = new byte[(int) Math.max(0, size - from)];
+        try {
+            raf.seek(from);
+            raf.readFully(bytes);
+        } catch (EOFException e) {
+            return null;
+        }
+        return readGeneration(raf) == gen ? bytes : null;
+    }
+
+    /**
+     * Applies the complete records found in the given bytes to the given entries.
+     *
+     * @return the number of bytes of the complete records
+     */
+    private int apply(byte[] bytes, Map<String, Map<String, String>> target) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        int position = 0;
+        while (bytes.length - position >= 4) {
+            int length = in.readInt();
+            if (bytes.length - position - 4 < length) {
+                // record being written by another process
+                break;
+            }
+            String key = in.readUTF();
+            int count = in.readInt();
+            if (count < 0) {
+                target.remove(key);
+            } else {
+                Map<String, String> data = new HashMap<>();
+                for (int i = 0; i < count; i++) {
+                    data.put(in.readUTF(), in.readUTF());
+                }
+                target.put(key, data);
+                earliestExpiration = Math.min(earliestExpiration, getExpiration(data));
+            }
+            position += 4 + length;
+            records++;
+        }
+        return position;
+    }
+
+    /**
+     * Tells whether some data may have expired, and hasn't been dropped by a compaction made in
+     * the last hour.
+     */
+    private boolean hasExpired() {
+        long now = System.currentTimeMillis();
+        return now > earliestExpiration && now - lastCompaction > EXPIRED_COMPACTION_INTERVAL;
+    }
+
+    private static long getExpiration(Map<String, String> data) {
+        String expires = data.get(EXPIRES_KEY);
+        if (expires == null) {
+            return Long.MAX_VALUE;
+        }
+        try {
+            return Long.parseLong(expires);
+        } catch (NumberFormatException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private void compact() throws IOException {
+        long now = System.currentTimeMillis();
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        for (Map.Entry<String, Map<String, String>> entry : entries.entrySet()) {
+            if (getExpiration(entry.getValue()) >= now) {
+                content.write(toRecord(entry.getKey(), entry.getValue()));
+            }
+        }
+        lastCompaction = now;
+        int before = records;
+        replace(content);
+        Message.verbose("compacted cache data index " + file + ": " + before + " records to "
+                + entries.size());
+    }
+
+    /**
+     * Replaces the log by a log of a new generation holding the given records, and reads it.
+     * Must be called with the lock file held.
+     */
+    private void replace(ByteArrayOutputStream records) throws IOException {
+        long gen;
+        do {
+            gen = ThreadLocalRandom.current().nextLong();
+        } while (gen == NO_GENERATION);
+        ByteArrayOutputStream content = new ByteArrayOutputStream(HEADER_LENGTH + records.size());
+        DataOutputStream out = new DataOutputStream(content);
+        out.writeInt(MAGIC);
+        out.writeLong(gen);
+        records.writeTo(out);
+        out.flush();
+
+        File tmp = new File(file.getPath() + ".tmp");
+        try (FileOutputStream tmpOut = new FileOutputStream(tmp)) {
+            content.writeTo(tmpOut);
+        }
+        try {
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // the index can't be replaced while others have it open on some systems: it is then
+            // rewritten in place, readers waiting for the lock while it has no valid header
+            Message.debug("rewriting cache data index " + file + " in place: " + e);
+            tmp.delete();
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                raf.setLength(0);
+                raf.write(content.toByteArray());
+            }
+        }
+        // forces the new log to be read, whatever its size and modification time
+        readSize = -1;
+        refresh(true);
+    }
+
+    /**
+     * Forgets the records read so far, before reading a log of the given generation.
+     */
+    private void reset(long gen) {
+        generation = gen;
+        offset = HEADER_LENGTH;
+        records = 0;
+        earliestExpiration = Long.MAX_VALUE;
+    }
+
+    private static byte[] toRecord(String key, Map<String, String> data) throws IOException {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(payload);
+        out.writeUTF(key);
+        if (data == null) {
+            out.writeInt(-1);
+        } else {
+            out.writeInt(data.size());
+            for (Map.Entry<String, String> entry : data.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeUTF(entry.getValue());
+            }
+        }
+        out.flush();
+        ByteArrayOutputStream record = new ByteArrayOutputStream(payload.size() + 4);
+        DataOutputStream recordOut = new DataOutputStream(record);
+        recordOut.writeInt(payload.size());
+        payload.writeTo(recordOut);
+        recordOut.flush();
+        return record.toByteArray();
+    }
+
+    /**
+     * Data of an ivydata file kept in the index rather than in a properties file.
+     */
+    @SuppressWarnings("serial")
+    private static final class IndexedPropertiesFile extends PropertiesFile {
+        private final transient CacheDataIndex index;
+
+        private final String key;
+
+        IndexedPropertiesFile(CacheDataIndex index, String key, String header) {
+            super(header);
+            this.index = index;
+            this.key = key;
+        }
+
+        @Override
+        public void save() {
+            Map<String, String> data = new HashMap<>();
+            for (String name : stringPropertyNames()) {
+                data.put(name, getProperty(name));
+            }
+            index.put(key, data);
+        }
+    }
+}
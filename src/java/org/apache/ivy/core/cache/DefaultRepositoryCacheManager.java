@@ -17,29 +17,40 @@
  */
 package org.apache.ivy.core.cache;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Properties;
 import java.util.Set;
 import java.util.regex.Pattern;
 
 import org.apache.ivy.Ivy;
 import org.apache.ivy.core.IvyPatternHelper;
+import org.apache.ivy.core.metrics.IvyMetrics;
 import org.apache.ivy.core.module.descriptor.Artifact;
 import org.apache.ivy.core.module.descriptor.DefaultArtifact;
 import org.apache.ivy.core.module.descriptor.DependencyDescriptor;
@@ -53,6 +64,7 @@ import org.apache.ivy.core.report.DownloadStatus;
 import org.apache.ivy.core.report.MetadataArtifactDownloadReport;
 import org.apache.ivy.core.resolve.ResolvedModuleRevision;
 import org.apache.ivy.core.settings.IvySettings;
+import org.apache.ivy.core.settings.TimeoutConstraint;
 import org.apache.ivy.plugins.IvySettingsAware;
 import org.apache.ivy.plugins.lock.LockStrategy;
 import org.apache.ivy.plugins.matcher.ExactPatternMatcher;
@@ -79,6 +91,9 @@ import org.apache.ivy.util.FileUtil;
 import org.apache.ivy.util.HexEncoder;
 import org.apache.ivy.util.Message;
 import org.apache.ivy.util.PropertiesFile;
+import org.apache.ivy.util.url.ApacheURLLister;
+import org.apache.ivy.util.url.ConditionalURLHandler;
+import org.apache.ivy.util.url.URLHandlerRegistry;
 
 import static org.apache.ivy.util.StringUtils.isNullOrEmpty;
 
@@ -91,6 +106,14 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
 
     private static final int DEFAULT_MEMORY_CACHE_SIZE = 150;
 
+    private static final String MISSING_INDEX_FILE_NAME = "missing.index";
+
+    private static final String LISTINGS_DIR_NAME = ".listings";
+
+    private static final String RESOURCES_DIR_NAME = ".resources";
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+
     private static MessageDigest SHA_DIGEST;
     static {
         try {
@@ -124,16 +147,36 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
 
     private Boolean useOrigin;
 
+    private boolean useDataIndex;
+
+    private boolean binaryDescriptors;
+
     private ModuleRules<Long> ttlRules = new ModuleRules<>();
 
     private Long defaultTTL = null;
 
-    private ModuleDescriptorMemoryCache memoryModuleDescrCache;
+    private ModuleRules<Long> missingTtlRules = new ModuleRules<>();
+
+    private Long defaultMissingTTL = null;
+
+    /**
+     * Created lazily from the memory settings, and discarded when they change: it is looked up for
+     * every module descriptor, so that lookups don't take the lock of this manager.
+     */
+    private volatile ModuleDescriptorMemoryCache memoryModuleDescrCache;
+
+    private int memorySize = DEFAULT_MEMORY_CACHE_SIZE;
+
+    private long memoryMaxWeight = 0;
+
+    private long memoryCheckInterval = 0;
 
     private PackagingManager packagingManager = new PackagingManager();
 
     private final List<ConfiguredTTL> configuredTTLs = new ArrayList<>();
 
+    private final List<ConfiguredTTL> configuredMissingTTLs = new ArrayList<>();
+
     public DefaultRepositoryCacheManager() {
     }
 
@@ -159,6 +202,11 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
         // clear off the configured TTLs since we have now processed them and created TTL rules
         // out of them
         this.configuredTTLs.clear();
+        for (final ConfiguredTTL configuredTTL : configuredMissingTTLs) {
+            this.addMissingTTL(configuredTTL.attributes,
+                    configuredTTL.matcher == null ? ExactPatternMatcher.INSTANCE : settings.getMatcher(configuredTTL.matcher), configuredTTL.duration);
+        }
+        this.configuredMissingTTLs.clear();
     }
 
     public File getIvyFileInCache(ModuleRevisionId mrid) {
@@ -222,6 +270,21 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
         this.defaultTTL = parseDuration(defaultTTL);
     }
 
+    public long getDefaultMissingTTL() {
+        if (defaultMissingTTL == null) {
+            defaultMissingTTL = parseDuration(settings.getVariable("ivy.cache.missing.ttl.default"));
+        }
+        return defaultMissingTTL;
+    }
+
+    public void setDefaultMissingTTL(long defaultMissingTTL) {
+        this.defaultMissingTTL = defaultMissingTTL;
+    }
+
+    public void setDefaultMissingTTL(String defaultMissingTTL) {
+        this.defaultMissingTTL = parseDuration(defaultMissingTTL);
+    }
+
     public String getDataFilePattern() {
         return dataFilePattern;
     }
@@ -277,15 +340,68 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
         this.configuredTTLs.add(configuredTTL);
     }
 
-    public void setMemorySize(int size) {
-        memoryModuleDescrCache = new ModuleDescriptorMemoryCache(size);
+    public void addMissingTTL(Map<String, String> attributes, PatternMatcher matcher,
+            long duration) {
+        missingTtlRules.defineRule(new MapMatcher(attributes, matcher), duration);
+    }
+
+    public void addConfiguredMissingTtl(final Map<String, String> attributes) {
+        final String durationValue = attributes.get("duration");
+        if (durationValue == null) {
+            throw new IllegalArgumentException("'duration' attribute is mandatory for missingTtl");
+        }
+        // processed when the settings are set, as for ttl
+        this.configuredMissingTTLs.add(new ConfiguredTTL(parseDuration(durationValue),
+                attributes.get("matcher"), attributes));
+    }
+
+    public synchronized void setMemorySize(int size) {
+        memorySize = size;
+        memoryModuleDescrCache = null;
+    }
+
+    /**
+     * Sets the maximum cumulated size in bytes of the module descriptor files whose parsed module
+     * descriptors are kept in the memory cache.
+     *
+     * @param maxWeight
+     *            the maximum size, 0 or less for no limit
+     */
+    public synchronized void setMemoryMaxWeight(long maxWeight) {
+        memoryMaxWeight = maxWeight;
+        memoryModuleDescrCache = null;
+    }
+
+    /**
+     * Sets the minimum time between two checks of the last modification date of a module
+     * descriptor file kept in the memory cache.
+     *
+     * @param checkInterval
+     *            a duration, as accepted for TTLs
+     */
+    public synchronized void setMemoryCheckInterval(String checkInterval) {
+        memoryCheckInterval = parseDuration(checkInterval);
+        memoryModuleDescrCache = null;
+    }
+
+    public synchronized void setMemoryCheckInterval(long checkInterval) {
+        memoryCheckInterval = checkInterval;
+        memoryModuleDescrCache = null;
     }
 
     public ModuleDescriptorMemoryCache getMemoryCache() {
-        if (memoryModuleDescrCache == null) {
-            memoryModuleDescrCache = new ModuleDescriptorMemoryCache(DEFAULT_MEMORY_CACHE_SIZE);
+        ModuleDescriptorMemoryCache cache = memoryModuleDescrCache;
+        if (cache == null) {
+            synchronized (this) {
+                cache = memoryModuleDescrCache;
+                if (cache == null) {
+                    cache = new ModuleDescriptorMemoryCache(memorySize, memoryMaxWeight,
+                            memoryCheckInterval);
+                    memoryModuleDescrCache = cache;
+                }
+            }
         }
-        return memoryModuleDescrCache;
+        return cache;
     }
 
     private static final Pattern DURATION_PATTERN = Pattern
@@ -362,6 +478,38 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
         useOrigin = b;
     }
 
+    public boolean isUseDataIndex() {
+        return useDataIndex;
+    }
+
+    /**
+     * Sets whether the data usually stored in ivydata properties files should be stored in a
+     * single index file at the root of the cache. Existing ivydata files are imported in the index
+     * when they are first read.
+     *
+     * @param b
+     *            true to use the index
+     */
+    public void setUseDataIndex(boolean b) {
+        useDataIndex = b;
+    }
+
+    public boolean isBinaryDescriptors() {
+        return binaryDescriptors;
+    }
+
+    /**
+     * Sets whether the module descriptors parsed from the Ivy files of the cache should also be
+     * stored in a binary form next to them, so that they can be loaded without parsing the Ivy
+     * files again.
+     *
+     * @param b
+     *            true to store and use binary module descriptors
+     */
+    public void setBinaryDescriptors(boolean b) {
+        binaryDescriptors = b;
+    }
+
     /**
      * Returns a File object pointing to where the artifact can be found on the local file system.
      * This is usually in the cache, but it can be directly in the repository if it is local and if
@@ -683,10 +831,8 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
     }
 
     private PropertiesFile getCachedDataFile(ModuleRevisionId mRevId) {
-        File file = new File(getRepositoryCacheRoot(), IvyPatternHelper.substitute(
-            getDataFilePattern(), mRevId));
-        assertInsideCache(file);
-        return new PropertiesFile(file, "ivy cached data file for " + mRevId);
+        return newCachedDataFile(IvyPatternHelper.substitute(getDataFilePattern(), mRevId),
+            mRevId);
     }
 
     /**
@@ -695,10 +841,18 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
      */
     private PropertiesFile getCachedDataFile(String resolverName, ModuleRevisionId mRevId) {
         // we append ".${resolverName} onto the end of the regular ivydata location
-        File file = new File(getRepositoryCacheRoot(),
-            IvyPatternHelper.substitute(getDataFilePattern(), mRevId) + "." + resolverName);
+        return newCachedDataFile(
+            IvyPatternHelper.substitute(getDataFilePattern(), mRevId) + "." + resolverName, mRevId);
+    }
+
+    private PropertiesFile newCachedDataFile(String path, ModuleRevisionId mRevId) {
+        File file = new File(getRepositoryCacheRoot(), path);
         assertInsideCache(file);
-        return new PropertiesFile(file, "ivy cached data file for " + mRevId);
+        String header = "ivy cached data file for " + mRevId;
+        if (isUseDataIndex()) {
+            return CacheDataIndex.getInstance(getRepositoryCacheRoot()).open(path, file, header);
+        }
+        return new PropertiesFile(file, header);
     }
 
     public ResolvedModuleRevision findModuleInCache(DependencyDescriptor dd,
@@ -712,7 +866,13 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
             Message.verbose("don't use cache for " + requestedRevisionId + ": changing=true");
             return null;
         }
-        return doFindModuleInCache(requestedRevisionId, options, expectedResolver);
+        ResolvedModuleRevision rmr = doFindModuleInCache(requestedRevisionId, options,
+            expectedResolver);
+        IvyMetrics metrics = IvyMetrics.current();
+        if (metrics != null) {
+            metrics.increment("cache." + getName() + ".module." + (rmr == null ? "miss" : "hit"));
+        }
+        return rmr;
     }
 
     private ResolvedModuleRevision doFindModuleInCache(ModuleRevisionId mrid,
@@ -843,14 +1003,68 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
 
         public ModuleDescriptor provideModule(ParserSettings ivySettings, File descriptorURL,
                 boolean validate) throws ParseException, IOException {
-            return mdParser.parseDescriptor(settings, descriptorURL.toURI().toURL(), validate);
+            long start = System.nanoTime();
+            ModuleDescriptor md = mdParser.parseDescriptor(settings,
+                descriptorURL.toURI().toURL(), validate);
+            IvyMetrics metrics = IvyMetrics.current();
+            if (metrics != null) {
+                metrics.recordSince("descriptor.parse.ns", start);
+            }
+            return md;
+        }
+    }
+
+    /**
+     * Provides the module descriptors of the Ivy files of the cache from their binary form when it
+     * is up to date, and stores the binary form of the ones which have to be parsed.
+     */
+    private class BinaryModuleDescriptorProvider implements ModuleDescriptorProvider {
+
+        private final ModuleDescriptorParser mdParser;
+
+        private final ParserSettings settings;
+
+        public BinaryModuleDescriptorProvider(ModuleDescriptorParser mdParser,
+                ParserSettings settings) {
+            this.mdParser = mdParser;
+            this.settings = settings;
+        }
+
+        public ModuleDescriptor provideModule(ParserSettings ivySettings, File descriptorFile,
+                boolean validate) throws ParseException, IOException {
+            IvyMetrics metrics = IvyMetrics.current();
+            long start = System.nanoTime();
+            ModuleDescriptor md = BinaryDescriptorFile.read(descriptorFile, mdParser, settings,
+                validate);
+            if (md != null) {
+                Message.debug("\tloaded parsed module descriptor of " + descriptorFile);
+                if (metrics != null) {
+                    metrics.recordSince("descriptor.binary.read.ns", start);
+                }
+                return md;
+            }
+            long length = descriptorFile.length();
+            long lastModified = BinaryDescriptorFile.getLastModified(descriptorFile);
+            ParserSettingsMonitor monitor = new ParserSettingsMonitor(settings);
+            start = System.nanoTime();
+            md = mdParser.parseDescriptor(monitor.getMonitoredSettings(),
+                descriptorFile.toURI().toURL(), validate);
+            if (metrics != null) {
+                metrics.recordSince("descriptor.parse.ns", start);
+            }
+            BinaryDescriptorFile.write(descriptorFile, length, lastModified, validate, md,
+                settings, monitor.getSubstitutes());
+            monitor.endMonitoring();
+            return md;
         }
     }
 
     private ModuleDescriptor getMdFromCache(ModuleDescriptorParser mdParser,
             CacheMetadataOptions options, File ivyFile) throws ParseException, IOException {
         ModuleDescriptorMemoryCache cache = getMemoryCache();
-        ModuleDescriptorProvider mdProvider = new MyModuleDescriptorProvider(mdParser, settings);
+        ModuleDescriptorProvider mdProvider = isBinaryDescriptors()
+                ? new BinaryModuleDescriptorProvider(mdParser, settings)
+                : new MyModuleDescriptorProvider(mdParser, settings);
         return cache.get(ivyFile, settings, options.isValidate(), mdProvider);
     }
 
@@ -945,6 +1159,317 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
         return ttl == null ? getDefaultTTL() : ttl;
     }
 
+    public long getMissingTTL(ModuleRevisionId mrid) {
+        Long ttl = missingTtlRules.getRule(mrid);
+        return ttl == null ? getDefaultMissingTTL() : ttl;
+    }
+
+    /**
+     * Tells whether resources which were not found in a repository are remembered by this cache,
+     * i.e. whether a default missing TTL or any missing TTL rule is defined.
+     *
+     * @return true if this cache remembers missing resources
+     */
+    public boolean isMissingResourceCacheEnabled() {
+        return getDefaultMissingTTL() > 0 || !missingTtlRules.getAllRules().isEmpty();
+    }
+
+    /**
+     * Tells whether the given resource has been recorded as missing by the given resolver less
+     * than the missing TTL of the module ago.
+     *
+     * @param resolverName
+     *            the name of the resolver which looked for the resource
+     * @param mrid
+     *            the module revision the resource belongs to
+     * @param resource
+     *            the name of the resource, usually its URL
+     * @return true if the resource is known to be missing
+     */
+    public boolean isKnownMissing(String resolverName, ModuleRevisionId mrid, String resource) {
+        long ttl = getMissingTTL(mrid);
+        if (ttl <= 0) {
+            return false;
+        }
+        String key = getMissingKey(resolverName, resource);
+        Map<String, String> data = getMissingIndex().get(key);
+        if (data == null || data.get("time") == null) {
+            return false;
+        }
+        long expiration = Long.parseLong(data.get("time")) + ttl;
+        // negative expiration means that Long.MAX_VALUE has been exceeded
+        if (expiration < 0 || System.currentTimeMillis() < expiration) {
+            return true;
+        }
+        // no need to keep it in the index anymore
+        getMissingIndex().remove(key);
+        return false;
+    }
+
+    /**
+     * Records that the given resource has not been found by the given resolver, if the missing
+     * TTL of the module allows it to be remembered.
+     *
+     * @param resolverName
+     *            the name of the resolver which looked for the resource
+     * @param mrid
+     *            the module revision the resource belongs to
+     * @param resource
+     *            the name of the resource, usually its URL
+     */
+    public void saveMissing(String resolverName, ModuleRevisionId mrid, String resource) {
+        long ttl = getMissingTTL(mrid);
+        if (ttl <= 0) {
+            return;
+        }
+        long time = System.currentTimeMillis();
+        Map<String, String> data = new HashMap<>();
+        data.put("time", String.valueOf(time));
+        if (time + ttl > 0) {
+            // lets the index drop the entry once expired
+            data.put(CacheDataIndex.EXPIRES_KEY, String.valueOf(time + ttl));
+        }
+        getMissingIndex().put(getMissingKey(resolverName, resource), data);
+    }
+
+    /**
+     * Forgets that the given resource has not been found by the given resolver, typically
+     * because it has been found since.
+     *
+     * @param resolverName
+     *            the name of the resolver which found the resource
+     * @param resource
+     *            the name of the resource, usually its URL
+     */
+    public void removeMissing(String resolverName, String resource) {
+        getMissingIndex().remove(getMissingKey(resolverName, resource));
+    }
+
+    private CacheDataIndex getMissingIndex() {
+        return CacheDataIndex.getInstance(getRepositoryCacheRoot(), MISSING_INDEX_FILE_NAME);
+    }
+
+    private static String getMissingKey(String resolverName, String resource) {
+        return resolverName + "|" + resource;
+    }
+
+    /**
+     * Returns the listing of the given url saved by the given resolver. When only an up to date
+     * listing is requested, the listing is only returned if it has been checked with the
+     * repository less than the TTL of the module ago.
+     *
+     * @param resolverName
+     *            the name of the resolver which listed the url
+     * @param mrid
+     *            the module the listing is made for, or null if it is not made for a module in
+     *            particular, in which case the default TTL is used
+     * @param url
+     *            the listed url
+     * @param upToDateOnly
+     *            true to ignore a listing checked more than the TTL ago
+     * @return the listing, or null if there is none
+     */
+    public ApacheURLLister.Listing getListing(String resolverName, ModuleRevisionId mrid,
+            String url, boolean upToDateOnly) {
+        File listingFile = getRemoteDataFile(LISTINGS_DIR_NAME, resolverName, url, ".properties");
+        Properties data = loadRemoteData(listingFile, url);
+        if (data == null || (upToDateOnly && !isUpToDate(data, mrid))) {
+            return null;
+        }
+        try {
+            String entries = data.getProperty("entries", "");
+            return new ApacheURLLister.Listing(entries.isEmpty()
+                    ? Collections.<String>emptyList() : Arrays.asList(entries.split("\\n")),
+                    data.getProperty("etag"), Long.parseLong(data.getProperty("lastModified",
+                        "0")));
+        } catch (NumberFormatException e) {
+            Message.debug("invalid listing " + listingFile + ": " + e);
+            return null;
+        }
+    }
+
+    /**
+     * Saves the listing of the given url made by the given resolver, as checked with the
+     * repository now. The file is replaced atomically when the file system supports it, so that
+     * it is never read partially written.
+     *
+     * @param resolverName
+     *            the name of the resolver which listed the url
+     * @param url
+     *            the listed url
+     * @param listing
+     *            the listing of the url
+     */
+    public void saveListing(String resolverName, String url, ApacheURLLister.Listing listing) {
+        Properties data = new Properties();
+        data.setProperty("url", url);
+        data.setProperty("checked", String.valueOf(System.currentTimeMillis()));
+        if (listing.getETag() != null) {
+            data.setProperty("etag", listing.getETag());
+        }
+        data.setProperty("lastModified", String.valueOf(listing.getLastModified()));
+        StringBuilder entries = new StringBuilder();
+        for (String entry : listing.getEntries()) {
+            if (entries.length() > 0) {
+                entries.append('\n');
+            }
+            entries.append(entry);
+        }
+        data.setProperty("entries", entries.toString());
+        saveRemoteData(getRemoteDataFile(LISTINGS_DIR_NAME, resolverName, url, ".properties"),
+            data, resolverName + " listing");
+    }
+
+    /**
+     * Returns a copy of the given remote resource kept in this cache for the given resolver, such
+     * as a maven-metadata.xml file. The copy is used without accessing the repository if it has
+     * been checked less than the TTL of the module ago. Otherwise, or when refresh is requested,
+     * the resource is requested conditionally, so that it is only downloaded again if it has
+     * changed. That it is not available is remembered the same way.
+     *
+     * @param resolverName
+     *            the name of the resolver which uses the resource
+     * @param mrid
+     *            the module the resource is used for, or null if it is not used for a module in
+     *            particular, in which case the default TTL is used
+     * @param url
+     *            the url of the resource
+     * @param refresh
+     *            true to check with the repository whether the resource has changed even if the
+     *            copy is up to date
+     * @param timeoutConstraint
+     *            the timeouts to use when accessing the repository, or null
+     * @return the copy of the resource, or null if the resource is not available
+     * @throws IOException
+     *             if the resource can't be retrieved
+     */
+    public File getRemoteResource(String resolverName, ModuleRevisionId mrid, URL url,
+            boolean refresh, TimeoutConstraint timeoutConstraint) throws IOException {
+        String key = url.toExternalForm();
+        File dataFile = getRemoteDataFile(RESOURCES_DIR_NAME, resolverName, key, ".properties");
+        File copy = getRemoteDataFile(RESOURCES_DIR_NAME, resolverName, key, ".data");
+        Properties data = loadRemoteData(dataFile, key);
+        boolean available = data != null && !"false".equals(data.getProperty("available"))
+                && copy.exists();
+        if (data != null && !refresh && isUpToDate(data, mrid)) {
+            Message.debug("\tusing cached copy of " + url);
+            return available ? copy : null;
+        }
+
+        String etag = available ? data.getProperty("etag") : null;
+        long lastModified = 0;
+        if (available) {
+            try {
+                lastModified = Long.parseLong(data.getProperty("lastModified", "0"));
+            } catch (NumberFormatException e) {
+                etag = null;
+                available = false;
+            }
+        }
+        @SuppressWarnings("deprecation")
+        ConditionalURLHandler.Response response = ConditionalURLHandler.openConditionalStream(
+            URLHandlerRegistry.getDefault(), url, etag, lastModified, timeoutConstraint);
+        try {
+            if (response.isAvailable() && !response.isModified()) {
+                Message.debug("\t" + url + " has not changed");
+                data.setProperty("checked", String.valueOf(System.currentTimeMillis()));
+                saveRemoteData(dataFile, data, resolverName + " resource");
+                return copy;
+            }
+            data = new Properties();
+            data.setProperty("url", key);
+            data.setProperty("checked", String.valueOf(System.currentTimeMillis()));
+            data.setProperty("available", String.valueOf(response.isAvailable()));
+            if (!response.isAvailable()) {
+                saveRemoteData(dataFile, data, resolverName + " resource");
+                return null;
+            }
+            if (response.getETag() != null) {
+                data.setProperty("etag", response.getETag());
+            }
+            data.setProperty("lastModified", String.valueOf(response.getLastModified()));
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int len;
+            while ((len = response.getStream().read(buffer)) != -1) {
+                content.write(buffer, 0, len);
+            }
+            writeAtomically(copy, content.toByteArray());
+        } finally {
+            response.close();
+        }
+        saveRemoteData(dataFile, data, resolverName + " resource");
+        return copy;
+    }
+
+    private boolean isUpToDate(Properties data, ModuleRevisionId mrid) {
+        try {
+            long ttl = mrid == null ? getDefaultTTL() : getTTL(mrid);
+            long expiration = Long.parseLong(data.getProperty("checked")) + ttl;
+            // negative expiration means that Long.MAX_VALUE has been exceeded
+            return expiration < 0 || System.currentTimeMillis() < expiration;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static Properties loadRemoteData(File dataFile, String url) {
+        if (!dataFile.exists()) {
+            return null;
+        }
+        Properties data = new Properties();
+        try (InputStream in = new FileInputStream(dataFile)) {
+            data.load(in);
+        } catch (IOException | IllegalArgumentException e) {
+            Message.debug("impossible to read " + dataFile + ": " + e);
+            return null;
+        }
+        if (!url.equals(data.getProperty("url")) || data.getProperty("checked") == null) {
+            return null;
+        }
+        return data;
+    }
+
+    private static void saveRemoteData(File dataFile, Properties data, String header) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            data.store(out, header);
+            writeAtomically(dataFile, out.toByteArray());
+        } catch (IOException e) {
+            Message.verbose("impossible to save " + dataFile + ": " + e);
+        }
+    }
+
+    /**
+     * Replaces the given file atomically when the file system supports it, so that it is never
+     * read partially written.
+     */
+    private static void writeAtomically(File file, byte[] content) throws IOException {
+        file.getParentFile().mkdirs();
+        Path tmp = Files.createTempFile(file.getParentFile().toPath(), file.getName(), ".tmp");
+        try {
+            Files.write(tmp, content);
+            try {
+                Files.move(tmp, file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    private File getRemoteDataFile(String dir, String resolverName, String url,
+            String extension) {
+        byte[] key = (resolverName + "|" + url).getBytes(StandardCharsets.UTF_8);
+        String hash;
+        synchronized (SHA_DIGEST) {
+            hash = HexEncoder.encode(SHA_DIGEST.digest(key));
+        }
+        return new File(getRepositoryCacheRoot(), dir + "/" + hash + extension);
+    }
+
     @Override
     public String toString() {
         return name;
@@ -1432,8 +1957,13 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
                 return null;
             }
         } finally {
-            unlockMetadataArtifact(mrid);
-            backupDownloader.cleanUp();
+            // the backup must be removed while the lock is held, before another holder of the
+            // lock makes its own
+            try {
+                backupDownloader.cleanUp();
+            } finally {
+                unlockMetadataArtifact(mrid);
+            }
         }
 
     }
@@ -1499,6 +2029,25 @@ public class DefaultRepositoryCacheManager implements RepositoryCacheManager, Iv
         return artifact.isMetadata() && artifact.getType().endsWith(".original");
     }
 
+    /**
+     * Returns <code>true</code> if the module revision asked by the given dependency may be updated
+     * in the repository without changing its revision, in which case this cache checks it again
+     * in the repository once its TTL has expired.
+     *
+     * @param dd
+     *            the dependency asking for the module revision
+     * @param requestedRevisionId
+     *            the asked module revision
+     * @param options
+     *            the options with which the module revision is looked up in this cache
+     * @return <code>true</code> if the module revision is changing or checked for modifications
+     */
+    public boolean mayChange(DependencyDescriptor dd, ModuleRevisionId requestedRevisionId,
+            CacheMetadataOptions options) {
+        return isCheckmodified(dd, requestedRevisionId, options)
+                || isChanging(dd, requestedRevisionId, options);
+    }
+
     private boolean isChanging(DependencyDescriptor dd, ModuleRevisionId requestedRevisionId,
             CacheMetadataOptions options) {
         return dd.isChanging()
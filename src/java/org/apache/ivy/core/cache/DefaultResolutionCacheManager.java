@@ -22,8 +22,14 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.FilenameFilter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.text.ParseException;
 import java.util.Map;
 import java.util.Properties;
@@ -46,6 +52,7 @@ import org.apache.ivy.plugins.parser.ParserSettings;
 import org.apache.ivy.plugins.parser.xml.XmlModuleDescriptorParser;
 import org.apache.ivy.plugins.resolver.DependencyResolver;
 import org.apache.ivy.util.FileUtil;
+import org.apache.ivy.util.Message;
 
 public class DefaultResolutionCacheManager implements ResolutionCacheManager, IvySettingsAware {
 
@@ -142,6 +149,85 @@ public class DefaultResolutionCacheManager implements ResolutionCacheManager, Iv
         });
     }
 
+    /**
+     * Returns the file in which the result of the last resolve made with the given resolve id is
+     * recorded, so that it can be reused by the next resolves.
+     *
+     * @param resolveId
+     *            the resolve id
+     * @return the resolve result file, which may not exist
+     */
+    public File getResolveResultInCache(String resolveId) {
+        return new File(getResolutionCacheRoot(), resolveId + "-result.properties");
+    }
+
+    /**
+     * Reads the result of the last resolve made with the given resolve id.
+     *
+     * @param resolveId
+     *            the resolve id
+     * @return the recorded result, or <code>null</code> if there is none or if it can't be read
+     */
+    public Properties getResolveResult(String resolveId) {
+        File resultFile = getResolveResultInCache(resolveId);
+        if (!resultFile.exists()) {
+            return null;
+        }
+        Properties result = new Properties();
+        try (InputStream in = new FileInputStream(resultFile)) {
+            result.load(in);
+        } catch (IOException | IllegalArgumentException e) {
+            Message.debug("impossible to read resolve result " + resultFile + ": " + e);
+            return null;
+        }
+        return result;
+    }
+
+    /**
+     * Records the result of a resolve made with the given resolve id. The file is replaced
+     * atomically when the file system supports it, so that it is never read partially written.
+     *
+     * @param resolveId
+     *            the resolve id
+     * @param result
+     *            the result to record
+     * @throws IOException
+     *             if the result can't be written
+     */
+    public void saveResolveResult(String resolveId, Properties result) throws IOException {
+        File resultFile = getResolveResultInCache(resolveId);
+        assertInsideCache(resultFile);
+        resultFile.getParentFile().mkdirs();
+        Path tmp = Files.createTempFile(resultFile.getParentFile().toPath(),
+            resultFile.getName(), ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(tmp)) {
+                result.store(out, resolveId + " resolve result");
+            }
+            try {
+                Files.move(tmp, resultFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, resultFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Forgets the result of the last resolve made with the given resolve id.
+     *
+     * @param resolveId
+     *            the resolve id
+     */
+    public void removeResolveResult(String resolveId) {
+        File resultFile = getResolveResultInCache(resolveId);
+        if (resultFile.exists() && !resultFile.delete()) {
+            Message.warn("impossible to delete outdated resolve result " + resultFile);
+        }
+    }
+
     public ModuleDescriptor getResolvedModuleDescriptor(ModuleRevisionId mrid)
             throws ParseException, IOException {
         File ivyFile = getResolvedIvyFileInCache(mrid);
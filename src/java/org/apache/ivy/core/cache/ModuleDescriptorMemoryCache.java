@@ -24,20 +24,47 @@ import org.apache.ivy.util.Message;
 import java.io.File;
 import java.io.IOException;
 import java.text.ParseException;
-import java.util.Iterator;
-import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Cache ModuleDescriptors so that when the same module is used twice (in multi-module build for
  * instance), it is parsed only once. This cache is has a limited size, and keep the most recently
  * used entries. The entry in the cache are invalidated if there is a change to one variable used in
  * the module descriptor.
+ * <p>
+ * The cache can be read concurrently without locking. Besides its number of entries, it can be
+ * bounded by the cumulated size of the cached module descriptor files, used as an estimate of the
+ * memory retained by the parsed module descriptors. The check of the last modification date of
+ * the module descriptor files can be limited to one per check interval.
+ * </p>
  */
-class ModuleDescriptorMemoryCache {
+public class ModuleDescriptorMemoryCache {
 
     private final int maxSize;
 
-    private final LinkedHashMap<File, CacheEntry> valueMap;
+    private final long maxWeight;
+
+    private final long checkInterval;
+
+    private final ConcurrentMap<File, CacheEntry> valueMap;
+
+    /**
+     * Logical clock used to track the last access to the entries.
+     */
+    private final AtomicLong accessClock = new AtomicLong();
+
+    private final AtomicLong weight = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    private final Object evictionLock = new Object();
 
     /**
      * Create a cache of the given size
@@ -45,8 +72,26 @@ class ModuleDescriptorMemoryCache {
      * @param size int
      */
     public ModuleDescriptorMemoryCache(int size) {
+        this(size, 0, 0);
+    }
+
+    /**
+     * Create a cache of the given size and weight
+     *
+     * @param size
+     *            the maximum number of entries, 0 or less disabling the cache
+     * @param maxWeight
+     *            the maximum cumulated size in bytes of the cached module descriptor files, 0 or
+     *            less for no limit
+     * @param checkInterval
+     *            the minimum time in milliseconds between two checks of the last modification
+     *            date of a cached module descriptor file, 0 or less to check it on every access
+     */
+    public ModuleDescriptorMemoryCache(int size, long maxWeight, long checkInterval) {
         this.maxSize = size;
-        this.valueMap = new LinkedHashMap<>(size);
+        this.maxWeight = maxWeight;
+        this.checkInterval = checkInterval;
+        this.valueMap = new ConcurrentHashMap<>(Math.max(size, 0));
     }
 
     public ModuleDescriptor get(File ivyFile, ParserSettings ivySettings, boolean validated,
@@ -76,26 +121,23 @@ class ModuleDescriptorMemoryCache {
             // cache is disabled
             return null;
         }
-        synchronized (valueMap) {
-            CacheEntry entry = valueMap.get(ivyFile);
-            if (entry != null) {
-                if (entry.isStale(ivyFile, validated, ivySettings)) {
-                    Message.debug("Entry is found in the ModuleDescriptorCache but entry should be "
-                            + "reevaluated : " + ivyFile);
-                    valueMap.remove(ivyFile);
-                    return null;
-                } else {
-                    // Move the entry at the end of the list
-                    valueMap.remove(ivyFile);
-                    valueMap.put(ivyFile, entry);
-                    Message.debug("Entry is found in the ModuleDescriptorCache : " + ivyFile);
-                    return entry.md;
-                }
-            } else {
-                Message.debug("No entry is found in the ModuleDescriptorCache : " + ivyFile);
-                return null;
-            }
+        CacheEntry entry = valueMap.get(ivyFile);
+        if (entry == null) {
+            misses.incrementAndGet();
+            Message.debug("No entry is found in the ModuleDescriptorCache : " + ivyFile);
+            return null;
         }
+        if (entry.isStale(ivyFile, validated, ivySettings, checkInterval)) {
+            misses.incrementAndGet();
+            Message.debug("Entry is found in the ModuleDescriptorCache but entry should be "
+                    + "reevaluated : " + ivyFile);
+            remove(ivyFile, entry);
+            return null;
+        }
+        hits.incrementAndGet();
+        entry.lastAccess = accessClock.incrementAndGet();
+        Message.debug("Entry is found in the ModuleDescriptorCache : " + ivyFile);
+        return entry.md;
     }
 
     void putInCache(File url, ParserSettingsMonitor ivySettingsMonitor, boolean validated,
@@ -104,17 +146,86 @@ class ModuleDescriptorMemoryCache {
             // cache is disabled
             return;
         }
-        synchronized (valueMap) {
-            if (valueMap.size() >= maxSize) {
-                Message.debug("ModuleDescriptorCache is full, remove one entry");
-                Iterator<CacheEntry> it = valueMap.values().iterator();
-                it.next();
-                it.remove();
+        CacheEntry entry = new CacheEntry(descriptor, validated, ivySettingsMonitor,
+                maxWeight > 0 ? url.length() : 0, accessClock.incrementAndGet());
+        CacheEntry previous = valueMap.put(url, entry);
+        weight.addAndGet(previous == null ? entry.weight : entry.weight - previous.weight);
+        if (valueMap.size() > maxSize || (maxWeight > 0 && weight.get() > maxWeight)) {
+            evict();
+        }
+    }
+
+    /**
+     * Removes the least recently used entries until the cache fits in its bounds. The last entry
+     * is always kept, even if it exceeds the maximum weight on its own.
+     */
+    private void evict() {
+        synchronized (evictionLock) {
+            while (valueMap.size() > maxSize
+                    || (maxWeight > 0 && weight.get() > maxWeight && valueMap.size() > 1)) {
+                Map.Entry<File, CacheEntry> eldest = null;
+                for (Map.Entry<File, CacheEntry> e : valueMap.entrySet()) {
+                    if (eldest == null || e.getValue().lastAccess < eldest.getValue().lastAccess) {
+                        eldest = e;
+                    }
+                }
+                if (eldest == null) {
+                    return;
+                }
+                if (remove(eldest.getKey(), eldest.getValue())) {
+                    evictions.incrementAndGet();
+                    Message.debug("ModuleDescriptorCache is full, remove one entry : "
+                            + eldest.getKey());
+                }
             }
-            valueMap.put(url, new CacheEntry(descriptor, validated, ivySettingsMonitor));
         }
     }
 
+    private boolean remove(File ivyFile, CacheEntry entry) {
+        if (valueMap.remove(ivyFile, entry)) {
+            weight.addAndGet(-entry.weight);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return the number of module descriptors currently cached
+     */
+    public int size() {
+        return valueMap.size();
+    }
+
+    /**
+     * @return the cumulated size in bytes of the currently cached module descriptor files, if the
+     *         cache is bounded by weight, 0 otherwise
+     */
+    public long getWeight() {
+        return weight.get();
+    }
+
+    /**
+     * @return the number of lookups which found an up to date module descriptor in the cache
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of lookups which didn't find an up to date module descriptor in the
+     *         cache
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * @return the number of entries removed to keep the cache in its bounds
+     */
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
     private static class CacheEntry {
         private final ModuleDescriptor md;
 
@@ -122,17 +233,37 @@ class ModuleDescriptorMemoryCache {
 
         private final ParserSettingsMonitor parserSettingsMonitor;
 
+        private final long weight;
+
+        private volatile long lastAccess;
+
+        private volatile long lastChecked;
+
         CacheEntry(ModuleDescriptor md, boolean validated,
-                ParserSettingsMonitor parserSettingsMonitor) {
+                ParserSettingsMonitor parserSettingsMonitor, long weight, long lastAccess) {
             this.md = md;
             this.validated = validated;
             this.parserSettingsMonitor = parserSettingsMonitor;
+            this.weight = weight;
+            this.lastAccess = lastAccess;
+            this.lastChecked = System.currentTimeMillis();
         }
 
-        boolean isStale(File ivyFile, boolean validated, ParserSettings newParserSettings) {
-            return (validated && !this.validated)
-                    || md.getLastModified() != ivyFile.lastModified()
-                    || parserSettingsMonitor.hasChanged(newParserSettings);
+        boolean isStale(File ivyFile, boolean validated, ParserSettings newParserSettings,
+                long checkInterval) {
+            if ((validated && !this.validated)
+                    || parserSettingsMonitor.hasChanged(newParserSettings)) {
+                return true;
+            }
+            long now = System.currentTimeMillis();
+            if (checkInterval > 0 && now - lastChecked < checkInterval) {
+                return false;
+            }
+            if (md.getLastModified() != ivyFile.lastModified()) {
+                return true;
+            }
+            lastChecked = now;
+            return false;
         }
     }
 
@@ -18,6 +18,7 @@
 package org.apache.ivy.core.cache;
 
 import java.io.File;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
@@ -73,6 +74,13 @@ class ParserSettingsMonitor {
         delegatedSettings = null;
     }
 
+    /**
+     * @return the values substituted through the monitored settings, with their substitution
+     */
+    public Map<String, String> getSubstitutes() {
+        return Collections.unmodifiableMap(substitutes);
+    }
+
     /**
      * Check if the newSettings is compatible with the original settings that has been monitored.
      * Only the info that was actually used is compared.
@@ -17,18 +17,60 @@
  */
 package org.apache.ivy.core.event;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 import javax.swing.event.EventListenerList;
 
+import org.apache.ivy.core.IvyExecutors;
+import org.apache.ivy.core.IvyThread;
 import org.apache.ivy.plugins.repository.TransferEvent;
 import org.apache.ivy.plugins.repository.TransferListener;
+import org.apache.ivy.util.Message;
 import org.apache.ivy.util.filter.Filter;
 
+/**
+ * Notifies the registered {@link IvyListener}s and {@link TransferListener}s of the events fired
+ * during Ivy operations.
+ * <p>
+ * By default listeners are notified in the thread firing the event. Once
+ * {@link #startAsyncDispatch(int, ProgressPolicy)} has been called, listeners are notified by a
+ * dispatcher thread draining a bounded queue of events, except the listeners implementing
+ * {@link SynchronousListener} which are still notified in the thread firing the event.
+ * </p>
+ */
 public class EventManager implements TransferListener {
 
+    /**
+     * How {@link TransferEvent#TRANSFER_PROGRESS} events are queued when events are dispatched
+     * asynchronously.
+     */
+    public enum ProgressPolicy {
+        /**
+         * Every progress event is queued, waiting for room in the queue when it is full.
+         */
+        ALL,
+
+        /**
+         * A progress event is merged with the progress event of the same transfer queued just
+         * before it, if it has not been dispatched yet.
+         */
+        COALESCE,
+
+        /**
+         * Progress events are dropped when the queue is full.
+         */
+        DROP
+    }
+
     private EventListenerList listeners = new EventListenerList();
 
+    private volatile AsyncDispatcher dispatcher;
+
     public void addIvyListener(IvyListener listener) {
         listeners.add(IvyListener.class, listener);
     }
@@ -66,12 +108,7 @@ public class EventManager implements TransferListener {
     }
 
     public void fireIvyEvent(IvyEvent evt) {
-        Object[] listeners = this.listeners.getListenerList();
-        for (int i = listeners.length - 2; i >= 0; i -= 2) {
-            if (listeners[i] == IvyListener.class) {
-                ((IvyListener) listeners[i + 1]).progress(evt);
-            }
-        }
+        fire(evt, false, true);
     }
 
     public void addTransferListener(TransferListener listener) {
@@ -87,17 +124,379 @@ public class EventManager implements TransferListener {
     }
 
     protected void fireTransferEvent(TransferEvent evt) {
+        fire(evt, true, false);
+    }
+
+    public void transferProgress(TransferEvent evt) {
+        fire(evt, true, true);
+    }
+
+    /**
+     * Starts dispatching events asynchronously, or restarts it with the given parameters if it was
+     * already started.
+     *
+     * @param queueSize
+     *            the maximum number of events waiting to be dispatched
+     * @param progressPolicy
+     *            how transfer progress events are queued
+     */
+    public synchronized void startAsyncDispatch(int queueSize, ProgressPolicy progressPolicy) {
+        stopAsyncDispatch();
+        AsyncDispatcher d = new AsyncDispatcher(Math.max(1, queueSize), progressPolicy);
+        d.start();
+        dispatcher = d;
+    }
+
+    /**
+     * Stops dispatching events asynchronously, once the events already queued have been
+     * dispatched. Listeners are notified in the thread firing the event again.
+     */
+    public synchronized void stopAsyncDispatch() {
+        AsyncDispatcher d = dispatcher;
+        if (d != null) {
+            dispatcher = null;
+            d.stop();
+        }
+    }
+
+    public boolean isAsyncDispatch() {
+        AsyncDispatcher d = dispatcher;
+        return d != null && !d.isDead();
+    }
+
+    /**
+     * Waits until all the events fired so far have been dispatched to the listeners. Returns
+     * immediately if events are dispatched synchronously. If the dispatcher thread has died, the
+     * events it left in the queue are dispatched by the calling thread.
+     */
+    public void flush() {
+        AsyncDispatcher d = dispatcher;
+        if (d != null) {
+            d.flush();
+        }
+    }
+
+    private void fire(IvyEvent evt, boolean toTransferListeners, boolean toIvyListeners) {
+        AsyncDispatcher d = dispatcher;
+        if (d != null && d.isDead()) {
+            // dispatch what the dead dispatcher left, so that listeners still get events in order
+            d.flush();
+            d = null;
+        }
         Object[] listeners = this.listeners.getListenerList();
-        for (int i = listeners.length - 2; i >= 0; i -= 2) {
-            if (listeners[i] == TransferListener.class) {
-                ((TransferListener) listeners[i + 1]).transferProgress(evt);
+        List<Object> async = null;
+        if (toTransferListeners) {
+            for (int i = listeners.length - 2; i >= 0; i -= 2) {
+                if (listeners[i] == TransferListener.class) {
+                    TransferListener listener = (TransferListener) listeners[i + 1];
+                    if (d == null || listener instanceof SynchronousListener) {
+                        listener.transferProgress((TransferEvent) evt);
+                    } else {
+                        if (async == null) {
+                            async = new ArrayList<>();
+                        }
+                        async.add(listener);
+                    }
+                }
+            }
+        }
+        if (toIvyListeners) {
+            for (int i = listeners.length - 2; i >= 0; i -= 2) {
+                if (listeners[i] == IvyListener.class) {
+                    IvyListener listener = (IvyListener) listeners[i + 1];
+                    if (d == null || listener instanceof SynchronousListener) {
+                        listener.progress(evt);
+                    } else if (listener instanceof FilteredIvyListener) {
+                        // filters are evaluated right away, to avoid queuing unwanted events
+                        FilteredIvyListener filtered = (FilteredIvyListener) listener;
+                        if (!filtered.getFilter().accept(evt)) {
+                            continue;
+                        }
+                        if (filtered.getIvyListener() instanceof SynchronousListener) {
+                            filtered.getIvyListener().progress(evt);
+                        } else {
+                            if (async == null) {
+                                async = new ArrayList<>();
+                            }
+                            async.add(filtered.getIvyListener());
+                        }
+                    } else {
+                        if (async == null) {
+                            async = new ArrayList<>();
+                        }
+                        async.add(listener);
+                    }
+                }
+            }
+        }
+        if (async != null) {
+            Object[] targets = async.toArray();
+            if (!d.enqueue(evt, targets, toTransferListeners)) {
+                deliver(evt, targets, toTransferListeners);
             }
         }
     }
 
-    public void transferProgress(TransferEvent evt) {
-        fireTransferEvent(evt);
-        fireIvyEvent(evt);
+    private static void deliver(IvyEvent evt, Object[] targets, boolean transfer) {
+        for (Object target : targets) {
+            if (transfer && target instanceof TransferListener) {
+                ((TransferListener) target).transferProgress((TransferEvent) evt);
+            } else {
+                ((IvyListener) target).progress(evt);
+            }
+        }
+    }
+
+    /**
+     * An event waiting in the queue, with the listeners to notify, which are the non synchronous
+     * listeners registered when the event was fired.
+     */
+    private static final class Dispatch {
+        private final IvyEvent origin;
+
+        private final Object[] targets;
+
+        private final boolean transfer;
+
+        private IvyEvent event;
+
+        private Callable<Void> task;
+
+        private Dispatch(IvyEvent origin, Object[] targets, boolean transfer) {
+            this.origin = origin;
+            this.targets = targets;
+            this.transfer = transfer;
+            // the repository firing a transfer event keeps updating it, so a copy is queued
+            this.event = origin instanceof TransferEvent ? new TransferEvent((TransferEvent) origin)
+                    : origin;
+        }
+
+        private boolean canCoalesce(IvyEvent evt, Object[] targets, boolean transfer) {
+            return origin == evt && isProgress(event) && this.transfer == transfer
+                    && Arrays.equals(this.targets, targets);
+        }
+
+        private void run() {
+            for (Object target : targets) {
+                try {
+                    if (transfer && target instanceof TransferListener) {
+                        ((TransferListener) target).transferProgress((TransferEvent) event);
+                    } else {
+                        ((IvyListener) target).progress(event);
+                    }
+                } catch (RuntimeException e) {
+                    Message.warn("listener " + target + " failed to handle " + event, e);
+                }
+            }
+        }
+    }
+
+    private static boolean isProgress(IvyEvent evt) {
+        return evt instanceof TransferEvent
+                && ((TransferEvent) evt).getEventType() == TransferEvent.TRANSFER_PROGRESS;
     }
 
+    /**
+     * Dispatches the queued events in a dedicated thread. The queue is a ring buffer: when it is
+     * full, the threads firing events wait for room, except for the progress events which may be
+     * dropped depending on the {@link ProgressPolicy}.
+     */
+    private static final class AsyncDispatcher implements Runnable {
+        private final Dispatch[] ring;
+
+        private final ProgressPolicy progressPolicy;
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private final Condition notEmpty = lock.newCondition();
+
+        private final Condition notFull = lock.newCondition();
+
+        private final Condition idle = lock.newCondition();
+
+        private int head;
+
+        private int count;
+
+        private boolean busy;
+
+        private boolean stopped;
+
+        /**
+         * Whether the dispatcher thread has exited, after being stopped or because it was
+         * interrupted.
+         */
+        private volatile boolean dead;
+
+        private Thread thread;
+
+        private AsyncDispatcher(int queueSize, ProgressPolicy progressPolicy) {
+            this.ring = new Dispatch[queueSize];
+            this.progressPolicy = progressPolicy;
+        }
+
+        private void start() {
+            thread = new IvyThread(this, "ivy-events");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        /**
+         * Queues the given event.
+         *
+         * @return <code>false</code> if the event could not be queued and should be dispatched by
+         *         the caller
+         */
+        private boolean enqueue(IvyEvent evt, Object[] targets, boolean transfer) {
+            boolean progress = isProgress(evt);
+            lock.lock();
+            try {
+                if (stopped || dead || Thread.currentThread() == thread) {
+                    return false;
+                }
+                if (progress && progressPolicy == ProgressPolicy.COALESCE && count > 0) {
+                    Dispatch tail = ring[(head + count - 1) % ring.length];
+                    if (tail.canCoalesce(evt, targets, transfer)) {
+                        tail.event = ((TransferEvent) evt).coalesce((TransferEvent) tail.event);
+                        return true;
+                    }
+                }
+                while (count == ring.length) {
+                    if (progress && progressPolicy == ProgressPolicy.DROP) {
+                        return true;
+                    }
+                    notFull.await();
+                    if (stopped || dead) {
+                        return false;
+                    }
+                }
+                final Dispatch dispatch = new Dispatch(evt, targets, transfer);
+                dispatch.task = IvyExecutors.withContext(new Callable<Void>() {
+                    public Void call() {
+                        dispatch.run();
+                        return null;
+                    }
+                });
+                ring[(head + count) % ring.length] = dispatch;
+                count++;
+                notEmpty.signal();
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        public void run() {
+            try {
+                while (true) {
+                    Dispatch dispatch;
+                    lock.lock();
+                    try {
+                        while (count == 0) {
+                            if (stopped) {
+                                return;
+                            }
+                            notEmpty.await();
+                        }
+                        dispatch = ring[head];
+                        ring[head] = null;
+                        head = (head + 1) % ring.length;
+                        count--;
+                        busy = true;
+                        notFull.signal();
+                    } catch (InterruptedException e) {
+                        return;
+                    } finally {
+                        lock.unlock();
+                    }
+                    try {
+                        dispatch.task.call();
+                    } catch (Exception e) {
+                        Message.warn("failed to dispatch " + dispatch.event, e);
+                    } finally {
+                        lock.lock();
+                        try {
+                            busy = false;
+                            if (count == 0) {
+                                idle.signalAll();
+                            }
+                        } finally {
+                            lock.unlock();
+                        }
+                    }
+                }
+            } finally {
+                lock.lock();
+                try {
+                    dead = true;
+                    busy = false;
+                    idle.signalAll();
+                    notFull.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+
+        private boolean isDead() {
+            return dead;
+        }
+
+        private void flush() {
+            if (Thread.currentThread() == thread) {
+                return;
+            }
+            lock.lock();
+            try {
+                while ((count > 0 || busy) && !dead) {
+                    idle.await();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                lock.unlock();
+            }
+            if (dead) {
+                drain();
+            }
+        }
+
+        /**
+         * Dispatches in the calling thread the events left in the queue by the dead dispatcher
+         * thread.
+         */
+        private void drain() {
+            while (true) {
+                Dispatch dispatch;
+                lock.lock();
+                try {
+                    if (count == 0) {
+                        return;
+                    }
+                    dispatch = ring[head];
+                    ring[head] = null;
+                    head = (head + 1) % ring.length;
+                    count--;
+                } finally {
+                    lock.unlock();
+                }
+                dispatch.run();
+            }
+        }
+
+        private void stop() {
+            flush();
+            lock.lock();
+            try {
+                stopped = true;
+                notEmpty.signalAll();
+                notFull.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
 }
@@ -0,0 +1,50 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.core.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A monotonic counter of {@link IvyMetrics}.
+ */
+public final class Counter {
+    private final AtomicLong value = new AtomicLong();
+
+    Counter() {
+    }
+
+    public void increment() {
+        value.incrementAndGet();
+    }
+
+    public void add(long delta) {
+        value.addAndGet(delta);
+    }
+
+    public long getValue() {
+        return value.get();
+    }
+
+    void reset() {
+        value.set(0);
+    }
+
+    public String toString() {
+        return String.valueOf(getValue());
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.core.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Records the distribution of values, like durations or sizes, for {@link IvyMetrics}.
+ * <p>
+ * Values are counted in buckets whose bounds are powers of two, so percentiles are approximate:
+ * the reported percentile is the upper bound of the bucket it falls into, capped by the maximum
+ * recorded value.
+ * </p>
+ */
+public final class Histogram {
+    // bucket 0 holds 0, bucket i holds the values in [2^(i-1), 2^i - 1]
+    private static final int BUCKETS = Long.SIZE;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+    private final AtomicLong count = new AtomicLong();
+
+    private final AtomicLong sum = new AtomicLong();
+
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+
+    private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+
+    Histogram() {
+    }
+
+    /**
+     * Records a value. Negative values are recorded as 0.
+     *
+     * @param value
+     *            the value to record
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        buckets.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+        long current = min.get();
+        while (value < current && !min.compareAndSet(current, value)) {
+            current = min.get();
+        }
+        current = max.get();
+        while (value > current && !max.compareAndSet(current, value)) {
+            current = max.get();
+        }
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getSum() {
+        return sum.get();
+    }
+
+    public long getMin() {
+        return getCount() == 0 ? 0 : min.get();
+    }
+
+    public long getMax() {
+        return getCount() == 0 ? 0 : max.get();
+    }
+
+    public double getMean() {
+        long n = getCount();
+        return n == 0 ? 0 : (double) getSum() / n;
+    }
+
+    /**
+     * Returns an approximation of the given percentile of the recorded values.
+     *
+     * @param percentile
+     *            the percentile, between 0 and 100
+     * @return the upper bound of the bucket holding the percentile, or 0 if nothing was recorded
+     */
+    public long getPercentile(double percentile) {
+        long n = getCount();
+        if (n == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(n * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                return Math.min((1L << i) - 1, getMax());
+            }
+        }
+        return getMax();
+    }
+
+    void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets.set(i, 0);
+        }
+        count.set(0);
+        sum.set(0);
+        min.set(Long.MAX_VALUE);
+        max.set(Long.MIN_VALUE);
+    }
+
+    public String toString() {
+        return "count=" + getCount() + " min=" + getMin() + " max=" + getMax() + " mean="
+                + getMean();
+    }
+}
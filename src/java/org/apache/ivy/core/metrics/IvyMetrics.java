@@ -0,0 +1,263 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.core.metrics;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.ivy.Ivy;
+import org.apache.ivy.core.IvyContext;
+import org.apache.ivy.core.cache.DefaultRepositoryCacheManager;
+import org.apache.ivy.core.cache.ModuleDescriptorMemoryCache;
+import org.apache.ivy.core.cache.RepositoryCacheManager;
+import org.apache.ivy.core.settings.IvySettings;
+import org.apache.ivy.plugins.lock.FileBasedLockStrategy;
+import org.apache.ivy.plugins.lock.LockStrategy;
+
+/**
+ * Counters and histograms measuring the work done by an {@link Ivy} instance, enabled with the
+ * <code>ivy.metrics</code> variable.
+ * <p>
+ * Metrics are fed by a {@link MetricsListener} listening to Ivy events, and by instrumentation
+ * points in the engines, caches and lock strategies, which get the metrics of the current Ivy
+ * instance with {@link #current()}. Metric names are dot separated, and durations are suffixed
+ * with their unit: <code>.ms</code> or <code>.ns</code>.
+ * </p>
+ * <p>
+ * Besides counters and histograms, some gauges are read from the caches and lock strategies of
+ * the settings each time they are asked for.
+ * </p>
+ */
+public class IvyMetrics {
+    private static final double[] PERCENTILES = {50, 90, 99};
+
+    private final IvySettings settings;
+
+    private final ConcurrentMap<String, Counter> counters = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+    public IvyMetrics(IvySettings settings) {
+        this.settings = settings;
+    }
+
+    /**
+     * Returns the metrics of the Ivy instance of the current context, if it records metrics.
+     *
+     * @return the current metrics, or <code>null</code> if they are not recorded
+     */
+    public static IvyMetrics current() {
+        Ivy ivy = IvyContext.getContext().peekIvy();
+        return ivy == null ? null : ivy.getMetrics();
+    }
+
+    public Counter counter(String name) {
+        Counter counter = counters.get(name);
+        if (counter == null) {
+            counter = new Counter();
+            Counter existing = counters.putIfAbsent(name, counter);
+            if (existing != null) {
+                counter = existing;
+            }
+        }
+        return counter;
+    }
+
+    public Histogram histogram(String name) {
+        Histogram histogram = histograms.get(name);
+        if (histogram == null) {
+            histogram = new Histogram();
+            Histogram existing = histograms.putIfAbsent(name, histogram);
+            if (existing != null) {
+                histogram = existing;
+            }
+        }
+        return histogram;
+    }
+
+    public void increment(String name) {
+        counter(name).increment();
+    }
+
+    public void add(String name, long delta) {
+        counter(name).add(delta);
+    }
+
+    public void record(String name, long value) {
+        histogram(name).record(value);
+    }
+
+    /**
+     * Records in the given histogram the time elapsed since the given start.
+     *
+     * @param name
+     *            the name of the histogram, which should end with <code>.ns</code>
+     * @param startNanos
+     *            the start, as given by {@link System#nanoTime()}
+     */
+    public void recordSince(String name, long startNanos) {
+        histogram(name).record(System.nanoTime() - startNanos);
+    }
+
+    public SortedMap<String, Counter> getCounters() {
+        return new TreeMap<>(counters);
+    }
+
+    public SortedMap<String, Histogram> getHistograms() {
+        return new TreeMap<>(histograms);
+    }
+
+    /**
+     * Reads the current values of the gauges: the hit, miss and eviction counts of the module
+     * descriptor memory caches, and the lock counts and wait time of the file based lock
+     * strategies.
+     *
+     * @return the gauges, by name
+     */
+    public SortedMap<String, Long> getGauges() {
+        SortedMap<String, Long> gauges = new TreeMap<>();
+        Set<RepositoryCacheManager> caches = new LinkedHashSet<>();
+        caches.add(settings.getDefaultRepositoryCacheManager());
+        for (RepositoryCacheManager cache : settings.getRepositoryCacheManagers()) {
+            caches.add(cache);
+        }
+        Set<LockStrategy> lockStrategies = new LinkedHashSet<>();
+        for (RepositoryCacheManager cache : caches) {
+            if (!(cache instanceof DefaultRepositoryCacheManager)) {
+                continue;
+            }
+            DefaultRepositoryCacheManager dcm = (DefaultRepositoryCacheManager) cache;
+            ModuleDescriptorMemoryCache memoryCache = dcm.getMemoryCache();
+            String prefix = "cache." + dcm.getName() + ".memory.";
+            gauges.put(prefix + "hit", memoryCache.getHitCount());
+            gauges.put(prefix + "miss", memoryCache.getMissCount());
+            gauges.put(prefix + "eviction", memoryCache.getEvictionCount());
+            gauges.put(prefix + "weight", memoryCache.getWeight());
+            lockStrategies.add(dcm.getLockStrategy());
+        }
+        for (LockStrategy lockStrategy : lockStrategies) {
+            if (lockStrategy instanceof FileBasedLockStrategy) {
+                FileBasedLockStrategy fbls = (FileBasedLockStrategy) lockStrategy;
+                String prefix = "lock." + fbls.getName() + ".";
+                gauges.put(prefix + "acquired", fbls.getAcquiredLockCount());
+                gauges.put(prefix + "timedout", fbls.getTimedOutLockCount());
+                gauges.put(prefix + "wait.ms", fbls.getLockWaitTime());
+            }
+        }
+        return gauges;
+    }
+
+    /**
+     * Resets all the counters and histograms. Gauges are not reset.
+     */
+    public void reset() {
+        for (Counter counter : counters.values()) {
+            counter.reset();
+        }
+        for (Histogram histogram : histograms.values()) {
+            histogram.reset();
+        }
+    }
+
+    /**
+     * Writes the metrics as a JSON object, with a <code>counters</code>, a <code>gauges</code>
+     * and a <code>histograms</code> member.
+     *
+     * @param out
+     *            the writer to write to, which is not closed
+     * @throws IOException
+     *             if writing fails
+     */
+    public void writeJson(Writer out) throws IOException {
+        out.write("{\n  \"counters\": {");
+        String sep = "\n";
+        for (Map.Entry<String, Counter> entry : getCounters().entrySet()) {
+            out.write(sep + "    " + quote(entry.getKey()) + ": " + entry.getValue().getValue());
+            sep = ",\n";
+        }
+        out.write("\n  },\n  \"gauges\": {");
+        sep = "\n";
+        for (Map.Entry<String, Long> gauge : getGauges().entrySet()) {
+            out.write(sep + "    " + quote(gauge.getKey()) + ": " + gauge.getValue());
+            sep = ",\n";
+        }
+        out.write("\n  },\n  \"histograms\": {");
+        sep = "\n";
+        for (Map.Entry<String, Histogram> entry : getHistograms().entrySet()) {
+            Histogram histogram = entry.getValue();
+            out.write(sep + "    " + quote(entry.getKey()) + ": {\"count\": " + histogram.getCount()
+                    + ", \"sum\": " + histogram.getSum() + ", \"min\": " + histogram.getMin()
+                    + ", \"max\": " + histogram.getMax() + ", \"mean\": "
+                    + String.format(Locale.US, "%.1f", histogram.getMean()));
+            for (double percentile : PERCENTILES) {
+                out.write(", \"p" + (int) percentile + "\": "
+                        + histogram.getPercentile(percentile));
+            }
+            out.write("}");
+            sep = ",\n";
+        }
+        out.write("\n  }\n}\n");
+    }
+
+    /**
+     * Writes the metrics as JSON to the given file, replacing its content.
+     *
+     * @param file
+     *            the file to write
+     * @throws IOException
+     *             if writing fails
+     * @see #writeJson(Writer)
+     */
+    public void writeJson(File file) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        try (Writer out = new OutputStreamWriter(new FileOutputStream(file),
+                StandardCharsets.UTF_8)) {
+            writeJson(out);
+        }
+    }
+
+    private static String quote(String s) {
+        StringBuilder sb = new StringBuilder(s.length() + 2).append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < ' ') {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.core.metrics;
+
+import org.apache.ivy.core.event.IvyEvent;
+import org.apache.ivy.core.event.IvyListener;
+import org.apache.ivy.core.event.download.EndArtifactDownloadEvent;
+import org.apache.ivy.core.event.resolve.EndResolveDependencyEvent;
+import org.apache.ivy.core.event.resolve.EndResolveEvent;
+import org.apache.ivy.core.event.retrieve.EndRetrieveEvent;
+import org.apache.ivy.core.report.ArtifactDownloadReport;
+import org.apache.ivy.core.report.DownloadStatus;
+import org.apache.ivy.core.report.ResolveReport;
+import org.apache.ivy.plugins.repository.TransferEvent;
+import org.apache.ivy.plugins.repository.TransferListener;
+
+/**
+ * Feeds {@link IvyMetrics} from the events fired by Ivy:
+ * <ul>
+ * <li><code>resolve.time.ms</code> and <code>resolve.download.ms</code>: the resolve and download
+ * times of each resolve</li>
+ * <li><code>resolver.[name].lookup.ms</code>: the time taken by a resolver to find a dependency,
+ * and <code>resolver.[name].found</code> and <code>resolver.[name].notfound</code></li>
+ * <li><code>artifact.download.[status]</code>: the download status of the artifacts, where
+ * <code>no</code> means the artifact was found in the cache, and
+ * <code>artifact.download.ms</code> for the artifacts actually downloaded</li>
+ * <li><code>repository.[name].bytes</code>, <code>repository.[name].transfer.ms</code> and
+ * <code>repository.[name].error</code>: the bytes and time transferred from and to each
+ * repository</li>
+ * <li><code>retrieve.time.ms</code>: the time taken by each retrieve</li>
+ * </ul>
+ */
+public class MetricsListener implements IvyListener, TransferListener {
+    private final IvyMetrics metrics;
+
+    public MetricsListener(IvyMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public void progress(IvyEvent event) {
+        if (event instanceof EndResolveDependencyEvent) {
+            EndResolveDependencyEvent end = (EndResolveDependencyEvent) event;
+            String prefix = "resolver." + end.getResolver().getName() + ".";
+            metrics.record(prefix + "lookup.ms", end.getDuration());
+            metrics.increment(prefix + (end.getModule() == null ? "notfound" : "found"));
+        } else if (event instanceof EndArtifactDownloadEvent) {
+            ArtifactDownloadReport adr = ((EndArtifactDownloadEvent) event).getReport();
+            DownloadStatus status = adr.getDownloadStatus();
+            metrics.increment("artifact.download." + status);
+            if (status == DownloadStatus.SUCCESSFUL) {
+                metrics.record("artifact.download.ms", adr.getDownloadTimeMillis());
+            }
+        } else if (event instanceof EndResolveEvent) {
+            ResolveReport report = ((EndResolveEvent) event).getReport();
+            metrics.record("resolve.time.ms", report.getResolveTime());
+            metrics.record("resolve.download.ms", report.getDownloadTime());
+        } else if (event instanceof EndRetrieveEvent) {
+            metrics.record("retrieve.time.ms", ((EndRetrieveEvent) event).getDuration());
+        }
+    }
+
+    public void transferProgress(TransferEvent evt) {
+        String prefix = "repository." + evt.getRepository().getName() + ".";
+        switch (evt.getEventType()) {
+            case TransferEvent.TRANSFER_PROGRESS:
+                metrics.add(prefix + "bytes", evt.getLength());
+                break;
+            case TransferEvent.TRANSFER_COMPLETED:
+                long elapsed = evt.getElapsedTime(TransferEvent.TRANSFER_INITIATED,
+                    TransferEvent.TRANSFER_COMPLETED);
+                if (elapsed >= 0) {
+                    metrics.record(prefix + "transfer.ms", elapsed);
+                }
+                break;
+            case TransferEvent.TRANSFER_ERROR:
+                metrics.increment(prefix + "error");
+                break;
+            default:
+                break;
+        }
+    }
+}
@@ -245,6 +245,20 @@ public class DefaultDependencyDescriptor implements DependencyDescriptor {
         return getDependencyConfigurations(moduleConfiguration, moduleConfiguration);
     }
 
+    /**
+     * Returns the dependency configurations mapped to the given module configuration as they have
+     * been added, without any of the processing done by
+     * {@link #getDependencyConfigurations(String)}.
+     *
+     * @param moduleConfiguration
+     *            one of the module configurations returned by {@link #getModuleConfigurations()}
+     * @return the mapped dependency configurations, empty if there is none
+     */
+    public String[] getMappedDependencyConfigurations(String moduleConfiguration) {
+        List<String> confsList = confs.get(moduleConfiguration);
+        return confsList == null ? new String[0] : confsList.toArray(new String[confsList.size()]);
+    }
+
     /**
      * Return the dependency configurations mapped to the given moduleConfiguration, actually
      * resolved because of the given requestedConfiguration
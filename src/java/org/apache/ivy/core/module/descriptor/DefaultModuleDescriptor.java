@@ -602,6 +602,10 @@ public class DefaultModuleDescriptor implements ModuleDescriptor {
         return conflictManagers.getRule(moduleId);
     }
 
+    public ModuleRules<ConflictManager> getAllConflictManagers() {
+        return conflictManagers.clone();
+    }
+
     public void addDependencyDescriptorMediator(ModuleId moduleId, PatternMatcher matcher,
             DependencyDescriptorMediator ddm) {
         dependencyDescriptorMediators.defineRule(new MapMatcher(moduleId.getAttributes(), matcher),
@@ -94,35 +94,26 @@ public class MatcherLookup {
     public List<MapMatcher> get(Map<String, String> attrs) {
         List<MapMatcher> matchers = new ArrayList<>();
         // Step 1: find matchers from nonExactMatchers list
-        if (!nonExactMatchers.isEmpty()) {
-            for (MapMatcher matcher : nonExactMatchers) {
-                if (matcher.matches(attrs)) {
-                    matchers.add(matcher);
-                }
-            }
-        }
+        addMatching(nonExactMatchers, attrs, matchers);
         // Step 2: find matchers from exactMatchers list of key
         String key = key(attrs);
-        List<MapMatcher> exactMatchers = lookup.get(key);
-        if (exactMatchers != null) {
-            for (MapMatcher matcher : exactMatchers) {
-                if (matcher.matches(attrs)) {
-                    matchers.add(matcher);
-                }
-            }
-        }
+        addMatching(lookup.get(key), attrs, matchers);
         // Step 3: (iff key != DEFAULT) find matchers from exactMatchers of DEFAULT
         if (!DEFAULT.equals(key)) {
-            List<MapMatcher> defaultExactMatchers = lookup.get(DEFAULT);
-            if (defaultExactMatchers != null) {
-                for (MapMatcher matcher : defaultExactMatchers) {
-                    if (matcher.matches(attrs)) {
-                        matchers.add(matcher);
-                    }
+            addMatching(lookup.get(DEFAULT), attrs, matchers);
+        }
+        return matchers;
+    }
+
+    private static void addMatching(List<MapMatcher> candidates, Map<String, String> attrs,
+            List<MapMatcher> matchers) {
+        if (candidates != null) {
+            for (MapMatcher matcher : candidates) {
+                if (matcher.matches(attrs)) {
+                    matchers.add(matcher);
                 }
             }
         }
-        return matchers;
     }
 
     /**
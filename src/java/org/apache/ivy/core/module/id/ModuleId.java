@@ -17,10 +17,8 @@
  */
 package org.apache.ivy.core.module.id;
 
-import java.lang.ref.WeakReference;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.WeakHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -35,7 +33,7 @@ public class ModuleId implements Comparable<ModuleId> {
 
     static final String ENCODE_SEPARATOR = ":#@#:";
 
-    private static final Map<ModuleId, WeakReference<ModuleId>> CACHE = new WeakHashMap<>();
+    private static final WeakInterner<ModuleId> CACHE = new WeakInterner<>();
 
     /**
      * Returns a ModuleId for the given organization and module name.
@@ -63,20 +61,7 @@ public class ModuleId implements Comparable<ModuleId> {
      * @return a unit instance of the given module id.
      */
     public static ModuleId intern(ModuleId moduleId) {
-        ModuleId r = null;
-
-        synchronized (CACHE) {
-            WeakReference<ModuleId> ref = CACHE.get(moduleId);
-            if (ref != null) {
-                r = ref.get();
-            }
-            if (r == null) {
-                r = moduleId;
-                CACHE.put(r, new WeakReference<>(r));
-            }
-        }
-
-        return r;
+        return CACHE.intern(moduleId);
     }
 
     private String organisation;
@@ -17,10 +17,8 @@
  */
 package org.apache.ivy.core.module.id;
 
-import java.lang.ref.WeakReference;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.WeakHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -46,7 +44,7 @@ public class ModuleRevisionId extends UnmodifiableExtendableItem {
 
     private static final String REV_STRICT_CHARS_PATTERN = "[a-zA-Z0-9\\-/\\._+=,\\[\\]\\{\\}\\(\\):@]";
 
-    private static final Map<ModuleRevisionId, WeakReference<ModuleRevisionId>> CACHE = new WeakHashMap<>();
+    private static final WeakInterner<ModuleRevisionId> CACHE = new WeakInterner<>();
 
     /**
      * Pattern to use to matched mrid text representation.
@@ -147,20 +145,7 @@ public class ModuleRevisionId extends UnmodifiableExtendableItem {
      * @return an interned ModuleRevisionId
      */
     public static ModuleRevisionId intern(ModuleRevisionId moduleRevisionId) {
-        ModuleRevisionId r = null;
-
-        synchronized (CACHE) {
-            WeakReference<ModuleRevisionId> ref = CACHE.get(moduleRevisionId);
-            if (ref != null) {
-                r = ref.get();
-            }
-            if (r == null) {
-                r = moduleRevisionId;
-                CACHE.put(r, new WeakReference<>(r));
-            }
-        }
-
-        return r;
+        return CACHE.intern(moduleRevisionId);
     }
 
     private final ModuleId moduleId;
@@ -22,6 +22,7 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.ivy.plugins.matcher.MapMatcher;
 import org.apache.ivy.util.Checks;
@@ -44,6 +45,11 @@ import org.apache.ivy.util.filter.NoFilter;
  * Rules condition are evaluated in order, so the first matching rule is returned.
  * </p>
  * <p>
+ * Rules with exact organisation and module conditions are indexed, and the rules matching a
+ * module are remembered until a new rule is defined, so that looking up the rules of a module
+ * doesn't evaluate every condition each time.
+ * </p>
+ * <p>
  * Rules themselves can be represented by any object, depending on the purpose of the rule (define
  * which resolver to use, which TTL in cache, ...)
  * </p>
@@ -54,8 +60,16 @@ public class ModuleRules<T> {
 
     private Map<MapMatcher, T> rules = new LinkedHashMap<>();
 
+    private static final int MAX_MEMOIZED_MODULES = 10000;
+
     private MatcherLookup matcherLookup = new MatcherLookup();
 
+    /**
+     * The rules matching each {@link ModuleId} or {@link ModuleRevisionId} looked up so far, in
+     * the order in which {@link MatcherLookup} returns their conditions.
+     */
+    private final Map<Object, List<T>> matchingRules = new ConcurrentHashMap<>();
+
     /**
      * Constructs an empty ModuleRules.
      */
@@ -81,8 +95,10 @@ public class ModuleRules<T> {
         Checks.checkNotNull(condition, "condition");
         Checks.checkNotNull(rule, "rule");
 
-        rules.put(condition, rule);
-        matcherLookup.add(condition);
+        if (rules.put(condition, rule) == null) {
+            matcherLookup.add(condition);
+        }
+        matchingRules.clear();
     }
 
     /**
@@ -108,7 +124,8 @@ public class ModuleRules<T> {
      * @return an array of rule objects matching the given {@link ModuleId}.
      */
     public List<T> getRules(ModuleId mid) {
-        return getRules(mid.getAttributes(), NoFilter.<T> instance());
+        Checks.checkNotNull(mid, "mid");
+        return getRules(mid, mid.getAttributes(), NoFilter.<T> instance());
     }
 
     /**
@@ -144,7 +161,8 @@ public class ModuleRules<T> {
      */
     public T getRule(ModuleId mid, Filter<T> filter) {
         Checks.checkNotNull(mid, "mid");
-        return getRule(mid.getAttributes(), filter);
+        Checks.checkNotNull(filter, "filter");
+        return getRule(mid, mid.getAttributes(), filter);
     }
 
     /**
@@ -166,13 +184,11 @@ public class ModuleRules<T> {
     public T getRule(ModuleRevisionId mrid, Filter<T> filter) {
         Checks.checkNotNull(mrid, "mrid");
         Checks.checkNotNull(filter, "filter");
-        Map<String, String> moduleAttributes = mrid.getAttributes();
-        return getRule(moduleAttributes, filter);
+        return getRule(mrid, mrid.getAttributes(), filter);
     }
 
-    private T getRule(Map<String, String> moduleAttributes, Filter<T> filter) {
-        for (MapMatcher midm : matcherLookup.get(moduleAttributes)) {
-            T rule = rules.get(midm);
+    private T getRule(Object moduleKey, Map<String, String> moduleAttributes, Filter<T> filter) {
+        for (T rule : getMatchingRules(moduleKey, moduleAttributes)) {
             if (filter.accept(rule)) {
                 return rule;
             }
@@ -196,19 +212,34 @@ public class ModuleRules<T> {
     public List<T> getRules(ModuleRevisionId mrid, Filter<T> filter) {
         Checks.checkNotNull(mrid, "mrid");
         Checks.checkNotNull(filter, "filter");
-        Map<String, String> moduleAttributes = mrid.getAttributes();
-        return getRules(moduleAttributes, filter);
+        return getRules(mrid, mrid.getAttributes(), filter);
     }
 
-    private List<T> getRules(Map<String, String> moduleAttributes, Filter<T> filter) {
-        List<T> matchingRules = new ArrayList<>();
-        for (MapMatcher midm : matcherLookup.get(moduleAttributes)) {
-            T rule = rules.get(midm);
+    private List<T> getRules(Object moduleKey, Map<String, String> moduleAttributes,
+            Filter<T> filter) {
+        List<T> acceptedRules = new ArrayList<>();
+        for (T rule : getMatchingRules(moduleKey, moduleAttributes)) {
             if (filter.accept(rule)) {
-                matchingRules.add(rule);
+                acceptedRules.add(rule);
+            }
+        }
+        return acceptedRules;
+    }
+
+    private List<T> getMatchingRules(Object moduleKey, Map<String, String> moduleAttributes) {
+        List<T> matching = matchingRules.get(moduleKey);
+        if (matching == null) {
+            matching = new ArrayList<>();
+            for (MapMatcher midm : matcherLookup.get(moduleAttributes)) {
+                matching.add(rules.get(midm));
+            }
+            matching = Collections.unmodifiableList(matching);
+            if (matchingRules.size() >= MAX_MEMOIZED_MODULES) {
+                matchingRules.clear();
             }
+            matchingRules.put(moduleKey, matching);
         }
-        return matchingRules;
+        return matching;
     }
 
     /**
@@ -0,0 +1,128 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.core.module.id;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A pool of canonical instances, which doesn't prevent them from being garbage collected.
+ * <p>
+ * Instances are weakly referenced from a {@link ConcurrentHashMap}, so that interning never
+ * blocks other threads. The entries of collected instances are removed from the map when they
+ * are found in a reference queue, at the next call to {@link #intern(Object)}.
+ * </p>
+ *
+ * @param <T>
+ *            the type of the interned instances, which must be immutable as far as
+ *            {@link Object#equals(Object)} and {@link Object#hashCode()} are concerned
+ */
+final class WeakInterner<T> {
+    private final ConcurrentMap<Object, InternedReference<T>> instances = new ConcurrentHashMap<>();
+
+    private final ReferenceQueue<T> queue = new ReferenceQueue<>();
+
+    /**
+     * Returns the canonical instance equal to the given instance, which becomes the canonical
+     * instance if there is none yet.
+     *
+     * @param instance
+     *            the instance to intern
+     * @return the canonical instance
+     */
+    T intern(T instance) {
+        expungeCollectedInstances();
+        InternedReference<T> ref = instances.get(new Lookup(instance));
+        T interned = ref == null ? null : ref.get();
+        while (interned == null) {
+            InternedReference<T> newRef = new InternedReference<>(instance, queue);
+            ref = instances.putIfAbsent(newRef, newRef);
+            // if the instance found meanwhile has been collected since, it won't be found again
+            interned = ref == null ? instance : ref.get();
+        }
+        return interned;
+    }
+
+    int size() {
+        expungeCollectedInstances();
+        return instances.size();
+    }
+
+    private void expungeCollectedInstances() {
+        Reference<? extends T> ref;
+        while ((ref = queue.poll()) != null) {
+            instances.remove(ref, ref);
+        }
+    }
+
+    /**
+     * A weak reference equal to the references to equal instances, as long as its instance has
+     * not been collected.
+     */
+    private static final class InternedReference<T> extends WeakReference<T> {
+        private final int hash;
+
+        private InternedReference(T instance, ReferenceQueue<T> queue) {
+            super(instance, queue);
+            this.hash = instance.hashCode();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (!(obj instanceof InternedReference)) {
+                return false;
+            }
+            T instance = get();
+            return instance != null && instance.equals(((InternedReference<?>) obj).get());
+        }
+    }
+
+    /**
+     * A key used to look up the reference to an instance equal to a given instance, without
+     * creating a weak reference.
+     */
+    private static final class Lookup {
+        private final Object instance;
+
+        private Lookup(Object instance) {
+            this.instance = instance;
+        }
+
+        @Override
+        public int hashCode() {
+            return instance.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof InternedReference
+                    && instance.equals(((InternedReference<?>) obj).get());
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.core.report;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.ivy.core.module.descriptor.ModuleDescriptor;
+import org.apache.ivy.core.module.id.ModuleId;
+import org.apache.ivy.core.module.id.ModuleRevisionId;
+import org.apache.ivy.core.resolve.ResolveEngine;
+import org.apache.ivy.core.resolve.ResolveOptions;
+
+/**
+ * A configuration report rebuilt from the result of a previous resolve stored in the resolution
+ * cache, instead of from the nodes of a dependency graph.
+ * <p>
+ * Such a report only holds the resolved module revisions and their artifact download reports: as
+ * only successful resolves are stored, it has no unresolved dependency, and the evicted nodes and
+ * the other nodes of the graph are not available.
+ * </p>
+ */
+public class CachedConfigurationResolveReport extends ConfigurationResolveReport {
+
+    private final Map<ModuleRevisionId, List<ArtifactDownloadReport>> dependencyReports =
+            new LinkedHashMap<>();
+
+    private final List<ModuleId> moduleIds;
+
+    /**
+     * @param resolveEngine
+     *            the engine which performed the resolve
+     * @param md
+     *            the resolved module descriptor
+     * @param conf
+     *            the configuration of this report
+     * @param date
+     *            the date of the report
+     * @param options
+     *            the options of the resolve
+     * @param mrids
+     *            the resolved, non evicted module revisions, grouped by module in the order of
+     *            {@link #getModuleIds()}
+     * @param reports
+     *            the artifact download reports of these module revisions, in the order of
+     *            {@link #getModuleRevisionIds()}
+     */
+    public CachedConfigurationResolveReport(ResolveEngine resolveEngine, ModuleDescriptor md,
+            String conf, Date date, ResolveOptions options, List<ModuleRevisionId> mrids,
+            List<ArtifactDownloadReport> reports) {
+        super(resolveEngine, md, conf, date, options);
+        Set<ModuleId> mids = new LinkedHashSet<>();
+        for (ModuleRevisionId mrid : mrids) {
+            mids.add(mrid.getModuleId());
+        }
+        moduleIds = Collections.unmodifiableList(new ArrayList<>(mids));
+        Set<ModuleRevisionId> resolved = new LinkedHashSet<>(mrids);
+        for (ArtifactDownloadReport report : reports) {
+            ModuleRevisionId mrid = report.getArtifact().getModuleRevisionId();
+            if (resolved.contains(mrid)) {
+                List<ArtifactDownloadReport> adrs = dependencyReports.get(mrid);
+                if (adrs == null) {
+                    adrs = new ArrayList<>();
+                    dependencyReports.put(mrid, adrs);
+                }
+                adrs.add(report);
+            }
+        }
+        // the module revisions without artifacts come last
+        for (ModuleRevisionId mrid : resolved) {
+            if (!dependencyReports.containsKey(mrid)) {
+                dependencyReports.put(mrid, Collections.<ArtifactDownloadReport> emptyList());
+            }
+        }
+    }
+
+    @Override
+    public Set<ModuleRevisionId> getModuleRevisionIds() {
+        return new LinkedHashSet<>(dependencyReports.keySet());
+    }
+
+    @Override
+    public ArtifactDownloadReport[] getDownloadReports(ModuleRevisionId mrid) {
+        Collection<ArtifactDownloadReport> col = dependencyReports.get(mrid);
+        if (col == null) {
+            return new ArtifactDownloadReport[0];
+        }
+        return col.toArray(new ArtifactDownloadReport[col.size()]);
+    }
+
+    @Override
+    public List<ModuleId> getModuleIds() {
+        return moduleIds;
+    }
+
+    @Override
+    public int getArtifactsNumber() {
+        int total = 0;
+        for (Collection<ArtifactDownloadReport> reports : dependencyReports.values()) {
+            total += reports.size();
+        }
+        return total;
+    }
+
+    @Override
+    public ArtifactDownloadReport[] getArtifactsReports(DownloadStatus downloadStatus,
+            boolean withEvicted) {
+        // the reports of evicted modules are not stored
+        Collection<ArtifactDownloadReport> all = new LinkedHashSet<>();
+        for (Collection<ArtifactDownloadReport> reports : dependencyReports.values()) {
+            for (ArtifactDownloadReport report : reports) {
+                if (downloadStatus == null || report.getDownloadStatus() == downloadStatus) {
+                    all.add(report);
+                }
+            }
+        }
+        return all.toArray(new ArtifactDownloadReport[all.size()]);
+    }
+
+    @Override
+    public int getNodesNumber() {
+        return dependencyReports.size();
+    }
+}
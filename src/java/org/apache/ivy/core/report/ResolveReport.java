@@ -262,6 +262,17 @@ public class ResolveReport {
         return artifacts;
     }
 
+    /**
+     * Sets the list of artifacts of a report which is not built from dependency nodes, but from
+     * the result of a previous resolve found in the resolution cache.
+     *
+     * @param artifacts
+     *            the list of all artifacts which should be downloaded per this resolve
+     */
+    public void setArtifacts(List<Artifact> artifacts) {
+        this.artifacts = artifacts;
+    }
+
     /**
      * gives all the modules ids concerned by this report, from the most dependent to the least one
      *
@@ -0,0 +1,178 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.core.resolve;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.ivy.core.IvyExecutors;
+import org.apache.ivy.core.module.descriptor.DependencyDescriptor;
+import org.apache.ivy.core.module.id.ModuleRevisionId;
+import org.apache.ivy.plugins.resolver.DependencyResolver;
+import org.apache.ivy.util.Message;
+
+/**
+ * Speculatively looks up module descriptors of dependencies in a pool of worker threads, while the
+ * {@link ResolveEngine} is still visiting their parents.
+ * <p>
+ * Lookups are done with a detached {@link ResolveData}, so that they never depend on the state of
+ * the dependency graph being built. Their only purpose is to get the module descriptors into the
+ * repository cache: {@link IvyNode#loadData} still asks the resolver for the module once the
+ * prefetch is done, and thus takes all its decisions at the same point as without prefetch.
+ * </p>
+ * <p>
+ * Only dependencies on static revisions are prefetched, dynamic revisions being resolved against
+ * the graph state. Note that a prefetched module may end up being evicted, in which case its
+ * descriptor has been put in the cache while it wouldn't have been without prefetch. Modules
+ * whose resolver isn't known to be thread safe are not prefetched either.
+ * </p>
+ */
+class DependencyPrefetcher {
+
+    private static final class Prefetch {
+        private final DependencyResolver resolver;
+
+        private final Future<ResolvedModuleRevision> future;
+
+        private Prefetch(DependencyResolver resolver, Future<ResolvedModuleRevision> future) {
+            this.resolver = resolver;
+            this.future = future;
+        }
+    }
+
+    private final ResolveEngine engine;
+
+    private final ResolveData data;
+
+    private final ExecutorService executor;
+
+    private final Map<ModuleRevisionId, Prefetch> prefetches = new HashMap<>();
+
+    DependencyPrefetcher(ResolveEngine engine, ResolveOptions options, int parallelism) {
+        this.engine = engine;
+        this.data = new ResolveData(engine, options);
+        this.executor = IvyExecutors.newFixedThreadPool("ivy-prefetch", parallelism);
+    }
+
+    /**
+     * Submits the lookup of the module descriptors of the given dependencies, if they aren't
+     * loaded nor already being looked up.
+     *
+     * @param dependencies
+     *            the dependencies which are about to be visited
+     */
+    void prefetch(Collection<VisitNode> dependencies) {
+        for (VisitNode dep : dependencies) {
+            IvyNode node = dep.getNode();
+            if (node.isLoaded() || node.hasProblem() || prefetches.containsKey(node.getId())
+                    || engine.getSettings().getVersionMatcher().isDynamic(node.getId())) {
+                continue;
+            }
+            final DependencyDescriptor dd = dep.getDependencyDescriptor();
+            if (dd == null) {
+                continue;
+            }
+            DependencyResolver resolver = engine.getDictatorResolver();
+            if (resolver == null) {
+                resolver = engine.getSettings().getResolver(node.getId());
+            }
+            if (resolver == null || !ResolveEngine.isThreadSafe(resolver)) {
+                // the engine would use the resolver while the prefetch is in progress
+                continue;
+            }
+            final DependencyResolver r = resolver;
+            Callable<ResolvedModuleRevision> lookup = new Callable<ResolvedModuleRevision>() {
+                public ResolvedModuleRevision call() throws Exception {
+                    ResolvedModuleRevision module = r.getDependency(dd, data);
+                    if (module != null) {
+                        // as done when loading a node, so that the cache tells which resolvers
+                        // found the module when it is looked up again
+                        module.getResolver().getRepositoryCacheManager().saveResolvers(
+                            module.getDescriptor(), module.getResolver().getName(),
+                            module.getArtifactResolver().getName());
+                    }
+                    return module;
+                }
+            };
+            prefetches.put(node.getId(),
+                new Prefetch(resolver, executor.submit(IvyExecutors.withContext(lookup))));
+        }
+    }
+
+    /**
+     * Waits for the prefetch of the given module, if any.
+     *
+     * @param mrid
+     *            the id of the module about to be loaded
+     * @param resolver
+     *            the resolver which is about to be used to load the module
+     * @return the module found by the prefetch, or <code>null</code> if the module was not
+     *         prefetched with the same resolver, or has not been found
+     */
+    ResolvedModuleRevision await(ModuleRevisionId mrid, DependencyResolver resolver) {
+        Prefetch prefetch = prefetches.remove(mrid);
+        if (prefetch == null) {
+            return null;
+        }
+        try {
+            ResolvedModuleRevision rmr = prefetch.future.get();
+            return prefetch.resolver == resolver ? rmr : null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            Message.debug("\tprefetch of " + mrid + " failed: " + e.getCause().getMessage(),
+                e.getCause());
+            return null;
+        }
+    }
+
+    /**
+     * Returns the module revision to use for a module loaded after its prefetch. As the prefetch
+     * is the one which actually downloaded the module descriptor, its download report is kept, in
+     * order to report the module as it would have been reported without prefetch.
+     *
+     * @param module
+     *            the module revision found when loading the module
+     * @param prefetched
+     *            the module revision found by the prefetch
+     * @return the module revision to use
+     */
+    static ResolvedModuleRevision merge(ResolvedModuleRevision module,
+            ResolvedModuleRevision prefetched) {
+        if (module == null || prefetched == null || !module.getId().equals(prefetched.getId())
+                || module.getReport().isDownloaded() || !prefetched.getReport().isDownloaded()) {
+            return module;
+        }
+        return new ResolvedModuleRevision(module.getResolver(), module.getArtifactResolver(),
+                module.getDescriptor(), prefetched.getReport(), module.isForce());
+    }
+
+    /**
+     * Cancels pending prefetches and stops the worker threads.
+     */
+    void shutdown() {
+        executor.shutdownNow();
+        prefetches.clear();
+    }
+}
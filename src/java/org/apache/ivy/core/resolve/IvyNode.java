@@ -189,7 +189,11 @@ public class IvyNode implements Comparable<IvyNode> {
                     data.getEventManager().fireIvyEvent(
                         new StartResolveDependencyEvent(resolver, dependencyDescriptor,
                                 requestedRevisionId));
-                    module = resolver.getDependency(dependencyDescriptor, data);
+                    DependencyPrefetcher prefetcher = data.getPrefetcher();
+                    ResolvedModuleRevision prefetched = prefetcher == null ? null
+                            : prefetcher.await(getId(), resolver);
+                    module = DependencyPrefetcher.merge(
+                        resolver.getDependency(dependencyDescriptor, data), prefetched);
                     data.getEventManager().fireIvyEvent(
                         new EndResolveDependencyEvent(resolver, dependencyDescriptor,
                                 requestedRevisionId, module, System.currentTimeMillis() - start));
@@ -25,6 +25,8 @@ import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.ivy.core.event.EventManager;
 import org.apache.ivy.core.module.descriptor.DependencyDescriptor;
@@ -47,11 +49,18 @@ public class ResolveData {
 
     private ResolvedModuleRevision currentResolvedModuleRevision;
 
+    private DependencyPrefetcher prefetcher;
+
+    // shared map of the values cached for the whole resolve
+    private ConcurrentMap<String, Object> sharedValues = new ConcurrentHashMap<>();
+
     public ResolveData(ResolveData data, boolean validate) {
         this(data.engine, new ResolveOptions(data.options).setValidate(validate), data.report,
                 data.visitData);
         setCurrentVisitNode(data.currentVisitNode);
         setCurrentResolvedModuleRevision(data.currentResolvedModuleRevision);
+        prefetcher = data.prefetcher;
+        sharedValues = data.sharedValues;
     }
 
     public ResolveData(ResolveEngine engine, ResolveOptions options) {
@@ -332,4 +341,41 @@ public class ResolveData {
     public ResolvedModuleRevision getCurrentResolvedModuleRevision() {
         return currentResolvedModuleRevision;
     }
+
+    /**
+     * Returns a value cached for the whole resolve, for instance by a resolver which wants to
+     * parse some repository metadata only once for all the modules of the resolve.
+     *
+     * @param <T>
+     *            the type of the value
+     * @param key
+     *            the key of the value, which should be prefixed by the name of its owner
+     * @return the value, or null if none has been cached
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getSharedValue(String key) {
+        return (T) sharedValues.get(key);
+    }
+
+    /**
+     * Caches a value for the whole resolve.
+     *
+     * @param key
+     *            the key of the value, which should be prefixed by the name of its owner
+     * @param value
+     *            the value to cache
+     * @see #getSharedValue(String)
+     */
+    public void setSharedValue(String key, Object value) {
+        sharedValues.put(key, value);
+    }
+
+    DependencyPrefetcher getPrefetcher() {
+        return prefetcher;
+    }
+
+    void setPrefetcher(DependencyPrefetcher prefetcher) {
+        this.prefetcher = prefetcher;
+    }
+
 }
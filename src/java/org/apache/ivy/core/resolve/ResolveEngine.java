@@ -34,9 +34,14 @@ import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.apache.ivy.Ivy;
 import org.apache.ivy.core.IvyContext;
+import org.apache.ivy.core.IvyExecutors;
 import org.apache.ivy.core.LogOptions;
 import org.apache.ivy.core.cache.ArtifactOrigin;
 import org.apache.ivy.core.cache.DefaultResolutionCacheManager;
@@ -45,6 +50,7 @@ import org.apache.ivy.core.event.EventManager;
 import org.apache.ivy.core.event.download.PrepareDownloadEvent;
 import org.apache.ivy.core.event.resolve.EndResolveEvent;
 import org.apache.ivy.core.event.resolve.StartResolveEvent;
+import org.apache.ivy.core.metrics.IvyMetrics;
 import org.apache.ivy.core.module.descriptor.Artifact;
 import org.apache.ivy.core.module.descriptor.Configuration;
 import org.apache.ivy.core.module.descriptor.DefaultDependencyDescriptor;
@@ -65,8 +71,13 @@ import org.apache.ivy.core.sort.SortOptions;
 import org.apache.ivy.plugins.conflict.ConflictManager;
 import org.apache.ivy.plugins.parser.ModuleDescriptorParser;
 import org.apache.ivy.plugins.parser.ModuleDescriptorParserRegistry;
+import org.apache.ivy.plugins.repository.AbstractRepository;
+import org.apache.ivy.plugins.repository.Repository;
 import org.apache.ivy.plugins.repository.url.URLResource;
+import org.apache.ivy.plugins.resolver.ChainResolver;
 import org.apache.ivy.plugins.resolver.DependencyResolver;
+import org.apache.ivy.plugins.resolver.DualResolver;
+import org.apache.ivy.plugins.resolver.RepositoryResolver;
 import org.apache.ivy.plugins.version.VersionMatcher;
 import org.apache.ivy.util.Message;
 import org.apache.ivy.util.filter.Filter;
@@ -193,7 +204,12 @@ public class ResolveEngine {
         URLResource res = new URLResource(ivySource);
         ModuleDescriptorParser parser = ModuleDescriptorParserRegistry.getInstance().getParser(res);
         Message.verbose("using " + parser + " to parse " + ivySource);
+        long start = System.nanoTime();
         ModuleDescriptor md = parser.parseDescriptor(settings, ivySource, options.isValidate());
+        IvyMetrics metrics = IvyMetrics.current();
+        if (metrics != null) {
+            metrics.recordSince("descriptor.parse.ns", start);
+        }
         String revision = options.getRevision();
         if (revision == null && md.getResolvedModuleRevisionId().getRevision() == null) {
             revision = Ivy.getWorkingRevision();
@@ -241,6 +257,33 @@ public class ResolveEngine {
             Message.verbose("\tvalidate = " + options.isValidate());
             Message.verbose("\trefresh = " + options.isRefresh());
 
+            ResolutionCacheManager cacheManager = settings.getResolutionCacheManager();
+            ResolveResultCache resultCache = ResolveResultCache.newInstance(this, options);
+            if (resultCache != null) {
+                // the resolved ivy file is part of the fingerprint of the resolve
+                cacheManager.saveResolvedModuleDescriptor(md);
+                ResolveReport report = resultCache.lookup(md);
+                if (report != null) {
+                    Message.verbose("\tresolve result found in cache");
+                    if (options.getCheckIfChanged()) {
+                        report.checkIfChanged();
+                    }
+                    report.setResolveTime(System.currentTimeMillis() - start);
+                    Message.verbose("\tresolve done (" + report.getResolveTime()
+                            + "ms from cache)");
+                    Message.sumupProblems();
+
+                    eventManager.fireIvyEvent(new EndResolveEvent(md, confs, report));
+                    return report;
+                }
+            }
+            if (cacheManager instanceof DefaultResolutionCacheManager
+                    && options.isOutputReport()) {
+                // the reports of the last recorded resolve are about to be replaced
+                ((DefaultResolutionCacheManager) cacheManager).removeResolveResult(options
+                        .getResolveId());
+            }
+
             ResolveReport report = new ResolveReport(md, options.getResolveId());
 
             ResolveData data = new ResolveData(this, options);
@@ -255,17 +298,13 @@ public class ResolveEngine {
             }
 
             // produce resolved ivy file and ivy properties in cache
-            ResolutionCacheManager cacheManager = settings.getResolutionCacheManager();
-            cacheManager.saveResolvedModuleDescriptor(md);
+            if (resultCache == null) {
+                cacheManager.saveResolvedModuleDescriptor(md);
+            }
 
             // we store the resolved dependencies revisions and statuses per asked dependency
             // revision id, for direct dependencies only.
             // this is used by the deliver task to resolve dynamic revisions to static ones
-            File ivyPropertiesInCache = cacheManager.getResolvedIvyPropertiesInCache(md
-                    .getResolvedModuleRevisionId());
-            if (cacheManager instanceof DefaultResolutionCacheManager) {
-                ((DefaultResolutionCacheManager) cacheManager).assertInsideCache(ivyPropertiesInCache);
-            }
             Properties props = new Properties();
             if (dependencies.length > 0) {
                 Map<ModuleId, ModuleRevisionId> forcedRevisions = new HashMap<>();
@@ -339,9 +378,7 @@ public class ResolveEngine {
                     }
                 }
             }
-            FileOutputStream out = new FileOutputStream(ivyPropertiesInCache);
-            props.store(out, md.getResolvedModuleRevisionId() + " resolved revisions");
-            out.close();
+            saveResolvedRevisions(md, props);
             Message.verbose("\tresolved ivy file produced in cache");
 
             report.setResolveTime(System.currentTimeMillis() - start);
@@ -356,6 +393,9 @@ public class ResolveEngine {
 
             if (options.isOutputReport()) {
                 outputReport(report, cacheManager, options);
+                if (resultCache != null && !report.hasError()) {
+                    resultCache.store(dependencies, props, data);
+                }
             }
 
             Message.verbose("\tresolve done (" + report.getResolveTime() + "ms resolve - "
@@ -375,6 +415,22 @@ public class ResolveEngine {
         }
     }
 
+    /**
+     * Stores the resolved revisions and statuses of the direct dependencies of a module in the
+     * resolution cache.
+     */
+    void saveResolvedRevisions(ModuleDescriptor md, Properties props) throws IOException {
+        ResolutionCacheManager cacheManager = settings.getResolutionCacheManager();
+        File ivyPropertiesInCache = cacheManager.getResolvedIvyPropertiesInCache(md
+                .getResolvedModuleRevisionId());
+        if (cacheManager instanceof DefaultResolutionCacheManager) {
+            ((DefaultResolutionCacheManager) cacheManager).assertInsideCache(ivyPropertiesInCache);
+        }
+        FileOutputStream out = new FileOutputStream(ivyPropertiesInCache);
+        props.store(out, md.getResolvedModuleRevisionId() + " resolved revisions");
+        out.close();
+    }
+
     public void outputReport(ResolveReport report, ResolutionCacheManager cacheMgr,
             ResolveOptions options) throws IOException {
         if (ResolveOptions.LOG_DEFAULT.equals(options.getLog())) {
@@ -396,47 +452,166 @@ public class ResolveEngine {
         eventManager.fireIvyEvent(new PrepareDownloadEvent(report.getArtifacts().toArray(
             new Artifact[report.getArtifacts().size()])));
 
-        long totalSize = 0;
+        List<IvyNode> dependencies = new ArrayList<>();
         for (IvyNode dependency : report.getDependencies()) {
-            checkInterrupted();
             // download artifacts required in all asked configurations
             if (!dependency.isCompletelyEvicted() && !dependency.hasProblem()
                     && dependency.getModuleRevision() != null) {
+                dependencies.add(dependency);
+            }
+        }
+
+        long totalSize = 0;
+        int parallelism = Math.min(settings.getDownloadParallelism(), dependencies.size());
+        if (parallelism > 1) {
+            List<DownloadReport> dReports = downloadConcurrently(dependencies, artifactFilter,
+                options, parallelism);
+            // reports are processed in the same order as in a serial download, so that the
+            // resulting resolve report doesn't depend on the order in which downloads complete
+            for (int i = 0; i < dependencies.size(); i++) {
+                totalSize += processDownloadReport(report, dependencies.get(i), dReports.get(i));
+            }
+        } else {
+            for (IvyNode dependency : dependencies) {
+                checkInterrupted();
                 DependencyResolver resolver = dependency.getModuleRevision()
                         .getArtifactResolver();
-                Artifact[] selectedArtifacts = dependency.getSelectedArtifacts(artifactFilter);
-                DownloadReport dReport = resolver.download(selectedArtifacts, options);
-                for (ArtifactDownloadReport adr : dReport.getArtifactsReports()) {
-                    if (adr.getDownloadStatus() == DownloadStatus.FAILED) {
-                        if (adr.getArtifact().getExtraAttribute("ivy:merged") != null) {
-                            Message.warn("\tmerged artifact not found: " + adr.getArtifact()
-                                    + ". It was required in "
-                                    + adr.getArtifact().getExtraAttribute("ivy:merged"));
+                DownloadReport dReport = resolver.download(
+                    dependency.getSelectedArtifacts(artifactFilter), options);
+                reportFailures(resolver, dReport);
+                totalSize += processDownloadReport(report, dependency, dReport);
+            }
+        }
+        report.setDownloadTime(System.currentTimeMillis() - start);
+        report.setDownloadSize(totalSize);
+    }
+
+    private List<DownloadReport> downloadConcurrently(List<IvyNode> dependencies,
+            Filter<Artifact> artifactFilter, final DownloadOptions options, int parallelism) {
+        Message.verbose("\tdownloading artifacts of " + dependencies.size() + " modules using "
+                + parallelism + " threads");
+        ExecutorService executor = IvyExecutors.newFixedThreadPool("ivy-download", parallelism);
+        // resolvers whose repository doesn't support concurrent access download one at a time
+        final Object serialDownloads = new Object();
+        try {
+            List<Future<DownloadReport>> futures = new ArrayList<>(dependencies.size());
+            for (IvyNode dependency : dependencies) {
+                final DependencyResolver resolver = dependency.getModuleRevision()
+                        .getArtifactResolver();
+                final Artifact[] selectedArtifacts = dependency
+                        .getSelectedArtifacts(artifactFilter);
+                final boolean threadSafe = isThreadSafe(resolver);
+                Callable<DownloadReport> task = new Callable<DownloadReport>() {
+                    public DownloadReport call() {
+                        DownloadReport dReport;
+                        if (threadSafe) {
+                            dReport = resolver.download(selectedArtifacts, options);
                         } else {
-                            Message.warn("\t" + adr);
-                            resolver.reportFailure(adr.getArtifact());
+                            synchronized (serialDownloads) {
+                                dReport = resolver.download(selectedArtifacts, options);
+                            }
                         }
-                    } else if (adr.getDownloadStatus() == DownloadStatus.SUCCESSFUL) {
-                        totalSize += adr.getSize();
-                    }
-                }
-                // update concerned reports
-                for (String dconf : dependency.getRootModuleConfigurations()) {
-                    // the report itself is responsible to take into account only
-                    // artifacts required in its corresponding configuration
-                    // (as described by the Dependency object)
-                    if (dependency.isEvicted(dconf)
-                            || dependency.isBlacklisted(dconf)) {
-                        report.getConfigurationReport(dconf).addDependency(dependency);
-                    } else {
-                        report.getConfigurationReport(dconf).addDependency(dependency,
-                                dReport);
+                        // resolvers keep track of their attempts per thread, failures must thus
+                        // be reported by the thread which did the download
+                        reportFailures(resolver, dReport);
+                        return dReport;
                     }
+                };
+                futures.add(executor.submit(IvyExecutors.withContext(task)));
+            }
+            List<DownloadReport> dReports = new ArrayList<>(futures.size());
+            for (Future<DownloadReport> future : futures) {
+                checkInterrupted();
+                dReports.add(future.get());
+            }
+            return dReports;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("operation interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new RuntimeException(cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Tells whether the given resolver can be used by several threads at the same time, that is
+     * whether it only relies on repositories which are known to be thread safe.
+     *
+     * @param resolver
+     *            the resolver to check
+     * @return true if the resolver can be used concurrently
+     */
+    public static boolean isThreadSafe(DependencyResolver resolver) {
+        if (resolver instanceof RepositoryResolver) {
+            Repository repository = ((RepositoryResolver) resolver).getRepository();
+            return repository instanceof AbstractRepository
+                    && ((AbstractRepository) repository).isThreadSafe();
+        }
+        if (resolver instanceof ChainResolver) {
+            for (DependencyResolver child : ((ChainResolver) resolver).getResolvers()) {
+                if (!isThreadSafe(child)) {
+                    return false;
                 }
             }
+            return true;
         }
-        report.setDownloadTime(System.currentTimeMillis() - start);
-        report.setDownloadSize(totalSize);
+        if (resolver instanceof DualResolver) {
+            DualResolver dual = (DualResolver) resolver;
+            return isThreadSafe(dual.getIvyResolver()) && isThreadSafe(dual.getArtifactResolver());
+        }
+        return false;
+    }
+
+    /**
+     * Logs and reports the failed downloads of a download report.
+     */
+    private void reportFailures(DependencyResolver resolver, DownloadReport dReport) {
+        for (ArtifactDownloadReport adr : dReport.getArtifactsReports(DownloadStatus.FAILED)) {
+            if (adr.getArtifact().getExtraAttribute("ivy:merged") != null) {
+                Message.warn("\tmerged artifact not found: " + adr.getArtifact()
+                        + ". It was required in "
+                        + adr.getArtifact().getExtraAttribute("ivy:merged"));
+            } else {
+                Message.warn("\t" + adr);
+                resolver.reportFailure(adr.getArtifact());
+            }
+        }
+    }
+
+    /**
+     * Adds the dependency to the configuration reports of the resolve report.
+     *
+     * @return the total size of the successfully downloaded artifacts
+     */
+    private long processDownloadReport(ResolveReport report, IvyNode dependency,
+            DownloadReport dReport) {
+        long size = 0;
+        for (ArtifactDownloadReport adr : dReport.getArtifactsReports(DownloadStatus.SUCCESSFUL)) {
+            size += adr.getSize();
+        }
+        // update concerned reports
+        for (String dconf : dependency.getRootModuleConfigurations()) {
+            // the report itself is responsible to take into account only
+            // artifacts required in its corresponding configuration
+            // (as described by the Dependency object)
+            if (dependency.isEvicted(dconf)
+                    || dependency.isBlacklisted(dconf)) {
+                report.getConfigurationReport(dconf).addDependency(dependency);
+            } else {
+                report.getConfigurationReport(dconf).addDependency(dependency,
+                        dReport);
+            }
+        }
+        return size;
     }
 
     /**
@@ -572,51 +747,25 @@ public class ResolveEngine {
         try {
             options.setConfs(confs);
 
-            Date reportDate = new Date();
             ResolveData data = context.getResolveData();
             if (data == null) {
                 data = new ResolveData(this, options);
                 context.setResolveData(data);
             }
+            DependencyPrefetcher prefetcher = null;
+            if (data.getPrefetcher() == null && settings.getPrefetchParallelism() > 1) {
+                prefetcher = new DependencyPrefetcher(this, options,
+                        settings.getPrefetchParallelism());
+                data.setPrefetcher(prefetcher);
+            }
             IvyNode rootNode = new IvyNode(data, md);
 
-            for (String conf : confs) {
-                Message.verbose("resolving dependencies for configuration '" + conf + "'");
-
-                ConfigurationResolveReport confReport = null;
-                if (report != null) {
-                    confReport = report.getConfigurationReport(conf);
-                    if (confReport == null) {
-                        confReport = new ConfigurationResolveReport(this, md, conf, reportDate,
-                                options);
-                        report.addReport(conf, confReport);
-                    }
-                }
-                // we reuse the same resolve data with a new report for each conf
-                data.setReport(confReport);
-
-                // update the root module conf we are about to fetch
-                VisitNode root = new VisitNode(data, rootNode, null, conf, null);
-                root.setRequestedConf(conf);
-                rootNode.updateConfsToFetch(Collections.singleton(conf));
-
-                // go fetch !
-                boolean fetched = false;
-                while (!fetched) {
-                    try {
-                        fetchDependencies(root, conf, new HashSet<String>(), false);
-                        fetched = true;
-                    } catch (RestartResolveProcess restart) {
-                        Message.verbose("====================================================");
-                        Message.verbose("=           RESTARTING RESOLVE PROCESS");
-                        Message.verbose("= " + restart.getMessage());
-                        Message.verbose("====================================================");
-                    }
-                }
-
-                // clean data
-                for (IvyNode dep : data.getNodes()) {
-                    dep.clean();
+            try {
+                fetchDependencies(md, confs, options, report, data, rootNode);
+            } finally {
+                if (prefetcher != null) {
+                    prefetcher.shutdown();
+                    data.setPrefetcher(null);
                 }
             }
 
@@ -694,6 +843,50 @@ public class ResolveEngine {
         }
     }
 
+    private void fetchDependencies(ModuleDescriptor md, String[] confs, ResolveOptions options,
+            ResolveReport report, ResolveData data, IvyNode rootNode) {
+        Date reportDate = new Date();
+        for (String conf : confs) {
+            Message.verbose("resolving dependencies for configuration '" + conf + "'");
+
+            ConfigurationResolveReport confReport = null;
+            if (report != null) {
+                confReport = report.getConfigurationReport(conf);
+                if (confReport == null) {
+                    confReport = new ConfigurationResolveReport(this, md, conf, reportDate,
+                            options);
+                    report.addReport(conf, confReport);
+                }
+            }
+            // we reuse the same resolve data with a new report for each conf
+            data.setReport(confReport);
+
+            // update the root module conf we are about to fetch
+            VisitNode root = new VisitNode(data, rootNode, null, conf, null);
+            root.setRequestedConf(conf);
+            rootNode.updateConfsToFetch(Collections.singleton(conf));
+
+            // go fetch !
+            boolean fetched = false;
+            while (!fetched) {
+                try {
+                    fetchDependencies(root, conf, new HashSet<String>(), false);
+                    fetched = true;
+                } catch (RestartResolveProcess restart) {
+                    Message.verbose("====================================================");
+                    Message.verbose("=           RESTARTING RESOLVE PROCESS");
+                    Message.verbose("= " + restart.getMessage());
+                    Message.verbose("====================================================");
+                }
+            }
+
+            // clean data
+            for (IvyNode dep : data.getNodes()) {
+                dep.clean();
+            }
+        }
+    }
+
     private void fetchDependencies(VisitNode node, String conf, Set<String> fetchedSet, boolean shouldBePublic) {
         checkInterrupted();
         long start = System.currentTimeMillis();
@@ -794,7 +987,12 @@ public class ResolveEngine {
 
         // now we can actually resolve this configuration dependencies
         if (!isDependenciesFetched(node.getNode(), conf, fetchedSet) && node.isTransitive()) {
-            for (VisitNode dep : node.getDependencies(conf)) {
+            Collection<VisitNode> dependencies = node.getDependencies(conf);
+            DependencyPrefetcher prefetcher = node.getNode().getData().getPrefetcher();
+            if (prefetcher != null) {
+                prefetcher.prefetch(dependencies);
+            }
+            for (VisitNode dep : dependencies) {
                 dep.useRealNode(); // the node may have been resolved to another real one while
                 // resolving other deps
                 for (String rconf : dep.getRequiredConfigurations(node, conf)) {
@@ -849,7 +1047,12 @@ public class ResolveEngine {
     }
 
     private void resolveConflict(VisitNode node, String conf) {
+        IvyMetrics metrics = IvyMetrics.current();
+        long start = System.nanoTime();
         resolveConflict(node, node.getParent(), conf, Collections.<IvyNode> emptySet());
+        if (metrics != null) {
+            metrics.recordSince("resolve.conflict.ns", start);
+        }
     }
 
     /**
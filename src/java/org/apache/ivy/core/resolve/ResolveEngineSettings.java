@@ -17,6 +17,10 @@
  */
 package org.apache.ivy.core.resolve;
 
+import java.net.URL;
+import java.util.List;
+import java.util.SortedMap;
+
 import org.apache.ivy.core.module.id.ModuleId;
 import org.apache.ivy.core.module.id.ModuleRevisionId;
 import org.apache.ivy.plugins.conflict.ConflictManager;
@@ -42,4 +46,14 @@ public interface ResolveEngineSettings extends ResolverSettings {
 
     boolean logResolvedRevision();
 
+    int getDownloadParallelism();
+
+    int getPrefetchParallelism();
+
+    boolean isResolveCacheEnabled();
+
+    List<URL> getLoadedURLs();
+
+    SortedMap<String, String> getDefinedVariables();
+
 }
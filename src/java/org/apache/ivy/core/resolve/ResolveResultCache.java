@@ -0,0 +1,350 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.core.resolve;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+import org.apache.ivy.Ivy;
+import org.apache.ivy.core.IvyContext;
+import org.apache.ivy.core.cache.DefaultRepositoryCacheManager;
+import org.apache.ivy.core.cache.DefaultResolutionCacheManager;
+import org.apache.ivy.core.cache.RepositoryCacheManager;
+import org.apache.ivy.core.cache.ResolutionCacheManager;
+import org.apache.ivy.core.module.descriptor.Artifact;
+import org.apache.ivy.core.module.descriptor.DependencyDescriptor;
+import org.apache.ivy.core.module.descriptor.ExtendsDescriptor;
+import org.apache.ivy.core.module.descriptor.ModuleDescriptor;
+import org.apache.ivy.core.module.id.ModuleRevisionId;
+import org.apache.ivy.core.report.ArtifactDownloadReport;
+import org.apache.ivy.core.report.CachedConfigurationResolveReport;
+import org.apache.ivy.core.report.DownloadStatus;
+import org.apache.ivy.core.report.ResolveReport;
+import org.apache.ivy.core.resolve.IvyNodeCallers.Caller;
+import org.apache.ivy.plugins.report.ReportOutputter;
+import org.apache.ivy.plugins.report.XmlReportOutputter;
+import org.apache.ivy.plugins.report.XmlReportParser;
+import org.apache.ivy.plugins.resolver.AbstractResolver;
+import org.apache.ivy.plugins.resolver.DependencyResolver;
+import org.apache.ivy.util.ChecksumHelper;
+import org.apache.ivy.util.Message;
+import org.apache.ivy.util.filter.ArtifactTypeFilter;
+import org.apache.ivy.util.filter.Filter;
+import org.apache.ivy.util.filter.FilterHelper;
+
+/**
+ * Records the result of a resolve in the {@link DefaultResolutionCacheManager}, so that the next
+ * resolves of the same module with the same options and settings skip the dependency graph
+ * traversal and the conflict resolution.
+ * <p>
+ * The result is keyed by a fingerprint of the resolved Ivy file, of the resolve options and of
+ * the settings and properties files loaded by the settings. A report is rebuilt from the
+ * configuration reports written in the resolution cache by the recorded resolve, provided that
+ * all their artifacts are still in the cache. When the result depends on dynamic revisions or on
+ * modules which may change in their repository, it expires after the smallest TTL of these
+ * modules in their repository cache.
+ * </p>
+ */
+final class ResolveResultCache {
+
+    private static final String FORMAT = "1";
+
+    private static final String FINGERPRINT = "fingerprint";
+
+    private static final String EXPIRATION = "expiration";
+
+    private static final String REVISION_PREFIX = "revision.";
+
+    private final ResolveEngine engine;
+
+    private final DefaultResolutionCacheManager cacheManager;
+
+    private final ResolveOptions options;
+
+    private String fingerprint;
+
+    private ResolveResultCache(ResolveEngine engine, DefaultResolutionCacheManager cacheManager,
+            ResolveOptions options) {
+        this.engine = engine;
+        this.cacheManager = cacheManager;
+        this.options = options;
+    }
+
+    /**
+     * Returns the cache of the results of resolves made with the given options, or
+     * <code>null</code> if these results can't be cached.
+     */
+    static ResolveResultCache newInstance(ResolveEngine engine, ResolveOptions options) {
+        ResolveEngineSettings settings = engine.getSettings();
+        ResolutionCacheManager cacheManager = settings.getResolutionCacheManager();
+        if (!settings.isResolveCacheEnabled()
+                || !(cacheManager instanceof DefaultResolutionCacheManager)
+                || !options.isOutputReport() || getFilterKey(options) == null) {
+            return null;
+        }
+        // the results are read from the xml reports
+        for (ReportOutputter outputter : settings.getReportOutputters()) {
+            if (outputter instanceof XmlReportOutputter) {
+                return new ResolveResultCache(engine,
+                        (DefaultResolutionCacheManager) cacheManager, options);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Looks up the result of a previous resolve of the given module, whose resolved Ivy file
+     * must already have been saved in the resolution cache.
+     *
+     * @return the report rebuilt from the recorded result, or <code>null</code> if there is no
+     *         valid result
+     */
+    ResolveReport lookup(ModuleDescriptor md) throws IOException {
+        fingerprint = computeFingerprint(md);
+        if (options.isRefresh()) {
+            return null;
+        }
+        String resolveId = options.getResolveId();
+        Properties result = cacheManager.getResolveResult(resolveId);
+        if (result == null || !fingerprint.equals(result.getProperty(FINGERPRINT))) {
+            return null;
+        }
+        try {
+            if (Long.parseLong(result.getProperty(EXPIRATION)) < System.currentTimeMillis()) {
+                Message.verbose("\tresolve result in cache has expired");
+                return null;
+            }
+        } catch (NumberFormatException e) {
+            return null;
+        }
+
+        ResolveReport report = new ResolveReport(md, resolveId);
+        Set<Artifact> artifacts = new LinkedHashSet<>();
+        Date reportDate = new Date();
+        for (String conf : options.getConfs(md)) {
+            File reportFile = cacheManager.getConfigurationResolveReportInCache(resolveId, conf);
+            if (!reportFile.exists()) {
+                return null;
+            }
+            XmlReportParser parser = new XmlReportParser();
+            try {
+                parser.parse(reportFile);
+            } catch (ParseException e) {
+                Message.debug("impossible to parse " + reportFile + ": " + e);
+                return null;
+            }
+            if (parser.hasError()) {
+                return null;
+            }
+            List<ArtifactDownloadReport> adrs = new ArrayList<>();
+            for (ArtifactDownloadReport adr : parser.getArtifactReports()) {
+                if (isMissing(adr.getLocalFile()) || isMissing(adr.getUnpackedLocalFile())) {
+                    Message.verbose("\tartifact of resolve result in cache is missing: "
+                            + adr.getArtifact());
+                    return null;
+                }
+                if (adr.getDownloadStatus() == DownloadStatus.SUCCESSFUL) {
+                    // they are now already in the cache
+                    adr.setDownloadStatus(DownloadStatus.NO);
+                }
+                adrs.add(adr);
+            }
+            artifacts.addAll(Arrays.asList(parser.getArtifacts()));
+            report.addReport(conf, new CachedConfigurationResolveReport(engine, md, conf,
+                    reportDate, options, Arrays.asList(parser.getDependencyRevisionIds()), adrs));
+        }
+        report.setArtifacts(new ArrayList<>(artifacts));
+
+        Properties revisions = new Properties();
+        for (Map.Entry<Object, Object> entry : result.entrySet()) {
+            String key = (String) entry.getKey();
+            if (key.startsWith(REVISION_PREFIX)) {
+                revisions.put(key.substring(REVISION_PREFIX.length()), entry.getValue());
+            }
+        }
+        engine.saveResolvedRevisions(md, revisions);
+        return report;
+    }
+
+    /**
+     * Records the result of a successful resolve, once its reports have been written in the
+     * resolution cache.
+     *
+     * @param dependencies
+     *            the nodes of the resolved dependency graph
+     * @param revisions
+     *            the resolved revisions of the direct dependencies
+     * @param data
+     *            the data of the resolve
+     */
+    void store(IvyNode[] dependencies, Properties revisions, ResolveData data)
+            throws IOException {
+        long ttl = getTTL(dependencies, data);
+        if (ttl <= 0) {
+            Message.verbose("\tresolve result not cached: it depends on modules which may change");
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Properties result = new Properties();
+        result.setProperty(FINGERPRINT, fingerprint);
+        result.setProperty(EXPIRATION,
+            String.valueOf(ttl > Long.MAX_VALUE - now ? Long.MAX_VALUE : now + ttl));
+        for (Map.Entry<Object, Object> entry : revisions.entrySet()) {
+            result.put(REVISION_PREFIX + entry.getKey(), entry.getValue());
+        }
+        cacheManager.saveResolveResult(options.getResolveId(), result);
+    }
+
+    /**
+     * Returns how long the result of a resolve is valid: until its fingerprint changes if it only
+     * depends on modules which can't change, the smallest TTL of the others otherwise.
+     */
+    private long getTTL(IvyNode[] dependencies, ResolveData data) {
+        long ttl = Long.MAX_VALUE;
+        for (IvyNode node : dependencies) {
+            if (node.hasProblem() || node.isCompletelyEvicted()
+                    || node.getModuleRevision() == null) {
+                continue;
+            }
+            DependencyResolver resolver = node.getModuleRevision().getResolver();
+            for (Caller caller : node.getAllCallers()) {
+                DependencyDescriptor dd = caller.getDependencyDescriptor();
+                ModuleRevisionId askedId = caller.getAskedDependencyId();
+                if (dd == null || askedId == null) {
+                    continue;
+                }
+                if (engine.getSettings().getVersionMatcher().isDynamic(askedId)
+                        || !(resolver instanceof AbstractResolver)
+                        || ((AbstractResolver) resolver).isChanging(dd, askedId, data)) {
+                    RepositoryCacheManager cache = resolver.getRepositoryCacheManager();
+                    if (!(cache instanceof DefaultRepositoryCacheManager)) {
+                        return 0;
+                    }
+                    ttl = Math.min(ttl, ((DefaultRepositoryCacheManager) cache).getTTL(askedId));
+                }
+            }
+        }
+        return ttl;
+    }
+
+    private String computeFingerprint(ModuleDescriptor md) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        StringBuilder key = new StringBuilder();
+        key.append("format=").append(FORMAT).append(" ivy=").append(Ivy.getIvyVersion())
+                .append('\n');
+
+        // the module descriptor, as saved with its resolved revision in the resolution cache
+        ModuleRevisionId mrid = md.getResolvedModuleRevisionId();
+        key.append("module=").append(mrid.encodeToString()).append('\n');
+        File ivyFile = cacheManager.getResolvedIvyFileInCache(mrid);
+        digest.update(Files.readAllBytes(ivyFile.toPath()));
+        for (ExtendsDescriptor parent : md.getInheritedDescriptors()) {
+            ModuleDescriptor parentMd = parent.getParentMd();
+            key.append("parent=").append(parent.getResolvedParentRevisionId()).append(' ')
+                    .append(parent.getLocation()).append(' ')
+                    .append(parentMd == null ? 0 : parentMd.getLastModified()).append('\n');
+        }
+
+        key.append("confs=").append(Arrays.asList(options.getConfs(md))).append('\n');
+        key.append("mode=").append(options.getResolveMode()).append('\n');
+        key.append("date=").append(options.getDate() == null ? "" : options.getDate().getTime())
+                .append('\n');
+        key.append("validate=").append(options.isValidate()).append(" transitive=")
+                .append(options.isTransitive()).append(" download=")
+                .append(options.isDownload()).append(" cacheonly=")
+                .append(options.isUseCacheOnly()).append('\n');
+        key.append("filter=").append(getFilterKey(options)).append('\n');
+
+        DependencyResolver dictator = engine.getDictatorResolver();
+        key.append("dictator=").append(dictator == null ? "" : dictator.getName())
+                .append(" circular=")
+                .append(IvyContext.getContext().getCircularDependencyStrategy().getName())
+                .append('\n');
+        for (URL url : engine.getSettings().getLoadedURLs()) {
+            key.append("settings=").append(url.toExternalForm()).append(' ')
+                    .append(getFileKey(url)).append('\n');
+        }
+        // the settings files may use variables whose values changed since the last resolve
+        for (Map.Entry<String, String> variable : engine.getSettings().getDefinedVariables()
+                .entrySet()) {
+            key.append("variable=").append(variable.getKey()).append('=')
+                    .append(variable.getValue()).append('\n');
+        }
+        digest.update(key.toString().getBytes(StandardCharsets.UTF_8));
+        return ChecksumHelper.byteArrayToHexString(digest.digest());
+    }
+
+    private static String getFilterKey(ResolveOptions options) {
+        Filter<Artifact> filter = options.getArtifactFilter();
+        if (filter == null || filter == FilterHelper.NO_FILTER) {
+            return "*";
+        }
+        if (filter instanceof ArtifactTypeFilter) {
+            return String.valueOf(((ArtifactTypeFilter) filter).getAcceptedTypes());
+        }
+        // we can't tell whether two other filters are equivalent
+        return null;
+    }
+
+    /**
+     * Returns the size and the modification date of the given settings file, when it is a local
+     * file or an entry of a local jar. The other resources are supposed not to change.
+     */
+    private static String getFileKey(URL url) {
+        try {
+            File file = null;
+            if ("file".equals(url.getProtocol())) {
+                file = new File(url.toURI());
+            } else if ("jar".equals(url.getProtocol())) {
+                URL jarURL = ((JarURLConnection) url.openConnection()).getJarFileURL();
+                if ("file".equals(jarURL.getProtocol())) {
+                    file = new File(jarURL.toURI());
+                }
+            }
+            return file == null ? "" : file.length() + " " + file.lastModified();
+        } catch (IOException | URISyntaxException | IllegalArgumentException e) {
+            // the resolve result will never match
+            return String.valueOf(System.nanoTime());
+        }
+    }
+
+    private static boolean isMissing(File file) {
+        return file != null && !file.exists();
+    }
+}
@@ -19,6 +19,7 @@ package org.apache.ivy.core.retrieve;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
 import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -131,6 +132,29 @@ public class RetrieveEngine {
             // for sync)
             Collection<File> targetIvysStructure = new HashSet<>(); // same for ivy files
 
+            RetrieveManifest previousManifest = null;
+            RetrieveManifest manifest = null;
+            if (options.isIncremental() && settings.isCheckUpToDate()
+                    && !RetrieveOptions.OVERWRITEMODE_ALWAYS.equals(options.getOverwriteMode())) {
+                String manifestOptions = getManifestOptions(destFilePattern, destIvyPattern,
+                    confs, options);
+                File manifestFile = new File(getCache().getResolutionCacheRoot(), "retrieve-"
+                        + options.getResolveId() + "-"
+                        + Integer.toHexString(manifestOptions.hashCode()) + ".properties");
+                previousManifest = RetrieveManifest.load(manifestFile, manifestOptions);
+                // an interrupted retrieve must not leave a manifest behind
+                manifestFile.delete();
+                manifest = new RetrieveManifest(manifestFile, manifestOptions,
+                        getReportsFingerprint(confs, options));
+                Message.verbose("\tretrieve manifest: " + manifestFile
+                        + (previousManifest == null ? " [NEW]" : ""));
+            }
+            // when the reports are unchanged, so are the sources of the previous retrieve
+            boolean checkSources = previousManifest == null
+                    || !manifest.getReports().equals(previousManifest.getReports());
+            // a manifest tells which files to delete, without listing the destination
+            boolean fullSync = options.isSync() && previousManifest == null;
+
             // do retrieve
             long totalCopiedSize = 0;
             for (Map.Entry<ArtifactDownloadReport, Set<String>> artifactAndPaths : artifactsToCopy
@@ -148,38 +172,36 @@ public class RetrieveEngine {
                 for (String path : artifactAndPaths.getValue()) {
                     IvyContext.getContext().checkInterrupted();
                     File destFile = settings.resolveFile(path);
+                    RetrieveManifest.Entry retrieved = previousManifest == null ? null
+                            : previousManifest.getUpToDateEntry(destFile, archive, checkSources);
+                    if (retrieved != null) {
+                        Message.verbose("\t\tto " + destFile + " [RETRIEVED]");
+                        report.addUpToDateFile(destFile, artifact);
+                        manifest.add(destFile, retrieved);
+                        continue;
+                    }
                     if (!settings.isCheckUpToDate() || !upToDate(archive, destFile, options)) {
                         Message.verbose("\t\tto " + destFile);
                         if (this.eventManager != null) {
                             this.eventManager.fireIvyEvent(new StartRetrieveArtifactEvent(artifact, destFile));
                         }
-                        if (options.isMakeSymlinks()) {
-                            boolean symlinkCreated;
-                            try {
-                                symlinkCreated = FileUtil.symlink(archive, destFile,  true);
-                            } catch (IOException ioe) {
-                                symlinkCreated = false;
-                                // warn about the inability to create a symlink
-                                Message.warn("symlink creation failed at path " + destFile, ioe);
-                            }
-                            if (!symlinkCreated) {
-                                // since symlink creation failed, let's attempt to an actual copy instead
-                                Message.info("Attempting a copy operation (since symlink creation failed) at path " + destFile);
-                                FileUtil.copy(archive, destFile, null, true);
-                            }
-                        } else {
-                            FileUtil.copy(archive, destFile, null, true);
-                        }
+                        String method = retrieve(archive, destFile, options.getMethod());
                         if (this.eventManager != null) {
                             this.eventManager.fireIvyEvent(new EndRetrieveArtifactEvent(artifact, destFile));
                         }
                         totalCopiedSize += FileUtil.getFileLength(destFile);
-                        report.addCopiedFile(destFile, artifact);
+                        report.addCopiedFile(destFile, artifact, method);
                     } else {
                         Message.verbose("\t\tto " + destFile + " [NOT REQUIRED]");
                         report.addUpToDateFile(destFile, artifact);
                     }
+                    if (manifest != null) {
+                        manifest.add(destFile, archive);
+                    }
 
+                    if (!fullSync) {
+                        continue;
+                    }
                     if ("ivy".equals(artifact.getType())) {
                         targetIvysStructure
                                 .addAll(FileUtil.getPathFiles(ivyRetrieveRoot, destFile));
@@ -194,7 +216,10 @@ public class RetrieveEngine {
                 }
             }
 
-            if (options.isSync()) {
+            if (options.isSync() && !fullSync) {
+                Message.verbose("\tsyncing with the retrieve manifest...");
+                sync(manifest, previousManifest, fileRetrieveRoot, ivyRetrieveRoot);
+            } else if (options.isSync()) {
                 Message.verbose("\tsyncing...");
 
                 String[] ignorableFilenames = settings.getIgnorableFilenames();
@@ -215,6 +240,9 @@ public class RetrieveEngine {
                     }
                 }
             }
+            if (manifest != null) {
+                manifest.save();
+            }
             long elapsedTime = System.currentTimeMillis() - start;
             String msg = "\t"
                     + report.getNbrArtifactsCopied()
@@ -257,6 +285,93 @@ public class RetrieveEngine {
         return confs;
     }
 
+    /**
+     * Retrieves an archive to its destination with the given method, falling back to a plain copy
+     * when the method can't be used.
+     *
+     * @return the method actually used
+     */
+    private String retrieve(File archive, File destFile, String method) throws IOException {
+        // a previously hard linked file is replaced, instead of written through
+        unlinkIfShared(archive, destFile, method);
+        if (RetrieveOptions.METHOD_SYMLINK.equals(method)) {
+            boolean symlinkCreated;
+            try {
+                symlinkCreated = FileUtil.symlink(archive, destFile,  true);
+            } catch (IOException ioe) {
+                symlinkCreated = false;
+                // warn about the inability to create a symlink
+                Message.warn("symlink creation failed at path " + destFile, ioe);
+            }
+            if (symlinkCreated) {
+                return method;
+            }
+            // since symlink creation failed, let's attempt to an actual copy instead
+            Message.info("Attempting a copy operation (since symlink creation failed) at path " + destFile);
+        } else if (RetrieveOptions.METHOD_HARDLINK.equals(method)
+                || RetrieveOptions.METHOD_REFLINK.equals(method)) {
+            boolean linked;
+            try {
+                linked = RetrieveOptions.METHOD_HARDLINK.equals(method)
+                        ? FileUtil.hardLink(archive, destFile, true)
+                        : FileUtil.reflink(archive, destFile, true);
+            } catch (IOException ioe) {
+                linked = false;
+                Message.verbose("\t\t" + method + " creation failed at path " + destFile + ": "
+                        + ioe.getMessage());
+            }
+            if (linked) {
+                return method;
+            }
+            Message.verbose("\t\tunable to create a " + method + " at path " + destFile
+                    + ": copying instead");
+        }
+        FileUtil.copy(archive, destFile, null, true);
+        return RetrieveOptions.METHOD_COPY;
+    }
+
+    private static void unlinkIfShared(File archive, File destFile, String method)
+            throws IOException {
+        if (!destFile.isFile() || Files.isSymbolicLink(destFile.toPath())) {
+            return;
+        }
+        if (Files.isSameFile(archive.toPath(), destFile.toPath())) {
+            // a link to the archive is only kept when linking it again
+            if (!RetrieveOptions.METHOD_HARDLINK.equals(method)) {
+                Files.delete(destFile.toPath());
+            }
+            return;
+        }
+        Object links;
+        try {
+            links = Files.getAttribute(destFile.toPath(), "unix:nlink");
+        } catch (UnsupportedOperationException | IllegalArgumentException e) {
+            // hard links can't be told apart on this platform
+            return;
+        }
+        if (links instanceof Integer && (Integer) links > 1) {
+            Files.delete(destFile.toPath());
+        }
+    }
+
+    private static String getManifestOptions(String destFilePattern, String destIvyPattern,
+            String[] confs, RetrieveOptions options) {
+        return "pattern=" + destFilePattern + ";ivypattern=" + destIvyPattern + ";confs="
+                + Arrays.asList(confs) + ";sync=" + options.isSync() + ";method="
+                + options.getMethod() + ";overwrite=" + options.getOverwriteMode();
+    }
+
+    private String getReportsFingerprint(String[] confs, RetrieveOptions options) {
+        StringBuilder fingerprint = new StringBuilder();
+        for (String conf : confs) {
+            File report = getCache().getConfigurationResolveReportInCache(
+                options.getResolveId(), conf);
+            fingerprint.append(conf).append(':').append(report.length()).append(':')
+                    .append(report.lastModified()).append(';');
+        }
+        return fingerprint.toString();
+    }
+
     private ResolutionCacheManager getCache() {
         return settings.getResolutionCacheManager();
     }
@@ -277,6 +392,38 @@ public class RetrieveEngine {
         }
     }
 
+    /**
+     * Deletes the files retrieved previously which haven't been retrieved this time, and the
+     * directories left empty.
+     */
+    private void sync(RetrieveManifest manifest, RetrieveManifest previousManifest,
+            File fileRetrieveRoot, File ivyRetrieveRoot) {
+        Collection<String> retrieved = manifest.getDestinations();
+        for (String path : previousManifest.getDestinations()) {
+            if (retrieved.contains(path)) {
+                continue;
+            }
+            File file = new File(path);
+            if (file.exists()) {
+                Message.verbose("\t\tdeleting " + file);
+                FileUtil.forceDelete(file);
+            }
+            File root = ivyRetrieveRoot != null && FileUtil.isLeadingPath(ivyRetrieveRoot, file)
+                    ? ivyRetrieveRoot : fileRetrieveRoot;
+            File dir = file.getParentFile();
+            while (dir != null && FileUtil.isLeadingPath(root, dir)
+                    && !FileUtil.isLeadingPath(dir, root)) {
+                String[] children = dir.list();
+                if (children == null || children.length > 0) {
+                    break;
+                }
+                Message.verbose("\t\tdeleting " + dir);
+                dir.delete();
+                dir = dir.getParentFile();
+            }
+        }
+    }
+
     public Map<ArtifactDownloadReport, Set<String>> determineArtifactsToCopy(ModuleRevisionId mrid,
             String destFilePattern, RetrieveOptions options) throws ParseException, IOException {
         ModuleId moduleId = mrid.getModuleId();
@@ -456,6 +603,12 @@ public class RetrieveEngine {
             return false;
         }
 
+        if (!RetrieveOptions.METHOD_HARDLINK.equals(options.getMethod())
+                && isHardLink(source, target)) {
+            // hard linked by a previous retrieve, to be replaced with the current method
+            return false;
+        }
+
         String overwriteMode = options.getOverwriteMode();
         if (RetrieveOptions.OVERWRITEMODE_ALWAYS.equals(overwriteMode)) {
             return false;
@@ -477,6 +630,15 @@ public class RetrieveEngine {
         return false;
     }
 
+    private static boolean isHardLink(File source, File target) {
+        try {
+            return !Files.isSymbolicLink(target.toPath())
+                    && Files.isSameFile(source.toPath(), target.toPath());
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
     /**
      * The returned comparator should consider greater the artifact which gains the conflict battle.
      * This is used only during retrieve... prefer resolve conflict manager to resolve conflicts.
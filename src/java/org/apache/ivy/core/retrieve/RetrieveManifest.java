@@ -0,0 +1,191 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.core.retrieve;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.ivy.util.PropertiesFile;
+
+/**
+ * The files copied by an incremental retrieve, stored in the resolution cache.
+ * <p>
+ * For each destination file, the manifest records the source file it has been copied from, with
+ * the length and the last modification date the source and the destination had then. A manifest
+ * is only used by a retrieve made with the same options, and tells it which destinations are
+ * already up to date without comparing them with their source, and which ones it has to delete
+ * when synchronizing.
+ * </p>
+ */
+final class RetrieveManifest {
+    private static final String OPTIONS_KEY = "options";
+
+    private static final String REPORTS_KEY = "reports";
+
+    private static final String FILE_PREFIX = "file.";
+
+    private final File file;
+
+    private final String options;
+
+    private final String reports;
+
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    RetrieveManifest(File file, String options, String reports) {
+        this.file = file;
+        this.options = options;
+        this.reports = reports;
+    }
+
+    /**
+     * Loads the manifest stored in the given file, if any.
+     *
+     * @param file
+     *            the file of the manifest
+     * @param options
+     *            the description of the options of the retrieve
+     * @return the stored manifest, or <code>null</code> if there is none or if it has been
+     *         recorded with other options
+     */
+    static RetrieveManifest load(File file, String options) {
+        if (!file.exists()) {
+            return null;
+        }
+        PropertiesFile props = new PropertiesFile(file, null);
+        if (!options.equals(props.getProperty(OPTIONS_KEY))) {
+            return null;
+        }
+        RetrieveManifest manifest = new RetrieveManifest(file, options,
+                props.getProperty(REPORTS_KEY));
+        for (String key : props.stringPropertyNames()) {
+            if (key.startsWith(FILE_PREFIX)) {
+                Entry entry = Entry.parse(props.getProperty(key));
+                if (entry != null) {
+                    manifest.entries.put(key.substring(FILE_PREFIX.length()), entry);
+                }
+            }
+        }
+        return manifest;
+    }
+
+    String getReports() {
+        return reports;
+    }
+
+    Collection<String> getDestinations() {
+        return entries.keySet();
+    }
+
+    /**
+     * Returns the entry of a destination, if it has been copied from the given source and neither
+     * the source nor the destination have changed since.
+     *
+     * @param dest
+     *            the destination file
+     * @param source
+     *            the source file
+     * @param checkSource
+     *            <code>false</code> to trust the source to be unchanged, without looking at it
+     * @return the entry of the destination, or <code>null</code> if it isn't up to date
+     */
+    Entry getUpToDateEntry(File dest, File source, boolean checkSource) {
+        Entry entry = entries.get(dest.getAbsolutePath());
+        if (entry == null || !entry.source.equals(source.getAbsolutePath())) {
+            return null;
+        }
+        if (!dest.exists() || entry.destLength != dest.length()
+                || entry.destLastModified != dest.lastModified()) {
+            return null;
+        }
+        if (checkSource && (entry.length != source.length()
+                || entry.lastModified != source.lastModified())) {
+            return null;
+        }
+        return entry;
+    }
+
+    void add(File dest, Entry entry) {
+        entries.put(dest.getAbsolutePath(), entry);
+    }
+
+    void add(File dest, File source) {
+        add(dest, new Entry(source.getAbsolutePath(), source.length(), source.lastModified(),
+                dest.length(), dest.lastModified()));
+    }
+
+    void save() {
+        PropertiesFile props = new PropertiesFile(file, "ivy retrieve manifest");
+        props.clear();
+        props.setProperty(OPTIONS_KEY, options);
+        props.setProperty(REPORTS_KEY, reports);
+        for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+            props.setProperty(FILE_PREFIX + entry.getKey(), entry.getValue().toString());
+        }
+        props.save();
+    }
+
+    static final class Entry {
+        private final String source;
+
+        private final long length;
+
+        private final long lastModified;
+
+        private final long destLength;
+
+        private final long destLastModified;
+
+        private Entry(String source, long length, long lastModified, long destLength,
+                long destLastModified) {
+            this.source = source;
+            this.length = length;
+            this.lastModified = lastModified;
+            this.destLength = destLength;
+            this.destLastModified = destLastModified;
+        }
+
+        private static Entry parse(String value) {
+            // the source path may contain '|', the numbers are after the last ones
+            long[] numbers = new long[4];
+            int end = value.length();
+            for (int i = numbers.length - 1; i >= 0; i--) {
+                int sep = end <= 0 ? -1 : value.lastIndexOf('|', end - 1);
+                if (sep <= 0) {
+                    return null;
+                }
+                try {
+                    numbers[i] = Long.parseLong(value.substring(sep + 1, end));
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+                end = sep;
+            }
+            return new Entry(value.substring(0, end), numbers[0], numbers[1], numbers[2],
+                    numbers[3]);
+        }
+
+        @Override
+        public String toString() {
+            return source + "|" + length + "|" + lastModified + "|" + destLength + "|"
+                    + destLastModified;
+        }
+    }
+}
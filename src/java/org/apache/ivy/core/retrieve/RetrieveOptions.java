@@ -37,6 +37,14 @@ public class RetrieveOptions extends LogOptions {
 
     public static final String OVERWRITEMODE_DIFFERENT = "different";
 
+    public static final String METHOD_COPY = "copy";
+
+    public static final String METHOD_SYMLINK = "symlink";
+
+    public static final String METHOD_HARDLINK = "hardlink";
+
+    public static final String METHOD_REFLINK = "reflink";
+
     /**
      * The names of configurations to retrieve. If the array consists only of '*', then all
      * configurations of the module will be retrieved.
@@ -83,6 +91,12 @@ public class RetrieveOptions extends LogOptions {
     @Deprecated
     private boolean makeSymlinksInMass = false;
 
+    /**
+     * How the artifacts are retrieved: one of the METHOD_ constants. Hard links and reflinks fall
+     * back to a plain copy when the filesystem doesn't support them.
+     */
+    private String method = null;
+
     /**
      * The id used to store the resolve information.
      */
@@ -90,6 +104,13 @@ public class RetrieveOptions extends LogOptions {
 
     private FileNameMapper mapper;
 
+    /**
+     * True if the files retrieved are recorded in a manifest in the resolution cache, so that the
+     * next retrieve with the same options only handles the changes since this one, trusting the
+     * destination files to be left untouched in between.
+     */
+    private boolean incremental = false;
+
     public RetrieveOptions() {
     }
 
@@ -104,8 +125,10 @@ public class RetrieveOptions extends LogOptions {
         this.useOrigin = options.useOrigin;
         this.makeSymlinks = options.makeSymlinks;
         this.makeSymlinksInMass = options.makeSymlinksInMass;
+        this.method = options.method;
         this.resolveId = options.resolveId;
         this.mapper = options.mapper;
+        this.incremental = options.incremental;
     }
 
     public String getDestArtifactPattern() {
@@ -223,4 +246,32 @@ public class RetrieveOptions extends LogOptions {
         return this;
     }
 
+    /**
+     * Returns how the artifacts are retrieved: {@link #METHOD_COPY}, {@link #METHOD_SYMLINK},
+     * {@link #METHOD_HARDLINK} or {@link #METHOD_REFLINK}. When no method has been set, symbolic
+     * links are created if {@link #isMakeSymlinks()}, and files are copied otherwise.
+     *
+     * @return the retrieve method
+     */
+    public String getMethod() {
+        if (method != null) {
+            return method;
+        }
+        return isMakeSymlinks() ? METHOD_SYMLINK : METHOD_COPY;
+    }
+
+    public RetrieveOptions setMethod(String method) {
+        this.method = method;
+        return this;
+    }
+
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    public RetrieveOptions setIncremental(boolean incremental) {
+        this.incremental = incremental;
+        return this;
+    }
+
 }
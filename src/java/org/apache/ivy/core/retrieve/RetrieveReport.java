@@ -34,6 +34,8 @@ public class RetrieveReport {
 
     private Map<File, ArtifactDownloadReport> downloadReport = new HashMap<>();
 
+    private Map<File, String> retrieveMethods = new HashMap<>();
+
     private File retrieveRoot;
 
     /**
@@ -58,8 +60,13 @@ public class RetrieveReport {
     }
 
     public void addCopiedFile(File file, ArtifactDownloadReport report) {
+        addCopiedFile(file, report, RetrieveOptions.METHOD_COPY);
+    }
+
+    public void addCopiedFile(File file, ArtifactDownloadReport report, String method) {
         copiedFiles.add(file);
         downloadReport.put(file, report);
+        retrieveMethods.put(file, method);
     }
 
     public void addUpToDateFile(File file, ArtifactDownloadReport report) {
@@ -100,6 +107,19 @@ public class RetrieveReport {
         return result;
     }
 
+    /**
+     * Returns how the given file has been retrieved, as one of the <tt>METHOD_</tt> constants of
+     * {@link RetrieveOptions}, which may differ from the requested method when the filesystem
+     * didn't support it and the file has been copied instead.
+     *
+     * @param file
+     *            a retrieved file
+     * @return the retrieve method, or <code>null</code> if the file was up-to-date
+     */
+    public String getRetrieveMethod(File file) {
+        return retrieveMethods.get(file);
+    }
+
     /**
      * Get the mapping between the copied files and their corresponding download report
      *
@@ -28,6 +28,7 @@ import org.apache.ivy.core.cache.RepositoryCacheManager;
 import org.apache.ivy.core.cache.ResolutionCacheManager;
 import org.apache.ivy.core.check.CheckEngineSettings;
 import org.apache.ivy.core.deliver.DeliverEngineSettings;
+import org.apache.ivy.core.event.EventManager.ProgressPolicy;
 import org.apache.ivy.core.install.InstallEngineSettings;
 import org.apache.ivy.core.module.id.ModuleId;
 import org.apache.ivy.core.module.id.ModuleRevisionId;
@@ -110,8 +111,11 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 import static org.apache.ivy.util.StringUtils.splitToArray;
 
@@ -188,6 +192,8 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
 
     private List<URL> classpathURLs = new ArrayList<>();
 
+    private Map<String, URL> loadedURLs = new LinkedHashMap<>();
+
     private ClassLoader classloader;
 
     private Boolean debugConflictResolution;
@@ -216,6 +222,12 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
 
     private final Map<String, TimeoutConstraint> timeoutConstraints = new HashMap<>();
 
+    private volatile boolean frozen;
+
+    private volatile Snapshot snapshot;
+
+    private boolean buildingSnapshot;
+
     public IvySettings() {
         this(new IvyVariableContainerImpl());
     }
@@ -398,6 +410,7 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
         setVariable("ivy.default.ivy.user.dir", getDefaultIvyUserDir().getAbsolutePath(), false);
         Message.verbose("settings loaded (" + (System.currentTimeMillis() - start) + "ms)");
         dumpSettings();
+        freeze();
     }
 
     public synchronized void load(URL settingsURL) throws ParseException, IOException {
@@ -416,6 +429,7 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
         setVariable("ivy.default.ivy.user.dir", getDefaultIvyUserDir().getAbsolutePath(), false);
         Message.verbose("settings loaded (" + (System.currentTimeMillis() - start) + "ms)");
         dumpSettings();
+        freeze();
     }
 
     /**
@@ -475,6 +489,7 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
 
     public synchronized void setSettingsVariables(File settingsFile) {
         try {
+            addLoadedURL(settingsFile.toURI().toURL());
             setVariable("ivy.settings.dir", new File(settingsFile.getAbsolutePath()).getParent());
             setDeprecatedVariable("ivy.conf.dir", "ivy.settings.dir");
             setVariable("ivy.settings.file", settingsFile.getAbsolutePath());
@@ -502,6 +517,7 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
     }
 
     public synchronized void setSettingsVariables(URL settingsURL) {
+        addLoadedURL(settingsURL);
         String settingsURLStr = settingsURL.toExternalForm();
         setVariable("ivy.settings.url", settingsURLStr);
         setDeprecatedVariable("ivy.conf.url", "ivy.settings.url");
@@ -545,6 +561,7 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
     }
 
     public synchronized void loadProperties(URL url, boolean overwrite) throws IOException {
+        addLoadedURL(url);
         loadProperties(url.openStream(), overwrite);
     }
 
@@ -553,9 +570,27 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
     }
 
     public synchronized void loadProperties(File file, boolean overwrite) throws IOException {
+        addLoadedURL(file.toURI().toURL());
         loadProperties(new FileInputStream(file), overwrite);
     }
 
+    private void addLoadedURL(URL url) {
+        // URL.equals() could resolve the host names
+        if (!loadedURLs.containsKey(url.toExternalForm())) {
+            loadedURLs.put(url.toExternalForm(), url);
+        }
+    }
+
+    /**
+     * Returns the settings files and the properties files loaded in these settings so far, in
+     * the order in which they have been loaded.
+     *
+     * @return the URLs of the loaded files
+     */
+    public synchronized List<URL> getLoadedURLs() {
+        return new ArrayList<>(loadedURLs.values());
+    }
+
     private void loadProperties(InputStream stream, boolean overwrite) throws IOException {
         try {
             Properties properties = new Properties();
@@ -647,6 +682,20 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
         return variableContainer;
     }
 
+    /**
+     * Returns the names and values of the variables defined in these settings, sorted by name.
+     * The map is empty when the variable container doesn't tell which variables it defines.
+     *
+     * @return a copy of the defined variables
+     */
+    public synchronized SortedMap<String, String> getDefinedVariables() {
+        SortedMap<String, String> variables = new TreeMap<>();
+        if (variableContainer instanceof IvyVariableContainerImpl) {
+            variables.putAll(((IvyVariableContainerImpl) variableContainer).getVariables());
+        }
+        return variables;
+    }
+
     public synchronized Class<?> typeDef(String name, String className) {
         return typeDef(name, className, false);
     }
@@ -726,6 +775,7 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
         if (resolver == null) {
             throw new NullPointerException("null resolver");
         }
+        invalidateSnapshot();
         init(resolver);
         resolversMap.put(resolver.getName(), resolver);
         if (resolver instanceof ChainResolver) {
@@ -763,6 +813,7 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
             defaultResolver = null;
         }
         defaultResolverName = resolverName;
+        invalidateSnapshot();
     }
 
     private void checkResolverName(String resolverName) {
@@ -788,6 +839,7 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
         checkResolverName(resolverName);
         moduleSettings.defineRule(new MapMatcher(attributes, matcher), new ModuleSettings(
                 resolverName, branch, conflictManager, resolveMode));
+        invalidateSnapshot();
     }
 
     /**
@@ -888,6 +940,7 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
 
     public synchronized void setDictatorResolver(DependencyResolver resolver) {
         dictatorResolver = resolver;
+        invalidateSnapshot();
     }
 
     private DependencyResolver getDictatorResolver() {
@@ -900,65 +953,90 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
         return dictatorResolver;
     }
 
-    public synchronized DependencyResolver getResolver(ModuleRevisionId mrid) {
-        DependencyResolver r = getDictatorResolver();
-        if (r != null) {
-            return r;
+    public DependencyResolver getResolver(ModuleRevisionId mrid) {
+        Snapshot snapshot = getSnapshot();
+        if (snapshot != null) {
+            return snapshot.getResolver(mrid);
+        }
+        synchronized (this) {
+            DependencyResolver r = getDictatorResolver();
+            if (r != null) {
+                return r;
+            }
+            String resolverName = getResolverName(mrid);
+            return getResolver(resolverName);
         }
-        String resolverName = getResolverName(mrid);
-        return getResolver(resolverName);
     }
 
     public synchronized boolean hasResolver(String resolverName) {
         return resolversMap.containsKey(resolverName);
     }
 
-    public synchronized DependencyResolver getResolver(String resolverName) {
-        DependencyResolver r = getDictatorResolver();
-        if (r != null) {
-            return r;
+    public DependencyResolver getResolver(String resolverName) {
+        Snapshot snapshot = getSnapshot();
+        if (snapshot != null) {
+            return snapshot.getResolver(resolverName);
         }
-        DependencyResolver resolver = resolversMap.get(resolverName);
-        if (resolver == null) {
-            Message.error("unknown resolver " + resolverName);
-        } else if (workspaceResolver != null && !(resolver instanceof WorkspaceChainResolver)) {
-            resolver = new WorkspaceChainResolver(this, resolver, workspaceResolver);
-            resolversMap.put(resolver.getName(), resolver);
-            resolversMap.put(resolverName, resolver);
+        synchronized (this) {
+            DependencyResolver r = getDictatorResolver();
+            if (r != null) {
+                return r;
+            }
+            DependencyResolver resolver = resolversMap.get(resolverName);
+            if (resolver == null) {
+                Message.error("unknown resolver " + resolverName);
+            } else if (workspaceResolver != null
+                    && !(resolver instanceof WorkspaceChainResolver)) {
+                resolver = new WorkspaceChainResolver(this, resolver, workspaceResolver);
+                resolversMap.put(resolver.getName(), resolver);
+                resolversMap.put(resolverName, resolver);
+            }
+            return resolver;
         }
-        return resolver;
     }
 
-    public synchronized DependencyResolver getDefaultResolver() {
-        DependencyResolver r = getDictatorResolver();
-        if (r != null) {
-            return r;
-        }
-        if (defaultResolver == null) {
-            defaultResolver = resolversMap.get(defaultResolverName);
+    public DependencyResolver getDefaultResolver() {
+        Snapshot snapshot = getSnapshot();
+        if (snapshot != null) {
+            return snapshot.getDefaultResolver();
         }
-        if (workspaceResolver != null && !(defaultResolver instanceof WorkspaceChainResolver)) {
-            defaultResolver = new WorkspaceChainResolver(this, defaultResolver, workspaceResolver);
+        synchronized (this) {
+            DependencyResolver r = getDictatorResolver();
+            if (r != null) {
+                return r;
+            }
+            if (defaultResolver == null) {
+                defaultResolver = resolversMap.get(defaultResolverName);
+            }
+            if (workspaceResolver != null
+                    && !(defaultResolver instanceof WorkspaceChainResolver)) {
+                defaultResolver = new WorkspaceChainResolver(this, defaultResolver,
+                        workspaceResolver);
+            }
+            return defaultResolver;
         }
-        return defaultResolver;
     }
 
-    public synchronized String getResolverName(ModuleRevisionId mrid) {
-        ModuleSettings ms = moduleSettings.getRule(mrid, new Filter<ModuleSettings>() {
-            public boolean accept(ModuleSettings o) {
-                return o.getResolverName() != null;
-            }
-        });
-        return ms == null ? defaultResolverName : ms.getResolverName();
+    public String getResolverName(ModuleRevisionId mrid) {
+        Snapshot snapshot = getSnapshot();
+        if (snapshot != null) {
+            return snapshot.getResolverName(mrid);
+        }
+        synchronized (this) {
+            ModuleSettings ms = moduleSettings.getRule(mrid, ModuleSettings.WITH_RESOLVER);
+            return ms == null ? defaultResolverName : ms.getResolverName();
+        }
     }
 
-    public synchronized String getDefaultBranch(ModuleId moduleId) {
-        ModuleSettings ms = moduleSettings.getRule(moduleId, new Filter<ModuleSettings>() {
-            public boolean accept(ModuleSettings o) {
-                return o.getBranch() != null;
-            }
-        });
-        return ms == null ? getDefaultBranch() : ms.getBranch();
+    public String getDefaultBranch(ModuleId moduleId) {
+        Snapshot snapshot = getSnapshot();
+        if (snapshot != null) {
+            return snapshot.getDefaultBranch(moduleId);
+        }
+        synchronized (this) {
+            ModuleSettings ms = moduleSettings.getRule(moduleId, ModuleSettings.WITH_BRANCH);
+            return ms == null ? getDefaultBranch() : ms.getBranch();
+        }
     }
 
     public synchronized String getDefaultBranch() {
@@ -967,33 +1045,42 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
 
     public synchronized void setDefaultBranch(String defaultBranch) {
         this.defaultBranch = defaultBranch;
+        invalidateSnapshot();
     }
 
-    public synchronized ConflictManager getConflictManager(ModuleId moduleId) {
-        ModuleSettings ms = moduleSettings.getRule(moduleId, new Filter<ModuleSettings>() {
-            public boolean accept(ModuleSettings o) {
-                return o.getConflictManager() != null;
-            }
-        });
-        if (ms == null) {
-            return getDefaultConflictManager();
-        } else {
-            ConflictManager cm = getConflictManager(ms.getConflictManager());
-            if (cm == null) {
-                throw new IllegalStateException("ivy badly configured: unknown conflict manager "
-                        + ms.getConflictManager());
+    public ConflictManager getConflictManager(ModuleId moduleId) {
+        Snapshot snapshot = getSnapshot();
+        if (snapshot != null) {
+            return snapshot.getConflictManager(moduleId);
+        }
+        synchronized (this) {
+            ModuleSettings ms = moduleSettings.getRule(moduleId,
+                ModuleSettings.WITH_CONFLICT_MANAGER);
+            if (ms == null) {
+                return getDefaultConflictManager();
             }
-            return cm;
+            return checkConflictManager(ms.getConflictManager(),
+                getConflictManager(ms.getConflictManager()));
         }
     }
 
-    public synchronized String getResolveMode(ModuleId moduleId) {
-        ModuleSettings ms = moduleSettings.getRule(moduleId, new Filter<ModuleSettings>() {
-            public boolean accept(ModuleSettings o) {
-                return o.getResolveMode() != null;
-            }
-        });
-        return ms == null ? getDefaultResolveMode() : ms.getResolveMode();
+    private static ConflictManager checkConflictManager(String name, ConflictManager cm) {
+        if (cm == null) {
+            throw new IllegalStateException("ivy badly configured: unknown conflict manager "
+                    + name);
+        }
+        return cm;
+    }
+
+    public String getResolveMode(ModuleId moduleId) {
+        Snapshot snapshot = getSnapshot();
+        if (snapshot != null) {
+            return snapshot.getResolveMode(moduleId);
+        }
+        synchronized (this) {
+            ModuleSettings ms = moduleSettings.getRule(moduleId, ModuleSettings.WITH_RESOLVE_MODE);
+            return ms == null ? getDefaultResolveMode() : ms.getResolveMode();
+        }
     }
 
     public synchronized String getDefaultResolveMode() {
@@ -1002,43 +1089,58 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
 
     public synchronized void setDefaultResolveMode(String defaultResolveMode) {
         this.defaultResolveMode = defaultResolveMode;
+        invalidateSnapshot();
     }
 
     public synchronized void addConfigured(ConflictManager cm) {
         addConflictManager(cm.getName(), cm);
     }
 
-    public synchronized ConflictManager getConflictManager(String name) {
-        if ("default".equals(name)) {
-            return getDefaultConflictManager();
+    public ConflictManager getConflictManager(String name) {
+        Snapshot snapshot = getSnapshot();
+        if (snapshot != null) {
+            return snapshot.getConflictManager(name);
+        }
+        synchronized (this) {
+            if ("default".equals(name)) {
+                return getDefaultConflictManager();
+            }
+            return conflictsManager.get(name);
         }
-        return conflictsManager.get(name);
     }
 
     public synchronized void addConflictManager(String name, ConflictManager cm) {
         init(cm);
         conflictsManager.put(name, cm);
+        invalidateSnapshot();
     }
 
     public synchronized void addConfigured(LatestStrategy latest) {
         addLatestStrategy(latest.getName(), latest);
     }
 
-    public synchronized LatestStrategy getLatestStrategy(String name) {
-        if ("default".equals(name)) {
-            return getDefaultLatestStrategy();
+    public LatestStrategy getLatestStrategy(String name) {
+        Snapshot snapshot = getSnapshot();
+        if (snapshot != null && snapshot.hasLatestStrategy(name)) {
+            return snapshot.getLatestStrategy(name);
         }
-        LatestStrategy strategy = latestStrategies.get(name);
-        if (workspaceResolver != null && !(strategy instanceof WorkspaceLatestStrategy)) {
-            strategy = new WorkspaceLatestStrategy(strategy);
-            latestStrategies.put(name, strategy);
+        synchronized (this) {
+            if ("default".equals(name)) {
+                return getDefaultLatestStrategy();
+            }
+            LatestStrategy strategy = latestStrategies.get(name);
+            if (workspaceResolver != null && !(strategy instanceof WorkspaceLatestStrategy)) {
+                strategy = new WorkspaceLatestStrategy(strategy);
+                latestStrategies.put(name, strategy);
+            }
+            return strategy;
         }
-        return strategy;
     }
 
     public synchronized void addLatestStrategy(String name, LatestStrategy latest) {
         init(latest);
         latestStrategies.put(name, latest);
+        invalidateSnapshot();
     }
 
     public synchronized void addConfigured(LockStrategy lockStrategy) {
@@ -1148,6 +1250,7 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
     }
 
     public synchronized void addVersionMatcher(VersionMatcher vmatcher) {
+        invalidateSnapshot();
         init(vmatcher);
         versionMatchers.put(vmatcher.getName(), vmatcher);
 
@@ -1165,11 +1268,17 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
         return versionMatchers.values().toArray(new VersionMatcher[versionMatchers.size()]);
     }
 
-    public synchronized VersionMatcher getVersionMatcher() {
-        if (versionMatcher == null) {
-            configureDefaultVersionMatcher();
+    public VersionMatcher getVersionMatcher() {
+        Snapshot snapshot = getSnapshot();
+        if (snapshot != null) {
+            return snapshot.getVersionMatcher();
+        }
+        synchronized (this) {
+            if (versionMatcher == null) {
+                configureDefaultVersionMatcher();
+            }
+            return versionMatcher;
         }
-        return versionMatcher;
     }
 
     public synchronized void configureDefaultVersionMatcher() {
@@ -1272,6 +1381,27 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
         return var == null ? valueIfUnset : Boolean.valueOf(var);
     }
 
+    /**
+     * Returns a variable as int value.
+     * @param name name of the variable
+     * @param valueIfUnset value if the variable is unset or is not a valid integer
+     * @return the value of the variable parsed as an integer
+     *     or the value of <i>valueIfUnset</i> if the variable is <tt>null</tt> or invalid
+     */
+    public synchronized int getVariableAsInt(String name, int valueIfUnset) {
+        String var = getVariable(name);
+        if (var == null) {
+            return valueIfUnset;
+        }
+        try {
+            return Integer.parseInt(var.trim());
+        } catch (NumberFormatException e) {
+            Message.warn("invalid integer value for " + name + ": " + var + ". Using "
+                    + valueIfUnset);
+            return valueIfUnset;
+        }
+    }
+
     public synchronized ConflictManager getDefaultConflictManager() {
         if (defaultConflictManager == null) {
             defaultConflictManager = new LatestConflictManager(getDefaultLatestStrategy());
@@ -1282,6 +1412,7 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
 
     public synchronized void setDefaultConflictManager(ConflictManager defaultConflictManager) {
         this.defaultConflictManager = defaultConflictManager;
+        invalidateSnapshot();
     }
 
     public synchronized LatestStrategy getDefaultLatestStrategy() {
@@ -1297,6 +1428,7 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
 
     public synchronized void setDefaultLatestStrategy(LatestStrategy defaultLatestStrategy) {
         this.defaultLatestStrategy = defaultLatestStrategy;
+        invalidateSnapshot();
     }
 
     public synchronized LockStrategy getDefaultLockStrategy() {
@@ -1369,11 +1501,18 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
         return getVariableAsBoolean("ivy.log.resolved.revision", true);
     }
 
-    public synchronized boolean debugConflictResolution() {
-        if (debugConflictResolution == null) {
-            debugConflictResolution = getVariableAsBoolean("ivy.log.conflict.resolution", false);
+    public boolean debugConflictResolution() {
+        Snapshot snapshot = getSnapshot();
+        if (snapshot != null) {
+            return snapshot.debugConflictResolution();
+        }
+        synchronized (this) {
+            if (debugConflictResolution == null) {
+                debugConflictResolution = getVariableAsBoolean("ivy.log.conflict.resolution",
+                    false);
+            }
+            return debugConflictResolution;
         }
-        return debugConflictResolution;
     }
 
     public synchronized boolean debugLocking() {
@@ -1390,6 +1529,103 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
         return dumpMemoryUsage;
     }
 
+    /**
+     * Returns the maximum number of modules whose artifacts are downloaded concurrently during a
+     * resolve, as configured by the <code>ivy.download.parallelism</code> variable.
+     *
+     * @return the download parallelism, 1 (serial download) by default
+     */
+    public synchronized int getDownloadParallelism() {
+        return Math.max(1, getVariableAsInt("ivy.download.parallelism", 1));
+    }
+
+    /**
+     * Returns the number of threads used to look up module descriptors of dependencies ahead of
+     * their visit during a resolve, as configured by the <code>ivy.prefetch.parallelism</code>
+     * variable.
+     *
+     * @return the prefetch parallelism, 1 (no prefetch) by default
+     */
+    public synchronized int getPrefetchParallelism() {
+        return Math.max(1, getVariableAsInt("ivy.prefetch.parallelism", 1));
+    }
+
+    /**
+     * Returns the maximum number of threads checking concurrently the resources listed in a
+     * remote repository, like the revisions of a module, as configured by the
+     * <code>ivy.probe.parallelism</code> variable.
+     *
+     * @return the probe parallelism, 8 by default, 1 meaning resources are checked one at a time
+     */
+    public synchronized int getProbeParallelism() {
+        return Math.max(1, getVariableAsInt("ivy.probe.parallelism", 8));
+    }
+
+    /**
+     * Returns <code>true</code> if the result of a resolve is stored in the resolution cache and
+     * reused by the next resolves of the same module with the same options and settings, as
+     * configured by the <code>ivy.resolve.cache</code> variable.
+     *
+     * @return <code>true</code> if resolve results are cached, <code>false</code> by default
+     */
+    public synchronized boolean isResolveCacheEnabled() {
+        return getVariableAsBoolean("ivy.resolve.cache", false);
+    }
+
+    /**
+     * Returns <code>true</code> if Ivy records metrics about its operations, as configured by the
+     * <code>ivy.metrics</code> variable.
+     *
+     * @return <code>true</code> if metrics are recorded, <code>false</code> by default
+     * @see org.apache.ivy.Ivy#getMetrics()
+     */
+    public synchronized boolean isMetricsEnabled() {
+        return getVariableAsBoolean("ivy.metrics", false);
+    }
+
+    /**
+     * Returns <code>true</code> if the listeners of Ivy events are notified by a dedicated thread,
+     * as configured by the <code>ivy.events.async</code> variable. Listeners implementing
+     * {@link org.apache.ivy.core.event.SynchronousListener} are always notified in the thread
+     * firing the event.
+     *
+     * @return <code>true</code> if events are dispatched asynchronously, <code>false</code> by
+     *         default
+     */
+    public synchronized boolean isAsyncEventDispatch() {
+        return getVariableAsBoolean("ivy.events.async", false);
+    }
+
+    /**
+     * Returns the maximum number of events waiting to be dispatched when events are dispatched
+     * asynchronously, as configured by the <code>ivy.events.queue.size</code> variable.
+     *
+     * @return the size of the event queue, 1024 by default
+     */
+    public synchronized int getEventQueueSize() {
+        return Math.max(1, getVariableAsInt("ivy.events.queue.size", 1024));
+    }
+
+    /**
+     * Returns how transfer progress events are queued when events are dispatched asynchronously,
+     * as configured by the <code>ivy.events.progress</code> variable: <code>all</code>,
+     * <code>coalesce</code> or <code>drop</code>.
+     *
+     * @return the progress policy, {@link ProgressPolicy#COALESCE} by default
+     */
+    public synchronized ProgressPolicy getEventProgressPolicy() {
+        String policy = getVariable("ivy.events.progress");
+        if (policy == null) {
+            return ProgressPolicy.COALESCE;
+        }
+        try {
+            return ProgressPolicy.valueOf(policy.trim().toUpperCase(Locale.US));
+        } catch (IllegalArgumentException e) {
+            Message.warn("unknown ivy.events.progress value: " + policy + ". Using coalesce.");
+            return ProgressPolicy.COALESCE;
+        }
+    }
+
     public synchronized boolean logNotConvertedExclusionRule() {
         return logNotConvertedExclusionRule;
     }
@@ -1407,6 +1643,32 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
     }
 
     private static class ModuleSettings {
+        private static final Filter<ModuleSettings> WITH_RESOLVER = new Filter<ModuleSettings>() {
+            public boolean accept(ModuleSettings o) {
+                return o.getResolverName() != null;
+            }
+        };
+
+        private static final Filter<ModuleSettings> WITH_BRANCH = new Filter<ModuleSettings>() {
+            public boolean accept(ModuleSettings o) {
+                return o.getBranch() != null;
+            }
+        };
+
+        private static final Filter<ModuleSettings> WITH_CONFLICT_MANAGER =
+                new Filter<ModuleSettings>() {
+            public boolean accept(ModuleSettings o) {
+                return o.getConflictManager() != null;
+            }
+        };
+
+        private static final Filter<ModuleSettings> WITH_RESOLVE_MODE =
+                new Filter<ModuleSettings>() {
+            public boolean accept(ModuleSettings o) {
+                return o.getResolveMode() != null;
+            }
+        };
+
         private String resolverName;
 
         private String branch;
@@ -1448,6 +1710,130 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
         }
     }
 
+    /**
+     * An immutable copy of the settings read for each dependency during a resolve, which can be
+     * read concurrently without locking.
+     * <p>
+     * It is built from the regular getters, so that everything they initialize lazily is
+     * initialized once and for all.
+     * </p>
+     */
+    private static final class Snapshot {
+        private final DependencyResolver dictatorResolver;
+
+        private final Map<String, DependencyResolver> resolvers = new HashMap<>();
+
+        private final DependencyResolver defaultResolver;
+
+        private final String defaultResolverName;
+
+        private final ModuleRules<ModuleSettings> moduleSettings;
+
+        private final String defaultBranch;
+
+        private final String defaultResolveMode;
+
+        private final Map<String, ConflictManager> conflictManagers;
+
+        private final ConflictManager defaultConflictManager;
+
+        private final Map<String, LatestStrategy> latestStrategies = new HashMap<>();
+
+        private final VersionMatcher versionMatcher;
+
+        private final boolean debugConflictResolution;
+
+        private Snapshot(IvySettings settings) {
+            versionMatcher = settings.getVersionMatcher();
+            dictatorResolver = settings.getDictatorResolver();
+            if (dictatorResolver == null) {
+                for (String name : new ArrayList<>(settings.resolversMap.keySet())) {
+                    resolvers.put(name, settings.getResolver(name));
+                }
+            }
+            defaultResolver = settings.getDefaultResolver();
+            defaultResolverName = settings.defaultResolverName;
+            moduleSettings = settings.moduleSettings.clone();
+            defaultBranch = settings.defaultBranch;
+            defaultResolveMode = settings.defaultResolveMode;
+            conflictManagers = new HashMap<>(settings.conflictsManager);
+            defaultConflictManager = settings.getDefaultConflictManager();
+            conflictManagers.put("default", defaultConflictManager);
+            for (String name : new ArrayList<>(settings.latestStrategies.keySet())) {
+                latestStrategies.put(name, settings.getLatestStrategy(name));
+            }
+            latestStrategies.put("default", settings.getDefaultLatestStrategy());
+            debugConflictResolution = settings.debugConflictResolution();
+        }
+
+        private DependencyResolver getResolver(ModuleRevisionId mrid) {
+            if (dictatorResolver != null) {
+                return dictatorResolver;
+            }
+            return getResolver(getResolverName(mrid));
+        }
+
+        private DependencyResolver getResolver(String resolverName) {
+            if (dictatorResolver != null) {
+                return dictatorResolver;
+            }
+            DependencyResolver resolver = resolvers.get(resolverName);
+            if (resolver == null) {
+                Message.error("unknown resolver " + resolverName);
+            }
+            return resolver;
+        }
+
+        private DependencyResolver getDefaultResolver() {
+            return defaultResolver;
+        }
+
+        private String getResolverName(ModuleRevisionId mrid) {
+            ModuleSettings ms = moduleSettings.getRule(mrid, ModuleSettings.WITH_RESOLVER);
+            return ms == null ? defaultResolverName : ms.getResolverName();
+        }
+
+        private String getDefaultBranch(ModuleId moduleId) {
+            ModuleSettings ms = moduleSettings.getRule(moduleId, ModuleSettings.WITH_BRANCH);
+            return ms == null ? defaultBranch : ms.getBranch();
+        }
+
+        private ConflictManager getConflictManager(ModuleId moduleId) {
+            ModuleSettings ms = moduleSettings.getRule(moduleId,
+                ModuleSettings.WITH_CONFLICT_MANAGER);
+            if (ms == null) {
+                return defaultConflictManager;
+            }
+            return checkConflictManager(ms.getConflictManager(),
+                getConflictManager(ms.getConflictManager()));
+        }
+
+        private ConflictManager getConflictManager(String name) {
+            return conflictManagers.get(name);
+        }
+
+        private String getResolveMode(ModuleId moduleId) {
+            ModuleSettings ms = moduleSettings.getRule(moduleId, ModuleSettings.WITH_RESOLVE_MODE);
+            return ms == null ? defaultResolveMode : ms.getResolveMode();
+        }
+
+        private boolean hasLatestStrategy(String name) {
+            return latestStrategies.containsKey(name);
+        }
+
+        private LatestStrategy getLatestStrategy(String name) {
+            return latestStrategies.get(name);
+        }
+
+        private VersionMatcher getVersionMatcher() {
+            return versionMatcher;
+        }
+
+        private boolean debugConflictResolution() {
+            return debugConflictResolution;
+        }
+    }
+
     public final long getInterruptTimeout() {
         return INTERRUPT_TIMEOUT;
     }
@@ -1533,6 +1919,52 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
         validateAll(namespaces.values());
     }
 
+    /**
+     * Marks the configuration of these settings as finished, which is done once they have been
+     * loaded.
+     * <p>
+     * The settings read for each dependency during a resolve (resolvers, conflict managers,
+     * version matcher, ...) are then read without locking from an immutable snapshot. Settings
+     * can still be changed afterwards: the snapshot is built again after each change.
+     * </p>
+     */
+    public synchronized void freeze() {
+        frozen = true;
+        invalidateSnapshot();
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Returns the snapshot of these settings, building it if needed, or <code>null</code> if the
+     * settings aren't frozen yet.
+     */
+    private Snapshot getSnapshot() {
+        Snapshot s = snapshot;
+        if (s == null && frozen) {
+            synchronized (this) {
+                // the snapshot is built from the locked getters, which must not use it
+                if (snapshot == null && !buildingSnapshot) {
+                    buildingSnapshot = true;
+                    try {
+                        s = new Snapshot(this);
+                    } finally {
+                        buildingSnapshot = false;
+                    }
+                    snapshot = s;
+                }
+                s = snapshot;
+            }
+        }
+        return s;
+    }
+
+    private void invalidateSnapshot() {
+        snapshot = null;
+    }
+
     /**
      * Validates all {@link Validatable} objects in the collection.
      *
@@ -1564,6 +1996,7 @@ public class IvySettings implements SortEngineSettings, PublishEngineSettings, P
 
     public void addConfigured(AbstractWorkspaceResolver workspaceResolver) {
         this.workspaceResolver = workspaceResolver;
+        invalidateSnapshot();
         if (workspaceResolver != null) {
             workspaceResolver.setSettings(this);
             DefaultRepositoryCacheManager cacheManager = new DefaultRepositoryCacheManager();
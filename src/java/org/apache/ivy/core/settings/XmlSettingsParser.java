@@ -46,6 +46,7 @@ import org.apache.ivy.util.FileResolver;
 import org.apache.ivy.util.Message;
 import org.apache.ivy.util.XMLHelper;
 import org.apache.ivy.util.url.CredentialsStore;
+import org.apache.ivy.util.url.PoolingURLHandler;
 import org.apache.ivy.util.url.TimeoutConstrainedURLHandler;
 import org.apache.ivy.util.url.URLHandlerRegistry;
 import org.xml.sax.Attributes;
@@ -369,6 +370,61 @@ public class XmlSettingsParser extends DefaultHandler {
             throw new IllegalArgumentException(
                     "Invalid httpRequestMethod specified, must be one of {'HEAD', 'GET'}");
         }
+        configureHttpConnectionPool(attributes);
+    }
+
+    private void configureHttpConnectionPool(Map<String, String> attributes) {
+        Long maxConnections = parseNumber(attributes, "httpMaxConnections", Integer.MIN_VALUE,
+            Integer.MAX_VALUE);
+        Long maxConnectionsPerRoute = parseNumber(attributes, "httpMaxConnectionsPerRoute",
+            Integer.MIN_VALUE, Integer.MAX_VALUE);
+        Long keepAlive = parseNumber(attributes, "httpKeepAlive", Long.MIN_VALUE, Long.MAX_VALUE);
+        Long idleTimeout = parseNumber(attributes, "httpIdleTimeout", Long.MIN_VALUE,
+            Long.MAX_VALUE);
+        if (maxConnections == null && maxConnectionsPerRoute == null && keepAlive == null
+                && idleTimeout == null) {
+            return;
+        }
+        TimeoutConstrainedURLHandler http = URLHandlerRegistry.getHttp();
+        if (!(http instanceof PoolingURLHandler)) {
+            Message.verbose("HTTP connection pool settings ignored: " + http
+                    + " doesn't pool connections");
+            return;
+        }
+        PoolingURLHandler pool = (PoolingURLHandler) http;
+        if (maxConnections != null) {
+            pool.setMaxConnections(maxConnections.intValue());
+        }
+        if (maxConnectionsPerRoute != null) {
+            pool.setMaxConnectionsPerRoute(maxConnectionsPerRoute.intValue());
+        }
+        if (keepAlive != null) {
+            pool.setKeepAlive(keepAlive);
+        }
+        if (idleTimeout != null) {
+            pool.setIdleTimeout(idleTimeout);
+        }
+    }
+
+    /**
+     * Returns the value of the given numeric attribute, or <code>null</code> if it isn't set.
+     */
+    private static Long parseNumber(Map<String, String> attributes, String attribute, long min,
+            long max) {
+        String value = attributes.get(attribute);
+        if (isNullOrEmpty(value)) {
+            return null;
+        }
+        try {
+            long number = Long.parseLong(value.trim());
+            if (number >= min && number <= max) {
+                return number;
+            }
+        } catch (NumberFormatException e) {
+            // reported below
+        }
+        throw new IllegalArgumentException("invalid value for attribute " + attribute + ": "
+                + value + ", a number is expected");
     }
 
     private void includeStarted(Map<String, String> attributes) throws IOException, ParseException {
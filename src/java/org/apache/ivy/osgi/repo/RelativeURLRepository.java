@@ -21,8 +21,8 @@ import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.ivy.core.settings.TimeoutConstraint;
 import org.apache.ivy.plugins.repository.Resource;
@@ -54,7 +54,7 @@ public class RelativeURLRepository extends URLRepository {
     }
 
 
-    private Map<String, Resource> resourcesCache = new HashMap<>();
+    private final ConcurrentMap<String, Resource> resourcesCache = new ConcurrentHashMap<>();
 
     public Resource getResource(String source) throws IOException {
         source = encode(source);
@@ -72,7 +72,10 @@ public class RelativeURLRepository extends URLRepository {
             } else {
                 res = new URLResource(new URL(baseUrl + source), getTimeoutConstraint());
             }
-            resourcesCache.put(source, res);
+            Resource previous = resourcesCache.putIfAbsent(source, res);
+            if (previous != null) {
+                res = previous;
+            }
         }
         return res;
     }
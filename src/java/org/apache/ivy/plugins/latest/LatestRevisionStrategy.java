@@ -33,24 +33,16 @@ public class LatestRevisionStrategy extends ComparatorLatestStrategy {
      */
     final class MridComparator implements Comparator<ModuleRevisionId> {
         public int compare(ModuleRevisionId o1, ModuleRevisionId o2) {
-            String rev1 = o1.getRevision();
-            String rev2 = o2.getRevision();
-
-            rev1 = rev1.replaceAll("([a-zA-Z])(\\d)", "$1.$2");
-            rev1 = rev1.replaceAll("(\\d)([a-zA-Z])", "$1.$2");
-            rev2 = rev2.replaceAll("([a-zA-Z])(\\d)", "$1.$2");
-            rev2 = rev2.replaceAll("(\\d)([a-zA-Z])", "$1.$2");
-
-            String[] parts1 = rev1.split("[\\._\\-\\+]");
-            String[] parts2 = rev2.split("[\\._\\-\\+]");
+            ParsedRevision rev1 = ParsedRevision.parse(o1.getRevision());
+            ParsedRevision rev2 = ParsedRevision.parse(o2.getRevision());
 
             int i = 0;
-            for (; i < parts1.length && i < parts2.length; i++) {
-                if (parts1[i].equals(parts2[i])) {
+            for (; i < rev1.size() && i < rev2.size(); i++) {
+                if (rev1.getPart(i).equals(rev2.getPart(i))) {
                     continue;
                 }
-                boolean is1Number = isNumber(parts1[i]);
-                boolean is2Number = isNumber(parts2[i]);
+                boolean is1Number = rev1.isNumber(i);
+                boolean is2Number = rev2.isNumber(i);
                 if (is1Number && !is2Number) {
                     return 1;
                 }
@@ -58,35 +50,28 @@ public class LatestRevisionStrategy extends ComparatorLatestStrategy {
                     return -1;
                 }
                 if (is1Number && is2Number) {
-                    return Long.valueOf(parts1[i]).compareTo(Long.valueOf(parts2[i]));
+                    return rev1.compareNumber(i, rev2);
                 }
                 // both are strings, we compare them taking into account special meaning
                 Map<String, Integer> specialMeanings = getSpecialMeanings();
-                Integer sm1 = specialMeanings.get(parts1[i].toLowerCase(Locale.US));
-                Integer sm2 = specialMeanings.get(parts2[i].toLowerCase(Locale.US));
+                Integer sm1 = specialMeanings.get(rev1.getLowerCasePart(i));
+                Integer sm2 = specialMeanings.get(rev2.getLowerCasePart(i));
                 if (sm1 != null) {
-                    if (sm2 == null) {
-                        sm2 = new Integer(0);
-                    }
-                    return sm1.compareTo(sm2);
+                    return sm1.compareTo(sm2 == null ? 0 : sm2);
                 }
                 if (sm2 != null) {
-                    return new Integer(0).compareTo(sm2);
+                    return Integer.valueOf(0).compareTo(sm2);
                 }
-                return parts1[i].compareTo(parts2[i]);
+                return rev1.getPart(i).compareTo(rev2.getPart(i));
             }
-            if (i < parts1.length) {
-                return isNumber(parts1[i]) ? 1 : -1;
+            if (i < rev1.size()) {
+                return rev1.isNumber(i) ? 1 : -1;
             }
-            if (i < parts2.length) {
-                return isNumber(parts2[i]) ? -1 : 1;
+            if (i < rev2.size()) {
+                return rev2.isNumber(i) ? -1 : 1;
             }
             return 0;
         }
-
-        private boolean isNumber(String str) {
-            return str.matches("\\d+");
-        }
     }
 
     /**
@@ -166,7 +151,7 @@ public class LatestRevisionStrategy extends ComparatorLatestStrategy {
 
     private final Comparator<ArtifactInfo> artifactInfoComparator = new ArtifactInfoComparator();
 
-    private Map<String, Integer> specialMeanings = null;
+    private volatile Map<String, Integer> specialMeanings = null;
 
     private boolean usedefaultspecialmeanings = true;
 
@@ -180,14 +165,22 @@ public class LatestRevisionStrategy extends ComparatorLatestStrategy {
         getSpecialMeanings().put(meaning.getName().toLowerCase(Locale.US), meaning.getValue());
     }
 
-    public synchronized Map<String, Integer> getSpecialMeanings() {
-        if (specialMeanings == null) {
-            specialMeanings = new HashMap<>();
-            if (isUsedefaultspecialmeanings()) {
-                specialMeanings.putAll(DEFAULT_SPECIAL_MEANINGS);
+    public Map<String, Integer> getSpecialMeanings() {
+        Map<String, Integer> meanings = specialMeanings;
+        if (meanings == null) {
+            // only synchronized when initializing, as this is called by most comparisons
+            synchronized (this) {
+                if (specialMeanings == null) {
+                    meanings = new HashMap<>();
+                    if (isUsedefaultspecialmeanings()) {
+                        meanings.putAll(DEFAULT_SPECIAL_MEANINGS);
+                    }
+                    specialMeanings = meanings;
+                }
+                meanings = specialMeanings;
             }
         }
-        return specialMeanings;
+        return meanings;
     }
 
     public boolean isUsedefaultspecialmeanings() {
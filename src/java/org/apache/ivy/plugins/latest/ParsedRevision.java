@@ -0,0 +1,171 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.plugins.latest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A revision split in the parts compared by {@link LatestRevisionStrategy}.
+ * <p>
+ * A revision is split at each '.', '_', '-' and '+', and between letters and digits, exactly as
+ * it used to be done with regular expressions before each comparison. Parsed revisions are cached,
+ * so that a revision is split only once however many times it is compared.
+ * </p>
+ */
+final class ParsedRevision {
+    private static final int MAX_CACHED_REVISIONS = 10000;
+
+    private static final ConcurrentMap<String, ParsedRevision> CACHE = new ConcurrentHashMap<>();
+
+    private final String[] parts;
+
+    private final String[] lowerCaseParts;
+
+    private final boolean[] numbers;
+
+    private final long[] values;
+
+    private final boolean[] longs;
+
+    private ParsedRevision(String revision) {
+        List<String> split = split(revision);
+        int size = split.size();
+        parts = split.toArray(new String[size]);
+        lowerCaseParts = new String[size];
+        numbers = new boolean[size];
+        values = new long[size];
+        longs = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            String part = parts[i];
+            numbers[i] = isDigits(part);
+            if (numbers[i]) {
+                try {
+                    values[i] = Long.parseLong(part);
+                    longs[i] = true;
+                } catch (NumberFormatException e) {
+                    // too big, only compared when actually needed, as done before
+                }
+            } else {
+                lowerCaseParts[i] = part.toLowerCase(Locale.US);
+            }
+        }
+    }
+
+    static ParsedRevision parse(String revision) {
+        ParsedRevision parsed = CACHE.get(revision);
+        if (parsed == null) {
+            parsed = new ParsedRevision(revision);
+            if (CACHE.size() >= MAX_CACHED_REVISIONS) {
+                CACHE.clear();
+            }
+            CACHE.put(revision, parsed);
+        }
+        return parsed;
+    }
+
+    int size() {
+        return parts.length;
+    }
+
+    String getPart(int i) {
+        return parts[i];
+    }
+
+    String getLowerCasePart(int i) {
+        return lowerCaseParts[i];
+    }
+
+    boolean isNumber(int i) {
+        return numbers[i];
+    }
+
+    /**
+     * Compares the numbers at the given index of this revision and of another one.
+     */
+    int compareNumber(int i, ParsedRevision other) {
+        if (longs[i] && other.longs[i]) {
+            return Long.compare(values[i], other.values[i]);
+        }
+        // fails as comparing the parts as longs used to
+        return Long.valueOf(parts[i]).compareTo(Long.valueOf(other.parts[i]));
+    }
+
+    /**
+     * Splits a revision as <code>String.split("[\\._\\-\\+]")</code> would split it once a '.'
+     * has been inserted between each letter followed by a digit and each digit followed by a
+     * letter.
+     */
+    private static List<String> split(String revision) {
+        List<String> split = new ArrayList<>();
+        StringBuilder part = new StringBuilder();
+        boolean separated = false;
+        for (int i = 0; i < revision.length(); i++) {
+            char c = revision.charAt(i);
+            if (c == '.' || c == '_' || c == '-' || c == '+') {
+                split.add(part.toString());
+                part.setLength(0);
+                separated = true;
+                continue;
+            }
+            if (i > 0) {
+                char previous = revision.charAt(i - 1);
+                if (isLetter(previous) && isDigit(c) || isDigit(previous) && isLetter(c)) {
+                    split.add(part.toString());
+                    part.setLength(0);
+                    separated = true;
+                }
+            }
+            part.append(c);
+        }
+        if (!separated) {
+            split.add(revision);
+            return split;
+        }
+        split.add(part.toString());
+        // as String.split, drop the trailing empty parts
+        int size = split.size();
+        while (size > 0 && split.get(size - 1).isEmpty()) {
+            split.remove(--size);
+        }
+        return split;
+    }
+
+    private static boolean isDigits(String str) {
+        if (str.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < str.length(); i++) {
+            if (!isDigit(str.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isLetter(char c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z';
+    }
+}
@@ -23,7 +23,12 @@ import java.io.RandomAccessFile;
 import java.nio.channels.FileLock;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
+import org.apache.ivy.core.metrics.IvyMetrics;
 import org.apache.ivy.util.Message;
 
 public abstract class FileBasedLockStrategy extends AbstractLockStrategy {
@@ -39,10 +44,17 @@ public abstract class FileBasedLockStrategy extends AbstractLockStrategy {
     private long timeout = DEFAULT_TIMEOUT;
 
     /**
-     * Lock counter list must be static: locks are implicitly shared to the entire process, so the
-     * list too much be.
+     * Lock state list must be static: locks are implicitly shared to the entire process, so the
+     * list too much be. Each file has its own state, so that threads locking different files never
+     * contend with each other.
      */
-    private static final ConcurrentMap<File, ConcurrentMap<Thread, Integer>> currentLockHolders = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<File, LockState> currentLockHolders = new ConcurrentHashMap<>();
+
+    private final AtomicLong acquiredLocks = new AtomicLong();
+
+    private final AtomicLong timedOutLocks = new AtomicLong();
+
+    private final AtomicLong lockWaitTime = new AtomicLong();
 
     protected FileBasedLockStrategy() {
         this(new CreateFileLocker(false), false);
@@ -62,49 +74,73 @@ public abstract class FileBasedLockStrategy extends AbstractLockStrategy {
         if (isDebugLocking()) {
             debugLocking("acquiring lock on " + file);
         }
-        long start = System.currentTimeMillis();
-        do {
-            synchronized (currentLockHolders) {
-                if (isDebugLocking()) {
-                    debugLocking("entered synchronized area (locking)");
-                }
-                int lockCount = hasLock(file, currentThread);
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(timeout);
+        LockState state = enterLockState(file);
+        try {
+            while (true) {
                 if (isDebugLocking()) {
-                    debugLocking("current status for " + file + " is " + lockCount
+                    debugLocking("current status for " + file + " is " + state.holdCount
                             + " held locks: " + getCurrentLockHolderNames(file));
                 }
-                if (lockCount < 0) {
-                    /* Another thread in this process holds the lock; we need to wait */
+                if (state.owner == currentThread) {
+                    state.holdCount++;
                     if (isDebugLocking()) {
-                        debugLocking("waiting for another thread to release the lock: "
-                                + getCurrentLockHolderNames(file));
+                        debugLocking("reentrant lock acquired on " + file + " in "
+                                + elapsedMillis(start) + "ms" + " - hold locks = "
+                                + state.holdCount);
                     }
-                } else if (lockCount > 0) {
-                    int holdLocks = incrementLock(file, currentThread);
+                    return true;
+                }
+                if (state.owner == null && locker.tryLock(file)) {
+                    /* No prior lock on this file is held at all */
+                    state.owner = currentThread;
+                    state.holdCount = 1;
+                    acquiredLocks.incrementAndGet();
+                    recordWaitTime(start);
                     if (isDebugLocking()) {
-                        debugLocking("reentrant lock acquired on " + file + " in "
-                                + (System.currentTimeMillis() - start) + "ms" + " - hold locks = "
-                                + holdLocks);
+                        debugLocking("lock acquired on " + file + " in " + elapsedMillis(start)
+                                + "ms");
                     }
                     return true;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    timedOutLocks.incrementAndGet();
+                    recordWaitTime(start);
+                    return false;
+                }
+                if (state.owner == null) {
+                    /*
+                     * Another process holds the lock: nobody will tell us when it is released, so
+                     * we need to try again later, unless a thread of this process gets it first
+                     */
+                    if (isDebugLocking()) {
+                        debugLocking("failed to acquire lock; waiting for retry...");
+                    }
+                    state.released.awaitNanos(
+                        Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(SLEEP_TIME)));
                 } else {
-                    /* No prior lock on this file is held at all */
-                    if (locker.tryLock(file)) {
-                        if (isDebugLocking()) {
-                            debugLocking("lock acquired on " + file + " in "
-                                    + (System.currentTimeMillis() - start) + "ms");
-                        }
-                        incrementLock(file, currentThread);
-                        return true;
+                    /* Another thread in this process holds the lock; we wait for its release */
+                    if (isDebugLocking()) {
+                        debugLocking("waiting for another thread to release the lock: "
+                                + getCurrentLockHolderNames(file));
                     }
+                    state.released.awaitNanos(remaining);
                 }
             }
-            if (isDebugLocking()) {
-                debugLocking("failed to acquire lock; sleeping for retry...");
-            }
-            Thread.sleep(SLEEP_TIME);
-        } while (System.currentTimeMillis() - start < timeout);
-        return false;
+        } finally {
+            leaveLockState(file, state);
+        }
+    }
+
+    private void recordWaitTime(long start) {
+        long waitTime = System.nanoTime() - start;
+        lockWaitTime.addAndGet(waitTime);
+        IvyMetrics metrics = IvyMetrics.current();
+        if (metrics != null) {
+            metrics.record("lock.wait.ns", waitTime);
+        }
     }
 
     protected void releaseLock(File file) {
@@ -112,113 +148,125 @@ public abstract class FileBasedLockStrategy extends AbstractLockStrategy {
         if (isDebugLocking()) {
             debugLocking("releasing lock on " + file);
         }
-        synchronized (currentLockHolders) {
-            if (isDebugLocking()) {
-                debugLocking("entered synchronized area (unlocking)");
+        LockState state = currentLockHolders.get(file);
+        if (state == null) {
+            throw new RuntimeException("Calling releaseLock on a thread which holds no locks");
+        }
+        state.lock.lock();
+        try {
+            if (state.owner != currentThread) {
+                throw new RuntimeException("Calling releaseLock on a thread which holds no locks");
             }
-            int holdLocks = decrementLock(file, currentThread);
-            if (holdLocks == 0) {
+            state.holdCount--;
+            if (state.holdCount == 0) {
                 locker.unlock(file);
+                state.owner = null;
+                if (state.waiters == 0) {
+                    currentLockHolders.remove(file, state);
+                    state.discarded = true;
+                } else {
+                    state.released.signalAll();
+                }
                 if (isDebugLocking()) {
                     debugLocking("lock released on " + file);
                 }
             } else {
                 if (isDebugLocking()) {
                     debugLocking("reentrant lock released on " + file + " - hold locks = "
-                            + holdLocks);
+                            + state.holdCount);
                 }
             }
+        } finally {
+            state.lock.unlock();
         }
     }
 
-    private static void debugLocking(String msg) {
-        Message.info(Thread.currentThread() + " " + System.currentTimeMillis() + " " + msg);
+    /**
+     * Returns the number of locks acquired by this strategy, reentrant acquisitions excepted.
+     *
+     * @return long
+     */
+    public long getAcquiredLockCount() {
+        return acquiredLocks.get();
     }
 
     /**
-     * Determine the state of the lockfile.
-     *
-     * Must be called from within a synchronized block.
+     * Returns the number of lock attempts of this strategy which gave up after the timeout.
      *
-     * Three possibilities exist: - The lock is held by the current thread (>0) - The lock is held
-     * by one or more different threads (-1) - The lock is not held at all (0).
+     * @return long
+     */
+    public long getTimedOutLockCount() {
+        return timedOutLocks.get();
+    }
+
+    /**
+     * Returns the total time spent by this strategy waiting for locks, in milliseconds, whether
+     * the locks have finally been acquired or not.
      *
-     * @param file
-     *            file to lock
-     * @param forThread
-     *            thread for which lock status is being queried
+     * @return long
      */
-    private int hasLock(File file, Thread forThread) {
-        ConcurrentMap<Thread, Integer> locksPerThread = currentLockHolders.get(file);
-        if (locksPerThread == null) {
-            return 0;
-        }
-        if (locksPerThread.isEmpty()) {
-            return 0;
-        }
-        Integer counterObj = locksPerThread.get(forThread);
-        int counter = (counterObj == null) ? 0 : counterObj;
-        if (counter > 0) {
-            return counter;
-        } else {
-            return -1;
-        }
+    public long getLockWaitTime() {
+        return TimeUnit.NANOSECONDS.toMillis(lockWaitTime.get());
+    }
+
+    private static long elapsedMillis(long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    private static void debugLocking(String msg) {
+        Message.info(Thread.currentThread() + " " + System.currentTimeMillis() + " " + msg);
     }
 
     /**
-     * Record that this thread holds the lock.
+     * Returns the state of the lock of the given file, registering the current thread as one of
+     * its waiters.
      *
-     * Asserts that the lock has been previously grabbed by this thread. Must be called from a
-     * synchronized block in which the lock was grabbed.
+     * The returned state is locked, and must be left with {@link #leaveLockState(File, LockState)}.
      *
      * @param file
-     *            file which has been locked
-     * @param forThread
-     *            thread for which locking occurred
-     * @return number of times this thread has grabbed the lock
+     *            file to lock
+     * @return LockState
      */
-    private int incrementLock(File file, Thread forThread) {
-        ConcurrentMap<Thread, Integer> locksPerThread = currentLockHolders.get(file);
-        if (locksPerThread == null) {
-            locksPerThread = new ConcurrentHashMap<>();
-            currentLockHolders.put(file, locksPerThread);
+    private static LockState enterLockState(File file) {
+        while (true) {
+            LockState state = currentLockHolders.get(file);
+            if (state == null) {
+                LockState newState = new LockState();
+                state = currentLockHolders.putIfAbsent(file, newState);
+                if (state == null) {
+                    state = newState;
+                }
+            }
+            state.lock.lock();
+            if (!state.discarded) {
+                state.waiters++;
+                return state;
+            }
+            /* the state has been removed meanwhile, a new one must be used */
+            state.lock.unlock();
         }
-        Integer c = locksPerThread.get(forThread);
-        int holdLocks = (c == null) ? 1 : c + 1;
-        locksPerThread.put(forThread, holdLocks);
-        return holdLocks;
     }
 
     /**
-     * Decrease depth of this thread's lock.
+     * Unregisters the current thread from the waiters of the given lock state, and unlocks it.
      *
-     * Must be called within a synchronized block.
-     *
-     * If this returns 0, the caller is responsible for releasing the lock within that same block.
+     * The state is discarded if nobody holds nor waits for the lock anymore.
      *
      * @param file
-     *            file for which lock depth is being decreased
-     * @param forThread
-     *            thread for which lock depth is being decreased
-     * @return remaining depth of this lock
+     *            file being locked
+     * @param state
+     *            the state entered with {@link #enterLockState(File)}
      */
-    private int decrementLock(File file, Thread forThread) {
-        ConcurrentMap<Thread, Integer> locksPerThread = currentLockHolders.get(file);
-        if (locksPerThread == null) {
-            throw new RuntimeException("Calling decrementLock on a thread which holds no locks");
-        }
-        Integer c = locksPerThread.get(forThread);
-        int oldHeldLocks = (c == null) ? 0 : c;
-        if (oldHeldLocks <= 0) {
-            throw new RuntimeException("Calling decrementLock on a thread which holds no locks");
-        }
-        int newHeldLocks = oldHeldLocks - 1;
-        if (newHeldLocks > 0) {
-            locksPerThread.put(forThread, newHeldLocks);
-        } else {
-            locksPerThread.remove(forThread);
+    private static void leaveLockState(File file, LockState state) {
+        try {
+            state.waiters--;
+            if (state.waiters == 0 && state.owner == null) {
+                currentLockHolders.remove(file, state);
+                state.discarded = true;
+            }
+        } finally {
+            state.lock.unlock();
         }
-        return newHeldLocks;
     }
 
     /**
@@ -228,18 +276,40 @@ public abstract class FileBasedLockStrategy extends AbstractLockStrategy {
      * @return String
      */
     protected String getCurrentLockHolderNames(File file) {
-        StringBuilder sb = new StringBuilder();
-        ConcurrentMap<Thread, Integer> m = currentLockHolders.get(file);
-        if (m == null) {
+        LockState state = currentLockHolders.get(file);
+        if (state == null) {
             return "(NULL)";
         }
-        for (Thread t : m.keySet()) {
-            if (sb.length() > 0) {
-                sb.append(", ");
-            }
-            sb.append(t.toString());
-        }
-        return sb.toString();
+        Thread owner = state.owner;
+        return owner == null ? "" : owner.toString();
+    }
+
+    /**
+     * The state of the lock of a file in this process. All fields but the lock and its condition
+     * are guarded by the lock.
+     */
+    private static final class LockState {
+        private final ReentrantLock lock = new ReentrantLock();
+
+        /**
+         * Signalled when the thread holding the lock releases it.
+         */
+        private final Condition released = lock.newCondition();
+
+        private volatile Thread owner;
+
+        private int holdCount;
+
+        /**
+         * Number of threads in {@link FileBasedLockStrategy#acquireLock(File)} for this file.
+         */
+        private int waiters;
+
+        /**
+         * Whether this state has been removed from the lock holders, in which case it must not be
+         * used anymore.
+         */
+        private boolean discarded;
     }
 
     public interface FileLocker {
@@ -317,9 +387,7 @@ public abstract class FileBasedLockStrategy extends AbstractLockStrategy {
                     RandomAccessFile raf = new RandomAccessFile(file, "rw");
                     FileLock l = raf.getChannel().tryLock();
                     if (l != null) {
-                        synchronized (this) {
-                            locks.put(file, new LockData(raf, l));
-                        }
+                        locks.put(file, new LockData(raf, l));
                         return true;
                     } else {
                         if (debugLocking) {
@@ -336,19 +404,16 @@ public abstract class FileBasedLockStrategy extends AbstractLockStrategy {
         }
 
         public void unlock(File file) {
-            synchronized (this) {
-                LockData data = locks.get(file);
-                if (data == null) {
-                    throw new IllegalArgumentException("file not previously locked: " + file);
-                }
+            LockData data = locks.remove(file);
+            if (data == null) {
+                throw new IllegalArgumentException("file not previously locked: " + file);
+            }
 
-                try {
-                    locks.remove(file);
-                    data.l.release();
-                    data.raf.close();
-                } catch (IOException e) {
-                    Message.error("problem while releasing lock on " + file + ": " + e.getMessage());
-                }
+            try {
+                data.l.release();
+                data.raf.close();
+            } catch (IOException e) {
+                Message.error("problem while releasing lock on " + file + ": " + e.getMessage());
             }
         }
 
@@ -26,14 +26,23 @@ import java.io.InputStreamReader;
 import java.io.LineNumberReader;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLResolver;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
 import org.apache.ivy.core.IvyPatternHelper;
 import org.apache.ivy.core.module.descriptor.License;
 import org.apache.ivy.core.module.id.ModuleId;
@@ -41,17 +50,16 @@ import org.apache.ivy.core.module.id.ModuleRevisionId;
 import org.apache.ivy.plugins.repository.Resource;
 import org.apache.ivy.util.XMLHelper;
 import org.apache.ivy.util.url.URLHandlerRegistry;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.EntityResolver;
-import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
 import org.xml.sax.SAXParseException;
 
 /**
- * Provides the method to read some data out of the DOM tree of a pom file.
+ * Provides the method to read some data out of a pom file.
+ * <p>
+ * The pom is read with a StAX reader, which only keeps the elements read by this class, in a
+ * lightweight tree standing for the DOM tree of the pom. As in a DOM tree, the text of an element
+ * is made of its text and CDATA children, and doesn't include the text of its child elements.
+ * </p>
  */
 public class PomReader {
 
@@ -113,38 +121,70 @@ public class PomReader {
 
     private static final String PROFILE = "profile";
 
+    private static final String BUILD = "build";
+
+    /**
+     * The elements read in a pom, as far as {@link #getTextContent(Element)} and
+     * {@link #getFirstChildElement(Element, String)} may be called on them.
+     */
+    private static final Selection PROJECT_SELECTION;
+
+    static {
+        Selection build = new Selection().keep(PLUGINS, new Selection().keep(PLUGIN,
+            new Selection().keep(GROUP_ID).keep(ARTIFACT_ID).keep(VERSION)));
+        Selection common = new Selection().keep(DEPENDENCIES).keep(DEPENDENCY_MGT)
+                .keep(BUILD, build).keep(PROPERTIES);
+        Selection profile = new Selection(common).keep(PomProfileElement.ID_ELEMENT)
+                .keep(PomProfileElement.ACTIVATION_ELEMENT);
+        PROJECT_SELECTION = new Selection(common).keep(PARENT).keep(GROUP_ID).keep(ARTIFACT_ID)
+                .keep(VERSION).keep(PACKAGING).keep(HOMEPAGE).keep(DESCRIPTION)
+                .keep(LICENSES, new Selection().keep(LICENSE,
+                    new Selection().keep(LICENSE_NAME).keep(LICENSE_URL)))
+                .keep(DISTRIBUTION_MGT, new Selection().keep(RELOCATION))
+                .keep(PROFILES_ELEMENT, new Selection().keep(PROFILE, profile));
+    }
+
     private final Map<String, String> properties = new HashMap<>();
 
     private final Element projectElement;
 
     private final Element parentElement;
 
-    @SuppressWarnings("deprecation")
     public PomReader(final URL descriptorURL, final Resource res) throws IOException, SAXException {
         InputStream stream = new AddDTDFilterInputStream(
                 URLHandlerRegistry.getDefault().openStream(descriptorURL));
-        InputSource source = new InputSource(stream);
-        source.setSystemId(XMLHelper.toSystemId(descriptorURL));
+        String systemId = XMLHelper.toSystemId(descriptorURL);
         try {
-            Document pomDomDoc = XMLHelper.parseToDom(source, new EntityResolver() {
-                public InputSource resolveEntity(String publicId, String systemId)
-                        throws SAXException, IOException {
-                    if (systemId != null && systemId.endsWith("m2-entities.ent")) {
-                        // IVY-921: return an InputSource for our local packaged m2-entities.ent
+            XMLInputFactory factory = XMLHelper.getXMLInputFactory(new XMLResolver() {
+                public Object resolveEntity(String publicID, String systemID, String baseURI,
+                        String namespace) {
+                    if (systemID != null && systemID.endsWith("m2-entities.ent")) {
+                        // IVY-921: return an InputStream for our local packaged m2-entities.ent
                         // file
-                        return new InputSource(
-                                PomReader.class.getResourceAsStream("m2-entities.ent"));
+                        return PomReader.class.getResourceAsStream("m2-entities.ent");
                     }
                     return null;
                 }
             }, true, XMLHelper.ExternalResources.IGNORE);
-            projectElement = pomDomDoc.getDocumentElement();
-            if (!PROJECT.equals(projectElement.getNodeName())
-                    && !MODEL.equals(projectElement.getNodeName())) {
-                throw new SAXParseException("project must be the root tag", res.getName(),
-                        res.getName(), 0, 0);
-            }
+            projectElement = read(factory.createXMLStreamReader(systemId, stream), res);
             parentElement = getFirstChildElement(projectElement, PARENT);
+        } catch (XMLStreamException e) {
+            if (e.getNestedException() instanceof IOException) {
+                throw (IOException) e.getNestedException();
+            }
+            // the message of the exception is prefixed with its location
+            String message = e.getMessage();
+            int index = message == null ? -1 : message.indexOf("Message: ");
+            if (index >= 0) {
+                message = message.substring(index + "Message: ".length());
+            }
+            Location location = e.getLocation();
+            SAXParseException spe = location == null
+                    ? new SAXParseException(message, null, systemId, -1, -1)
+                    : new SAXParseException(message, location.getPublicId(), systemId,
+                            location.getLineNumber(), location.getColumnNumber());
+            spe.initCause(e);
+            throw spe;
         } finally {
             try {
                 stream.close();
@@ -263,7 +303,6 @@ public class PomReader {
         if (licenses == null) {
             return new License[0];
         }
-        licenses.normalize();
         List<License> lics = new ArrayList<>();
         for (Element license : getAllChilds(licenses)) {
             if (LICENSE.equals(license.getNodeName())) {
@@ -318,12 +357,8 @@ public class PomReader {
             return Collections.emptyList();
         }
         List<PomDependencyData> dependencies = new LinkedList<>();
-        NodeList children = dependenciesElement.getChildNodes();
-        for (int i = 0, sz = children.getLength(); i < sz; i++) {
-            Node node = children.item(i);
-            if (node instanceof Element && DEPENDENCY.equals(node.getNodeName())) {
-                dependencies.add(new PomDependencyData((Element) node));
-            }
+        for (Element dependency : getChildElements(dependenciesElement, DEPENDENCY)) {
+            dependencies.add(new PomDependencyData(dependency));
         }
         return dependencies;
     }
@@ -339,12 +374,8 @@ public class PomReader {
             return Collections.emptyList();
         }
         List<PomDependencyMgt> dependencies = new LinkedList<>();
-        NodeList children = dependenciesElement.getChildNodes();
-        for (int i = 0, sz = children.getLength(); i < sz; i++) {
-            Node node = children.item(i);
-            if (node instanceof Element && DEPENDENCY.equals(node.getNodeName())) {
-                dependencies.add(new PomDependencyMgtElement((Element) node));
-            }
+        for (Element dependency : getChildElements(dependenciesElement, DEPENDENCY)) {
+            dependencies.add(new PomDependencyMgtElement(dependency));
         }
         return dependencies;
     }
@@ -355,12 +386,8 @@ public class PomReader {
             return Collections.emptyList();
         }
         List<PomProfileElement> result = new LinkedList<>();
-        NodeList children = profilesElement.getChildNodes();
-        for (int i = 0, sz = children.getLength(); i < sz; i++) {
-            Node node = children.item(i);
-            if (node instanceof Element && PROFILE.equals(node.getNodeName())) {
-                result.add(new PomProfileElement((Element) node));
-            }
+        for (Element profile : getChildElements(profilesElement, PROFILE)) {
+            result.add(new PomProfileElement(profile));
         }
         return result;
     }
@@ -425,15 +452,11 @@ public class PomReader {
                 return Collections.emptyList();
             }
             List<ModuleId> exclusions = new LinkedList<>();
-            NodeList children = exclusionsElement.getChildNodes();
-            for (int i = 0, sz = children.getLength(); i < sz; i++) {
-                Node node = children.item(i);
-                if (node instanceof Element && EXCLUSION.equals(node.getNodeName())) {
-                    String groupId = getFirstChildText((Element) node, GROUP_ID);
-                    String artifactId = getFirstChildText((Element) node, ARTIFACT_ID);
-                    if (groupId != null && artifactId != null) {
-                        exclusions.add(ModuleId.newInstance(groupId, artifactId));
-                    }
+            for (Element exclusion : getChildElements(exclusionsElement, EXCLUSION)) {
+                String groupId = getFirstChildText(exclusion, GROUP_ID);
+                String artifactId = getFirstChildText(exclusion, ARTIFACT_ID);
+                if (groupId != null && artifactId != null) {
+                    exclusions.add(ModuleId.newInstance(groupId, artifactId));
                 }
             }
             return exclusions;
@@ -445,19 +468,15 @@ public class PomReader {
     }
 
     private List<PomPluginElement> getPlugins(Element parent) {
-        Element buildElement = getFirstChildElement(parent, "build");
+        Element buildElement = getFirstChildElement(parent, BUILD);
         Element pluginsElement = getFirstChildElement(buildElement, PLUGINS);
 
         if (pluginsElement == null) {
             return Collections.emptyList();
         }
-        NodeList children = pluginsElement.getChildNodes();
         List<PomPluginElement> plugins = new LinkedList<>();
-        for (int i = 0; i < children.getLength(); i++) {
-            Node node = children.item(i);
-            if (node instanceof Element && PLUGIN.equals(node.getNodeName())) {
-                plugins.add(new PomPluginElement((Element) node));
-            }
+        for (Element plugin : getChildElements(pluginsElement, PLUGIN)) {
+            plugins.add(new PomPluginElement(plugin));
         }
         return plugins;
     }
@@ -467,7 +486,6 @@ public class PomReader {
         if (propsEl == null) {
             return Collections.emptyMap();
         }
-        propsEl.normalize();
         final Map<String, String> props = new HashMap<>();
         for (final Element prop : getAllChilds(propsEl)) {
             props.put(prop.getNodeName(), getTextContent(prop));
@@ -754,24 +772,71 @@ public class PomReader {
         }
     }
 
-    private static String getTextContent(Element element) {
-        StringBuilder result = new StringBuilder();
-
-        NodeList childNodes = element.getChildNodes();
-        for (int i = 0; i < childNodes.getLength(); i++) {
-            Node child = childNodes.item(i);
-
-            switch (child.getNodeType()) {
-                case Node.CDATA_SECTION_NODE:
-                case Node.TEXT_NODE:
-                    result.append(child.getNodeValue());
-                    break;
-                default:
-                    break;
+    /**
+     * Reads the elements of a pom selected by {@link #PROJECT_SELECTION}.
+     *
+     * @return the root element
+     */
+    private static Element read(XMLStreamReader reader, Resource res)
+            throws XMLStreamException, SAXException {
+        try {
+            Deque<Element> elements = new ArrayDeque<>();
+            Deque<Selection> selections = new ArrayDeque<>();
+            Element root = null;
+            int skipped = 0;
+            while (reader.hasNext()) {
+                switch (reader.next()) {
+                    case XMLStreamConstants.START_ELEMENT:
+                        String name = reader.getLocalName();
+                        if (root == null) {
+                            if (!PROJECT.equals(name) && !MODEL.equals(name)) {
+                                throw new SAXParseException("project must be the root tag",
+                                        res.getName(), res.getName(), 0, 0);
+                            }
+                            root = new Element(name);
+                            elements.push(root);
+                            selections.push(PROJECT_SELECTION);
+                        } else if (skipped > 0 || !selections.peek().keeps(name)) {
+                            skipped++;
+                        } else {
+                            Element element = new Element(name);
+                            elements.peek().children.add(element);
+                            elements.push(element);
+                            selections.push(selections.peek().get(name));
+                        }
+                        break;
+                    case XMLStreamConstants.END_ELEMENT:
+                        if (skipped > 0) {
+                            skipped--;
+                        } else {
+                            elements.pop().end();
+                            selections.pop();
+                        }
+                        break;
+                    case XMLStreamConstants.CHARACTERS:
+                    case XMLStreamConstants.CDATA:
+                    case XMLStreamConstants.SPACE:
+                        if (skipped == 0 && !elements.isEmpty()) {
+                            elements.peek().appendText(reader.getTextCharacters(),
+                                reader.getTextStart(), reader.getTextLength());
+                        }
+                        break;
+                    default:
+                        break;
+                }
+            }
+            if (root == null) {
+                throw new SAXParseException("project must be the root tag", res.getName(),
+                        res.getName(), 0, 0);
             }
+            return root;
+        } finally {
+            reader.close();
         }
+    }
 
-        return result.toString();
+    private static String getTextContent(Element element) {
+        return element.text;
     }
 
     private static String getFirstChildText(Element parentElem, String name) {
@@ -787,30 +852,103 @@ public class PomReader {
         if (parentElem == null) {
             return null;
         }
-        NodeList childs = parentElem.getChildNodes();
-        for (int i = 0; i < childs.getLength(); i++) {
-            Node node = childs.item(i);
-            if (node instanceof Element && name.equals(node.getNodeName())) {
-                return (Element) node;
+        for (Element child : parentElem.children) {
+            if (name.equals(child.name)) {
+                return child;
             }
         }
         return null;
     }
 
-    private static List<Element> getAllChilds(Element parent) {
-        List<Element> r = new LinkedList<>();
-        if (parent != null) {
-            NodeList childs = parent.getChildNodes();
-            for (int i = 0; i < childs.getLength(); i++) {
-                Node node = childs.item(i);
-                if (node instanceof Element) {
-                    r.add((Element) node);
+    private static List<Element> getChildElements(Element parentElem, String name) {
+        List<Element> r = new ArrayList<>();
+        if (parentElem != null) {
+            for (Element child : parentElem.children) {
+                if (name.equals(child.name)) {
+                    r.add(child);
                 }
             }
         }
         return r;
     }
 
+    private static List<Element> getAllChilds(Element parent) {
+        if (parent == null) {
+            return Collections.emptyList();
+        }
+        return parent.children;
+    }
+
+    /**
+     * An element of a pom, with its text and its child elements.
+     */
+    private static final class Element {
+        private final String name;
+
+        private final List<Element> children = new ArrayList<>(0);
+
+        private String text = "";
+
+        private StringBuilder textBuilder;
+
+        private Element(String name) {
+            this.name = name;
+        }
+
+        private String getNodeName() {
+            return name;
+        }
+
+        private void appendText(char[] chars, int start, int length) {
+            if (textBuilder == null) {
+                textBuilder = new StringBuilder(length);
+            }
+            textBuilder.append(chars, start, length);
+        }
+
+        private void end() {
+            if (textBuilder != null) {
+                text = textBuilder.toString();
+                textBuilder = null;
+            }
+        }
+    }
+
+    /**
+     * The child elements to read in an element, with what to read in each of them. All the
+     * descendants of an element are read unless a selection is given for it.
+     */
+    private static final class Selection {
+        private static final Selection ALL = new Selection();
+
+        private final Map<String, Selection> children = new HashMap<>();
+
+        private Selection() {
+        }
+
+        private Selection(Selection copyFrom) {
+            children.putAll(copyFrom.children);
+        }
+
+        private Selection keep(String name) {
+            return keep(name, null);
+        }
+
+        private Selection keep(String name, Selection selection) {
+            children.put(name, selection);
+            return this;
+        }
+
+        private boolean keeps(String name) {
+            return this == ALL || children.containsKey(name);
+        }
+
+        private Selection get(String name) {
+            Selection selection = children.get(name);
+            return selection == null ? ALL : selection;
+        }
+    }
+
     private static final class AddDTDFilterInputStream extends FilterInputStream {
         private static final int MARK = 10000;
 
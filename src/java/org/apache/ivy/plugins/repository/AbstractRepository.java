@@ -31,7 +31,11 @@ public abstract class AbstractRepository implements Repository {
 
     private String name;
 
-    private TransferEvent evt;
+    /**
+     * The event of the transfer in progress in the current thread, so that concurrent transfers
+     * made through the same repository don't mix up their progress.
+     */
+    private final ThreadLocal<TransferEvent> evt = new ThreadLocal<>();
 
     private final TimeoutConstraint timeoutConstraint;
 
@@ -56,16 +60,20 @@ public abstract class AbstractRepository implements Repository {
     }
 
     protected void fireTransferInitiated(Resource res, int requestType) {
-        evt = new TransferEvent(this, res, TransferEvent.TRANSFER_INITIATED, requestType);
+        TransferEvent evt = new TransferEvent(this, res, TransferEvent.TRANSFER_INITIATED,
+                requestType);
+        this.evt.set(evt);
         fireTransferEvent(evt);
     }
 
     protected void fireTransferStarted() {
+        TransferEvent evt = this.evt.get();
         evt.setEventType(TransferEvent.TRANSFER_STARTED);
         fireTransferEvent(evt);
     }
 
     protected void fireTransferStarted(long totalLength) {
+        TransferEvent evt = this.evt.get();
         evt.setEventType(TransferEvent.TRANSFER_STARTED);
         evt.setTotalLength(totalLength);
         evt.setTotalLengthSet(true);
@@ -73,6 +81,7 @@ public abstract class AbstractRepository implements Repository {
     }
 
     protected void fireTransferProgress(long length) {
+        TransferEvent evt = this.evt.get();
         evt.setEventType(TransferEvent.TRANSFER_PROGRESS);
         evt.setLength(length);
         if (!evt.isTotalLengthSet()) {
@@ -82,6 +91,7 @@ public abstract class AbstractRepository implements Repository {
     }
 
     protected void fireTransferCompleted() {
+        TransferEvent evt = this.evt.get();
         evt.setEventType(TransferEvent.TRANSFER_COMPLETED);
         if (evt.getTotalLength() > 0 && !evt.isTotalLengthSet()) {
             evt.setTotalLengthSet(true);
@@ -90,6 +100,7 @@ public abstract class AbstractRepository implements Repository {
     }
 
     protected void fireTransferCompleted(long totalLength) {
+        TransferEvent evt = this.evt.get();
         evt.setEventType(TransferEvent.TRANSFER_COMPLETED);
         evt.setTotalLength(totalLength);
         evt.setTotalLengthSet(true);
@@ -97,11 +108,13 @@ public abstract class AbstractRepository implements Repository {
     }
 
     protected void fireTransferError() {
+        TransferEvent evt = this.evt.get();
         evt.setEventType(TransferEvent.TRANSFER_ERROR);
         fireTransferEvent(evt);
     }
 
     protected void fireTransferError(Exception ex) {
+        TransferEvent evt = this.evt.get();
         evt.setEventType(TransferEvent.TRANSFER_ERROR);
         evt.setException(ex);
         fireTransferEvent(evt);
@@ -116,6 +129,16 @@ public abstract class AbstractRepository implements Repository {
         }
     }
 
+    /**
+     * Tells whether this repository can be used by several threads at the same time, in which
+     * case Ivy may for instance download several artifacts from it concurrently.
+     *
+     * @return <code>false</code> by default
+     */
+    public boolean isThreadSafe() {
+        return false;
+    }
+
     public String getFileSeparator() {
         return "/";
     }
@@ -19,6 +19,8 @@ package org.apache.ivy.plugins.repository;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 import org.apache.ivy.core.module.descriptor.Artifact;
@@ -57,6 +59,48 @@ public interface Repository {
      */
     Resource getResource(String source) throws IOException;
 
+    /**
+     * Return the resources associated with the specified identifiers, as {@link #getResource}
+     * would. Repositories for which checking resources one at a time is costly may load the
+     * metadata of the returned resources (existence, last modification date and content length)
+     * in a batch, for instance concurrently.
+     *
+     * @param sources
+     *            The strings identifying the resources.
+     * @return The resources associated with the resource identifiers, in the same order.
+     * @throws IOException
+     *             On error while trying to get the resources.
+     */
+    default List<Resource> getResources(Collection<String> sources) throws IOException {
+        List<Resource> resources = new ArrayList<>(sources.size());
+        for (String source : sources) {
+            resources.add(getResource(source));
+        }
+        return resources;
+    }
+
+    /**
+     * Tells the repository in which order the caller is going to check the given resources,
+     * obtained with {@link #getResources(Collection)}, so that it can load the metadata of the
+     * next ones ahead of the caller. Does nothing by default.
+     *
+     * @param resources
+     *            The resources the caller is going to check, in that order.
+     */
+    default void checkingResources(List<Resource> resources) {
+    }
+
+    /**
+     * Tells the repository that the caller is done checking the given resources, obtained with
+     * {@link #getResources(Collection)}, so that it can stop loading their metadata. Does nothing
+     * by default.
+     *
+     * @param resources
+     *            The resources the caller is done with.
+     */
+    default void releaseResources(Collection<Resource> resources) {
+    }
+
     /**
      * Fetch a resource from the repository.
      *
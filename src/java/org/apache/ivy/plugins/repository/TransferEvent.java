@@ -151,6 +151,28 @@ public class TransferEvent extends IvyEvent {
         this.totalLength = length;
     }
 
+    /**
+     * Creates a copy of the given event. The repository firing an event keeps updating it while the
+     * transfer goes on, so a copy must be taken to look at the event after it has been fired.
+     *
+     * @param event
+     *            the event to copy
+     */
+    public TransferEvent(final TransferEvent event) {
+        super(event);
+
+        this.resource = event.resource;
+        this.eventType = event.eventType;
+        this.requestType = event.requestType;
+        this.exception = event.exception;
+        this.localFile = event.localFile;
+        this.repository = event.repository;
+        this.length = event.length;
+        this.totalLength = event.totalLength;
+        this.isTotalLengthSet = event.isTotalLengthSet;
+        this.timeTracking = event.timeTracking.clone();
+    }
+
     private static String getName(int eventType) {
         switch (eventType) {
             case TRANSFER_INITIATED:
@@ -297,6 +319,20 @@ public class TransferEvent extends IvyEvent {
         return repository;
     }
 
+    /**
+     * Returns a copy of this event standing for both the given previous event and this one: the
+     * length of the copy is the sum of their lengths.
+     *
+     * @param previous
+     *            a previous progress event of the same transfer
+     * @return a new event
+     */
+    public TransferEvent coalesce(TransferEvent previous) {
+        TransferEvent coalesced = new TransferEvent(this);
+        coalesced.setLength(previous.getLength() + getLength());
+        return coalesced;
+    }
+
     /**
      * Returns the elapsed time (in ms) between when the event entered one type until it entered
      * another event time.
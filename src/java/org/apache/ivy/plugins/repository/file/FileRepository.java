@@ -19,7 +19,11 @@ package org.apache.ivy.plugins.repository.file;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 import org.apache.ivy.plugins.repository.AbstractRepository;
@@ -48,6 +52,37 @@ public class FileRepository extends AbstractRepository {
         return new FileResource(this, getFile(source));
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The attributes of each file are read once, when the resources are created.
+     * </p>
+     */
+    @Override
+    public List<Resource> getResources(Collection<String> sources) throws IOException {
+        List<Resource> resources = new ArrayList<>(sources.size());
+        for (String source : sources) {
+            File file = getFile(source);
+            BasicFileAttributes attributes;
+            try {
+                attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+            } catch (InvalidPathException e) {
+                resources.add(new FileResource(this, file));
+                continue;
+            } catch (IOException e) {
+                // the file doesn't exist, or can't be read, which Ivy treats the same way
+                attributes = null;
+            }
+            resources.add(new FileResource(this, file, attributes));
+        }
+        return resources;
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
     public void get(String source, File destination) throws IOException {
         File s = getFile(source);
         fireTransferInitiated(getResource(source), TransferEvent.REQUEST_GET);
@@ -21,6 +21,7 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.attribute.BasicFileAttributes;
 
 import org.apache.ivy.plugins.repository.Resource;
 
@@ -29,11 +30,37 @@ public class FileResource implements Resource {
 
     private FileRepository repository;
 
+    /**
+     * The attributes of the file read when this resource was created, <code>null</code> if the
+     * file didn't exist then. Only used if {@link #snapshot} is <code>true</code>, otherwise the
+     * file is checked each time.
+     */
+    private BasicFileAttributes attributes;
+
+    private boolean snapshot;
+
     public FileResource(FileRepository repository, File f) {
         this.repository = repository;
         this.file = f;
     }
 
+    /**
+     * Creates a resource whose existence, last modification date and content length are those of
+     * the given file attributes, instead of being checked on the file system each time.
+     *
+     * @param repository
+     *            the repository of the resource
+     * @param f
+     *            the file of the resource
+     * @param attributes
+     *            the attributes of the file, <code>null</code> if it doesn't exist
+     */
+    FileResource(FileRepository repository, File f, BasicFileAttributes attributes) {
+        this(repository, f);
+        this.attributes = attributes;
+        this.snapshot = true;
+    }
+
     public String getName() {
         return file.getPath();
     }
@@ -43,14 +70,23 @@ public class FileResource implements Resource {
     }
 
     public long getLastModified() {
+        if (snapshot) {
+            return attributes == null ? 0 : attributes.lastModifiedTime().toMillis();
+        }
         return file.lastModified();
     }
 
     public long getContentLength() {
+        if (snapshot) {
+            return attributes == null ? 0 : attributes.size();
+        }
         return file.length();
     }
 
     public boolean exists() {
+        if (snapshot) {
+            return attributes != null;
+        }
         return file.exists();
     }
 
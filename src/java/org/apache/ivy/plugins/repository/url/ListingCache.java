@@ -0,0 +1,46 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.plugins.repository.url;
+
+import org.apache.ivy.util.url.ApacheURLLister.Listing;
+
+/**
+ * Keeps the listings of remote directories made by an {@link URLRepository}, so that they are not
+ * retrieved again while they are up to date, and only revalidated with the server afterwards.
+ */
+public interface ListingCache {
+    /**
+     * @param url
+     *            the listed url
+     * @param upToDateOnly
+     *            true to only return a listing which can be used without checking with the
+     *            server whether it has changed
+     * @return the listing of the url, or null if there is none
+     */
+    Listing getListing(String url, boolean upToDateOnly);
+
+    /**
+     * Keeps the listing of the given url, as checked with the server now.
+     *
+     * @param url
+     *            the listed url
+     * @param listing
+     *            the listing of the url
+     */
+    void saveListing(String url, Listing listing);
+}
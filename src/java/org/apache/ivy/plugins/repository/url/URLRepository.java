@@ -23,23 +23,29 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+import org.apache.ivy.core.IvyContext;
 import org.apache.ivy.core.settings.TimeoutConstraint;
 import org.apache.ivy.plugins.repository.AbstractRepository;
 import org.apache.ivy.plugins.repository.RepositoryCopyProgressListener;
 import org.apache.ivy.plugins.repository.Resource;
 import org.apache.ivy.plugins.repository.TransferEvent;
 import org.apache.ivy.util.FileUtil;
+import org.apache.ivy.util.Message;
 import org.apache.ivy.util.url.ApacheURLLister;
+import org.apache.ivy.util.url.ApacheURLLister.Listing;
 
 public class URLRepository extends AbstractRepository {
     private RepositoryCopyProgressListener progress = new RepositoryCopyProgressListener(this);
 
-    private final Map<String, Resource> resourcesCache = new HashMap<>();
+    private final ConcurrentMap<String, Resource> resourcesCache = new ConcurrentHashMap<>();
 
     public URLRepository() {
     }
@@ -52,11 +58,78 @@ public class URLRepository extends AbstractRepository {
         Resource res = resourcesCache.get(source);
         if (res == null) {
             res = new URLResource(new URL(source), this.getTimeoutConstraint());
-            resourcesCache.put(source, res);
+            Resource previous = resourcesCache.putIfAbsent(source, res);
+            if (previous != null) {
+                res = previous;
+            }
         }
         return res;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The metadata of the remote resources is loaded concurrently once the caller goes through
+     * them, by up to <code>ivy.probe.parallelism</code> threads.
+     * </p>
+     */
+    @Override
+    public List<Resource> getResources(Collection<String> sources) throws IOException {
+        List<Resource> resources = new ArrayList<>(sources.size());
+        List<URLResource> remote = new ArrayList<>();
+        for (String source : sources) {
+            Resource res = getResource(source);
+            resources.add(res);
+            if (res instanceof URLResource && !res.isLocal()) {
+                remote.add((URLResource) res);
+            }
+        }
+        int parallelism = IvyContext.getContext().getSettings().getProbeParallelism();
+        if (remote.size() > 1 && parallelism > 1) {
+            URLResourceBatch batch = new URLResourceBatch(remote, parallelism);
+            for (URLResource res : remote) {
+                res.setBatch(batch);
+            }
+        }
+        return resources;
+    }
+
+    @Override
+    public void checkingResources(List<Resource> resources) {
+        Map<URLResourceBatch, List<URLResource>> orders = new IdentityHashMap<>();
+        for (Resource res : resources) {
+            URLResourceBatch batch = res instanceof URLResource ? ((URLResource) res).getBatch()
+                    : null;
+            if (batch != null) {
+                List<URLResource> order = orders.get(batch);
+                if (order == null) {
+                    order = new ArrayList<>();
+                    orders.put(batch, order);
+                }
+                order.add((URLResource) res);
+            }
+        }
+        for (Map.Entry<URLResourceBatch, List<URLResource>> order : orders.entrySet()) {
+            order.getKey().setOrder(order.getValue());
+        }
+    }
+
+    @Override
+    public void releaseResources(Collection<Resource> resources) {
+        for (Resource res : resources) {
+            URLResourceBatch batch = res instanceof URLResource ? ((URLResource) res).getBatch()
+                    : null;
+            if (batch != null) {
+                batch.cancel();
+            }
+        }
+    }
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
+
     public void get(String source, File destination) throws IOException {
         fireTransferInitiated(getResource(source), TransferEvent.REQUEST_GET);
         try {
@@ -96,9 +169,26 @@ public class URLRepository extends AbstractRepository {
 
     private ApacheURLLister lister = new ApacheURLLister();
 
+    private ListingCache listingCache;
+
+    public ListingCache getListingCache() {
+        return listingCache;
+    }
+
+    /**
+     * Sets the cache in which the listings of http urls are kept, or null to always retrieve them.
+     *
+     * @param listingCache
+     *            the listing cache
+     */
+    public void setListingCache(ListingCache listingCache) {
+        this.listingCache = listingCache;
+    }
+
     public List<String> list(String parent) throws IOException {
         if (parent.startsWith("http")) {
-            List<URL> urls = lister.listAll(new URL(parent));
+            URL parentURL = new URL(parent);
+            List<URL> urls = lister.getURLs(parentURL, getListing(parentURL), true, true);
             if (urls != null) {
                 List<String> ret = new ArrayList<>(urls.size());
                 for (URL url : urls) {
@@ -136,4 +226,19 @@ public class URLRepository extends AbstractRepository {
         return null;
     }
 
+    private Listing getListing(URL url) throws IOException {
+        if (listingCache == null) {
+            return lister.retrieveListing(url, null);
+        }
+        String key = url.toExternalForm();
+        Listing listing = listingCache.getListing(key, true);
+        if (listing != null) {
+            Message.debug("\tusing cached listing of " + key);
+            return listing;
+        }
+        listing = lister.retrieveListing(url, listingCache.getListing(key, false));
+        listingCache.saveListing(key, listing);
+        return listing;
+    }
+
 }
@@ -37,7 +37,7 @@ public class URLResource implements LocalizableResource {
 
     private final TimeoutConstraint timeoutConstraint;
 
-    private boolean init = false;
+    private volatile boolean init = false;
 
     private long lastModified;
 
@@ -45,6 +45,8 @@ public class URLResource implements LocalizableResource {
 
     private boolean exists;
 
+    private volatile URLResourceBatch batch;
+
     public URLResource(final URL url) {
         this(url, null);
     }
@@ -74,8 +76,35 @@ public class URLResource implements LocalizableResource {
         return lastModified;
     }
 
-    @SuppressWarnings("deprecation")
+    /**
+     * Makes this resource part of the given batch, which may load its metadata concurrently with
+     * the other resources of the batch.
+     */
+    void setBatch(URLResourceBatch batch) {
+        this.batch = batch;
+    }
+
+    URLResourceBatch getBatch() {
+        return batch;
+    }
+
     private void init() {
+        URLResourceBatch b = batch;
+        if (b != null) {
+            b.accessed(this);
+        }
+        load();
+    }
+
+    /**
+     * Loads the metadata of this resource, unless it has already been loaded. Concurrent callers
+     * wait for the first one to finish.
+     */
+    @SuppressWarnings("deprecation")
+    synchronized void load() {
+        if (init) {
+            return;
+        }
         final URLHandler handler = URLHandlerRegistry.getDefault();
         final URLInfo info;
         if (handler instanceof TimeoutConstrainedURLHandler) {
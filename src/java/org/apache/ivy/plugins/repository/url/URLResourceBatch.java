@@ -0,0 +1,142 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.plugins.repository.url;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+
+import org.apache.ivy.core.IvyExecutors;
+
+/**
+ * A group of remote resources obtained together, typically all the revisions listed for a module,
+ * whose metadata is loaded ahead of the caller once it goes through them.
+ * <p>
+ * The first resource of the batch to be accessed is loaded alone, which is enough when the
+ * caller only needs one resource, like the latest revision of a module. From the second access
+ * on, the metadata of the next resources in the order the caller checks them, at most as many as
+ * the parallelism of the batch, is loaded in the background. That order is the listing order
+ * unless the caller tells another one with {@link #setOrder(List)}. A resource accessed while it
+ * is being loaded in the background waits for it, and a resource accessed before its turn is
+ * loaded right away by the caller.
+ * </p>
+ * <p>
+ * The background loads still waiting are dropped when the batch is {@link #cancel() cancelled},
+ * and the threads of a batch die shortly after they become idle.
+ * </p>
+ */
+final class URLResourceBatch {
+    /**
+     * How long in milliseconds an idle thread loading the resources of a batch is kept.
+     */
+    private static final long KEEP_ALIVE = 1000L;
+
+    private final int parallelism;
+
+    private final Set<URLResource> submitted = Collections
+            .newSetFromMap(new IdentityHashMap<URLResource, Boolean>());
+
+    private List<URLResource> order;
+
+    private Map<URLResource, Integer> positions;
+
+    private int accesses;
+
+    private ExecutorService executor;
+
+    private boolean cancelled;
+
+    URLResourceBatch(List<URLResource> resources, int parallelism) {
+        this.parallelism = parallelism;
+        setOrder(resources);
+    }
+
+    /**
+     * Sets the order in which the caller is going to check the resources of this batch.
+     *
+     * @param resources
+     *            the resources of this batch the caller is going to check, in that order
+     */
+    synchronized void setOrder(List<URLResource> resources) {
+        order = resources;
+        positions = new IdentityHashMap<>();
+        for (int i = 0; i < resources.size(); i++) {
+            positions.put(resources.get(i), i);
+        }
+    }
+
+    /**
+     * Called when the metadata of one of the resources of this batch is first needed, before the
+     * caller loads it.
+     *
+     * @param resource
+     *            the accessed resource
+     */
+    synchronized void accessed(URLResource resource) {
+        if (cancelled) {
+            return;
+        }
+        submitted.add(resource);
+        Integer position = positions.get(resource);
+        if (++accesses < 2 || position == null) {
+            return;
+        }
+        int end = Math.min(order.size(), position + 1 + parallelism);
+        for (int i = position + 1; i < end; i++) {
+            URLResource next = order.get(i);
+            if (submitted.add(next)) {
+                load(next);
+            }
+        }
+    }
+
+    private void load(final URLResource resource) {
+        if (executor == null) {
+            executor = IvyExecutors.newFixedThreadPool("ivy-probe", parallelism, KEEP_ALIVE);
+        }
+        executor.submit(IvyExecutors.withContext(new Callable<Void>() {
+            public Void call() {
+                if (!isCancelled()) {
+                    resource.load();
+                }
+                return null;
+            }
+        }));
+    }
+
+    private synchronized boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Stops loading the resources of this batch in the background, the caller being done with
+     * them. Resources accessed afterwards are loaded by the caller.
+     */
+    synchronized void cancel() {
+        if (!cancelled) {
+            cancelled = true;
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+    }
+}
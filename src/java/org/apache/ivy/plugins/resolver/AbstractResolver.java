@@ -29,6 +29,7 @@ import org.apache.ivy.core.RelativeUrlResolver;
 import org.apache.ivy.core.cache.ArtifactOrigin;
 import org.apache.ivy.core.cache.CacheDownloadOptions;
 import org.apache.ivy.core.cache.CacheMetadataOptions;
+import org.apache.ivy.core.cache.DefaultRepositoryCacheManager;
 import org.apache.ivy.core.cache.DownloadListener;
 import org.apache.ivy.core.cache.RepositoryCacheManager;
 import org.apache.ivy.core.cache.ResolutionCacheManager;
@@ -94,6 +95,8 @@ public abstract class AbstractResolver implements DependencyResolver, HasLatestS
 
     private String latestStrategyName;
 
+    private final ThreadLocal<LatestStrategy> latestStrategyOverride = new ThreadLocal<>();
+
     /**
      * The namespace to which this resolver belongs
      */
@@ -255,6 +258,10 @@ public abstract class AbstractResolver implements DependencyResolver, HasLatestS
     }
 
     public LatestStrategy getLatestStrategy() {
+        LatestStrategy override = latestStrategyOverride.get();
+        if (override != null) {
+            return override;
+        }
         if (latestStrategy == null) {
             initLatestStrategyFromSettings();
         }
@@ -283,6 +290,27 @@ public abstract class AbstractResolver implements DependencyResolver, HasLatestS
         this.latestStrategy = latestStrategy;
     }
 
+    /**
+     * Makes this resolver use the given latest strategy instead of its own one, in the current
+     * thread only. This is used by a chain to have its resolvers use its latest strategy while
+     * other threads keep using the same resolvers on their own.
+     *
+     * @param latestStrategy
+     *            the latest strategy to use in the current thread, <code>null</code> to use the
+     *            latest strategy of this resolver again
+     * @return the latest strategy previously used in the current thread instead of the one of this
+     *         resolver, <code>null</code> if none
+     */
+    LatestStrategy overrideLatestStrategy(LatestStrategy latestStrategy) {
+        LatestStrategy previous = latestStrategyOverride.get();
+        if (latestStrategy == null) {
+            latestStrategyOverride.remove();
+        } else {
+            latestStrategyOverride.set(latestStrategy);
+        }
+        return previous;
+    }
+
     public void setLatest(String strategyName) {
         latestStrategyName = strategyName;
     }
@@ -460,6 +488,29 @@ public abstract class AbstractResolver implements DependencyResolver, HasLatestS
         initTimeoutConstraintFromSettings();
     }
 
+    /**
+     * Returns <code>true</code> if the module revision found by this resolver for the given
+     * dependency may be updated in the repository without changing its revision.
+     *
+     * @param dd
+     *            the dependency asking for the module revision
+     * @param requestedRevisionId
+     *            the asked module revision
+     * @param data
+     *            the data of the current resolve
+     * @return <code>true</code> if the module revision may change
+     */
+    public boolean isChanging(DependencyDescriptor dd, ModuleRevisionId requestedRevisionId,
+            ResolveData data) {
+        RepositoryCacheManager cacheManager = getRepositoryCacheManager();
+        if (!(cacheManager instanceof DefaultRepositoryCacheManager)) {
+            // we can't tell
+            return true;
+        }
+        return ((DefaultRepositoryCacheManager) cacheManager).mayChange(dd, requestedRevisionId,
+            getCacheOptions(data));
+    }
+
     protected CacheMetadataOptions getCacheOptions(ResolveData data) {
         return (CacheMetadataOptions) new CacheMetadataOptions()
                 .setChangingMatcherName(getChangingMatcherName())
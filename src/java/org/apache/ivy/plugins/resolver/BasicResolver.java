@@ -80,6 +80,7 @@ import org.apache.ivy.util.ChecksumHelper;
 import org.apache.ivy.util.DateUtil;
 import org.apache.ivy.util.HostUtil;
 import org.apache.ivy.util.Message;
+import org.apache.ivy.util.StreamingChecksums;
 
 import static org.apache.ivy.util.StringUtils.splitToArray;
 
@@ -144,9 +145,24 @@ public abstract class BasicResolver extends AbstractResolver {
      */
     private boolean envDependent = true;
 
-    private List<String> ivyattempts = new ArrayList<>();
+    /**
+     * Attempts are recorded per thread, so that concurrent lookups and downloads made with this
+     * resolver don't mix up their attempts.
+     */
+    private final ThreadLocal<List<String>> ivyattempts = new ThreadLocal<List<String>>() {
+        @Override
+        protected List<String> initialValue() {
+            return new ArrayList<>();
+        }
+    };
 
-    private Map<Artifact, List<String>> artattempts = new HashMap<>();
+    private final ThreadLocal<Map<Artifact, List<String>>> artattempts
+            = new ThreadLocal<Map<Artifact, List<String>>>() {
+        @Override
+        protected Map<Artifact, List<String>> initialValue() {
+            return new HashMap<>();
+        }
+    };
 
     private boolean checkconsistency = true;
 
@@ -657,6 +673,17 @@ public abstract class BasicResolver extends AbstractResolver {
      *            the current date
      * @return the selected resource
      */
+    /**
+     * Called by {@link #findResource(ResolvedResource[], ResourceMDParser, ModuleRevisionId, Date)}
+     * with the resources it is about to check, in the order it checks them. Does nothing by
+     * default.
+     *
+     * @param rress
+     *            the resources about to be checked, in that order
+     */
+    protected void checkingResources(List<ResolvedResource> rress) {
+    }
+
     public ResolvedResource findResource(ResolvedResource[] rress, ResourceMDParser rmdparser,
             ModuleRevisionId mrid, Date date) {
         String name = getName();
@@ -668,6 +695,13 @@ public abstract class BasicResolver extends AbstractResolver {
         List<ModuleRevisionId> foundBlacklisted = new ArrayList<>();
         IvyContext context = IvyContext.getContext();
 
+        List<ResolvedResource> checked = new ArrayList<>(sorted.size());
+        for (ListIterator<ArtifactInfo> it = sorted.listIterator(sorted.size()); it
+                .hasPrevious();) {
+            checked.add((ResolvedResource) it.previous());
+        }
+        checkingResources(checked);
+
         ListIterator<ArtifactInfo> iter = sorted.listIterator(sorted.size());
         while (iter.hasPrevious()) {
             ResolvedResource rres = (ResolvedResource) iter.previous();
@@ -767,20 +801,20 @@ public abstract class BasicResolver extends AbstractResolver {
     }
 
     protected void clearIvyAttempts() {
-        ivyattempts.clear();
+        ivyattempts.get().clear();
         clearArtifactAttempts();
     }
 
     protected void logIvyAttempt(String attempt) {
-        ivyattempts.add(attempt);
+        ivyattempts.get().add(attempt);
         Message.verbose("\t\ttried " + attempt);
     }
 
     protected void logArtifactAttempt(Artifact art, String attempt) {
-        List<String> attempts = artattempts.get(art);
+        List<String> attempts = artattempts.get().get(art);
         if (attempts == null) {
             attempts = new ArrayList<>();
-            artattempts.put(art, attempts);
+            artattempts.get().put(art, attempts);
         }
         attempts.add(attempt);
         Message.verbose("\t\ttried " + attempt);
@@ -798,10 +832,10 @@ public abstract class BasicResolver extends AbstractResolver {
     @Override
     public void reportFailure() {
         Message.warn("==== " + getName() + ": tried");
-        for (String m : ivyattempts) {
+        for (String m : ivyattempts.get()) {
             Message.warn("  " + m);
         }
-        for (Map.Entry<Artifact, List<String>> entry : artattempts.entrySet()) {
+        for (Map.Entry<Artifact, List<String>> entry : artattempts.get().entrySet()) {
             List<String> attempts = entry.getValue();
             if (attempts != null) {
                 Message.warn("  -- artifact " + entry.getKey() + ":");
@@ -815,7 +849,7 @@ public abstract class BasicResolver extends AbstractResolver {
     @Override
     public void reportFailure(Artifact art) {
         Message.warn("==== " + getName() + ": tried");
-        List<String> attempts = artattempts.get(art);
+        List<String> attempts = artattempts.get().get(art);
         if (attempts != null) {
             for (String m : attempts) {
                 Message.warn("  " + m);
@@ -853,7 +887,7 @@ public abstract class BasicResolver extends AbstractResolver {
     }
 
     protected void clearArtifactAttempts() {
-        artattempts.clear();
+        artattempts.get().clear();
     }
 
     @Override
@@ -973,9 +1007,22 @@ public abstract class BasicResolver extends AbstractResolver {
     }
 
     protected long getAndCheck(Resource resource, File dest) throws IOException {
-        long size = get(resource, dest);
-        for (String checksum : getChecksumAlgorithms()) {
-            if (check(resource, dest, checksum)) {
+        return getAndCheck(null, resource, dest);
+    }
+
+    private long getAndCheck(Artifact artifact, Resource resource, File dest)
+            throws IOException {
+        String[] algorithms = getChecksumAlgorithms();
+        // the checksums are computed while downloading, instead of reading the file once again
+        StreamingChecksums checksums = StreamingChecksums.start(algorithms);
+        long size;
+        try {
+            size = get(resource, dest);
+        } finally {
+            checksums.stop();
+        }
+        for (String checksum : algorithms) {
+            if (check(artifact, resource, dest, checksum, checksums)) {
                 break;
             }
         }
@@ -985,30 +1032,36 @@ public abstract class BasicResolver extends AbstractResolver {
     /**
      * Checks the given resource checksum if a checksum resource exists.
      *
+     * @param artifact
+     *            the artifact downloaded from the resource, or <code>null</code> if unknown
      * @param resource
      *            the resource to check
      * @param dest
      *            the file where the resource has been downloaded
      * @param algorithm
      *            the checksum algorithm to use
+     * @param checksums
+     *            the checksums computed while downloading the resource
      * @return true if the checksum has been successfully checked, false if the checksum wasn't
      *         available
      * @throws IOException
      *             if a checksum exist but do not match the downloaded file checksum
      */
-    private boolean check(Resource resource, File dest, String algorithm) throws IOException {
+    private boolean check(Artifact artifact, Resource resource, File dest, String algorithm,
+            StreamingChecksums checksums) throws IOException {
         if (!ChecksumHelper.isKnownAlgorithm(algorithm)) {
             throw new IllegalArgumentException("Unknown checksum algorithm: " + algorithm);
         }
 
         Resource csRes = resource.clone(resource.getName() + "." + algorithm);
-        if (csRes.exists()) {
+        if (artifact == null ? csRes.exists() : exists(artifact.getModuleRevisionId(), csRes)) {
             Message.debug(algorithm + " file found for " + resource + ": checking...");
             File csFile = File.createTempFile("ivytmp", algorithm);
             try {
                 get(csRes, csFile);
                 try {
-                    ChecksumHelper.check(dest, csFile, algorithm);
+                    ChecksumHelper.check(checksums.getChecksum(algorithm, dest), csFile,
+                        algorithm);
                     Message.verbose(algorithm + " OK for " + resource);
                     return true;
                 } catch (IOException ex) {
@@ -1023,6 +1076,20 @@ public abstract class BasicResolver extends AbstractResolver {
         }
     }
 
+    /**
+     * Tells whether the given resource of the given module exists. Resolvers may answer without
+     * accessing the repository, for instance when the resource is known to be missing.
+     *
+     * @param mrid
+     *            the module revision the resource belongs to
+     * @param res
+     *            the resource to check
+     * @return true if the resource exists
+     */
+    protected boolean exists(ModuleRevisionId mrid, Resource res) {
+        return res.exists();
+    }
+
     protected ResolvedResource getArtifactRef(Artifact artifact, Date date) {
         IvyContext.getContext().set(getName() + ".artifact", artifact);
         try {
@@ -1147,7 +1214,7 @@ public abstract class BasicResolver extends AbstractResolver {
                 }
                 extartifactrep.get(resource.getName(), part);
             } else {
-                getAndCheck(resource, part);
+                getAndCheck(artifact, resource, part);
             }
             if (!part.renameTo(dest)) {
                 throw new IOException("impossible to move part file to definitive one: " + part
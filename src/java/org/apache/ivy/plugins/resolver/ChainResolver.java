@@ -27,7 +27,10 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
 
+import org.apache.ivy.core.IvyExecutors;
 import org.apache.ivy.core.cache.ArtifactOrigin;
 import org.apache.ivy.core.module.descriptor.Artifact;
 import org.apache.ivy.core.module.descriptor.DependencyDescriptor;
@@ -37,6 +40,7 @@ import org.apache.ivy.core.report.DownloadReport;
 import org.apache.ivy.core.report.DownloadStatus;
 import org.apache.ivy.core.resolve.DownloadOptions;
 import org.apache.ivy.core.resolve.ResolveData;
+import org.apache.ivy.core.resolve.ResolveEngine;
 import org.apache.ivy.core.resolve.ResolvedModuleRevision;
 import org.apache.ivy.plugins.latest.ArtifactInfo;
 import org.apache.ivy.plugins.latest.LatestStrategy;
@@ -71,6 +75,8 @@ public class ChainResolver extends AbstractResolver {
 
     private boolean dual;
 
+    private boolean parallel;
+
     public void add(DependencyResolver resolver) {
         chain.add(resolver);
     }
@@ -93,24 +99,31 @@ public class ChainResolver extends AbstractResolver {
             }
         }
 
-        for (DependencyResolver resolver : chain) {
-            LatestStrategy oldLatest = setLatestIfRequired(resolver, getLatestStrategy());
-            try {
-                ResolvedModuleRevision previouslyResolved = mr;
-                data.setCurrentResolvedModuleRevision(previouslyResolved);
-                mr = resolver.getDependency(dd, data);
-                if (mr != previouslyResolved && isReturnFirst()) {
-                    mr = forcedRevision(mr);
-                }
-            } catch (Exception ex) {
-                Message.verbose("problem occurred while resolving " + dd + " with " + resolver, ex);
-                errors.add(ex);
-            } finally {
-                if (oldLatest != null) {
-                    setLatest(resolver, oldLatest);
+        ExecutorService lookups = null;
+        if (mr == null && isParallel() && chain.size() > 1) {
+            lookups = lookUpConcurrently(dd, data);
+        }
+        try {
+            LatestStrategy latest = getLatestStrategy();
+            for (DependencyResolver resolver : chain) {
+                try {
+                    ResolvedModuleRevision previouslyResolved = mr;
+                    data.setCurrentResolvedModuleRevision(previouslyResolved);
+                    mr = getDependency(resolver, dd, data, latest);
+                    if (mr != previouslyResolved && isReturnFirst()) {
+                        mr = forcedRevision(mr);
+                    }
+                } catch (Exception ex) {
+                    Message.verbose("problem occurred while resolving " + dd + " with "
+                            + resolver, ex);
+                    errors.add(ex);
                 }
+                checkInterrupted();
+            }
+        } finally {
+            if (lookups != null) {
+                lookups.shutdownNow();
             }
-            checkInterrupted();
         }
         if (mr == null && !errors.isEmpty()) {
             if (errors.size() == 1) {
@@ -139,6 +152,44 @@ public class ChainResolver extends AbstractResolver {
         return resolvedRevision(mr);
     }
 
+    /**
+     * Looks for the descriptor of the dependency in the resolvers of the chain but the first one,
+     * in worker threads, while the chain asks its resolvers one after the other. These lookups only
+     * get the answers of the repositories into their caches, so that the resolvers find them
+     * without waiting when they are asked: the module is still resolved and put in the cache by
+     * the resolvers in the chain order, as without parallel lookups. Resolvers which aren't known
+     * to be thread safe are not looked up.
+     *
+     * @return the executor running the lookups, to be shut down once the chain is done, or
+     *         <code>null</code> if there is no lookup
+     */
+    private ExecutorService lookUpConcurrently(final DependencyDescriptor dd, ResolveData data) {
+        final LatestStrategy latest = getLatestStrategy();
+        ExecutorService lookups = null;
+        for (final DependencyResolver resolver : chain.subList(1, chain.size())) {
+            if (!ResolveEngine.isThreadSafe(resolver)) {
+                continue;
+            }
+            if (lookups == null) {
+                lookups = IvyExecutors.newFixedThreadPool("ivy-chain-" + getName(),
+                    chain.size() - 1);
+            }
+            final ResolveData resolverData = new ResolveData(data, data.isValidate());
+            lookups.submit(IvyExecutors.withContext(new Callable<ResolvedResource>() {
+                public ResolvedResource call() {
+                    try {
+                        return findIvyFileRef(resolver, dd, resolverData, latest);
+                    } catch (RuntimeException e) {
+                        Message.debug("\t" + getName() + ": lookup of " + dd + " in "
+                                + resolver.getName() + " failed: " + e.getMessage());
+                        return null;
+                    }
+                }
+            }));
+        }
+        return lookups;
+    }
+
     private ResolvedModuleRevision resolvedRevision(ResolvedModuleRevision mr) {
         if (isDual() && mr != null) {
             return new ResolvedModuleRevision(mr.getResolver(), this, mr.getDescriptor(),
@@ -156,15 +207,53 @@ public class ChainResolver extends AbstractResolver {
                 rmr.getDescriptor(), rmr.getReport(), true);
     }
 
-    private LatestStrategy setLatestIfRequired(DependencyResolver resolver,
-            LatestStrategy latestStrategy) {
+    /**
+     * Asks the given resolver of the chain for the dependency, making it use the latest strategy
+     * of the chain if it has its own one. The resolvers extending {@link AbstractResolver} only use
+     * it in the calling thread, so that the resolver can be used concurrently by other threads.
+     */
+    private static ResolvedModuleRevision getDependency(DependencyResolver resolver,
+            DependencyDescriptor dd, ResolveData data, LatestStrategy latestStrategy)
+            throws ParseException {
         String latestName = getLatestStrategyName(resolver);
-        if (latestName != null && !"default".equals(latestName)) {
-            LatestStrategy oldLatest = getLatest(resolver);
-            setLatest(resolver, latestStrategy);
-            return oldLatest;
-        } else {
-            return null;
+        if (latestName == null || "default".equals(latestName)) {
+            return resolver.getDependency(dd, data);
+        }
+        if (resolver instanceof AbstractResolver) {
+            AbstractResolver r = (AbstractResolver) resolver;
+            LatestStrategy previous = r.overrideLatestStrategy(latestStrategy);
+            try {
+                return resolver.getDependency(dd, data);
+            } finally {
+                r.overrideLatestStrategy(previous);
+            }
+        }
+        LatestStrategy oldLatest = getLatest(resolver);
+        setLatest(resolver, latestStrategy);
+        try {
+            return resolver.getDependency(dd, data);
+        } finally {
+            setLatest(resolver, oldLatest);
+        }
+    }
+
+    /**
+     * Looks for the descriptor of the dependency with the given resolver, making it use the
+     * latest strategy of the chain in the calling thread when it extends {@link AbstractResolver}.
+     */
+    private static ResolvedResource findIvyFileRef(DependencyResolver resolver,
+            DependencyDescriptor dd, ResolveData data, LatestStrategy latestStrategy) {
+        String latestName = getLatestStrategyName(resolver);
+        if (latestName == null || "default".equals(latestName)
+                || !(resolver instanceof AbstractResolver)) {
+            return resolver.findIvyFileRef(dd, data);
+        }
+        AbstractResolver r = (AbstractResolver) resolver;
+        LatestStrategy previous = r.overrideLatestStrategy(latestStrategy);
+        try {
+            return resolver.findIvyFileRef(dd, data);
+        } finally {
+            r.overrideLatestStrategy(previous);
         }
     }
 
@@ -268,10 +357,27 @@ public class ChainResolver extends AbstractResolver {
         this.returnFirst = returnFirst;
     }
 
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * Sets whether the repositories of the resolvers of the chain should be looked up for a module
+     * at the same time, rather than one after the other. The resolvers are still asked for the
+     * module in the chain order, and thus find the same module as without parallel lookups.
+     *
+     * @param parallel
+     *            true to look up the repositories concurrently
+     */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
     @Override
     public void dumpSettings() {
         Message.verbose("\t" + getName() + " [chain] " + chain);
         Message.debug("\t\treturn first: " + isReturnFirst());
+        Message.debug("\t\tparallel: " + isParallel());
         Message.debug("\t\tdual: " + isDual());
         for (DependencyResolver resolver : chain) {
             Message.debug("\t\t-> " + resolver.getName());
@@ -17,8 +17,11 @@
  */
 package org.apache.ivy.plugins.resolver;
 
+import org.apache.ivy.core.IvyContext;
 import org.apache.ivy.core.IvyPatternHelper;
 import org.apache.ivy.core.cache.ArtifactOrigin;
+import org.apache.ivy.core.cache.DefaultRepositoryCacheManager;
+import org.apache.ivy.core.cache.RepositoryCacheManager;
 import org.apache.ivy.core.module.descriptor.Artifact;
 import org.apache.ivy.core.module.descriptor.DefaultArtifact;
 import org.apache.ivy.core.module.descriptor.DependencyDescriptor;
@@ -33,6 +36,7 @@ import org.apache.ivy.core.search.RevisionEntry;
 import org.apache.ivy.plugins.matcher.PatternMatcher;
 import org.apache.ivy.plugins.repository.Repository;
 import org.apache.ivy.plugins.repository.Resource;
+import org.apache.ivy.plugins.repository.url.URLRepository;
 import org.apache.ivy.plugins.resolver.util.ResolvedResource;
 import org.apache.ivy.plugins.version.MavenTimedSnapshotVersionMatcher;
 import org.apache.ivy.util.ContextualSAXHandler;
@@ -42,8 +46,10 @@ import org.xml.sax.SAXException;
 
 import javax.xml.parsers.ParserConfigurationException;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.net.URL;
 import java.text.ParseException;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -214,41 +220,20 @@ public class IBiblioResolver extends URLResolver {
         if (!shouldUseMavenMetadata(getWholePattern())) {
             return null;
         }
-        try {
-            final String metadataLocation = IvyPatternHelper.substitute(root
-                    + "[organisation]/[module]/[revision]/maven-metadata.xml", mrid);
-            final Resource metadata = getRepository().getResource(metadataLocation);
-            if (!metadata.exists()) {
-                Message.verbose("\tmaven-metadata not available for: " + mrid);
-                return null;
-            }
-            try (final InputStream metadataStream = metadata.openStream()) {
-                final StringBuilder timestamp = new StringBuilder();
-                final StringBuilder buildNumber = new StringBuilder();
-                XMLHelper.parse(metadataStream, null, new ContextualSAXHandler() {
-                    @Override
-                    public void endElement(String uri, String localName, String qName)
-                            throws SAXException {
-                        if ("metadata/versioning/snapshot/timestamp".equals(getContext())) {
-                            timestamp.append(getText());
-                        }
-                        if ("metadata/versioning/snapshot/buildNumber".equals(getContext())) {
-                            buildNumber.append(getText());
-                        }
-                        super.endElement(uri, localName, qName);
-                    }
-                }, null);
-                if (timestamp.length() > 0) {
-                    // we have found a timestamp, so this is a snapshot unique version
-                    String rev = mrid.getRevision();
-                    rev = rev.substring(0, rev.length() - "SNAPSHOT".length());
-                    rev += timestamp.toString() + "-" + buildNumber.toString();
-
-                    return rev;
-                }
-            }
-        } catch (IOException | SAXException | ParserConfigurationException e) {
-            Message.debug("impossible to access maven metadata file, ignored", e);
+        final String metadataLocation = IvyPatternHelper.substitute(root
+                + "[organisation]/[module]/[revision]/maven-metadata.xml", mrid);
+        final MavenMetadata metadata = getMavenMetadata(getRepository(), metadataLocation, mrid);
+        if (metadata == null) {
+            Message.verbose("\tmaven-metadata not available for: " + mrid);
+            return null;
+        }
+        if (metadata.timestamp.length() > 0) {
+            // we have found a timestamp, so this is a snapshot unique version
+            String rev = mrid.getRevision();
+            rev = rev.substring(0, rev.length() - "SNAPSHOT".length());
+            rev += metadata.timestamp.toString() + "-" + metadata.buildNumber.toString();
+
+            return rev;
         }
         return null;
     }
@@ -393,7 +378,7 @@ public class IBiblioResolver extends URLResolver {
                         pattern.lastIndexOf(partiallyResolvedM2PerModulePattern))
                         + "maven-metadata.xml";
                 List<String> revs = listRevisionsWithMavenMetadata(getRepository(),
-                        metadataLocation);
+                        metadataLocation, null);
                 if (revs != null) {
                     return revs.toArray(new String[revs.size()]);
                 }
@@ -436,7 +421,7 @@ public class IBiblioResolver extends URLResolver {
                                                String pattern, Artifact artifact) {
         if (shouldUseMavenMetadata(pattern)) {
             List<String> revs = listRevisionsWithMavenMetadata(repository, mrid.getModuleId()
-                    .getAttributes());
+                    .getAttributes(), mrid);
             if (revs != null) {
                 Message.debug("\tfound revs: " + revs);
                 List<ResolvedResource> rres = new ArrayList<>();
@@ -479,50 +464,115 @@ public class IBiblioResolver extends URLResolver {
     }
 
     private List<String> listRevisionsWithMavenMetadata(Repository repository,
-                                                        Map<String, String> tokenValues) {
+                                                        Map<String, String> tokenValues,
+                                                        ModuleRevisionId mrid) {
         String metadataLocation = IvyPatternHelper.substituteTokens(root
                 + "[organisation]/[module]/maven-metadata.xml", tokenValues);
-        return listRevisionsWithMavenMetadata(repository, metadataLocation);
+        return listRevisionsWithMavenMetadata(repository, metadataLocation, mrid);
     }
 
     private List<String> listRevisionsWithMavenMetadata(Repository repository,
-                                                        String metadataLocation) {
-        List<String> revs = null;
-        InputStream metadataStream = null;
+                                                        String metadataLocation,
+                                                        ModuleRevisionId mrid) {
+        MavenMetadata metadata = getMavenMetadata(repository, metadataLocation, mrid);
+        if (metadata == null) {
+            Message.verbose("\tmaven-metadata not available: " + metadataLocation);
+            return null;
+        }
+        Message.verbose("\tlisting revisions from maven-metadata: " + metadataLocation);
+        return new ArrayList<>(metadata.versions);
+    }
+
+    /**
+     * Returns the parsed content of the given maven-metadata.xml file. It is parsed once per
+     * resolve, and remote files are kept in the repository cache, where they are used during the
+     * TTL of the module and then revalidated with the repository.
+     *
+     * @return the parsed file, or null if it is not available
+     */
+    private MavenMetadata getMavenMetadata(Repository repository, String metadataLocation,
+                                           ModuleRevisionId mrid) {
+        ResolveData data = IvyContext.getContext().getResolveData();
+        String key = getName() + ".maven-metadata:" + metadataLocation;
+        if (data != null) {
+            MavenMetadata metadata = data.getSharedValue(key);
+            if (metadata != null) {
+                return metadata == MavenMetadata.MISSING ? null : metadata;
+            }
+        }
+        MavenMetadata metadata = null;
+        boolean missing = false;
         try {
-            Resource metadata = repository.getResource(metadataLocation);
-            if (metadata.exists()) {
-                Message.verbose("\tlisting revisions from maven-metadata: " + metadata);
-                final List<String> metadataRevs = new ArrayList<>();
-                metadataStream = metadata.openStream();
-                XMLHelper.parse(metadataStream, null, new ContextualSAXHandler() {
-                    @Override
-                    public void endElement(String uri, String localName, String qName)
-                            throws SAXException {
-                        if ("metadata/versioning/versions/version".equals(getContext())) {
-                            metadataRevs.add(getText().trim());
-                        }
-                        super.endElement(uri, localName, qName);
+            RepositoryCacheManager cacheManager = getSettings() == null ? null
+                    : getRepositoryCacheManager();
+            if (repository instanceof URLRepository && metadataLocation.startsWith("http")
+                    && cacheManager instanceof DefaultRepositoryCacheManager) {
+                boolean refresh = data != null && data.getOptions().isRefresh();
+                File copy = ((DefaultRepositoryCacheManager) cacheManager).getRemoteResource(
+                        getName(), mrid, new URL(metadataLocation), refresh,
+                        getTimeoutConstraint());
+                if (copy == null) {
+                    missing = true;
+                } else {
+                    try (InputStream metadataStream = new FileInputStream(copy)) {
+                        metadata = MavenMetadata.parse(metadataStream);
                     }
-                }, null);
-                revs = metadataRevs;
+                }
             } else {
-                Message.verbose("\tmaven-metadata not available: " + metadata);
+                Resource resource = repository.getResource(metadataLocation);
+                if (!resource.exists()) {
+                    missing = true;
+                } else {
+                    try (InputStream metadataStream = resource.openStream()) {
+                        metadata = MavenMetadata.parse(metadataStream);
+                    }
+                }
             }
         } catch (IOException e) {
             Message.verbose("impossible to access maven metadata file, ignored", e);
         } catch (SAXException | ParserConfigurationException e) {
             Message.verbose("impossible to parse maven metadata file, ignored", e);
-        } finally {
-            if (metadataStream != null) {
-                try {
-                    metadataStream.close();
-                } catch (IOException e) {
-                    // ignored
+        }
+        // failures may be transient, so the metadata is only known to be missing if it isn't there
+        if (data != null && (metadata != null || missing)) {
+            data.setSharedValue(key, missing ? MavenMetadata.MISSING : metadata);
+        }
+        return metadata;
+    }
+
+    /**
+     * The content of a maven-metadata.xml file used by this resolver.
+     */
+    private static final class MavenMetadata {
+        private static final MavenMetadata MISSING = new MavenMetadata();
+
+        private final List<String> versions = new ArrayList<>();
+
+        private final StringBuilder timestamp = new StringBuilder();
+
+        private final StringBuilder buildNumber = new StringBuilder();
+
+        private static MavenMetadata parse(InputStream metadataStream)
+                throws IOException, SAXException, ParserConfigurationException {
+            final MavenMetadata metadata = new MavenMetadata();
+            XMLHelper.parse(metadataStream, null, new ContextualSAXHandler() {
+                @Override
+                public void endElement(String uri, String localName, String qName)
+                        throws SAXException {
+                    if ("metadata/versioning/versions/version".equals(getContext())) {
+                        metadata.versions.add(getText().trim());
+                    }
+                    if ("metadata/versioning/snapshot/timestamp".equals(getContext())) {
+                        metadata.timestamp.append(getText());
+                    }
+                    if ("metadata/versioning/snapshot/buildNumber".equals(getContext())) {
+                        metadata.buildNumber.append(getText());
+                    }
+                    super.endElement(uri, localName, qName);
                 }
-            }
+            }, null);
+            return metadata;
         }
-        return revs;
     }
 
     @Override
@@ -530,7 +580,8 @@ public class IBiblioResolver extends URLResolver {
                                    Map<String, String> tokenValues, String token) {
         if (IvyPatternHelper.REVISION_KEY.equals(token)) {
             if (shouldUseMavenMetadata(getWholePattern())) {
-                List<String> revs = listRevisionsWithMavenMetadata(getRepository(), tokenValues);
+                List<String> revs = listRevisionsWithMavenMetadata(getRepository(), tokenValues,
+                        null);
                 if (revs != null) {
                     names.addAll(filterNames(revs));
                     return;
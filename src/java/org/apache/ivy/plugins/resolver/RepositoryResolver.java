@@ -30,7 +30,10 @@ import java.util.Date;
 import java.util.List;
 import java.util.Map;
 
+import org.apache.ivy.core.IvyContext;
 import org.apache.ivy.core.IvyPatternHelper;
+import org.apache.ivy.core.cache.DefaultRepositoryCacheManager;
+import org.apache.ivy.core.cache.RepositoryCacheManager;
 import org.apache.ivy.core.event.EventManager;
 import org.apache.ivy.core.module.descriptor.Artifact;
 import org.apache.ivy.core.module.descriptor.DefaultArtifact;
@@ -38,11 +41,13 @@ import org.apache.ivy.core.module.descriptor.ModuleDescriptor;
 import org.apache.ivy.core.module.id.ModuleRevisionId;
 import org.apache.ivy.core.report.DownloadReport;
 import org.apache.ivy.core.resolve.DownloadOptions;
+import org.apache.ivy.core.resolve.ResolveData;
 import org.apache.ivy.plugins.parser.ModuleDescriptorParser;
 import org.apache.ivy.plugins.parser.ModuleDescriptorParserRegistry;
 import org.apache.ivy.plugins.repository.AbstractRepository;
 import org.apache.ivy.plugins.repository.Repository;
 import org.apache.ivy.plugins.repository.Resource;
+import org.apache.ivy.plugins.repository.url.URLRepository;
 import org.apache.ivy.plugins.resolver.util.ResolvedResource;
 import org.apache.ivy.plugins.resolver.util.ResolverHelper;
 import org.apache.ivy.plugins.resolver.util.ResourceMDParser;
@@ -74,6 +79,10 @@ public class RepositoryResolver extends AbstractPatternsBasedResolver {
 
     public void setRepository(Repository repository) {
         this.repository = repository;
+        if (repository instanceof URLRepository
+                && ((URLRepository) repository).getListingCache() == null) {
+            ((URLRepository) repository).setListingCache(new ResolverListingCache(this));
+        }
     }
 
     @Override
@@ -99,7 +108,7 @@ public class RepositoryResolver extends AbstractPatternsBasedResolver {
                 Message.debug("\t trying " + resourceName);
                 logAttempt(resourceName);
                 Resource res = repository.getResource(resourceName);
-                boolean reachable = res.exists();
+                boolean reachable = exists(mrid, res);
                 if (reachable) {
                     String revision;
                     if (pattern.contains(IvyPatternHelper.REVISION_KEY)) {
@@ -140,6 +149,33 @@ public class RepositoryResolver extends AbstractPatternsBasedResolver {
         }
     }
 
+    /**
+     * Tells whether the given resource exists, without accessing the repository if the cache
+     * remembers that it was missing less than its missing TTL ago, unless resolving in refresh
+     * mode.
+     */
+    @Override
+    protected boolean exists(ModuleRevisionId mrid, Resource res) {
+        RepositoryCacheManager cacheManager = getRepositoryCacheManager();
+        if (!(cacheManager instanceof DefaultRepositoryCacheManager)
+                || !((DefaultRepositoryCacheManager) cacheManager).isMissingResourceCacheEnabled()) {
+            return res.exists();
+        }
+        DefaultRepositoryCacheManager cache = (DefaultRepositoryCacheManager) cacheManager;
+        ResolveData data = IvyContext.getContext().getResolveData();
+        boolean refresh = data != null && data.getOptions().isRefresh();
+        if (!refresh && cache.isKnownMissing(getName(), mrid, res.getName())) {
+            Message.debug("\t" + getName() + ": known missing resource: " + res.getName());
+            return false;
+        }
+        if (res.exists()) {
+            cache.removeMissing(getName(), res.getName());
+            return true;
+        }
+        cache.saveMissing(getName(), mrid, res.getName());
+        return false;
+    }
+
     private ResolvedResource findDynamicResourceUsingPattern(ResourceMDParser rmdparser,
             ModuleRevisionId mrid, String pattern, Artifact artifact, Date date) {
         String name = getName();
@@ -153,7 +189,12 @@ public class RepositoryResolver extends AbstractPatternsBasedResolver {
                     + pattern);
             return null;
         } else {
-            ResolvedResource found = findResource(rress, rmdparser, mrid, date);
+            ResolvedResource found;
+            try {
+                found = findResource(rress, rmdparser, mrid, date);
+            } finally {
+                repository.releaseResources(toResources(Arrays.asList(rress)));
+            }
             if (found == null) {
                 Message.debug("\t" + name + ": no resource found for " + mrid + ": pattern="
                         + pattern);
@@ -162,6 +203,21 @@ public class RepositoryResolver extends AbstractPatternsBasedResolver {
         }
     }
 
+    @Override
+    protected void checkingResources(List<ResolvedResource> rress) {
+        repository.checkingResources(toResources(rress));
+    }
+
+    private static List<Resource> toResources(List<ResolvedResource> rress) {
+        List<Resource> resources = new ArrayList<>(rress.size());
+        for (ResolvedResource rres : rress) {
+            if (rres.getResource() != null) {
+                resources.add(rres.getResource());
+            }
+        }
+        return resources;
+    }
+
     @Override
     protected Resource getResource(String source) throws IOException {
         return repository.getResource(source);
@@ -184,7 +240,22 @@ public class RepositoryResolver extends AbstractPatternsBasedResolver {
      */
     protected ResolvedResource[] listResources(Repository repository, ModuleRevisionId mrid,
             String pattern, Artifact artifact) {
-        return ResolverHelper.findAll(repository, mrid, pattern, artifact);
+        IvyContext.getContext().set(getName() + ".listing", mrid);
+        try {
+            return ResolverHelper.findAll(repository, mrid, pattern, artifact);
+        } finally {
+            IvyContext.getContext().set(getName() + ".listing", null);
+        }
+    }
+
+    /**
+     * Returns the module whose revisions are being listed by this resolver in the current thread,
+     * so that the listings are cached according to its TTL.
+     *
+     * @return the module being listed, or null if no module in particular is being listed
+     */
+    ModuleRevisionId getListedModule() {
+        return IvyContext.getContext().get(getName() + ".listing");
     }
 
     @Override
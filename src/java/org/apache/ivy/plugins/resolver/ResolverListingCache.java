@@ -0,0 +1,73 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.plugins.resolver;
+
+import org.apache.ivy.core.IvyContext;
+import org.apache.ivy.core.cache.DefaultRepositoryCacheManager;
+import org.apache.ivy.core.cache.RepositoryCacheManager;
+import org.apache.ivy.core.module.id.ModuleRevisionId;
+import org.apache.ivy.core.resolve.ResolveData;
+import org.apache.ivy.plugins.repository.url.ListingCache;
+import org.apache.ivy.util.url.ApacheURLLister.Listing;
+
+/**
+ * A {@link ListingCache} which keeps the listings in the repository cache of a resolver, as long
+ * as the TTL of the module being resolved. The cache is looked up whenever a listing is requested
+ * for, so that it can be created before the resolver is fully initialized.
+ */
+final class ResolverListingCache implements ListingCache {
+
+    private final RepositoryResolver resolver;
+
+    ResolverListingCache(final RepositoryResolver resolver) {
+        this.resolver = resolver;
+    }
+
+    @Override
+    public Listing getListing(String url, boolean upToDateOnly) {
+        DefaultRepositoryCacheManager cache = getCache();
+        if (cache == null) {
+            return null;
+        }
+        if (upToDateOnly) {
+            ResolveData data = IvyContext.getContext().getResolveData();
+            if (data != null && data.getOptions().isRefresh()) {
+                return null;
+            }
+        }
+        ModuleRevisionId mrid = resolver.getListedModule();
+        return cache.getListing(resolver.getName(), mrid, url, upToDateOnly);
+    }
+
+    @Override
+    public void saveListing(String url, Listing listing) {
+        DefaultRepositoryCacheManager cache = getCache();
+        if (cache != null) {
+            cache.saveListing(resolver.getName(), url, listing);
+        }
+    }
+
+    private DefaultRepositoryCacheManager getCache() {
+        if (resolver.getSettings() == null) {
+            return null;
+        }
+        RepositoryCacheManager cacheManager = resolver.getRepositoryCacheManager();
+        return cacheManager instanceof DefaultRepositoryCacheManager
+                ? (DefaultRepositoryCacheManager) cacheManager : null;
+    }
+}
@@ -132,21 +132,21 @@ public final class ResolverHelper {
             IvyPatternHelper.REVISION_KEY);
         if (revs != null) {
             Message.debug("\tfound revs: " + Arrays.asList(revs));
-            List<ResolvedResource> ret = new ArrayList<>(revs.length);
+            List<String> names = new ArrayList<>(revs.length);
             for (String rev : revs) {
-                String rres = IvyPatternHelper.substituteToken(partiallyResolvedPattern,
-                        IvyPatternHelper.REVISION_KEY, rev);
-                try {
-                    Resource res = rep.getResource(rres);
-                    if (res != null) {
-                        // we do not test if the resource actually exist here, it would cause
-                        // a lot of checks which are not always necessary depending on the usage
-                        // which is done of the returned ResolvedResource array
-                        ret.add(new ResolvedResource(res, rev));
-                    }
-                } catch (IOException e) {
-                    Message.warn("impossible to get resource from name listed by repository: "
-                            + rres, e);
+                names.add(IvyPatternHelper.substituteToken(partiallyResolvedPattern,
+                        IvyPatternHelper.REVISION_KEY, rev));
+            }
+            List<Resource> resources = getResources(rep, names);
+            List<ResolvedResource> ret = new ArrayList<>(revs.length);
+            for (int i = 0; i < revs.length; i++) {
+                Resource res = resources.get(i);
+                if (res != null) {
+                    // we do not test if the resource actually exist here, it would cause
+                    // a lot of checks which are not always necessary depending on the usage
+                    // which is done of the returned ResolvedResource array. The repository
+                    // may however check them in a batch when they are needed
+                    ret.add(new ResolvedResource(res, revs[i]));
                 }
             }
             if (revs.length != ret.size()) {
@@ -175,6 +175,31 @@ public final class ResolverHelper {
         return null;
     }
 
+    /**
+     * Returns the resources of the given repository with the given names, in a batch if the
+     * repository supports it, or one at a time otherwise. The returned list has a
+     * <code>null</code> element for each resource which could not be obtained.
+     */
+    private static List<Resource> getResources(Repository rep, List<String> names) {
+        try {
+            return rep.getResources(names);
+        } catch (IOException e) {
+            Message.debug("\timpossible to get resources listed by repository in a batch: " + e);
+        }
+        List<Resource> resources = new ArrayList<>(names.size());
+        for (String name : names) {
+            Resource res = null;
+            try {
+                res = rep.getResource(name);
+            } catch (IOException e) {
+                Message.warn("impossible to get resource from name listed by repository: "
+                        + name, e);
+            }
+            resources.add(res);
+        }
+        return resources;
+    }
+
     // public static ResolvedResource[] findAll(Repository rep, ModuleRevisionId mrid, String
     // pattern, Artifact artifact, VersionMatcher versionMatcher, ResourceMDParser mdParser) {
     // // substitute all but revision
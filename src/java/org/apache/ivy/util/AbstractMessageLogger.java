@@ -18,17 +18,18 @@
 package org.apache.ivy.util;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
  * An abstract base class to ease {@link MessageLogger} implementation.
  */
 public abstract class AbstractMessageLogger implements MessageLogger {
-    private List<String> problems = new ArrayList<>();
+    private List<String> problems = Collections.synchronizedList(new ArrayList<String>());
 
-    private List<String> warns = new ArrayList<>();
+    private List<String> warns = Collections.synchronizedList(new ArrayList<String>());
 
-    private List<String> errors = new ArrayList<>();
+    private List<String> errors = Collections.synchronizedList(new ArrayList<String>());
 
     private boolean showProgress = true;
 
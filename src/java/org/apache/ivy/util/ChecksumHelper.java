@@ -79,6 +79,26 @@ public final class ChecksumHelper {
      *             if an IO problem occur while reading files or if the checksum is not compliant
      */
     public static void check(File dest, File checksumFile, String algorithm) throws IOException {
+        check(computeAsString(dest, algorithm), checksumFile, algorithm);
+    }
+
+    /**
+     * Checks an already computed checksum against the given checksumFile, and throws an
+     * IOException if the checksum is not compliant
+     *
+     * @param computed
+     *            the computed checksum, as an hexadecimal string
+     * @param checksumFile
+     *            the file containing the expected checksum
+     * @param algorithm
+     *            the checksum algorithm used
+     * @throws IOException
+     *             if an IO problem occur while reading the checksum file or if the checksum is not
+     *             compliant
+     * @see StreamingChecksums
+     */
+    public static void check(String computed, File checksumFile, String algorithm)
+            throws IOException {
         String csFileContent = FileUtil
                 .readEntirely(new BufferedReader(new FileReader(checksumFile))).trim()
                 .toLowerCase(Locale.US);
@@ -108,7 +128,7 @@ public final class ChecksumHelper {
             }
         }
 
-        String computed = computeAsString(dest, algorithm).trim().toLowerCase(Locale.US);
+        computed = computed.trim().toLowerCase(Locale.US);
         if (!expected.equals(computed)) {
             throw new IOException("invalid " + algorithm + ": expected=" + expected + " computed="
                     + computed);
@@ -138,7 +158,7 @@ public final class ChecksumHelper {
         return algorithms.containsKey(algorithm);
     }
 
-    private static MessageDigest getMessageDigest(String algorithm) {
+    static MessageDigest getMessageDigest(String algorithm) {
         String mdAlgorithm = algorithms.get(algorithm);
         if (mdAlgorithm == null) {
             throw new IllegalArgumentException("unknown algorithm " + algorithm);
@@ -33,6 +33,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URL;
+import java.nio.file.FileStore;
 import java.nio.file.Files;
 import java.nio.file.NoSuchFileException;
 import java.util.ArrayList;
@@ -40,8 +41,11 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 import java.util.Stack;
 import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.jar.JarOutputStream;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.ZipInputStream;
@@ -63,6 +67,12 @@ public final class FileUtil {
 
     private static final byte[] EMPTY_BUFFER = new byte[0];
 
+    /**
+     * The pairs of source and destination file stores between which a reflink failed.
+     */
+    private static final Set<List<FileStore>> NO_REFLINK_STORES = Collections
+            .newSetFromMap(new ConcurrentHashMap<List<FileStore>, Boolean>());
+
     /**
      * Creates a symbolic link at {@code link} whose target will be the {@code target}. Depending
      * on the underlying filesystem, this method may not always be able to create a symbolic link,
@@ -105,6 +115,90 @@ public final class FileUtil {
         return true;
     }
 
+    /**
+     * Creates a hard link at {@code link} to the {@code target} file, so that both paths share
+     * the same content. Depending on the underlying filesystem, and on whether both paths are on
+     * the same filesystem, this method may not always be able to create a hard link, in which case
+     * this method returns {@code false} or throws an {@link IOException}.
+     *
+     * @param target    The file to link to. Directories can't be hard linked.
+     * @param link      The path to the hard link that needs to be created
+     * @param overwrite {@code true} if any existing file at {@code link} has to be overwritten.
+     *                  False otherwise
+     * @return Returns true if the hard link was successfully created. Returns false if the hard
+     * link could not be created
+     * @throws IOException if {@link Files#createLink} fails
+     */
+    public static boolean hardLink(final File target, final File link, final boolean overwrite)
+            throws IOException {
+        if (!target.isFile() || !prepareCopy(target, link, overwrite)) {
+            return false;
+        }
+        if (link.exists() && Files.isSameFile(target.toPath(), link.toPath())) {
+            return true;
+        }
+        // never write through an existing link
+        Files.deleteIfExists(link.toPath());
+        try {
+            Files.createLink(link.toPath(), target.toPath());
+        } catch (UnsupportedOperationException e) {
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Creates at {@code link} a copy-on-write clone of the {@code target} file, which shares the
+     * blocks of the target until one of them is modified. Java has no API for this, so the clone
+     * is made by the system <code>cp</code> command (<code>cp --reflink=always</code>, or
+     * <code>cp -c</code> on macOS). When the filesystems don't support it, this method returns
+     * {@code false}, and won't try again between the same filesystems.
+     *
+     * @param target    The file to clone. Directories can't be cloned.
+     * @param link      The path to the clone that needs to be created
+     * @param overwrite {@code true} if any existing file at {@code link} has to be overwritten.
+     *                  False otherwise
+     * @return Returns true if the clone was successfully created. Returns false if it could not be
+     * created
+     * @throws IOException if the clone can't be created for any other reason
+     */
+    public static boolean reflink(final File target, final File link, final boolean overwrite)
+            throws IOException {
+        String os = System.getProperty("os.name", "").toLowerCase(Locale.US);
+        if (!target.isFile() || os.startsWith("windows")
+                || !prepareCopy(target, link, overwrite)) {
+            return false;
+        }
+        Files.deleteIfExists(link.toPath());
+        List<FileStore> stores = Arrays.asList(Files.getFileStore(target.toPath()),
+            Files.getFileStore(link.getAbsoluteFile().getParentFile().toPath()));
+        if (NO_REFLINK_STORES.contains(stores)) {
+            return false;
+        }
+        String[] command = os.startsWith("mac") ? new String[] {"cp", "-c",
+                target.getAbsolutePath(), link.getAbsolutePath()} : new String[] {"cp",
+                "--reflink=always", target.getAbsolutePath(), link.getAbsolutePath()};
+        int exitValue;
+        try {
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+            String output = readEntirely(process.getInputStream());
+            exitValue = process.waitFor();
+            if (exitValue != 0) {
+                Message.verbose("reflink of " + target + " to " + link + " failed: " + output);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while cloning " + target + " to " + link, e);
+        }
+        if (exitValue != 0) {
+            link.delete();
+            NO_REFLINK_STORES.add(stores);
+            return false;
+        }
+        link.setLastModified(target.lastModified());
+        return true;
+    }
+
     /**
      * This is the same as calling {@link #copy(File, File, CopyProgressListener, boolean)} with
      * {@code overwrite} param as {@code true}
@@ -286,6 +380,10 @@ public final class FileUtil {
         if (l != null) {
             evt = new CopyProgressEvent();
         }
+        StreamingChecksums checksums = StreamingChecksums.current();
+        if (checksums != null) {
+            checksums.reset();
+        }
         try {
             byte[] buffer = new byte[BUFFER_SIZE];
             int c;
@@ -299,6 +397,9 @@ public final class FileUtil {
                     throw new IOException("transfer interrupted");
                 }
                 dest.write(buffer, 0, c);
+                if (checksums != null) {
+                    checksums.update(buffer, 0, c);
+                }
                 total += c;
                 if (l != null) {
                     l.progress(evt.update(buffer, c, total));
@@ -18,6 +18,7 @@
 package org.apache.ivy.util;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Stack;
 
@@ -37,11 +38,11 @@ public class MessageLoggerEngine implements MessageLogger {
 
     private MessageLogger defaultLogger = null;
 
-    private List<String> problems = new ArrayList<>();
+    private List<String> problems = Collections.synchronizedList(new ArrayList<String>());
 
-    private List<String> warns = new ArrayList<>();
+    private List<String> warns = Collections.synchronizedList(new ArrayList<String>());
 
-    private List<String> errors = new ArrayList<>();
+    private List<String> errors = Collections.synchronizedList(new ArrayList<String>());
 
     private Stack<MessageLogger> getLoggerStack() {
         Stack<MessageLogger> stack = loggerStacks.get();
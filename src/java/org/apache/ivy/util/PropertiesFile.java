@@ -32,6 +32,17 @@ public class PropertiesFile extends Properties {
 
     private String header;
 
+    /**
+     * Creates empty properties, for subclasses which don't store their data in a properties file.
+     * Such subclasses must override {@link #save()}.
+     *
+     * @param header
+     *            the header of the data
+     */
+    protected PropertiesFile(String header) {
+        this.header = header;
+    }
+
     public PropertiesFile(File file, String header) {
         this.file = file;
         this.header = header;
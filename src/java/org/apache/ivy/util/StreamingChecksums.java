@@ -0,0 +1,126 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Computes the checksums of the data copied by {@link FileUtil} in the current thread while it is
+ * written, so that a downloaded file doesn't have to be read again to check its checksums.
+ * <p>
+ * Checksums are computed from {@link #start(String...)} to {@link #stop()}, and only reflect the
+ * last copy done in between: each copy starts the computation again. As a download may be done
+ * without {@link FileUtil}, {@link #getChecksum(String, File)} falls back to reading the file
+ * when the length of the copied data doesn't match the length of the file.
+ * </p>
+ */
+public final class StreamingChecksums {
+    private static final ThreadLocal<StreamingChecksums> CURRENT = new ThreadLocal<>();
+
+    private final Map<String, MessageDigest> digests = new LinkedHashMap<>();
+
+    private final Map<String, String> checksums = new HashMap<>();
+
+    private final StreamingChecksums previous;
+
+    private long length;
+
+    private StreamingChecksums(StreamingChecksums previous, String... algorithms) {
+        this.previous = previous;
+        for (String algorithm : algorithms) {
+            if (ChecksumHelper.isKnownAlgorithm(algorithm)) {
+                digests.put(algorithm, ChecksumHelper.getMessageDigest(algorithm));
+            }
+        }
+    }
+
+    /**
+     * Starts computing the checksums of the data copied in the current thread.
+     *
+     * @param algorithms
+     *            the checksum algorithms, unknown ones being ignored
+     * @return the checksums, which must be stopped by the caller
+     */
+    public static StreamingChecksums start(String... algorithms) {
+        StreamingChecksums checksums = new StreamingChecksums(CURRENT.get(), algorithms);
+        CURRENT.set(checksums);
+        return checksums;
+    }
+
+    static StreamingChecksums current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Stops computing the checksums, restoring the computation which was in progress in the
+     * current thread when this one was started, if any.
+     */
+    public void stop() {
+        if (CURRENT.get() == this) {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    void reset() {
+        for (MessageDigest digest : digests.values()) {
+            digest.reset();
+        }
+        checksums.clear();
+        length = 0;
+    }
+
+    void update(byte[] buffer, int offset, int len) {
+        for (MessageDigest digest : digests.values()) {
+            digest.update(buffer, offset, len);
+        }
+        length += len;
+    }
+
+    /**
+     * Returns the checksum of the given file, as computed while it was copied if possible.
+     *
+     * @param algorithm
+     *            the checksum algorithm
+     * @param file
+     *            the file which has been copied
+     * @return the checksum, as an hexadecimal string
+     * @throws IOException
+     *             if the file has to be read and can't be
+     */
+    public String getChecksum(String algorithm, File file) throws IOException {
+        MessageDigest digest = digests.get(algorithm);
+        if (digest == null || length != file.length()) {
+            return ChecksumHelper.computeAsString(file, algorithm);
+        }
+        String checksum = checksums.get(algorithm);
+        if (checksum == null) {
+            checksum = ChecksumHelper.byteArrayToHexString(digest.digest());
+            checksums.put(algorithm, checksum);
+        }
+        return checksum;
+    }
+}
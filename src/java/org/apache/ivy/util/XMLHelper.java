@@ -17,24 +17,35 @@
  */
 package org.apache.ivy.util;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.StringReader;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLResolver;
+import javax.xml.stream.XMLStreamException;
 import javax.xml.transform.Source;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.sax.SAXTransformerFactory;
 import javax.xml.transform.sax.TransformerHandler;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
 
 import org.apache.ivy.util.url.URLHandlerRegistry;
 import org.w3c.dom.Document;
@@ -52,10 +63,6 @@ import org.xml.sax.helpers.DefaultHandler;
 
 public abstract class XMLHelper {
 
-    static final String JAXP_SCHEMA_LANGUAGE = "http://java.sun.com/xml/jaxp/properties/schemaLanguage";
-
-    static final String JAXP_SCHEMA_SOURCE = "http://java.sun.com/xml/jaxp/properties/schemaSource";
-
     static final String XERCES_LOAD_EXTERNAL_DTD = "http://apache.org/xml/features/nonvalidating/load-external-dtd";
 
     static final String XML_NAMESPACE_PREFIXES = "http://xml.org/sax/features/namespace-prefixes";
@@ -67,26 +74,52 @@ public abstract class XMLHelper {
     public static final String ALLOW_DOCTYPE_PROCESSING = "ivy.xml.allow-doctype-processing";
     public static final String EXTERNAL_RESOURCES = "ivy.xml.external-resources";
 
-    private static SAXParser newSAXParser(final URL schema, final InputStream schemaStream,
-        final boolean allowXmlDoctypeProcessing, final ExternalResources externalResources)
-        throws ParserConfigurationException, SAXException {
-        final SAXParserFactory parserFactory = SAXParserFactory.newInstance();
-        parserFactory.setNamespaceAware(true);
-        parserFactory.setValidating(schema != null);
-        configureSafeFeatures(parserFactory, allowXmlDoctypeProcessing, externalResources);
+    /**
+     * The maximum number of idle parsers kept for each parser configuration.
+     */
+    private static final int MAX_POOLED_PARSERS = 8;
 
-        SAXParser parser = parserFactory.newSAXParser();
-        if (schema != null) {
-            try {
-                parser.setProperty(JAXP_SCHEMA_LANGUAGE, W3C_XML_SCHEMA);
-                parser.setProperty(JAXP_SCHEMA_SOURCE, schemaStream);
-            } catch (SAXNotRecognizedException ex) {
-                Message.warn("problem while setting JAXP validating property on SAXParser... "
-                        + "XML validation will not be done", ex);
-                parserFactory.setValidating(false);
+    /**
+     * The parser factories by parser configuration. A validating factory holds the compiled
+     * schema, so that it is read only once.
+     */
+    private static final ConcurrentMap<String, SAXParserFactory> PARSER_FACTORIES =
+            new ConcurrentHashMap<>();
+
+    /**
+     * The idle parsers by parser configuration, reset to the state in which their factory created
+     * them.
+     */
+    private static final ConcurrentMap<String, BlockingQueue<SAXParser>> PARSERS =
+            new ConcurrentHashMap<>();
+
+    private static String getParserKey(final URL schema, final boolean allowXmlDoctypeProcessing,
+            final ExternalResources externalResources) {
+        return (schema == null ? "" : schema.toExternalForm()) + "|" + allowXmlDoctypeProcessing
+                + "|" + externalResources;
+    }
+
+    private static SAXParser borrowSAXParser(final String key, final URL schema,
+            final boolean allowXmlDoctypeProcessing, final ExternalResources externalResources)
+            throws ParserConfigurationException, SAXException, IOException {
+        BlockingQueue<SAXParser> pool = PARSERS.get(key);
+        SAXParser parser = pool == null ? null : pool.poll();
+        if (parser == null) {
+            SAXParserFactory parserFactory = PARSER_FACTORIES.get(key);
+            if (parserFactory == null) {
+                parserFactory = newSAXParserFactory(schema, allowXmlDoctypeProcessing,
+                    externalResources);
+                SAXParserFactory existing = PARSER_FACTORIES.putIfAbsent(key, parserFactory);
+                if (existing != null) {
+                    parserFactory = existing;
+                }
+            }
+            // factories are not thread safe
+            synchronized (parserFactory) {
                 parser = parserFactory.newSAXParser();
             }
         }
+        // what is set on the reader is lost when the parser is reset
         final XMLReader reader = parser.getXMLReader();
         trySetFeature(reader, XML_NAMESPACE_PREFIXES, true);
         trySetProperty(reader, XML_ACCESS_EXTERNAL_SCHEMA,
@@ -96,6 +129,56 @@ public abstract class XMLHelper {
         return parser;
     }
 
+    private static void returnSAXParser(final String key, final SAXParser parser) {
+        try {
+            parser.reset();
+        } catch (UnsupportedOperationException e) {
+            // this parser can't be reused
+            return;
+        }
+        BlockingQueue<SAXParser> pool = PARSERS.get(key);
+        if (pool == null) {
+            pool = new ArrayBlockingQueue<>(MAX_POOLED_PARSERS);
+            BlockingQueue<SAXParser> existing = PARSERS.putIfAbsent(key, pool);
+            if (existing != null) {
+                pool = existing;
+            }
+        }
+        pool.offer(parser);
+    }
+
+    private static SAXParserFactory newSAXParserFactory(final URL schema,
+            final boolean allowXmlDoctypeProcessing, final ExternalResources externalResources)
+            throws SAXException, IOException {
+        final SAXParserFactory parserFactory = SAXParserFactory.newInstance();
+        parserFactory.setNamespaceAware(true);
+        parserFactory.setValidating(false);
+        configureSafeFeatures(parserFactory, allowXmlDoctypeProcessing, externalResources);
+        if (schema != null) {
+            Schema compiledSchema = newSchema(schema, externalResources);
+            try {
+                parserFactory.setSchema(compiledSchema);
+            } catch (UnsupportedOperationException ex) {
+                Message.warn("problem while setting the schema on SAXParserFactory... "
+                        + "XML validation will not be done", ex);
+            }
+        }
+        return parserFactory;
+    }
+
+    @SuppressWarnings("deprecation")
+    private static Schema newSchema(final URL schema, final ExternalResources externalResources)
+            throws SAXException, IOException {
+        final SchemaFactory schemaFactory = SchemaFactory.newInstance(W3C_XML_SCHEMA);
+        trySetProperty(schemaFactory, XML_ACCESS_EXTERNAL_SCHEMA,
+            externalResources.getAllowedProtocols());
+        trySetProperty(schemaFactory, XML_ACCESS_EXTERNAL_DTD,
+            externalResources.getAllowedProtocols());
+        try (InputStream schemaStream = URLHandlerRegistry.getDefault().openStream(schema)) {
+            return schemaFactory.newSchema(new StreamSource(schemaStream, toSystemId(schema)));
+        }
+    }
+
     /**
      * Convert an URL to a valid systemId according to RFC 2396.
      *
@@ -159,19 +242,15 @@ public abstract class XMLHelper {
             loadExternalDtds ? ExternalResources.LOCAL_ONLY : ExternalResources.PROHIBIT);
     }
 
-    @SuppressWarnings("deprecation")
     public static void parse(final InputSource xmlStream, final URL schema,
                              final DefaultHandler handler, final LexicalHandler lHandler,
                              final ExternalResources externalResources) throws SAXException, IOException,
             ParserConfigurationException {
-        InputStream schemaStream = null;
+        final boolean allowXmlDoctypeProcessing = isXmlDoctypeProcessingAllowed();
+        final String key = getParserKey(schema, allowXmlDoctypeProcessing, externalResources);
+        final SAXParser parser = borrowSAXParser(key, schema, allowXmlDoctypeProcessing,
+            externalResources);
         try {
-            if (schema != null) {
-                schemaStream = URLHandlerRegistry.getDefault().openStream(schema);
-            }
-            SAXParser parser = XMLHelper.newSAXParser(schema, schemaStream,
-                    isXmlDoctypeProcessingAllowed(), externalResources);
-
             if (lHandler != null) {
                 try {
                     parser.setProperty("http://xml.org/sax/properties/lexical-handler", lHandler);
@@ -187,13 +266,7 @@ public abstract class XMLHelper {
                 : handler;
             parser.parse(xmlStream, h);
         } finally {
-            if (schemaStream != null) {
-                try {
-                    schemaStream.close();
-                } catch (IOException ex) {
-                    // ignored
-                }
-            }
+            returnSAXParser(key, parser);
         }
     }
 
@@ -280,6 +353,46 @@ public abstract class XMLHelper {
         }
     }
 
+    /**
+     * Returns a StAX input factory configured as the document builders returned by
+     * {@link #getDocBuilder(EntityResolver, boolean, ExternalResources)}: the readers it creates
+     * are not namespace aware, and don't support external entities.
+     *
+     * @param resolver
+     *            the resolver of the external DTDs, may be <code>null</code>
+     * @param allowXmlDoctypeProcessing
+     *            <code>true</code> if DTDs can be processed
+     * @param externalResources
+     *            how the external resources not handled by the resolver are dealt with
+     * @return the input factory
+     */
+    public static XMLInputFactory getXMLInputFactory(final XMLResolver resolver,
+            final boolean allowXmlDoctypeProcessing, final ExternalResources externalResources) {
+        final XMLInputFactory factory = XMLInputFactory.newInstance();
+        trySetProperty(factory, XMLInputFactory.IS_NAMESPACE_AWARE, false);
+        trySetProperty(factory, XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        trySetProperty(factory, XMLInputFactory.SUPPORT_DTD, allowXmlDoctypeProcessing);
+        trySetProperty(factory, XML_ACCESS_EXTERNAL_DTD, externalResources.getAllowedProtocols());
+        if (externalResources == ExternalResources.IGNORE) {
+            factory.setXMLResolver(new XMLResolver() {
+                public Object resolveEntity(String publicID, String systemID, String baseURI,
+                        String namespace) throws XMLStreamException {
+                    if (resolver != null) {
+                        Object resolved = resolver.resolveEntity(publicID, systemID, baseURI,
+                            namespace);
+                        if (resolved != null) {
+                            return resolved;
+                        }
+                    }
+                    return new ByteArrayInputStream(new byte[0]);
+                }
+            });
+        } else if (resolver != null) {
+            factory.setXMLResolver(resolver);
+        }
+        return factory;
+    }
+
     public static Transformer getTransformer(Source source) throws TransformerConfigurationException {
         TransformerFactory factory = getTransformerFactory();
         return factory.newTransformer(source);
@@ -537,6 +650,33 @@ public abstract class XMLHelper {
         }
     }
 
+    private static boolean trySetProperty(final SchemaFactory factory,
+                                          final String property, final Object val) {
+        try {
+            factory.setProperty(property, val);
+            return true;
+        } catch (SAXNotRecognizedException e) {
+            return false;
+        } catch (SAXNotSupportedException e) {
+            return false;
+        }
+    }
+
+    private static boolean trySetProperty(final XMLInputFactory factory,
+                                          final String property, final Object val) {
+        if (!factory.isPropertySupported(property)) {
+            return false;
+        }
+        try {
+            factory.setProperty(property, val);
+            return true;
+        } catch (IllegalArgumentException e) {
+            // log and continue
+            Message.warn("Failed to set property " + property + " on XMLInputFactory", e);
+            return false;
+        }
+    }
+
     private static final InputSource EMPTY_INPUT_SOURCE = new InputSource(new StringReader(""));
 
     private static class NoopEntityResolver implements EntityResolver {
@@ -19,6 +19,7 @@ package org.apache.ivy.util.filter;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 
 import org.apache.ivy.core.module.descriptor.Artifact;
 
@@ -32,4 +33,8 @@ public class ArtifactTypeFilter implements Filter<Artifact> {
     public boolean accept(Artifact art) {
         return acceptedTypes.contains(art.getType());
     }
+
+    public Collection<String> getAcceptedTypes() {
+        return Collections.unmodifiableCollection(acceptedTypes);
+    }
 }
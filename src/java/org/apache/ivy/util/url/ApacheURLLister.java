@@ -17,21 +17,17 @@
  */
 package org.apache.ivy.util.url;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
-import org.apache.ivy.util.FileUtil;
 import org.apache.ivy.util.Message;
-import org.apache.ivy.util.url.URLHandler.URLInfo;
 
 /**
  * Utility class which helps to list urls under a given url. This has been tested with Apache 1.3.33
@@ -41,9 +37,48 @@ import org.apache.ivy.util.url.URLHandler.URLInfo;
 public class ApacheURLLister {
     // ~ Static variables/initializers ------------------------------------------
 
-    private static final Pattern PATTERN = Pattern.compile(
-        "<a[^>]*href=\"([^\"]*)\"[^>]*>(?:<[^>]+>)*?([^<>]+?)(?:<[^>]+>)*?</a>",
-        Pattern.CASE_INSENSITIVE);
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    // ~ Inner classes ----------------------------------------------------------
+
+    /**
+     * The entries found in the listing of an url, together with the validators which allow to
+     * check later whether the listing has changed.
+     */
+    public static final class Listing {
+        private final List<String> entries;
+
+        private final String etag;
+
+        private final long lastModified;
+
+        /**
+         * @param entries
+         *            the paths of the entries relative to the listed url, the ones of
+         *            directories ending with a slash
+         * @param etag
+         *            the entity tag of the listing, or null
+         * @param lastModified
+         *            the last modified timestamp of the listing, or 0
+         */
+        public Listing(List<String> entries, String etag, long lastModified) {
+            this.entries = Collections.unmodifiableList(new ArrayList<>(entries));
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+
+        public List<String> getEntries() {
+            return entries;
+        }
+
+        public String getETag() {
+            return etag;
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+    }
 
     // ~ Methods ----------------------------------------------------------------
 
@@ -101,114 +136,244 @@ public class ApacheURLLister {
      * @throws IOException
      *             If an error occurs retrieving the HTML.
      */
-    @SuppressWarnings("deprecation")
     public List<URL> retrieveListing(URL url, boolean includeFiles, boolean includeDirectories)
             throws IOException {
+        return getURLs(url, retrieveListing(url, null), includeFiles, includeDirectories);
+    }
+
+    /**
+     * Retrieves the listing of the supplied base URL. When a previous listing of the same URL is
+     * given, the listing is only read again if the server tells it has changed since.
+     *
+     * @param url
+     *            The base URL from which to retrieve the listing.
+     * @param previous
+     *            A listing of the same URL retrieved previously, or null.
+     * @return the listing, which is the previous one if it hasn't changed.
+     * @throws IOException
+     *             If an error occurs retrieving the HTML.
+     */
+    @SuppressWarnings("deprecation")
+    public Listing retrieveListing(URL url, Listing previous) throws IOException {
+        url = normalize(url);
+        String etag = previous == null ? null : previous.getETag();
+        long lastModified = previous == null ? 0 : previous.getLastModified();
+        try (ConditionalURLHandler.Response response = ConditionalURLHandler
+                .openConditionalStream(URLHandlerRegistry.getDefault(), url, etag, lastModified,
+                    null)) {
+            if (!response.isAvailable()) {
+                // not found => empty listing
+                return new Listing(Collections.<String>emptyList(), null, 0);
+            }
+            if (!response.isModified()) {
+                Message.debug("ApacheURLLister: listing of " + url + " has not changed");
+                return previous;
+            }
+            String charset = response.getBodyCharset();
+            Reader r = charset == null ? new InputStreamReader(response.getStream())
+                    : new InputStreamReader(response.getStream(), charset);
+            return new Listing(parse(url, r), response.getETag(), response.getLastModified());
+        }
+    }
+
+    /**
+     * Returns the {@link URL}s of the entries of the given listing.
+     *
+     * @param url
+     *            The base URL of the listing.
+     * @param listing
+     *            The listing of the base URL.
+     * @param includeFiles
+     *            If true include files in the returned list.
+     * @param includeDirectories
+     *            If true include directories in the returned list.
+     * @return A {@link List} of {@link URL}s.
+     * @throws IOException
+     *             If an entry can't be converted to an URL.
+     */
+    public List<URL> getURLs(URL url, Listing listing, boolean includeFiles,
+            boolean includeDirectories) throws IOException {
+        url = normalize(url);
         List<URL> urlList = new ArrayList<>();
+        for (String href : listing.getEntries()) {
+            boolean directory = href.endsWith("/");
+            if ((directory && includeDirectories) || (!directory && includeFiles)) {
+                URL child = new URL(url, href);
+                urlList.add(child);
+                Message.debug("ApacheURLLister found URL=[" + child + "].");
+            }
+        }
+        return urlList;
+    }
 
+    private static URL normalize(URL url) throws IOException {
         // add trailing slash for relative urls
         if (!url.getPath().endsWith("/") && !url.getPath().endsWith(".html")) {
             url = new URL(url.getProtocol(), url.getHost(), url.getPort(), url.getPath() + "/");
         }
+        return url;
+    }
 
-        URLHandler urlHandler = URLHandlerRegistry.getDefault();
-        URLInfo urlInfo = urlHandler.getURLInfo(url);
-        if (urlInfo == URLHandler.UNAVAILABLE) {
-            return urlList; // not found => return empty list
+    /**
+     * Scans the given HTML for links to children of the given url. The HTML is read as a stream,
+     * only the tags and the text of links are kept in memory.
+     */
+    private static List<String> parse(URL url, Reader r) throws IOException {
+        List<String> entries = new ArrayList<>();
+        char[] buffer = new char[BUFFER_SIZE];
+        StringBuilder tag = new StringBuilder();
+        boolean inTag = false;
+        String href = null;
+        StringBuilder text = null;
+        int len;
+        while ((len = r.read(buffer)) != -1) {
+            for (int i = 0; i < len; i++) {
+                char c = buffer[i];
+                if (inTag) {
+                    if (c != '>') {
+                        tag.append(c);
+                        continue;
+                    }
+                    inTag = false;
+                    if (isTag(tag, "a")) {
+                        href = getAttribute(tag, "href");
+                        text = href == null ? null : new StringBuilder();
+                    } else if (isTag(tag, "/a") && text != null) {
+                        String entry = toEntry(url, href, text.toString().trim());
+                        if (entry != null) {
+                            entries.add(entry);
+                        }
+                        href = null;
+                        text = null;
+                    }
+                } else if (c == '<') {
+                    inTag = true;
+                    tag.setLength(0);
+                } else if (text != null) {
+                    text.append(c);
+                }
+            }
         }
-        // here, urlInfo is valid
-        String charset = urlInfo.getBodyCharset();
+        return entries;
+    }
 
-        InputStream contentStream = urlHandler.openStream(url);
-        BufferedReader r = null;
-        if (charset == null) {
-            r = new BufferedReader(new InputStreamReader(contentStream));
-        } else {
-            r = new BufferedReader(new InputStreamReader(contentStream, charset));
+    private static boolean isTag(CharSequence tag, String name) {
+        if (tag.length() < name.length()) {
+            return false;
         }
-
-        String htmlText = FileUtil.readEntirely(r);
-
-        Matcher matcher = PATTERN.matcher(htmlText);
-
-        while (matcher.find()) {
-            // get the href text and the displayed text
-            String href = matcher.group(1);
-            String text = matcher.group(2);
-
-            if (href == null || text == null) {
-                // the groups were not found (shouldn't happen, really)
-                continue;
+        for (int i = 0; i < name.length(); i++) {
+            if (Character.toLowerCase(tag.charAt(i)) != name.charAt(i)) {
+                return false;
             }
+        }
+        return tag.length() == name.length() || Character.isWhitespace(tag.charAt(name.length()))
+                || tag.charAt(name.length()) == '/';
+    }
 
-            text = text.trim();
-
-            try {
-                // URI methods decode the URL
-                URI uri = new URI(href);
-                href = uri.getPath();
-                // handle complete URL listings
-                if (uri.getScheme() != null) {
-                    if (!href.startsWith(url.getPath())) {
-                        // ignore URLs which aren't children of the base URL
-                        continue;
+    private static String getAttribute(CharSequence tag, String name) {
+        String lowerTag = tag.toString().toLowerCase();
+        int index = lowerTag.indexOf(name);
+        while (index != -1) {
+            int i = index + name.length();
+            if (index > 0 && Character.isWhitespace(lowerTag.charAt(index - 1))) {
+                while (i < lowerTag.length() && Character.isWhitespace(lowerTag.charAt(i))) {
+                    i++;
+                }
+                if (i < lowerTag.length() && lowerTag.charAt(i) == '=') {
+                    i++;
+                    while (i < lowerTag.length() && Character.isWhitespace(lowerTag.charAt(i))) {
+                        i++;
+                    }
+                    if (i == lowerTag.length()) {
+                        return null;
                     }
-                    href = href.substring(url.getPath().length());
+                    char quote = lowerTag.charAt(i);
+                    int end;
+                    if (quote == '"' || quote == '\'') {
+                        i++;
+                        end = lowerTag.indexOf(quote, i);
+                    } else {
+                        end = i;
+                        while (end < lowerTag.length()
+                                && !Character.isWhitespace(lowerTag.charAt(end))) {
+                            end++;
+                        }
+                    }
+                    return end == -1 ? null : tag.subSequence(i, end).toString();
                 }
-            } catch (URISyntaxException e) {
-                // incorrect URL, ignore
-                continue;
             }
+            index = lowerTag.indexOf(name, index + 1);
+        }
+        return null;
+    }
 
-            if (href.startsWith("../")) {
-                // we are only interested in sub-URLs, not parent URLs, so skip this one
-                continue;
+    /**
+     * Converts the given link to a path relative to the given url, or returns null if it doesn't
+     * link to a child of the url.
+     */
+    private static String toEntry(URL url, String href, String text) {
+        if (text.isEmpty()) {
+            return null;
+        }
+        try {
+            // URI methods decode the URL
+            URI uri = new URI(href);
+            href = uri.getPath();
+            if (href == null) {
+                return null;
             }
-
-            // absolute href: convert to relative one
-            if (href.startsWith("/")) {
-                int slashIndex = href.substring(0, href.length() - 1).lastIndexOf('/');
-                href = href.substring(slashIndex + 1);
+            // handle complete URL listings
+            if (uri.getScheme() != null) {
+                if (!href.startsWith(url.getPath())) {
+                    // ignore URLs which aren't children of the base URL
+                    return null;
+                }
+                href = href.substring(url.getPath().length());
             }
+        } catch (URISyntaxException e) {
+            // incorrect URL, ignore
+            return null;
+        }
 
-            // relative to current href: convert to simple relative one
-            if (href.startsWith("./")) {
-                href = href.substring("./".length());
-            }
+        if (href.startsWith("../")) {
+            // we are only interested in sub-URLs, not parent URLs, so skip this one
+            return null;
+        }
 
-            // exclude those where they do not match
-            // href will never be truncated, text may be truncated by apache
-            if (text.endsWith("..>")) {
-                // text is probably truncated, we can only check if the href starts with text
-                if (!href.startsWith(text.substring(0, text.length() - 3))) {
-                    continue;
-                }
-            } else if (text.endsWith("..&gt;")) {
-                // text is probably truncated, we can only check if the href starts with text
-                if (!href.startsWith(text.substring(0, text.length() - 6))) {
-                    continue;
-                }
-            } else {
-                // text is not truncated, so it must match the url after stripping optional
-                // trailing slashes
-                String strippedHref = href.endsWith("/") ? href.substring(0, href.length() - 1)
-                        : href;
-                String strippedText = text.endsWith("/") ? text.substring(0, text.length() - 1)
-                        : text;
-                if (!strippedHref.equalsIgnoreCase(strippedText)) {
-                    continue;
-                }
-            }
+        // absolute href: convert to relative one
+        if (href.startsWith("/")) {
+            int slashIndex = href.substring(0, href.length() - 1).lastIndexOf('/');
+            href = href.substring(slashIndex + 1);
+        }
 
-            boolean directory = href.endsWith("/");
+        // relative to current href: convert to simple relative one
+        if (href.startsWith("./")) {
+            href = href.substring("./".length());
+        }
 
-            if ((directory && includeDirectories) || (!directory && includeFiles)) {
-                URL child = new URL(url, href);
-                urlList.add(child);
-                Message.debug("ApacheURLLister found URL=[" + child + "].");
+        // exclude those where they do not match
+        // href will never be truncated, text may be truncated by apache
+        if (text.endsWith("..>")) {
+            // text is probably truncated, we can only check if the href starts with text
+            if (!href.startsWith(text.substring(0, text.length() - 3))) {
+                return null;
+            }
+        } else if (text.endsWith("..&gt;")) {
+            // text is probably truncated, we can only check if the href starts with text
+            if (!href.startsWith(text.substring(0, text.length() - 6))) {
+                return null;
+            }
+        } else {
+            // text is not truncated, so it must match the url after stripping optional
+            // trailing slashes
+            String strippedHref = href.endsWith("/") ? href.substring(0, href.length() - 1)
+                    : href;
+            String strippedText = text.endsWith("/") ? text.substring(0, text.length() - 1)
+                    : text;
+            if (!strippedHref.equalsIgnoreCase(strippedText)) {
+                return null;
             }
         }
-
-        return urlList;
+        return href;
     }
 }
@@ -26,6 +26,7 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -37,7 +38,8 @@ import java.net.UnknownHostException;
 /**
  *
  */
-public class BasicURLHandler extends AbstractURLHandler implements TimeoutConstrainedURLHandler {
+public class BasicURLHandler extends AbstractURLHandler implements TimeoutConstrainedURLHandler,
+        ConditionalURLHandler {
 
     private static final int BUFFER_SIZE = 64 * 1024;
 
@@ -46,8 +48,12 @@ public class BasicURLHandler extends AbstractURLHandler implements TimeoutConstr
     private static final class HttpStatus {
         static final int SC_OK = 200;
 
+        static final int SC_NOT_MODIFIED = 304;
+
         static final int SC_PROXY_AUTHENTICATION_REQUIRED = 407;
 
+        static final int SC_INTERNAL_SERVER_ERROR = 500;
+
         private HttpStatus() {
         }
     }
@@ -226,6 +232,70 @@ public class BasicURLHandler extends AbstractURLHandler implements TimeoutConstr
         }
     }
 
+    @Override
+    public Response openConditionalStream(final URL url, final String etag, final long lastModified,
+                                          final TimeoutConstraint timeoutConstraint) throws IOException {
+        // Install the IvyAuthenticator
+        if ("http".equals(url.getProtocol()) || "https".equals(url.getProtocol())) {
+            IvyAuthenticator.install();
+        }
+        final int connectionTimeout = (timeoutConstraint == null || timeoutConstraint.getConnectionTimeout() < 0) ? 0 : timeoutConstraint.getConnectionTimeout();
+        final int readTimeout = (timeoutConstraint == null || timeoutConstraint.getReadTimeout() < 0) ? 0 : timeoutConstraint.getReadTimeout();
+
+        URLConnection conn = null;
+        boolean streaming = false;
+        try {
+            final URL normalizedURL = normalizeToURL(url);
+            conn = normalizedURL.openConnection();
+            conn.setConnectTimeout(connectionTimeout);
+            conn.setReadTimeout(readTimeout);
+            conn.setRequestProperty("User-Agent", getUserAgent());
+            conn.setRequestProperty("Accept", ACCEPT_HEADER_VALUE);
+            conn.setRequestProperty("Accept-Encoding", "gzip,deflate");
+            if (conn instanceof HttpURLConnection) {
+                HttpURLConnection httpCon = (HttpURLConnection) conn;
+                if (etag != null) {
+                    httpCon.setRequestProperty("If-None-Match", etag);
+                }
+                if (lastModified > 0) {
+                    httpCon.setIfModifiedSince(lastModified);
+                }
+                if (httpCon.getResponseCode() == HttpStatus.SC_NOT_MODIFIED) {
+                    return Response.NOT_MODIFIED;
+                }
+                if (!checkStatusCode(normalizedURL, httpCon)) {
+                    if (httpCon.getResponseCode() >= HttpStatus.SC_INTERNAL_SERVER_ERROR) {
+                        // may be transient, so not reported as unavailable
+                        throw new IOException("The HTTP response code for " + normalizedURL
+                                + " did not indicate a success. See log for more detail.");
+                    }
+                    return Response.UNAVAILABLE;
+                }
+            }
+            // the content is streamed from the connection, which is released once it is closed
+            final URLConnection connection = conn;
+            InputStream inStream = new FilterInputStream(getDecodingInputStream(
+                    conn.getContentEncoding(), conn.getInputStream())) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        disconnect(connection);
+                    }
+                }
+            };
+            Response response = new Response(inStream, conn.getHeaderField("ETag"),
+                    conn.getLastModified(), getCharSetFromContentType(conn.getContentType()));
+            streaming = true;
+            return response;
+        } finally {
+            if (!streaming) {
+                disconnect(conn);
+            }
+        }
+    }
+
     @Override
     public void download(final URL src, final File dest, final CopyProgressListener l) throws IOException {
         this.download(src, dest, l, null);
@@ -255,7 +325,7 @@ public class BasicURLHandler extends AbstractURLHandler implements TimeoutConstr
                 HttpURLConnection httpCon = (HttpURLConnection) srcConn;
                 if (!checkStatusCode(normalizedURL, httpCon)) {
                     throw new IOException("The HTTP response code for " + normalizedURL
-                            + " did not indicate a success." + " See log for more detail.");
+                            + " did not indicate a success. See log for more detail.");
                 }
             }
 
@@ -0,0 +1,175 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.util.url;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+
+import org.apache.ivy.core.settings.TimeoutConstraint;
+
+/**
+ * An {@link URLHandler} able to make conditional requests, so that content which was already
+ * read is only read again when it has changed.
+ */
+@SuppressWarnings("deprecation")
+public interface ConditionalURLHandler extends URLHandler {
+
+    /**
+     * The response to a conditional request. When the content has changed, the response holds a
+     * stream on it which must be closed by the caller.
+     */
+    final class Response implements Closeable {
+        public static final Response NOT_MODIFIED = new Response(true, false, null, null, 0,
+                null);
+
+        public static final Response UNAVAILABLE = new Response(false, false, null, null, 0,
+                null);
+
+        private final boolean available;
+
+        private final boolean modified;
+
+        private final InputStream stream;
+
+        private final String etag;
+
+        private final long lastModified;
+
+        private final String bodyCharset;
+
+        public Response(InputStream stream, String etag, long lastModified, String bodyCharset) {
+            this(true, true, stream, etag, lastModified, bodyCharset);
+        }
+
+        private Response(boolean available, boolean modified, InputStream stream, String etag,
+                long lastModified, String bodyCharset) {
+            this.available = available;
+            this.modified = modified;
+            this.stream = stream;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.bodyCharset = bodyCharset;
+        }
+
+        public boolean isAvailable() {
+            return available;
+        }
+
+        /**
+         * @return false if the content hasn't changed since it was read with the validators
+         *         given in the request
+         */
+        public boolean isModified() {
+            return modified;
+        }
+
+        public InputStream getStream() {
+            return stream;
+        }
+
+        /**
+         * @return the entity tag of the content, or null if the server didn't give one
+         */
+        public String getETag() {
+            return etag;
+        }
+
+        /**
+         * @return the last modified timestamp of the content, or 0 if the server didn't give one
+         */
+        public long getLastModified() {
+            return lastModified;
+        }
+
+        public String getBodyCharset() {
+            return bodyCharset;
+        }
+
+        public void close() throws IOException {
+            if (stream != null) {
+                stream.close();
+            }
+        }
+    }
+
+    /**
+     * Opens a stream on the given url, unless its content hasn't changed since it was read with
+     * the given validators.
+     *
+     * @param url
+     *            the url to read
+     * @param etag
+     *            the entity tag of the content read previously, or null
+     * @param lastModified
+     *            the last modified timestamp of the content read previously, or 0
+     * @param timeoutConstraint
+     *            the timeouts to use, or null
+     * @return the response, {@link Response#NOT_MODIFIED} if the content hasn't changed, or
+     *         {@link Response#UNAVAILABLE} if it is not available, never null
+     * @throws IOException
+     *             if the content can't be read, including when the server reports an error
+     */
+    Response openConditionalStream(URL url, String etag, long lastModified,
+            TimeoutConstraint timeoutConstraint) throws IOException;
+
+    /**
+     * Opens a stream on the given url with the given handler, using a conditional request if the
+     * handler supports it.
+     *
+     * @param handler
+     *            the handler to use
+     * @param url
+     *            the url to read
+     * @param etag
+     *            the entity tag of the content read previously, or null
+     * @param lastModified
+     *            the last modified timestamp of the content read previously, or 0
+     * @param timeoutConstraint
+     *            the timeouts to use, or null
+     * @return the response, never null
+     * @throws IOException
+     *             if the content can't be read
+     * @see #openConditionalStream(URL, String, long, TimeoutConstraint)
+     */
+    static Response openConditionalStream(URLHandler handler, URL url, String etag,
+            long lastModified, TimeoutConstraint timeoutConstraint) throws IOException {
+        if (handler instanceof ConditionalURLHandler) {
+            return ((ConditionalURLHandler) handler).openConditionalStream(url, etag,
+                lastModified, timeoutConstraint);
+        }
+        URLInfo info;
+        InputStream stream;
+        if (handler instanceof TimeoutConstrainedURLHandler) {
+            TimeoutConstrainedURLHandler constrained = (TimeoutConstrainedURLHandler) handler;
+            info = constrained.getURLInfo(url, timeoutConstraint);
+            if (!info.isReachable()) {
+                return Response.UNAVAILABLE;
+            }
+            stream = constrained.openStream(url, timeoutConstraint);
+        } else {
+            info = handler.getURLInfo(url);
+            if (!info.isReachable()) {
+                return Response.UNAVAILABLE;
+            }
+            stream = handler.openStream(url);
+        }
+        return new Response(stream, null, info.getLastModified(), info.getBodyCharset());
+    }
+}
@@ -32,9 +32,10 @@ import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpHead;
 import org.apache.http.client.methods.HttpPut;
+import org.apache.http.client.utils.DateUtils;
 import org.apache.http.config.Lookup;
 import org.apache.http.config.RegistryBuilder;
-import org.apache.http.conn.HttpClientConnectionManager;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
 import org.apache.http.conn.routing.HttpRoutePlanner;
 import org.apache.http.entity.ContentType;
 import org.apache.http.entity.FileEntity;
@@ -42,9 +43,12 @@ import org.apache.http.impl.auth.BasicSchemeFactory;
 import org.apache.http.impl.auth.DigestSchemeFactory;
 import org.apache.http.impl.auth.NTLMSchemeFactory;
 import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
 import org.apache.http.impl.client.HttpClients;
 import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.impl.conn.SystemDefaultRoutePlanner;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
 import org.apache.ivy.core.settings.TimeoutConstraint;
 import org.apache.ivy.util.CopyProgressListener;
 import org.apache.ivy.util.FileUtil;
@@ -60,14 +64,23 @@ import java.nio.charset.Charset;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
 import java.util.Locale;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 /**
  *
  */
-public class HttpClientHandler extends AbstractURLHandler implements TimeoutConstrainedURLHandler, AutoCloseable {
+public class HttpClientHandler extends AbstractURLHandler implements TimeoutConstrainedURLHandler,
+        PoolingURLHandler, ConditionalURLHandler, AutoCloseable {
+    private static final long MIN_IDLE_CHECK_INTERVAL = 100;
+
     private static final SimpleDateFormat LAST_MODIFIED_FORMAT = new SimpleDateFormat(
             "EEE, d MMM yyyy HH:mm:ss z", Locale.US);
 
@@ -92,15 +105,32 @@ public class HttpClientHandler extends AbstractURLHandler implements TimeoutCons
         Runtime.getRuntime().addShutdownHook(shutdownHook);
     }
 
+    private final PoolingHttpClientConnectionManager connectionManager;
+
     private final CloseableHttpClient httpClient;
 
+    private volatile long keepAlive = -1;
+
+    private ScheduledExecutorService idleConnectionEvictor;
+
+    private ScheduledFuture<?> idleConnectionEviction;
+
     public HttpClientHandler() {
+        this.connectionManager = createConnectionManager();
         this.httpClient = buildUnderlyingClient();
     }
 
     private CloseableHttpClient buildUnderlyingClient() {
         return HttpClients.custom()
-                .setConnectionManager(createConnectionManager())
+                .setConnectionManager(connectionManager)
+                .setKeepAliveStrategy(new ConnectionKeepAliveStrategy() {
+                    public long getKeepAliveDuration(HttpResponse response, HttpContext context) {
+                        long duration = DefaultConnectionKeepAliveStrategy.INSTANCE
+                                .getKeepAliveDuration(response, context);
+                        long max = keepAlive;
+                        return max >= 0 && (duration < 0 || duration > max) ? max : duration;
+                    }
+                })
                 .setRoutePlanner(createProxyRoutePlanner())
                 .setUserAgent(this.getUserAgent())
                 .setDefaultAuthSchemeRegistry(createAuthSchemeRegistry())
@@ -121,10 +151,53 @@ public class HttpClientHandler extends AbstractURLHandler implements TimeoutCons
                 .build();
     }
 
-    private static HttpClientConnectionManager createConnectionManager() {
+    private static PoolingHttpClientConnectionManager createConnectionManager() {
         return new PoolingHttpClientConnectionManager();
     }
 
+    public void setMaxConnections(int maxConnections) {
+        connectionManager.setMaxTotal(maxConnections);
+    }
+
+    public void setMaxConnectionsPerRoute(int maxConnectionsPerRoute) {
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+    }
+
+    public void setKeepAlive(long keepAlive) {
+        this.keepAlive = keepAlive;
+    }
+
+    public synchronized void setIdleTimeout(final long idleTimeout) {
+        if (idleConnectionEviction != null) {
+            idleConnectionEviction.cancel(false);
+            idleConnectionEviction = null;
+        }
+        if (idleTimeout <= 0) {
+            return;
+        }
+        if (idleConnectionEvictor == null) {
+            idleConnectionEvictor = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactory() {
+                    public Thread newThread(Runnable r) {
+                        Thread t = new Thread(r, "ivy-httpclient-idle-connection-evictor");
+                        t.setDaemon(true);
+                        return t;
+                    }
+                });
+        }
+        long interval = Math.max(idleTimeout / 2, MIN_IDLE_CHECK_INTERVAL);
+        idleConnectionEviction = idleConnectionEvictor.scheduleWithFixedDelay(new Runnable() {
+            public void run() {
+                connectionManager.closeExpiredConnections();
+                connectionManager.closeIdleConnections(idleTimeout, TimeUnit.MILLISECONDS);
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    PoolStats getConnectionPoolStats() {
+        return connectionManager.getTotalStats();
+    }
+
     private static List<String> getAuthSchemePreferredOrder() {
         return Arrays.asList(AuthSchemes.DIGEST, AuthSchemes.BASIC, AuthSchemes.NTLM);
     }
@@ -144,6 +217,51 @@ public class HttpClientHandler extends AbstractURLHandler implements TimeoutCons
         return getDecodingInputStream(encoding == null ? null : encoding.getValue(), response.getEntity().getContent());
     }
 
+    @Override
+    public Response openConditionalStream(final URL url, final String etag, final long lastModified,
+                                          final TimeoutConstraint timeoutConstraint) throws IOException {
+        final int connectionTimeout = (timeoutConstraint == null || timeoutConstraint.getConnectionTimeout() < 0) ? 0 : timeoutConstraint.getConnectionTimeout();
+        final int readTimeout = (timeoutConstraint == null || timeoutConstraint.getReadTimeout() < 0) ? 0 : timeoutConstraint.getReadTimeout();
+        final HttpGet httpGet = createGet(url, connectionTimeout, readTimeout);
+        if (etag != null) {
+            httpGet.addHeader("If-None-Match", etag);
+        }
+        if (lastModified > 0) {
+            httpGet.addHeader("If-Modified-Since", DateUtils.formatDate(new Date(lastModified)));
+        }
+        final CloseableHttpResponse response = this.httpClient.execute(httpGet);
+        try {
+            if (response.getStatusLine().getStatusCode() == HttpStatus.SC_NOT_MODIFIED) {
+                response.close();
+                return Response.NOT_MODIFIED;
+            }
+            if (response.getStatusLine().getStatusCode() >= HttpStatus.SC_INTERNAL_SERVER_ERROR) {
+                // may be transient, so not reported as unavailable
+                requireSuccessStatus(HttpGet.METHOD_NAME, url, response);
+            }
+            if (!checkStatusCode(HttpGet.METHOD_NAME, url, response)) {
+                response.close();
+                return Response.UNAVAILABLE;
+            }
+            final HttpEntity entity = response.getEntity();
+            final Charset charSet = ContentType.getOrDefault(entity).getCharset();
+            final Header etagHeader = response.getFirstHeader("ETag");
+            final Header lastModifiedHeader = response.getFirstHeader("Last-Modified");
+            final Date lastModifiedDate = lastModifiedHeader == null ? null
+                    : DateUtils.parseDate(lastModifiedHeader.getValue());
+            final Header encoding = this.getContentEncoding(response);
+            // closing the content stream releases the connection
+            return new Response(getDecodingInputStream(encoding == null ? null
+                    : encoding.getValue(), entity.getContent()),
+                    etagHeader == null ? null : etagHeader.getValue(),
+                    lastModifiedDate == null ? 0 : lastModifiedDate.getTime(),
+                    charSet == null ? null : charSet.name());
+        } catch (IOException | RuntimeException e) {
+            response.close();
+            throw e;
+        }
+    }
+
     @Override
     public void download(final URL src, final File dest, final CopyProgressListener l) throws IOException {
         this.download(src, dest, l, null);
@@ -324,6 +442,10 @@ public class HttpClientHandler extends AbstractURLHandler implements TimeoutCons
     }
 
     private CloseableHttpResponse doGet(final URL url, final int connectionTimeout, final int readTimeout) throws IOException {
+        return this.httpClient.execute(createGet(url, connectionTimeout, readTimeout));
+    }
+
+    private HttpGet createGet(final URL url, final int connectionTimeout, final int readTimeout) throws IOException {
         final RequestConfig requestConfig = RequestConfig.custom().setSocketTimeout(readTimeout)
                 .setConnectTimeout(connectionTimeout)
                 .setAuthenticationEnabled(hasCredentialsConfigured(url))
@@ -333,7 +455,7 @@ public class HttpClientHandler extends AbstractURLHandler implements TimeoutCons
         final HttpGet httpGet = new HttpGet(normalizeToString(url));
         httpGet.setConfig(requestConfig);
         httpGet.addHeader("Accept-Encoding", "gzip,deflate");
-        return this.httpClient.execute(httpGet);
+        return httpGet;
     }
 
     private CloseableHttpResponse doHead(final URL url, final int connectionTimeout, final int readTimeout) throws IOException {
@@ -354,6 +476,13 @@ public class HttpClientHandler extends AbstractURLHandler implements TimeoutCons
 
     @Override
     public void close() throws Exception {
+        synchronized (this) {
+            if (idleConnectionEvictor != null) {
+                idleConnectionEvictor.shutdownNow();
+                idleConnectionEvictor = null;
+                idleConnectionEviction = null;
+            }
+        }
         if (this.httpClient != null) {
             this.httpClient.close();
         }
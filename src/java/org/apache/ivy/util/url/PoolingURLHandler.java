@@ -0,0 +1,52 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.util.url;
+
+/**
+ * A {@link TimeoutConstrainedURLHandler} which keeps a pool of connections to reuse them across requests, and
+ * whose pool can be tuned.
+ */
+public interface PoolingURLHandler extends TimeoutConstrainedURLHandler {
+
+    /**
+     * @param maxConnections
+     *            the maximum number of connections kept open, whatever their host
+     */
+    void setMaxConnections(int maxConnections);
+
+    /**
+     * @param maxConnectionsPerRoute
+     *            the maximum number of connections kept open to the same host
+     */
+    void setMaxConnectionsPerRoute(int maxConnectionsPerRoute);
+
+    /**
+     * @param keepAlive
+     *            the maximum time in milliseconds a connection is kept open to be reused, when
+     *            the server doesn't ask for a shorter time, or a negative value to rely on the
+     *            server only
+     */
+    void setKeepAlive(long keepAlive);
+
+    /**
+     * @param idleTimeout
+     *            the time in milliseconds after which a connection which hasn't been used is
+     *            closed, or 0 or less to never close idle connections
+     */
+    void setIdleTimeout(long idleTimeout);
+}
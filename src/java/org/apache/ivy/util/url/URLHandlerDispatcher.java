@@ -32,7 +32,7 @@ import java.util.Map;
  * and a fallback default {@link URLHandler} for dealing with downloads, uploads and
  * general reachability checks
  */
-public class URLHandlerDispatcher implements TimeoutConstrainedURLHandler {
+public class URLHandlerDispatcher implements TimeoutConstrainedURLHandler, ConditionalURLHandler {
     @SuppressWarnings("deprecation")
     private final Map<String, URLHandler> handlers = new HashMap<>();
 
@@ -139,6 +139,13 @@ public class URLHandlerDispatcher implements TimeoutConstrainedURLHandler {
         return handler.openStream(url);
     }
 
+    @Override
+    public Response openConditionalStream(final URL url, final String etag, final long lastModified,
+                                          final TimeoutConstraint timeoutConstraint) throws IOException {
+        return ConditionalURLHandler.openConditionalStream(this.getHandler(url.getProtocol()), url,
+                etag, lastModified, timeoutConstraint);
+    }
+
     @Override
     public void download(final URL src, final File dest, final CopyProgressListener l) throws IOException {
         this.download(src, dest, l, null);
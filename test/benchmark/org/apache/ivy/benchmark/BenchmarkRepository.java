@@ -0,0 +1,179 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.apache.ivy.util.FileUtil;
+
+/**
+ * Generates a local file system repository used as a fixture by the benchmarks.
+ * <p>
+ * The repository holds <code>modules</code> modules of the <code>org.bench</code> organisation,
+ * each one published with an Ivy file, a pom and a jar. Module <code>i</code> depends on the
+ * <code>fanout</code> modules following it, so that resolving the first module visits the whole
+ * repository, with many dependencies reached through several paths.
+ * </p>
+ */
+public final class BenchmarkRepository {
+    public static final String ORGANISATION = "org.bench";
+
+    public static final String REVISION = "1.0";
+
+    private final File root;
+
+    private final int modules;
+
+    private final int fanout;
+
+    public BenchmarkRepository(File root, int modules, int fanout) {
+        this.root = root;
+        this.modules = modules;
+        this.fanout = fanout;
+    }
+
+    public static String getModuleName(int i) {
+        return "mod" + i;
+    }
+
+    public File getRoot() {
+        return root;
+    }
+
+    public File getRepositoryDir() {
+        return new File(root, "repository");
+    }
+
+    public File getCacheDir() {
+        return new File(root, "cache");
+    }
+
+    public File getSettingsFile() {
+        return new File(root, "ivysettings.xml");
+    }
+
+    public File getIvyFile(int i) {
+        return new File(getModuleDir(i), "ivy-" + REVISION + ".xml");
+    }
+
+    public File getPomFile(int i) {
+        return new File(getModuleDir(i), getModuleName(i) + "-" + REVISION + ".pom");
+    }
+
+    private File getModuleDir(int i) {
+        return new File(getRepositoryDir(), ORGANISATION + "/" + getModuleName(i) + "/" + REVISION);
+    }
+
+    /**
+     * Deletes the fixture directory and generates the repository and its settings again.
+     *
+     * @return this repository
+     * @throws IOException
+     *             if a file can't be written
+     */
+    public BenchmarkRepository generate() throws IOException {
+        FileUtil.forceDelete(root);
+        for (int i = 0; i < modules; i++) {
+            writeIvyFile(i);
+            writePom(i);
+            File jar = new File(getModuleDir(i), getModuleName(i) + "-" + REVISION + ".jar");
+            Files.write(jar.toPath(), new byte[1024]);
+        }
+        try (Writer out = newWriter(getSettingsFile())) {
+            out.write("<ivysettings>\n");
+            out.write("  <settings defaultResolver=\"bench\"/>\n");
+            out.write("  <caches defaultCacheDir=\"" + getCacheDir().getAbsolutePath() + "\"/>\n");
+            out.write("  <resolvers>\n");
+            out.write("    <filesystem name=\"bench\">\n");
+            String pattern = getRepositoryDir().getAbsolutePath()
+                    + "/[organisation]/[module]/[revision]/";
+            out.write("      <ivy pattern=\"" + pattern + "ivy-[revision].xml\"/>\n");
+            out.write("      <artifact pattern=\"" + pattern
+                    + "[artifact]-[revision].[ext]\"/>\n");
+            out.write("    </filesystem>\n");
+            out.write("  </resolvers>\n");
+            out.write("</ivysettings>\n");
+        }
+        return this;
+    }
+
+    public void deleteCache() {
+        FileUtil.forceDelete(getCacheDir());
+    }
+
+    public void delete() {
+        FileUtil.forceDelete(root);
+    }
+
+    private void writeIvyFile(int i) throws IOException {
+        try (Writer out = newWriter(getIvyFile(i))) {
+            out.write("<ivy-module version=\"2.0\">\n");
+            out.write("  <info organisation=\"" + ORGANISATION + "\" module=\"" + getModuleName(i)
+                    + "\" revision=\"" + REVISION + "\" status=\"release\"/>\n");
+            out.write("  <configurations>\n");
+            out.write("    <conf name=\"default\"/>\n");
+            out.write("    <conf name=\"test\" extends=\"default\" visibility=\"private\"/>\n");
+            out.write("  </configurations>\n");
+            out.write("  <publications>\n");
+            out.write("    <artifact name=\"" + getModuleName(i) + "\" type=\"jar\"/>\n");
+            out.write("  </publications>\n");
+            out.write("  <dependencies>\n");
+            for (int dep = i + 1; dep <= i + fanout && dep < modules; dep++) {
+                out.write("    <dependency org=\"" + ORGANISATION + "\" name=\""
+                        + getModuleName(dep) + "\" rev=\"" + REVISION
+                        + "\" conf=\"default->default\"/>\n");
+            }
+            out.write("  </dependencies>\n");
+            out.write("</ivy-module>\n");
+        }
+    }
+
+    private void writePom(int i) throws IOException {
+        try (Writer out = newWriter(getPomFile(i))) {
+            out.write("<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n");
+            out.write("  <modelVersion>4.0.0</modelVersion>\n");
+            out.write("  <groupId>" + ORGANISATION + "</groupId>\n");
+            out.write("  <artifactId>" + getModuleName(i) + "</artifactId>\n");
+            out.write("  <version>" + REVISION + "</version>\n");
+            out.write("  <properties>\n");
+            out.write("    <bench.version>" + REVISION + "</bench.version>\n");
+            out.write("  </properties>\n");
+            out.write("  <dependencies>\n");
+            for (int dep = i + 1; dep <= i + fanout && dep < modules; dep++) {
+                out.write("    <dependency>\n");
+                out.write("      <groupId>" + ORGANISATION + "</groupId>\n");
+                out.write("      <artifactId>" + getModuleName(dep) + "</artifactId>\n");
+                out.write("      <version>${bench.version}</version>\n");
+                out.write("    </dependency>\n");
+            }
+            out.write("  </dependencies>\n");
+            out.write("</project>\n");
+        }
+    }
+
+    private static Writer newWriter(File file) throws IOException {
+        file.getParentFile().mkdirs();
+        return new OutputStreamWriter(Files.newOutputStream(file.toPath()),
+                StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.benchmark;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ivy.core.module.id.ModuleId;
+import org.apache.ivy.core.module.id.ModuleRevisionId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the interning of module revision ids with the synchronized {@link WeakHashMap} it
+ * used to rely on, under 1, 4 and 16 threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InternBenchmark {
+    private static final int DISTINCT_IDS = 1000;
+
+    /**
+     * The interning done before, kept as a baseline.
+     */
+    @State(Scope.Benchmark)
+    public static class SynchronizedInterner {
+        private final Map<ModuleRevisionId, WeakReference<ModuleRevisionId>> cache =
+                new WeakHashMap<>();
+
+        public ModuleRevisionId intern(ModuleRevisionId moduleRevisionId) {
+            ModuleRevisionId r = null;
+            synchronized (cache) {
+                WeakReference<ModuleRevisionId> ref = cache.get(moduleRevisionId);
+                if (ref != null) {
+                    r = ref.get();
+                }
+                if (r == null) {
+                    r = moduleRevisionId;
+                    cache.put(r, new WeakReference<>(r));
+                }
+            }
+            return r;
+        }
+    }
+
+    /**
+     * Module revision ids equal to the interned ones, but not interned themselves, as created by
+     * the parsers before they intern them.
+     */
+    @State(Scope.Thread)
+    public static class Ids {
+        private ModuleRevisionId[] ids;
+
+        private int next;
+
+        @Setup
+        public void setUp() {
+            ids = new ModuleRevisionId[DISTINCT_IDS];
+            for (int i = 0; i < DISTINCT_IDS; i++) {
+                ids[i] = new ModuleRevisionId(new ModuleId(BenchmarkRepository.ORGANISATION,
+                        BenchmarkRepository.getModuleName(i)), BenchmarkRepository.REVISION);
+            }
+        }
+
+        private ModuleRevisionId next() {
+            next = (next + 1) % ids.length;
+            return ids[next];
+        }
+    }
+
+    @Benchmark
+    @Threads(1)
+    public ModuleRevisionId intern1(Ids ids) {
+        return ModuleRevisionId.intern(ids.next());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public ModuleRevisionId intern4(Ids ids) {
+        return ModuleRevisionId.intern(ids.next());
+    }
+
+    @Benchmark
+    @Threads(16)
+    public ModuleRevisionId intern16(Ids ids) {
+        return ModuleRevisionId.intern(ids.next());
+    }
+
+    @Benchmark
+    @Threads(1)
+    public ModuleRevisionId synchronizedIntern1(Ids ids, SynchronizedInterner interner) {
+        return interner.intern(ids.next());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public ModuleRevisionId synchronizedIntern4(Ids ids, SynchronizedInterner interner) {
+        return interner.intern(ids.next());
+    }
+
+    @Benchmark
+    @Threads(16)
+    public ModuleRevisionId synchronizedIntern16(Ids ids, SynchronizedInterner interner) {
+        return interner.intern(ids.next());
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.benchmark;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ivy.core.IvyPatternHelper;
+import org.apache.ivy.core.module.descriptor.Artifact;
+import org.apache.ivy.core.module.descriptor.DefaultArtifact;
+import org.apache.ivy.core.module.id.ModuleRevisionId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the substitution of patterns, done for each resource looked up in a repository and
+ * each file of the cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IvyPatternHelperBenchmark {
+    private static final String ARTIFACT_PATTERN = "[organisation]/[module](/[branch])/[type]s/"
+            + "[artifact]-[revision](-[classifier])(.[ext])";
+
+    private static final String VARIABLES_PATTERN = "${ivy.cache.dir}/${bench.layout}/"
+            + "[organisation]/[module]";
+
+    private Artifact artifact;
+
+    private Map<String, String> variables;
+
+    @Setup
+    public void setUp() {
+        ModuleRevisionId mrid = ModuleRevisionId.newInstance(BenchmarkRepository.ORGANISATION,
+            BenchmarkRepository.getModuleName(0), BenchmarkRepository.REVISION);
+        artifact = new DefaultArtifact(mrid, null, mrid.getName(), "jar", "jar",
+                Collections.singletonMap("classifier", "sources"));
+        variables = new HashMap<>();
+        variables.put("ivy.cache.dir", "/home/user/.ivy2/cache");
+        variables.put("bench.layout", "default");
+    }
+
+    @Benchmark
+    public String substituteArtifactPattern() {
+        return IvyPatternHelper.substitute(ARTIFACT_PATTERN, artifact);
+    }
+
+    @Benchmark
+    public String substituteVariables() {
+        return IvyPatternHelper.substituteVariables(VARIABLES_PATTERN, variables);
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.benchmark;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ivy.plugins.latest.ArtifactInfo;
+import org.apache.ivy.plugins.latest.LatestRevisionStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the comparison of revisions by the latest-revision strategy, used to sort the
+ * revisions listed in repositories and to solve conflicts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LatestRevisionStrategyBenchmark {
+    private static final String[] QUALIFIERS = {"", "-SNAPSHOT", "-rc1", "-alpha", "-beta2",
+            ".final", "-dev", "+build.5"};
+
+    @Param({"10", "1000"})
+    public int revisions;
+
+    private LatestRevisionStrategy strategy;
+
+    private ArtifactInfo[] infos;
+
+    @Setup
+    public void setUp() {
+        strategy = new LatestRevisionStrategy();
+        // a fixed seed, so that all the runs compare the same revisions
+        Random random = new Random(revisions);
+        infos = new ArtifactInfo[revisions];
+        for (int i = 0; i < revisions; i++) {
+            infos[i] = new Revision(random.nextInt(5) + "." + random.nextInt(20) + "."
+                    + random.nextInt(100) + QUALIFIERS[random.nextInt(QUALIFIERS.length)]);
+        }
+    }
+
+    @Benchmark
+    public List<ArtifactInfo> sort() {
+        return strategy.sort(infos.clone());
+    }
+
+    @Benchmark
+    public ArtifactInfo findLatest() {
+        return strategy.findLatest(infos, null);
+    }
+
+    private static final class Revision implements ArtifactInfo {
+        private final String revision;
+
+        private Revision(String revision) {
+            this.revision = revision;
+        }
+
+        public String getRevision() {
+            return revision;
+        }
+
+        public long getLastModified() {
+            return 0;
+        }
+    }
+}
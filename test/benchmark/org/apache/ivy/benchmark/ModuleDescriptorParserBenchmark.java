@@ -0,0 +1,88 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.text.ParseException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ivy.core.module.descriptor.ModuleDescriptor;
+import org.apache.ivy.core.settings.IvySettings;
+import org.apache.ivy.plugins.parser.m2.PomModuleDescriptorParser;
+import org.apache.ivy.plugins.parser.xml.XmlModuleDescriptorParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the parsing of Ivy files and poms, without validation, as done when the module
+ * descriptors are not in the memory cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModuleDescriptorParserBenchmark {
+    @Param({"5", "50"})
+    public int dependencies;
+
+    private BenchmarkRepository repository;
+
+    private IvySettings settings;
+
+    private URL ivyFile;
+
+    private URL pomFile;
+
+    @Setup
+    public void setUp() throws IOException {
+        repository = new BenchmarkRepository(new File("build/benchmark/parser-" + dependencies),
+                dependencies + 1, dependencies).generate();
+        settings = new IvySettings();
+        ivyFile = repository.getIvyFile(0).toURI().toURL();
+        pomFile = repository.getPomFile(0).toURI().toURL();
+    }
+
+    @TearDown
+    public void tearDown() {
+        repository.delete();
+    }
+
+    @Benchmark
+    public ModuleDescriptor parseIvyFile() throws ParseException, IOException {
+        return XmlModuleDescriptorParser.getInstance().parseDescriptor(settings, ivyFile, false);
+    }
+
+    @Benchmark
+    public ModuleDescriptor parsePom() throws ParseException, IOException {
+        return PomModuleDescriptorParser.getInstance().parseDescriptor(settings, pomFile, false);
+    }
+}
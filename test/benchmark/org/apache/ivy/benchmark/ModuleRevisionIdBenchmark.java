@@ -0,0 +1,82 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.benchmark;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ivy.core.module.id.ModuleRevisionId;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the creation of module revision ids, which are created, and interned, for each
+ * dependency, artifact and cache lookup.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModuleRevisionIdBenchmark {
+    @Param({"100", "10000"})
+    public int distinctModules;
+
+    private String[] names;
+
+    private Map<String, String> extraAttributes;
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        names = new String[distinctModules];
+        for (int i = 0; i < distinctModules; i++) {
+            names[i] = BenchmarkRepository.getModuleName(i);
+        }
+        extraAttributes = Collections.singletonMap("classifier", "sources");
+    }
+
+    @Benchmark
+    public ModuleRevisionId newInstance() {
+        return ModuleRevisionId.newInstance(BenchmarkRepository.ORGANISATION, nextName(),
+            BenchmarkRepository.REVISION);
+    }
+
+    @Benchmark
+    public ModuleRevisionId newInstanceWithExtraAttributes() {
+        return ModuleRevisionId.newInstance(BenchmarkRepository.ORGANISATION, nextName(),
+            "trunk", BenchmarkRepository.REVISION, extraAttributes);
+    }
+
+    private String nextName() {
+        next = (next + 1) % names.length;
+        return names[next];
+    }
+}
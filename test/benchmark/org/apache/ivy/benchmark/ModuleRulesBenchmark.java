@@ -0,0 +1,94 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ivy.core.IvyPatternHelper;
+import org.apache.ivy.core.module.id.ModuleId;
+import org.apache.ivy.core.module.id.ModuleRules;
+import org.apache.ivy.plugins.matcher.ExactPatternMatcher;
+import org.apache.ivy.plugins.matcher.GlobPatternMatcher;
+import org.apache.ivy.plugins.matcher.MapMatcher;
+import org.apache.ivy.plugins.matcher.PatternMatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the lookup of the rules applying to modules, as done with the module settings of
+ * large settings files, made of exact rules and of a few pattern rules.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModuleRulesBenchmark {
+    @Param({"10", "1000"})
+    public int rules;
+
+    private ModuleRules<String> moduleRules;
+
+    private ModuleId[] modules;
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        moduleRules = new ModuleRules<>();
+        for (int i = 0; i < rules; i++) {
+            if (i % 10 == 0) {
+                moduleRules.defineRule(matcher("org" + i + "*", "*", GlobPatternMatcher.INSTANCE),
+                    "pattern" + i);
+            } else {
+                moduleRules.defineRule(matcher("org" + i, "mod" + i, ExactPatternMatcher.INSTANCE),
+                    "exact" + i);
+            }
+        }
+        modules = new ModuleId[100];
+        for (int i = 0; i < modules.length; i++) {
+            int rule = i * rules / modules.length;
+            modules[i] = ModuleId.newInstance("org" + rule, "mod" + rule);
+        }
+    }
+
+    @Benchmark
+    public String getRule() {
+        next = (next + 1) % modules.length;
+        return moduleRules.getRule(modules[next]);
+    }
+
+    private static MapMatcher matcher(String org, String module, PatternMatcher pm) {
+        Map<String, String> attributes = new HashMap<>();
+        attributes.put(IvyPatternHelper.ORGANISATION_KEY, org);
+        attributes.put(IvyPatternHelper.MODULE_KEY, module);
+        return new MapMatcher(attributes, pm);
+    }
+}
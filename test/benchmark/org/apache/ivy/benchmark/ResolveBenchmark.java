@@ -0,0 +1,98 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.text.ParseException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ivy.Ivy;
+import org.apache.ivy.core.LogOptions;
+import org.apache.ivy.core.report.ResolveReport;
+import org.apache.ivy.core.resolve.ResolveOptions;
+import org.apache.ivy.util.DefaultMessageLogger;
+import org.apache.ivy.util.Message;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the resolve of a module whose dependencies are all in the cache already, which is
+ * what most builds do most of the time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ResolveBenchmark {
+    @Param({"50", "200"})
+    public int modules;
+
+    @Param({"5"})
+    public int fanout;
+
+    @Param({"false", "true"})
+    public boolean resolveCache;
+
+    private BenchmarkRepository repository;
+
+    private Ivy ivy;
+
+    private ResolveOptions options;
+
+    @Setup
+    public void setUp() throws ParseException, IOException {
+        repository = new BenchmarkRepository(new File("build/benchmark/resolve-" + modules + "-"
+                + fanout), modules, fanout).generate();
+        ivy = Ivy.newInstance();
+        ivy.getLoggerEngine().setDefaultLogger(new DefaultMessageLogger(Message.MSG_ERR));
+        ivy.configure(repository.getSettingsFile());
+        ivy.getSettings().setVariable("ivy.resolve.cache", String.valueOf(resolveCache));
+        options = new ResolveOptions();
+        options.setConfs(new String[] {"default"});
+        options.setLog(LogOptions.LOG_QUIET);
+        // fills the cache
+        resolve();
+    }
+
+    @TearDown
+    public void tearDown() {
+        repository.delete();
+    }
+
+    @Benchmark
+    public ResolveReport resolve() throws ParseException, IOException {
+        ResolveReport report = ivy.resolve(repository.getIvyFile(0), options);
+        if (report.hasError()) {
+            throw new IllegalStateException("resolve failed: " + report.getAllProblemMessages());
+        }
+        return report;
+    }
+}
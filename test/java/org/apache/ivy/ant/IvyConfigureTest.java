@@ -18,6 +18,7 @@
 package org.apache.ivy.ant;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertSame;
@@ -326,4 +327,19 @@ public class IvyConfigureTest {
         assertEquals("Unexpected number of custom status in parsed Ivy settings", 1, statuses.size());
         assertEquals("Custom status not found in the parsed Ivy settings", "ivy-1555", statuses.get(0).getName());
     }
+
+    /**
+     * The thread dispatching the events must not outlive the build.
+     */
+    @Test
+    public void testAsyncDispatchStoppedWhenBuildFinished() {
+        project.setProperty("ivy.events.async", "true");
+        configure.setFile(new File("test/repositories/ivysettings.xml"));
+        configure.execute();
+
+        Ivy ivy = getIvyInstance();
+        assertTrue(ivy.getEventManager().isAsyncDispatch());
+        project.fireBuildFinished(null);
+        assertFalse(ivy.getEventManager().isAsyncDispatch());
+    }
 }
@@ -0,0 +1,162 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.core.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.text.ParseException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import org.apache.ivy.core.module.descriptor.DefaultModuleDescriptor;
+import org.apache.ivy.core.module.descriptor.DependencyDescriptor;
+import org.apache.ivy.core.module.descriptor.ModuleDescriptor;
+import org.apache.ivy.core.module.id.ModuleId;
+import org.apache.ivy.core.settings.IvySettings;
+import org.apache.ivy.plugins.parser.xml.XmlModuleDescriptorParser;
+import org.apache.ivy.plugins.parser.xml.XmlModuleDescriptorWriter;
+import org.apache.ivy.util.FileUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class BinaryDescriptorFileTest {
+    private File dir;
+
+    private IvySettings settings;
+
+    @Before
+    public void setUp() {
+        dir = new File("build/test/binary-descriptors");
+        FileUtil.forceDelete(dir);
+        dir.mkdirs();
+        settings = new IvySettings();
+    }
+
+    @After
+    public void tearDown() {
+        FileUtil.forceDelete(dir);
+    }
+
+    @Test
+    public void testWriteAndRead() throws Exception {
+        File ivyFile = copy("test/java/org/apache/ivy/plugins/parser/xml/test.xml");
+        ModuleDescriptor md = parseAndWrite(ivyFile, false,
+            Collections.<String, String> emptyMap());
+        assertTrue(BinaryDescriptorFile.getFile(ivyFile).length() < ivyFile.length());
+
+        ModuleDescriptor read = BinaryDescriptorFile.read(ivyFile,
+            XmlModuleDescriptorParser.getInstance(), settings, false);
+        assertNotNull(read);
+        assertEquals(toIvyFile(md), toIvyFile(read));
+        assertEquals(md.getResolvedPublicationDate(), read.getResolvedPublicationDate());
+        assertEquals(md.getLastModified(), read.getLastModified());
+        assertEquals(md.getMetadataArtifact(), read.getMetadataArtifact());
+        assertEquals(md.getResource().getName(), read.getResource().getName());
+        assertEquals(md.getAllExcludeRules().length, read.getAllExcludeRules().length);
+        ModuleId mid = new ModuleId("theirorg", "theirmodule1");
+        assertEquals(((DefaultModuleDescriptor) md).getConflictManager(mid).getName(),
+            ((DefaultModuleDescriptor) read).getConflictManager(mid).getName());
+        for (int i = 0; i < md.getDependencies().length; i++) {
+            DependencyDescriptor dd = md.getDependencies()[i];
+            DependencyDescriptor readDd = read.getDependencies()[i];
+            for (String conf : md.getConfigurationsNames()) {
+                assertArrayEquals(dd.getDependencyConfigurations(conf),
+                    readDd.getDependencyConfigurations(conf));
+                assertArrayEquals(dd.getExcludeRules(conf), readDd.getExcludeRules(conf));
+            }
+        }
+    }
+
+    @Test
+    public void testOutdated() throws Exception {
+        File ivyFile = copy("test/java/org/apache/ivy/plugins/parser/xml/test.xml");
+        settings.setVariable("myvar", "value1");
+        parseAndWrite(ivyFile, false, Collections.singletonMap("${myvar}", "value1"));
+        assertNotNull(read(ivyFile, false));
+
+        // the file has been parsed without validation
+        assertNull(read(ivyFile, true));
+
+        // a variable used while parsing has changed
+        settings.setVariable("myvar", "value2");
+        assertNull(read(ivyFile, false));
+        settings.setVariable("myvar", "value1");
+
+        // the Ivy file has changed
+        assertTrue(ivyFile.setLastModified(ivyFile.lastModified() + 2000));
+        assertNull(read(ivyFile, false));
+    }
+
+    @Test
+    public void testUnsupportedDescriptor() throws Exception {
+        // the artifacts are added to a configuration group
+        File ivyFile = copy("test/repositories/2/mod5.1/ivy-4.5.xml");
+        ModuleDescriptor md = XmlModuleDescriptorParser.getInstance().parseDescriptor(settings,
+            ivyFile.toURI().toURL(), false);
+        assertFalse(BinaryDescriptorFile.write(ivyFile, ivyFile.length(),
+            BinaryDescriptorFile.getLastModified(ivyFile), false, md, settings,
+            Collections.<String, String> emptyMap()));
+        assertFalse(BinaryDescriptorFile.getFile(ivyFile).exists());
+    }
+
+    @Test
+    public void testCorruptedFile() throws Exception {
+        File ivyFile = copy("test/java/org/apache/ivy/plugins/parser/xml/test.xml");
+        parseAndWrite(ivyFile, true, Collections.<String, String> emptyMap());
+        File file = BinaryDescriptorFile.getFile(ivyFile);
+        byte[] data = Files.readAllBytes(file.toPath());
+        Files.write(file.toPath(), Arrays.copyOf(data, data.length / 2));
+        assertNull(read(ivyFile, true));
+    }
+
+    private ModuleDescriptor parseAndWrite(File ivyFile, boolean validate,
+            Map<String, String> substitutes) throws ParseException, IOException {
+        ModuleDescriptor md = XmlModuleDescriptorParser.getInstance().parseDescriptor(settings,
+            ivyFile.toURI().toURL(), validate);
+        assertTrue(BinaryDescriptorFile.write(ivyFile, ivyFile.length(),
+            BinaryDescriptorFile.getLastModified(ivyFile), validate, md, settings, substitutes));
+        return md;
+    }
+
+    private ModuleDescriptor read(File ivyFile, boolean validate) {
+        return BinaryDescriptorFile.read(ivyFile, XmlModuleDescriptorParser.getInstance(),
+            settings, validate);
+    }
+
+    private File copy(String path) throws IOException {
+        File ivyFile = new File(dir, "ivy-1.0.xml");
+        FileUtil.copy(new File(path), ivyFile, null);
+        return ivyFile;
+    }
+
+    private String toIvyFile(ModuleDescriptor md) throws IOException {
+        File file = new File(dir, "written.xml");
+        XmlModuleDescriptorWriter.write(md, file);
+        return new String(Files.readAllBytes(file.toPath()), "UTF-8");
+    }
+}
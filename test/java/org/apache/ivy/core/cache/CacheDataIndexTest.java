@@ -0,0 +1,159 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.core.cache;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Collections;
+
+import org.apache.ivy.util.FileUtil;
+import org.apache.ivy.util.PropertiesFile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class CacheDataIndexTest {
+    private File cacheRoot;
+
+    private File indexFile;
+
+    @Before
+    public void setUp() {
+        cacheRoot = new File("build/test/cache");
+        FileUtil.forceDelete(cacheRoot);
+        indexFile = new File(cacheRoot, CacheDataIndex.INDEX_FILE_NAME);
+    }
+
+    @After
+    public void tearDown() {
+        FileUtil.forceDelete(cacheRoot);
+    }
+
+    @Test
+    public void testImportDataFile() {
+        File dataFile = new File(cacheRoot, "org/mod/ivydata-1.0.properties");
+        PropertiesFile legacy = new PropertiesFile(dataFile, "test");
+        legacy.setProperty("resolver", "resolver1");
+        legacy.save();
+
+        CacheDataIndex index = new CacheDataIndex(indexFile);
+        PropertiesFile data = index.open("org/mod/ivydata-1.0.properties", dataFile, "test");
+        assertEquals("resolver1", data.getProperty("resolver"));
+
+        // the data is now read from the index only
+        assertTrue(dataFile.delete());
+        data = new CacheDataIndex(indexFile).open("org/mod/ivydata-1.0.properties", dataFile,
+            "test");
+        assertEquals("resolver1", data.getProperty("resolver"));
+    }
+
+    @Test
+    public void testSeeRecordsAppendedByOthers() {
+        CacheDataIndex index1 = new CacheDataIndex(indexFile);
+        CacheDataIndex index2 = new CacheDataIndex(indexFile);
+        assertNull(index2.get("key"));
+
+        index1.put("key", Collections.singletonMap("resolved.revision", "1.0"));
+        assertEquals("1.0", index2.get("key").get("resolved.revision"));
+
+        index1.put("key", Collections.singletonMap("resolved.revision", "1.1"));
+        assertEquals("1.1", index2.get("key").get("resolved.revision"));
+    }
+
+    @Test
+    public void testCompaction() {
+        CacheDataIndex index = new CacheDataIndex(indexFile);
+        index.put("other", Collections.singletonMap("resolver", "resolver1"));
+        for (int i = 0; i < 2000; i++) {
+            index.put("key", Collections.singletonMap("resolved.revision", String.valueOf(i)));
+        }
+        assertTrue(indexFile.length() < 100 * 1000);
+
+        CacheDataIndex other = new CacheDataIndex(indexFile);
+        assertEquals("1999", other.get("key").get("resolved.revision"));
+        assertEquals("resolver1", other.get("other").get("resolver"));
+    }
+
+    @Test
+    public void testRemove() {
+        CacheDataIndex index1 = new CacheDataIndex(indexFile);
+        CacheDataIndex index2 = new CacheDataIndex(indexFile);
+        index1.put("key", Collections.singletonMap("time", "1"));
+        assertEquals("1", index2.get("key").get("time"));
+
+        index2.remove("key");
+        assertNull(index1.get("key"));
+        assertNull(new CacheDataIndex(indexFile).get("key"));
+    }
+
+    @Test
+    public void testCompactionDropsExpiredData() {
+        CacheDataIndex index = new CacheDataIndex(indexFile);
+        String expired = String.valueOf(System.currentTimeMillis() - 1000);
+        String valid = String.valueOf(Long.MAX_VALUE);
+        index.put("valid", Collections.singletonMap(CacheDataIndex.EXPIRES_KEY, valid));
+        for (int i = 0; i < 1000; i++) {
+            index.put("expired" + i, Collections.singletonMap(CacheDataIndex.EXPIRES_KEY,
+                expired));
+        }
+
+        CacheDataIndex other = new CacheDataIndex(indexFile);
+        assertNull(other.get("expired0"));
+        assertNull(other.get("expired998"));
+        assertEquals(valid, other.get("valid").get(CacheDataIndex.EXPIRES_KEY));
+    }
+
+    /**
+     * A reader which has read the log before another one compacted it must read it again, even
+     * when the compacted log has grown beyond the offset it had reached.
+     */
+    @Test
+    public void testReadAgainAfterCompactionByOthers() {
+        CacheDataIndex index1 = new CacheDataIndex(indexFile);
+        CacheDataIndex index2 = new CacheDataIndex(indexFile);
+        for (int i = 0; i < 600; i++) {
+            index1.put("key" + i % 10, Collections.singletonMap("value", String.valueOf(i)));
+        }
+        assertEquals("599", index2.get("key9").get("value"));
+        long length = indexFile.length();
+
+        for (int i = 600; i < 1800; i++) {
+            index1.put("key" + i % 10, Collections.singletonMap("value", String.valueOf(i)));
+        }
+        assertTrue(indexFile.length() > length);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(String.valueOf(1790 + i), index2.get("key" + i).get("value"));
+        }
+    }
+
+    @Test
+    public void testUnknownFormatReplaced() throws Exception {
+        assertTrue(cacheRoot.mkdirs());
+        Files.write(indexFile.toPath(), new byte[] {0, 0, 0, 1, 42});
+        CacheDataIndex index1 = new CacheDataIndex(indexFile);
+        assertNull(index1.get("key"));
+
+        index1.put("key", Collections.singletonMap("value", "1"));
+        assertEquals("1", index1.get("key").get("value"));
+        assertEquals("1", new CacheDataIndex(indexFile).get("key").get("value"));
+    }
+}
@@ -18,6 +18,9 @@
 package org.apache.ivy.core.cache;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -26,13 +29,22 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.apache.ivy.Ivy;
 import org.apache.ivy.core.IvyContext;
 import org.apache.ivy.core.module.descriptor.Artifact;
 import org.apache.ivy.core.module.descriptor.DefaultArtifact;
 import org.apache.ivy.core.module.descriptor.DefaultDependencyDescriptor;
+import org.apache.ivy.core.module.descriptor.DefaultModuleDescriptor;
 import org.apache.ivy.core.module.descriptor.DependencyDescriptor;
 import org.apache.ivy.core.module.descriptor.ModuleDescriptor;
 import org.apache.ivy.core.module.id.ModuleId;
@@ -41,6 +53,7 @@ import org.apache.ivy.core.report.ArtifactDownloadReport;
 import org.apache.ivy.core.report.DownloadStatus;
 import org.apache.ivy.core.resolve.ResolvedModuleRevision;
 import org.apache.ivy.core.settings.IvySettings;
+import org.apache.ivy.plugins.lock.AbstractLockStrategy;
 import org.apache.ivy.plugins.parser.xml.XmlModuleDescriptorWriter;
 import org.apache.ivy.plugins.repository.ArtifactResourceResolver;
 import org.apache.ivy.plugins.repository.BasicResource;
@@ -52,6 +65,7 @@ import org.apache.ivy.plugins.resolver.util.ResolvedResource;
 import org.apache.ivy.plugins.resolver.util.ResolvedResource;
 import org.apache.ivy.util.DefaultMessageLogger;
 import org.apache.ivy.util.Message;
+import org.apache.ivy.util.url.ApacheURLLister;
 import org.apache.tools.ant.Project;
 import org.apache.tools.ant.taskdefs.Delete;
 import org.junit.After;
@@ -116,6 +130,142 @@ public class DefaultRepositoryCacheManagerTest {
         assertTrue(ArtifactOrigin.isUnknown(found));
     }
 
+    @Test
+    public void testArtifactOriginWithDataIndex() {
+        File dataFile = new File(cacheManager.getRepositoryCacheRoot(),
+                "org/module/ivydata-rev.properties");
+        long lastModified = dataFile.lastModified();
+        cacheManager.setUseDataIndex(true);
+
+        // saved before the use of the index, and imported from the ivydata file
+        ArtifactOrigin found = cacheManager.getSavedArtifactOrigin(artifact);
+        assertEquals(origin, found);
+        assertEquals("pom", found.getArtifact().getExt());
+
+        Artifact artifact2 = createArtifact("org", "module", "rev", "name", "type2", "ext");
+        ArtifactOrigin origin2 = new ArtifactOrigin(artifact2, false, "file:/some/where.ext");
+        cacheManager.saveArtifactOrigin(artifact2, origin2);
+        assertEquals(origin2, cacheManager.getSavedArtifactOrigin(artifact2));
+        assertEquals(origin, cacheManager.getSavedArtifactOrigin(artifact));
+
+        assertTrue(new File(cacheManager.getRepositoryCacheRoot(), CacheDataIndex.INDEX_FILE_NAME)
+                .exists());
+        assertEquals(lastModified, dataFile.lastModified());
+    }
+
+    @Test
+    public void testBinaryDescriptors() throws Exception {
+        ModuleRevisionId mrid = ModuleRevisionId.newInstance("org", "module", "1.0");
+        File ivyFile = cacheManager.getIvyFileInCache(mrid);
+        ivyFile.getParentFile().mkdirs();
+        writeIvyFile(ivyFile, "first");
+        FileTime lastModified = Files.getLastModifiedTime(ivyFile.toPath());
+        cacheManager.saveResolvers(DefaultModuleDescriptor.newDefaultInstance(mrid), "local",
+            "local");
+        cacheManager.setBinaryDescriptors(true);
+        DependencyDescriptor dd = new DefaultDependencyDescriptor(mrid, false);
+        CacheMetadataOptions options = new CacheMetadataOptions();
+        ResolvedModuleRevision rmr = cacheManager.findModuleInCache(dd, mrid, options, null);
+        assertEquals("first", rmr.getDescriptor().getDescription());
+        assertTrue(BinaryDescriptorFile.getFile(ivyFile).exists());
+
+        // a change invisible to the binary descriptor shows it is used instead of the Ivy file
+        writeIvyFile(ivyFile, "other");
+        Files.setLastModifiedTime(ivyFile.toPath(), lastModified);
+        DefaultRepositoryCacheManager otherManager = new DefaultRepositoryCacheManager();
+        otherManager.setSettings(ivy.getSettings());
+        otherManager.setBasedir(cacheManager.getBasedir());
+        otherManager.setBinaryDescriptors(true);
+        rmr = otherManager.findModuleInCache(dd, mrid, options, null);
+        assertEquals("first", rmr.getDescriptor().getDescription());
+    }
+
+    private static void writeIvyFile(File ivyFile, String description) throws IOException {
+        try (PrintWriter out = new PrintWriter(ivyFile, "UTF-8")) {
+            out.print("<ivy-module version=\"2.0\"><info organisation=\"org\" module=\"module\""
+                    + " revision=\"1.0\" status=\"release\"><description>" + description
+                    + "</description></info></ivy-module>");
+        }
+    }
+
+    @Test
+    public void testMissingResources() throws Exception {
+        ModuleRevisionId mrid = ModuleRevisionId.newInstance("org", "module", "rev");
+        String resource = "http://repo/org/module/rev/module-rev.pom";
+        assertFalse(cacheManager.isMissingResourceCacheEnabled());
+        cacheManager.saveMissing("resolver", mrid, resource);
+        assertFalse(cacheManager.isKnownMissing("resolver", mrid, resource));
+
+        cacheManager.setDefaultMissingTTL("1h");
+        assertTrue(cacheManager.isMissingResourceCacheEnabled());
+        cacheManager.saveMissing("resolver", mrid, resource);
+        assertTrue(cacheManager.isKnownMissing("resolver", mrid, resource));
+        assertFalse(cacheManager.isKnownMissing("other", mrid, resource));
+
+        cacheManager.setDefaultMissingTTL(0);
+        assertFalse(cacheManager.isKnownMissing("resolver", mrid, resource));
+
+        cacheManager.setDefaultMissingTTL("eternal");
+        assertTrue(cacheManager.isKnownMissing("resolver", mrid, resource));
+        cacheManager.removeMissing("resolver", resource);
+        assertFalse(cacheManager.isKnownMissing("resolver", mrid, resource));
+
+        // expired entries are dropped
+        cacheManager.setDefaultMissingTTL(1);
+        cacheManager.saveMissing("resolver", mrid, resource);
+        Thread.sleep(10);
+        assertFalse(cacheManager.isKnownMissing("resolver", mrid, resource));
+        assertNull(CacheDataIndex.getInstance(cacheManager.getRepositoryCacheRoot(),
+            "missing.index").get("resolver|" + resource));
+    }
+
+    @Test
+    public void testListings() {
+        String url = "http://repo/org/module/";
+        ModuleRevisionId mrid = ModuleRevisionId.newInstance("org", "module", "latest.integration");
+        assertNull(cacheManager.getListing("resolver", mrid, url, false));
+
+        cacheManager.saveListing("resolver", url, new ApacheURLLister.Listing(
+                Arrays.asList("1.0/", "1.1/", "maven-metadata.xml"), "\"abc\"", 1000));
+        cacheManager.setDefaultTTL("1h");
+        ApacheURLLister.Listing listing = cacheManager.getListing("resolver", mrid, url, true);
+        assertNotNull(listing);
+        assertEquals(Arrays.asList("1.0/", "1.1/", "maven-metadata.xml"), listing.getEntries());
+        assertEquals("\"abc\"", listing.getETag());
+        assertEquals(1000, listing.getLastModified());
+        assertNull(cacheManager.getListing("other", mrid, url, false));
+
+        // an outdated listing is still available to be revalidated
+        cacheManager.setDefaultTTL(0);
+        assertNull(cacheManager.getListing("resolver", mrid, url, true));
+        assertNotNull(cacheManager.getListing("resolver", mrid, url, false));
+
+        cacheManager.saveListing("resolver", url, new ApacheURLLister.Listing(
+                Collections.<String>emptyList(), null, 0));
+        listing = cacheManager.getListing("resolver", null, url, false);
+        assertTrue(listing.getEntries().isEmpty());
+        assertNull(listing.getETag());
+    }
+
+    @Test
+    public void testMissingTTLRules() {
+        Map<String, String> attributes = new HashMap<>();
+        attributes.put("organisation", "org");
+        attributes.put("duration", "1h");
+        cacheManager.addConfiguredMissingTtl(attributes);
+        cacheManager.setSettings(ivy.getSettings());
+
+        ModuleRevisionId mrid = ModuleRevisionId.newInstance("org", "module", "rev");
+        ModuleRevisionId other = ModuleRevisionId.newInstance("org2", "module", "rev");
+        assertEquals(3600 * 1000, cacheManager.getMissingTTL(mrid));
+        assertEquals(0, cacheManager.getMissingTTL(other));
+
+        cacheManager.saveMissing("resolver", mrid, "resource1");
+        cacheManager.saveMissing("resolver", other, "resource2");
+        assertTrue(cacheManager.isKnownMissing("resolver", mrid, "resource1"));
+        assertFalse(cacheManager.isKnownMissing("resolver", other, "resource2"));
+    }
+
     @Test
     public void testUniqueness() {
         cacheManager.saveArtifactOrigin(artifact, origin);
@@ -250,6 +400,72 @@ public class DefaultRepositoryCacheManagerTest {
         assertEquals(rmr11, rmrFromCache);
     }
 
+    @Test
+    public void testBackupRemovedBeforeUnlock() throws Exception {
+        final List<File> backupsAtUnlock = new ArrayList<>();
+        // hands the lock over as soon as it is released: the next holder may immediately make
+        // its own backup, which must not be deleted by the previous holder
+        cacheManager.setLockStrategy(new AbstractLockStrategy() {
+            private final Map<File, Integer> holdCounts = new HashMap<>();
+
+            public boolean lockArtifact(Artifact artifact, File artifactFileToDownload) {
+                Integer count = holdCounts.get(artifactFileToDownload);
+                holdCounts.put(artifactFileToDownload, count == null ? 1 : count + 1);
+                return true;
+            }
+
+            public void unlockArtifact(Artifact artifact, File artifactFileToDownload) {
+                int count = holdCounts.remove(artifactFileToDownload) - 1;
+                if (count > 0) {
+                    holdCounts.put(artifactFileToDownload, count);
+                } else {
+                    backupsAtUnlock.addAll(findBackups(cacheManager.getRepositoryCacheRoot()));
+                }
+            }
+        });
+        final List<File> backupsAtDownload = new ArrayList<>();
+        ResourceDownloader downloader = new ResourceDownloader() {
+            public void download(Artifact artifact, Resource resource, File dest)
+                    throws IOException {
+                backupsAtDownload.addAll(findBackups(cacheManager.getRepositoryCacheRoot()));
+                dest.getParentFile().mkdirs();
+                writeIvyFile(dest, "backup");
+            }
+        };
+        MockResolver resolver = new MockResolver();
+        resolver.setName("resolver");
+        resolver.setSettings(ivy.getSettings());
+        ModuleRevisionId mrid = ModuleRevisionId.newInstance("org", "backup", "1.0");
+        Artifact ivyArtifact = DefaultArtifact.newIvyArtifact(mrid, new Date());
+        ResolvedResource mdRef = new ResolvedResource(
+                new BasicResource("/backup-1.0.xml", true, 1, 0, true), "1.0");
+        DependencyDescriptor dd = new DefaultDependencyDescriptor(mrid, false);
+        CacheMetadataOptions options = new CacheMetadataOptions().setCheckTTL(false);
+
+        assertNotNull(cacheManager.cacheModuleDescriptor(resolver, mdRef, dd, ivyArtifact,
+            downloader, options));
+        // the original file is downloaded again, after having been backed up
+        assertNotNull(cacheManager.cacheModuleDescriptor(resolver, mdRef, dd, ivyArtifact,
+            downloader, options));
+        assertEquals(1, backupsAtDownload.size());
+        assertEquals(Collections.emptyList(), backupsAtUnlock);
+    }
+
+    private static List<File> findBackups(File dir) {
+        List<File> backups = new ArrayList<>();
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                if (file.isDirectory()) {
+                    backups.addAll(findBackups(file));
+                } else if (file.getName().endsWith(".backup")) {
+                    backups.add(file);
+                }
+            }
+        }
+        return backups;
+    }
+
     private static DefaultArtifact createArtifact(String org, String module, String rev,
                                                   String name, String type, String ext) {
         ModuleId mid = new ModuleId(org, module);
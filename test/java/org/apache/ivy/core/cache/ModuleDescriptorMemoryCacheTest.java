@@ -26,7 +26,9 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.text.ParseException;
 
 import static org.junit.Assert.assertEquals;
@@ -172,6 +174,65 @@ public class ModuleDescriptorMemoryCacheTest {
         providerMock2.assertCalled();
     }
 
+    @Test
+    public void testCountersAreUpdated() throws ParseException, IOException {
+        cache.get(url1, ivySettings, false, new ModuleDescriptorProviderMock(md1));
+        cache.get(url1, ivySettings, false, null);
+        cache.get(url2, ivySettings, false, new ModuleDescriptorProviderMock(md2));
+        cache.get(url3, ivySettings, false, new ModuleDescriptorProviderMock(md3));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(3, cache.getMissCount());
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testWeightIsLimited() throws ParseException, IOException {
+        writeBytes(url1, 60);
+        writeBytes(url2, 60);
+        md1.setLastModified(url1.lastModified());
+        md2.setLastModified(url2.lastModified());
+        cache = new ModuleDescriptorMemoryCache(10, 100, 0);
+        ModuleDescriptorProviderMock providerMock = new ModuleDescriptorProviderMock(md1);
+        ModuleDescriptorProviderMock providerMock1b = new ModuleDescriptorProviderMock(md1);
+        ModuleDescriptorProviderMock providerMock2 = new ModuleDescriptorProviderMock(md2);
+        cache.get(url1, ivySettings, false, providerMock);
+        cache.get(url2, ivySettings, false, providerMock2); // exceeds the weight
+        assertEquals(1, cache.size());
+        assertEquals(60, cache.getWeight());
+        assertEquals(1, cache.getEvictionCount());
+        cache.get(url1, ivySettings, false, providerMock1b);
+        providerMock1b.assertCalled();
+        assertEquals(0, cache.getHitCount());
+    }
+
+    @Test
+    public void testCheckIntervalSkipsModificationCheck() throws ParseException, IOException {
+        cache = new ModuleDescriptorMemoryCache(2, 0, 60 * 1000);
+        ModuleDescriptorProviderMock providerMock = new ModuleDescriptorProviderMock(md1);
+        ModuleDescriptorProviderMock providerMock2 = null;
+        assertEquals(md1, cache.get(url1, ivySettings, false, providerMock));
+        assertTrue(url1.setLastModified(url1.lastModified() - 10000));
+        // the change is not seen before the end of the check interval
+        assertEquals(md1, cache.get(url1, ivySettings, false, providerMock2));
+    }
+
+    @Test
+    public void testModificationInvalidateEntry() throws ParseException, IOException {
+        ModuleDescriptorProviderMock providerMock = new ModuleDescriptorProviderMock(md1);
+        ModuleDescriptorProviderMock providerMock2 = new ModuleDescriptorProviderMock(md1);
+        assertEquals(md1, cache.get(url1, ivySettings, false, providerMock));
+        assertTrue(url1.setLastModified(url1.lastModified() - 10000));
+        assertEquals(md1, cache.get(url1, ivySettings, false, providerMock2));
+        providerMock2.assertCalled();
+    }
+
+    private static void writeBytes(File file, int length) throws IOException {
+        try (OutputStream out = new FileOutputStream(file)) {
+            out.write(new byte[length]);
+        }
+    }
+
     private static class ModuleDescriptorProviderMock implements ModuleDescriptorProvider {
 
         private boolean called = false;
@@ -0,0 +1,266 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.core.event;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.ivy.core.event.EventManager.ProgressPolicy;
+import org.apache.ivy.plugins.repository.BasicResource;
+import org.apache.ivy.plugins.repository.TransferEvent;
+import org.apache.ivy.plugins.repository.TransferListener;
+import org.apache.ivy.plugins.repository.url.URLRepository;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class EventManagerTest {
+
+    private EventManager eventManager;
+
+    private RecordingListener listener;
+
+    @Before
+    public void setUp() {
+        eventManager = new EventManager();
+        listener = new RecordingListener();
+    }
+
+    @After
+    public void tearDown() {
+        listener.release();
+        eventManager.stopAsyncDispatch();
+    }
+
+    @Test
+    public void testSynchronousByDefault() {
+        eventManager.addIvyListener(listener);
+        eventManager.fireIvyEvent(newEvent("foo"));
+
+        assertEquals(Collections.singletonList("foo"), listener.names());
+        assertSame(Thread.currentThread(), listener.threads.get(0));
+    }
+
+    /**
+     * A blocked listener must not block the thread firing events, and must get the events in the
+     * order they have been fired.
+     */
+    @Test
+    public void testAsyncDispatch() throws Exception {
+        eventManager.startAsyncDispatch(16, ProgressPolicy.ALL);
+        eventManager.addIvyListener(listener);
+        listener.block();
+
+        eventManager.fireIvyEvent(newEvent("block"));
+        listener.awaitBlocked();
+        eventManager.fireIvyEvent(newEvent("foo"));
+        eventManager.fireIvyEvent(newEvent("bar"));
+        assertEquals(Collections.singletonList("block"), listener.names());
+
+        listener.release();
+        eventManager.flush();
+        assertEquals(Arrays.asList("block", "foo", "bar"), listener.names());
+        assertNotSame(Thread.currentThread(), listener.threads.get(0));
+    }
+
+    @Test
+    public void testSynchronousListener() throws Exception {
+        eventManager.startAsyncDispatch(16, ProgressPolicy.ALL);
+        SynchronousRecordingListener sync = new SynchronousRecordingListener();
+        eventManager.addIvyListener(sync, "foo");
+        eventManager.addIvyListener(listener);
+        listener.block();
+
+        eventManager.fireIvyEvent(newEvent("block"));
+        eventManager.fireIvyEvent(newEvent("foo"));
+        assertEquals(Collections.singletonList("foo"), sync.names());
+        assertSame(Thread.currentThread(), sync.threads.get(0));
+    }
+
+    @Test
+    public void testCoalesceProgress() throws Exception {
+        eventManager.startAsyncDispatch(16, ProgressPolicy.COALESCE);
+        eventManager.addTransferListener(listener);
+        eventManager.addIvyListener(listener);
+        listener.block();
+
+        eventManager.fireIvyEvent(newEvent("block"));
+        listener.awaitBlocked();
+        TransferEvent progress = newProgressEvent();
+        for (int i = 0; i < 5; i++) {
+            eventManager.transferProgress(progress);
+        }
+        listener.release();
+        eventManager.flush();
+
+        // each listener gets a single progress event, standing for the five ones fired
+        assertEquals(Arrays.asList("block", TransferEvent.TRANSFER_PROGRESS_NAME,
+            TransferEvent.TRANSFER_PROGRESS_NAME), listener.names());
+        assertEquals(50, ((TransferEvent) listener.events.get(1)).getLength());
+        assertEquals(50, ((TransferEvent) listener.events.get(2)).getLength());
+        assertNotSame(progress, listener.events.get(1));
+    }
+
+    @Test
+    public void testDropProgress() throws Exception {
+        eventManager.startAsyncDispatch(1, ProgressPolicy.DROP);
+        eventManager.addTransferListener(listener);
+        listener.block();
+
+        eventManager.transferProgress(newProgressEvent());
+        listener.awaitBlocked();
+        for (int i = 0; i < 3; i++) {
+            eventManager.transferProgress(newProgressEvent());
+        }
+        listener.release();
+        eventManager.flush();
+
+        // the first event was being dispatched, the second was queued and the others dropped
+        assertEquals(2, listener.events.size());
+    }
+
+    @Test
+    public void testFailingListener() throws Exception {
+        eventManager.startAsyncDispatch(16, ProgressPolicy.ALL);
+        eventManager.addIvyListener(listener);
+        eventManager.addIvyListener(new IvyListener() {
+            public void progress(IvyEvent event) {
+                throw new IllegalStateException("failing listener");
+            }
+        });
+
+        eventManager.fireIvyEvent(newEvent("foo"));
+        eventManager.fireIvyEvent(newEvent("bar"));
+        eventManager.flush();
+        assertEquals(Arrays.asList("foo", "bar"), listener.names());
+    }
+
+    @Test
+    public void testStopAsyncDispatch() throws Exception {
+        eventManager.startAsyncDispatch(16, ProgressPolicy.ALL);
+        eventManager.addIvyListener(listener);
+        eventManager.fireIvyEvent(newEvent("foo"));
+        eventManager.stopAsyncDispatch();
+        assertFalse(eventManager.isAsyncDispatch());
+        assertEquals(Collections.singletonList("foo"), listener.names());
+
+        eventManager.fireIvyEvent(newEvent("bar"));
+        assertSame(Thread.currentThread(), listener.threads.get(1));
+    }
+
+    /**
+     * Once the dispatcher thread has died, events are dispatched synchronously and flushing
+     * doesn't wait for it.
+     */
+    @Test
+    public void testDeadDispatcher() throws Exception {
+        eventManager.startAsyncDispatch(16, ProgressPolicy.ALL);
+        eventManager.addIvyListener(listener);
+        eventManager.fireIvyEvent(newEvent("foo"));
+        eventManager.flush();
+        Thread dispatcher = listener.threads.get(0);
+        assertNotSame(Thread.currentThread(), dispatcher);
+
+        dispatcher.interrupt();
+        dispatcher.join(TimeUnit.SECONDS.toMillis(10));
+        assertFalse(dispatcher.isAlive());
+        assertFalse(eventManager.isAsyncDispatch());
+
+        eventManager.fireIvyEvent(newEvent("bar"));
+        eventManager.flush();
+        assertEquals(Arrays.asList("foo", "bar"), listener.names());
+        assertSame(Thread.currentThread(), listener.threads.get(1));
+    }
+
+    private static IvyEvent newEvent(String name) {
+        return new IvyEvent(name) {
+        };
+    }
+
+    private static TransferEvent newProgressEvent() {
+        return new TransferEvent(new URLRepository(),
+                new BasicResource("foo", true, 100, 0, true), 10L, TransferEvent.REQUEST_GET);
+    }
+
+    private static class RecordingListener implements IvyListener, TransferListener {
+        final List<IvyEvent> events = Collections.synchronizedList(
+            new ArrayList<IvyEvent>());
+
+        final List<Thread> threads = Collections.synchronizedList(
+            new ArrayList<Thread>());
+
+        CountDownLatch blocked = new CountDownLatch(1);
+
+        CountDownLatch released = new CountDownLatch(0);
+
+        public void progress(IvyEvent event) {
+            record(event);
+        }
+
+        public void transferProgress(TransferEvent evt) {
+            record(evt);
+        }
+
+        void record(IvyEvent event) {
+            events.add(event);
+            threads.add(Thread.currentThread());
+            blocked.countDown();
+            try {
+                released.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        void block() {
+            released = new CountDownLatch(1);
+        }
+
+        void awaitBlocked() throws InterruptedException {
+            assertTrue(blocked.await(10, TimeUnit.SECONDS));
+        }
+
+        void release() {
+            released.countDown();
+        }
+
+        List<String> names() {
+            List<String> names = new ArrayList<>();
+            synchronized (events) {
+                for (IvyEvent event : events) {
+                    names.add(event.getName());
+                }
+            }
+            return names;
+        }
+    }
+
+    private static class SynchronousRecordingListener extends RecordingListener implements
+            SynchronousListener {
+    }
+}
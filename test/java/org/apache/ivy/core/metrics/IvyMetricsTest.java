@@ -0,0 +1,114 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.core.metrics;
+
+import java.io.File;
+import java.io.StringWriter;
+import java.util.Map;
+
+import org.apache.ivy.Ivy;
+import org.apache.ivy.core.report.ResolveReport;
+import org.apache.ivy.core.resolve.ResolveOptions;
+import org.apache.ivy.util.CacheCleaner;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class IvyMetricsTest {
+
+    private File cache;
+
+    @Before
+    public void setUp() {
+        cache = new File("build/cache");
+        System.setProperty("ivy.cache.dir", cache.getAbsolutePath());
+        CacheCleaner.deleteDir(cache);
+    }
+
+    @After
+    public void tearDown() {
+        CacheCleaner.deleteDir(cache);
+    }
+
+    @Test
+    public void testHistogram() {
+        Histogram histogram = new Histogram();
+        assertEquals(0, histogram.getPercentile(50));
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+        assertEquals(100, histogram.getCount());
+        assertEquals(5050, histogram.getSum());
+        assertEquals(1, histogram.getMin());
+        assertEquals(100, histogram.getMax());
+        assertEquals(50.5, histogram.getMean(), 0.001);
+        // 50 falls into the [32, 63] bucket, 99 into the [64, 127] one, capped by the max
+        assertEquals(63, histogram.getPercentile(50));
+        assertEquals(100, histogram.getPercentile(99));
+    }
+
+    @Test
+    public void testDisabledByDefault() throws Exception {
+        Ivy ivy = Ivy.newInstance();
+        ivy.configure(new File("test/repositories/ivysettings.xml"));
+        assertNull(ivy.getMetrics());
+    }
+
+    @Test
+    public void testResolveMetrics() throws Exception {
+        Ivy ivy = Ivy.newInstance();
+        ivy.getSettings().setVariable("ivy.metrics", "true");
+        ivy.configure(new File("test/repositories/ivysettings.xml"));
+        IvyMetrics metrics = ivy.getMetrics();
+
+        File ivyFile = new File("test/repositories/1/org2/mod2.1/ivys/ivy-0.3.xml");
+        ResolveReport report = ivy.resolve(ivyFile,
+            new ResolveOptions().setConfs(new String[] {"*"}));
+        assertFalse(report.hasError());
+        assertEquals(1, metrics.histogram("resolve.time.ms").getCount());
+        assertTrue(metrics.histogram("descriptor.parse.ns").getCount() > 0);
+        assertTrue(metrics.histogram("resolve.conflict.ns").getCount() > 0);
+        assertTrue(metrics.counter("artifact.download.successful").getValue() > 0);
+        assertTrue(sum(metrics, "resolver.", ".lookup.ms") > 0);
+
+        ivy.resolve(ivyFile, new ResolveOptions().setConfs(new String[] {"*"}));
+        assertEquals(2, metrics.histogram("resolve.time.ms").getCount());
+        assertTrue(metrics.counter("artifact.download.no").getValue() > 0);
+        assertTrue(metrics.counter("cache.default-cache.module.hit").getValue() > 0);
+
+        StringWriter json = new StringWriter();
+        metrics.writeJson(json);
+        assertTrue(json.toString(), json.toString().contains("\"resolve.time.ms\": {\"count\": 2"));
+        assertTrue(json.toString(), json.toString().contains("\"cache.default-cache.memory.hit\""));
+    }
+
+    private static long sum(IvyMetrics metrics, String prefix, String suffix) {
+        long count = 0;
+        for (Map.Entry<String, Histogram> entry : metrics.getHistograms().entrySet()) {
+            if (entry.getKey().startsWith(prefix) && entry.getKey().endsWith(suffix)) {
+                count += entry.getValue().getCount();
+            }
+        }
+        return count;
+    }
+}
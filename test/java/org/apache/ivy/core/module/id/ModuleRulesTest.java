@@ -19,11 +19,13 @@ package org.apache.ivy.core.module.id;
 
 import static org.junit.Assert.assertEquals;
 
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
 import org.apache.ivy.core.IvyPatternHelper;
 import org.apache.ivy.plugins.matcher.ExactPatternMatcher;
+import org.apache.ivy.plugins.matcher.GlobPatternMatcher;
 import org.apache.ivy.plugins.matcher.MapMatcher;
 import org.apache.ivy.plugins.matcher.PatternMatcher;
 import org.apache.ivy.util.filter.Filter;
@@ -74,6 +76,48 @@ public class ModuleRulesTest {
         assertRule(null, "unknown#module4;1.5", acceptAll());
     }
 
+    /**
+     * Rules with a pattern condition come first, then the rules with an exact condition on the
+     * organisation and module, then the other rules with an exact condition, each in definition
+     * order.
+     */
+    @Test
+    public void testGetRuleLookupOrder() {
+        // fixture
+        rules.defineRule(mapMatcher().organization("apache").module("module1").build(), rule[0]);
+        rules.defineRule(mapMatcher().organization("apache").module("*").glob().build(), rule[1]);
+        rules.defineRule(mapMatcher().organization("apache").build(), rule[2]);
+        rules.defineRule(mapMatcher().organization("apache").module("module2").build(), rule[3]);
+
+        // test
+        assertRule(rule[1], "apache#module1;1.5");
+        assertRule(rule[1], "apache#module2;1.5");
+        assertRule(rule[2], "apache#module2;1.5", acceptThird());
+        assertEquals(Arrays.asList(rule[1], rule[0], rule[2]),
+            rules.getRules(ModuleId.parse("apache#module1")));
+        assertEquals(Arrays.asList(rule[1], rule[3], rule[2]),
+            rules.getRules(ModuleId.parse("apache#module2")));
+    }
+
+    @Test
+    public void testDefineRuleAfterLookup() {
+        // fixture
+        rules.defineRule(mapMatcher().organization("apache").build(), rule[0]);
+        assertRule(rule[0], "apache#module1;1.5");
+        assertModuleIdRule(rule[0], "apache#module1", acceptAll());
+        assertRule(null, "other#module1;1.5");
+
+        // test
+        rules.defineRule(mapMatcher().organization("other").build(), rule[1]);
+        assertRule(rule[1], "other#module1;1.5");
+        assertEquals(Arrays.asList(rule[0]), rules.getRules(ModuleId.parse("apache#module1")));
+
+        rules.defineRule(mapMatcher().module("module1").build(), rule[2]);
+        assertEquals(Arrays.asList(rule[0], rule[2]),
+            rules.getRules(ModuleId.parse("apache#module1")));
+        assertModuleIdRule(rule[2], "apache#module1", acceptSecond());
+    }
+
     // test helpers
 
     private Filter<String> acceptNone() {
@@ -102,6 +146,20 @@ public class ModuleRulesTest {
         };
     }
 
+    private Filter<String> acceptThird() {
+        return new Filter<String>() {
+            private int cpt;
+
+            public boolean accept(String o) {
+                return ++cpt == 3;
+            }
+
+            public String toString() {
+                return "AcceptThird";
+            }
+        };
+    }
+
     private Filter<String> acceptAll() {
         return NoFilter.instance();
     }
@@ -140,6 +198,11 @@ public class ModuleRulesTest {
             return this;
         }
 
+        public MridMatcherBuilder glob() {
+            matcher = GlobPatternMatcher.INSTANCE;
+            return this;
+        }
+
         public MapMatcher build() {
             return new MapMatcher(attributes, matcher);
         }
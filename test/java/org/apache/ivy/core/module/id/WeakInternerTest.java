@@ -0,0 +1,95 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.core.module.id;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class WeakInternerTest {
+
+    @Test
+    public void testIntern() {
+        WeakInterner<ModuleId> interner = new WeakInterner<>();
+        ModuleId first = new ModuleId("org", "mod");
+        ModuleId second = new ModuleId("org", "mod");
+        assertNotSame(first, second);
+
+        assertSame(first, interner.intern(first));
+        assertSame(first, interner.intern(second));
+        assertSame(first, interner.intern(new ModuleId("org", "mod")));
+        assertEquals(1, interner.size());
+    }
+
+    @Test
+    public void testConcurrentIntern() throws Exception {
+        final WeakInterner<ModuleRevisionId> interner = new WeakInterner<>();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<ModuleRevisionId[]>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                results.add(executor.submit(new Callable<ModuleRevisionId[]>() {
+                    public ModuleRevisionId[] call() {
+                        ModuleRevisionId[] interned = new ModuleRevisionId[100];
+                        for (int i = 0; i < interned.length; i++) {
+                            interned[i] = interner.intern(new ModuleRevisionId(
+                                    new ModuleId("org", "mod" + i), "1.0"));
+                        }
+                        return interned;
+                    }
+                }));
+            }
+            ModuleRevisionId[] expected = results.get(0).get();
+            for (Future<ModuleRevisionId[]> result : results) {
+                ModuleRevisionId[] interned = result.get();
+                for (int i = 0; i < expected.length; i++) {
+                    assertSame(expected[i], interned[i]);
+                }
+            }
+            assertEquals(expected.length, interner.size());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testCollectedInstancesAreRemoved() throws Exception {
+        WeakInterner<ModuleId> interner = new WeakInterner<>();
+        for (int i = 0; i < 100; i++) {
+            interner.intern(new ModuleId("org", "mod" + i));
+        }
+        for (int i = 0; i < 100 && interner.size() > 0; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertEquals(0, interner.size());
+
+        // equal instances can be interned again
+        ModuleId moduleId = new ModuleId("org", "mod0");
+        assertSame(moduleId, interner.intern(moduleId));
+    }
+}
@@ -18,18 +18,32 @@
 package org.apache.ivy.core.resolve;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 
 import org.apache.ivy.Ivy;
 import org.apache.ivy.core.cache.ArtifactOrigin;
+import org.apache.ivy.core.cache.DefaultRepositoryCacheManager;
 import org.apache.ivy.core.cache.DefaultResolutionCacheManager;
 import org.apache.ivy.core.module.descriptor.Artifact;
 import org.apache.ivy.core.module.descriptor.DefaultArtifact;
+import org.apache.ivy.core.module.descriptor.DefaultModuleDescriptor;
+import org.apache.ivy.core.module.descriptor.ModuleDescriptor;
 import org.apache.ivy.core.module.id.ModuleRevisionId;
 import org.apache.ivy.core.report.ArtifactDownloadReport;
+import org.apache.ivy.core.report.CachedConfigurationResolveReport;
+import org.apache.ivy.core.report.ConfigurationResolveReport;
 import org.apache.ivy.core.report.DownloadStatus;
 import org.apache.ivy.core.report.ResolveReport;
+import org.apache.ivy.plugins.resolver.ChainResolver;
 import org.apache.ivy.plugins.resolver.FileSystemResolver;
+import org.apache.ivy.plugins.resolver.SFTPResolver;
+import org.apache.ivy.plugins.resolver.URLResolver;
 import org.apache.ivy.util.CacheCleaner;
 
 import org.junit.After;
@@ -38,6 +52,7 @@ import org.junit.Before;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -152,6 +167,221 @@ public class ResolveEngineTest {
 
     }
 
+    /**
+     * Tests that downloading the artifacts of several modules concurrently produces the same
+     * report as the serial download.
+     */
+    @Test
+    public void testParallelDownloadReportMatchesSerialDownload() throws Exception {
+        ModuleDescriptor md = DefaultModuleDescriptor.newCallerInstance(new ModuleRevisionId[] {
+                ModuleRevisionId.parse("org1#mod1.1;1.0"),
+                ModuleRevisionId.parse("org2#mod2.2;0.5"),
+                ModuleRevisionId.parse("org2#mod2.5;0.8")}, true, false);
+        ResolveOptions options = new ResolveOptions();
+        options.setConfs(new String[] {"*"});
+
+        ResolveReport serial = ivy.resolve(md, options);
+        assertFalse(serial.hasError());
+
+        CacheCleaner.deleteDir(cache);
+        createCache();
+        ivy.getSettings().setVariable("ivy.download.parallelism", "4");
+        ResolveReport parallel = ivy.resolve(md, options);
+        assertFalse(parallel.hasError());
+
+        assertEquals(serial.getDownloadSize(), parallel.getDownloadSize());
+        assertEquals(describe(serial.getAllArtifactsReports()),
+            describe(parallel.getAllArtifactsReports()));
+    }
+
+    /**
+     * Tests that prefetching module descriptors doesn't change the resolved graph, nor the
+     * conflict resolution results.
+     */
+    @Test
+    public void testPrefetchReportMatchesSerialResolve() throws Exception {
+        // mod4.1 v 4.14 depends on
+        // - mod1.1 v 1.0 which depends on mod1.2 v 2.0
+        // - mod3.1 v 1.1 which depends on mod1.2 v 2.1
+        // - mod6.1 v 0.3 which depends on mod1.2 v 2.0
+        File ivyFile = new File("test/repositories/2/mod4.1/ivy-4.14.xml");
+        ResolveOptions options = new ResolveOptions();
+        options.setConfs(new String[] {"*"});
+
+        ResolveReport serial = ivy.resolve(ivyFile, options);
+
+        CacheCleaner.deleteDir(cache);
+        createCache();
+        ivy.getSettings().setVariable("ivy.prefetch.parallelism", "4");
+        ResolveReport prefetched = ivy.resolve(ivyFile, options);
+
+        assertEquals(ids(serial.getDependencies()), ids(prefetched.getDependencies()));
+        for (String conf : serial.getConfigurations()) {
+            ConfigurationResolveReport serialConf = serial.getConfigurationReport(conf);
+            ConfigurationResolveReport prefetchedConf = prefetched.getConfigurationReport(conf);
+            assertEquals(new ArrayList<>(serialConf.getModuleRevisionIds()),
+                new ArrayList<>(prefetchedConf.getModuleRevisionIds()));
+            assertEquals(ids(Arrays.asList(serialConf.getEvictedNodes())),
+                ids(Arrays.asList(prefetchedConf.getEvictedNodes())));
+            assertEquals(ids(Arrays.asList(serialConf.getDownloadedNodes())),
+                ids(Arrays.asList(prefetchedConf.getDownloadedNodes())));
+        }
+        assertEquals(describe(serial.getAllArtifactsReports()),
+            describe(prefetched.getAllArtifactsReports()));
+    }
+
+    /**
+     * Tests that only resolvers relying on thread safe repositories are used concurrently.
+     */
+    @Test
+    public void testIsThreadSafe() {
+        FileSystemResolver fs = new FileSystemResolver();
+        URLResolver url = new URLResolver();
+        assertTrue(ResolveEngine.isThreadSafe(fs));
+        assertTrue(ResolveEngine.isThreadSafe(url));
+        assertFalse(ResolveEngine.isThreadSafe(new SFTPResolver()));
+
+        ChainResolver chain = new ChainResolver();
+        chain.add(fs);
+        chain.add(url);
+        assertTrue(ResolveEngine.isThreadSafe(chain));
+        chain.add(new SFTPResolver());
+        assertFalse(ResolveEngine.isThreadSafe(chain));
+    }
+
+    /**
+     * Tests that the result of a resolve is reused by the next resolve of the same module with
+     * the same options, as long as its artifacts are still in the cache.
+     */
+    @Test
+    public void testResolveCache() throws Exception {
+        ivy.getSettings().setVariable("ivy.resolve.cache", "true");
+        // mod4.1 v 4.14 has evicted dependencies
+        File ivyFile = new File("test/repositories/2/mod4.1/ivy-4.14.xml");
+        ResolveOptions options = new ResolveOptions();
+        options.setConfs(new String[] {"*"});
+
+        ResolveReport resolved = ivy.resolve(ivyFile, options);
+        assertFalse(resolved.hasError());
+        ResolveReport cached = ivy.resolve(ivyFile, options);
+        assertFalse(cached.hasError());
+        assertTrue(cached.getDependencies().isEmpty());
+
+        assertEquals(Arrays.asList(resolved.getConfigurations()),
+            Arrays.asList(cached.getConfigurations()));
+        for (String conf : resolved.getConfigurations()) {
+            ConfigurationResolveReport resolvedConf = resolved.getConfigurationReport(conf);
+            ConfigurationResolveReport cachedConf = cached.getConfigurationReport(conf);
+            assertTrue(cachedConf instanceof CachedConfigurationResolveReport);
+            assertEquals(new ArrayList<>(resolvedConf.getModuleRevisionIds()),
+                new ArrayList<>(cachedConf.getModuleRevisionIds()));
+            assertEquals(resolvedConf.getModuleIds(), cachedConf.getModuleIds());
+            for (ModuleRevisionId mrid : resolvedConf.getModuleRevisionIds()) {
+                assertEquals(files(resolvedConf.getDownloadReports(mrid)),
+                    files(cachedConf.getDownloadReports(mrid)));
+            }
+        }
+        assertEquals(names(resolved.getArtifacts()), names(cached.getArtifacts()));
+        assertEquals(files(resolved.getAllArtifactsReports()),
+            files(cached.getAllArtifactsReports()));
+        for (ArtifactDownloadReport adr : cached.getAllArtifactsReports()) {
+            assertEquals(DownloadStatus.NO, adr.getDownloadStatus());
+        }
+
+        // the options are part of the key of the result
+        options.setTransitive(false);
+        assertFalse(ivy.resolve(ivyFile, options).getConfigurationReport("default")
+                instanceof CachedConfigurationResolveReport);
+        options.setTransitive(true);
+        assertFalse(ivy.resolve(ivyFile, options).getConfigurationReport("default")
+                instanceof CachedConfigurationResolveReport);
+        assertTrue(ivy.resolve(ivyFile, options).getConfigurationReport("default")
+                instanceof CachedConfigurationResolveReport);
+
+        // so are the variables of the settings
+        ivy.getSettings().setVariable("ivy.test.repository", "other");
+        assertFalse(ivy.resolve(ivyFile, options).getConfigurationReport("default")
+                instanceof CachedConfigurationResolveReport);
+        assertTrue(ivy.resolve(ivyFile, options).getConfigurationReport("default")
+                instanceof CachedConfigurationResolveReport);
+
+        // a missing artifact is downloaded again by a real resolve
+        File artifact = cached.getAllArtifactsReports()[0].getLocalFile();
+        assertTrue(artifact.delete());
+        ResolveReport report = ivy.resolve(ivyFile, options);
+        assertFalse(report.getConfigurationReport("default")
+                instanceof CachedConfigurationResolveReport);
+        assertTrue(artifact.exists());
+    }
+
+    /**
+     * Tests that the result of a resolve depending on dynamic revisions is only reused during the
+     * TTL of the cache.
+     */
+    @Test
+    public void testResolveCacheWithDynamicRevision() throws Exception {
+        ivy.getSettings().setVariable("ivy.resolve.cache", "true");
+        ModuleDescriptor md = DefaultModuleDescriptor.newCallerInstance(
+            new ModuleRevisionId[] {ModuleRevisionId.parse("org1#mod1.1;latest.integration")},
+            true, false);
+        ResolveOptions options = new ResolveOptions();
+        options.setConfs(new String[] {"*"});
+        DefaultRepositoryCacheManager cacheManager = (DefaultRepositoryCacheManager) ivy
+                .getSettings().getDefaultRepositoryCacheManager();
+        DefaultResolutionCacheManager resolutionCacheManager =
+                (DefaultResolutionCacheManager) ivy.getSettings().getResolutionCacheManager();
+
+        cacheManager.setDefaultTTL(0);
+        ResolveReport report = ivy.resolve(md, options);
+        assertFalse(report.hasError());
+        assertFalse(resolutionCacheManager.getResolveResultInCache(report.getResolveId())
+                .exists());
+
+        cacheManager.setDefaultTTL(60 * 60 * 1000);
+        ivy.resolve(md, options);
+        report = ivy.resolve(md, options);
+        assertTrue(report.getConfigurationReport("default")
+                instanceof CachedConfigurationResolveReport);
+        assertEquals("2.0", report.getConfigurationReport("default").getModuleRevisionIds()
+                .iterator().next().getRevision());
+    }
+
+    private Set<String> names(List<Artifact> artifacts) {
+        Set<String> names = new HashSet<>();
+        for (Artifact artifact : artifacts) {
+            names.add(artifact.toString());
+        }
+        return names;
+    }
+
+    private List<String> files(ArtifactDownloadReport[] reports) {
+        List<String> files = new ArrayList<>();
+        for (ArtifactDownloadReport report : reports) {
+            files.add(report.getArtifact() + " " + report.getLocalFile());
+        }
+        Collections.sort(files);
+        return files;
+    }
+
+    private List<ModuleRevisionId> ids(List<IvyNode> nodes) {
+        List<ModuleRevisionId> ids = new ArrayList<>();
+        for (IvyNode node : nodes) {
+            ids.add(node.getId());
+        }
+        return ids;
+    }
+
+    private List<String> describe(ArtifactDownloadReport[] reports) {
+        List<String> descriptions = new ArrayList<>();
+        for (ArtifactDownloadReport report : reports) {
+            descriptions.add(report.getArtifact() + " " + report.getDownloadStatus() + " "
+                    + report.getSize());
+        }
+        // artifacts reports of a module are not ordered
+        Collections.sort(descriptions);
+        return descriptions;
+    }
+
     private void testLocateThenDownload(ResolveEngine engine, Artifact artifact, File artifactFile) {
         ArtifactOrigin origin = engine.locate(artifact);
         assertNotNull(origin);
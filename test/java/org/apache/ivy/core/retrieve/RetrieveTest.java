@@ -38,6 +38,7 @@ import org.apache.ivy.core.resolve.ResolveOptions;
 import org.apache.ivy.util.DefaultMessageLogger;
 import org.apache.ivy.util.Message;
 import org.apache.ivy.util.MockMessageLogger;
+import org.apache.ivy.util.filter.FilterHelper;
 import org.apache.tools.ant.Project;
 import org.apache.tools.ant.taskdefs.Copy;
 import org.apache.tools.ant.taskdefs.Delete;
@@ -64,6 +65,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
@@ -283,6 +285,52 @@ public class RetrieveTest {
             file.lastModified());
     }
 
+    @Test
+    public void testIncrementalRetrieve() throws Exception {
+        // mod1.1 depends on mod1.2
+        ResolveReport report = ivy.resolve(new File(
+                "test/repositories/1/org1/mod1.1/ivys/ivy-1.0.xml").toURI().toURL(),
+            getResolveOptions(new String[] {"*"}));
+        ModuleRevisionId mrid = report.getModuleDescriptor().getModuleRevisionId();
+
+        String pattern = "build/test/retrieve/[module]/[conf]/[artifact]-[revision].[ext]";
+        File file = new File(IvyPatternHelper.substitute(pattern, "org1", "mod1.2", "2.0",
+            "mod1.2", "jar", "jar", "default"));
+        RetrieveReport retrieveReport = ivy.retrieve(mrid, getRetrieveOptions().setSync(true)
+                .setIncremental(true).setDestArtifactPattern(pattern));
+        assertEquals(1, retrieveReport.getNbrArtifactsCopied());
+        assertTrue(file.exists());
+
+        // the manifest tells the file is up to date
+        retrieveReport = ivy.retrieve(mrid, getRetrieveOptions().setSync(true)
+                .setIncremental(true).setDestArtifactPattern(pattern));
+        assertEquals(0, retrieveReport.getNbrArtifactsCopied());
+        assertEquals(Arrays.asList(file.getAbsoluteFile()), retrieveReport.getUpToDateFiles());
+
+        // unless it has been deleted
+        file.delete();
+        retrieveReport = ivy.retrieve(mrid, getRetrieveOptions().setSync(true)
+                .setIncremental(true).setDestArtifactPattern(pattern));
+        assertEquals(1, retrieveReport.getNbrArtifactsCopied());
+        assertTrue(file.exists());
+
+        // or changed
+        assertTrue(file.setLastModified(file.lastModified() - 60000));
+        retrieveReport = ivy.retrieve(mrid, getRetrieveOptions().setSync(true)
+                .setIncremental(true).setDestArtifactPattern(pattern));
+        assertEquals(1, retrieveReport.getNbrArtifactsCopied());
+        assertTrue(file.exists());
+
+        // files not retrieved anymore are deleted, with the directories left empty
+        retrieveReport = ivy.retrieve(mrid, getRetrieveOptions().setSync(true)
+                .setIncremental(true).setDestArtifactPattern(pattern)
+                .setArtifactFilter(FilterHelper.getArtifactTypeFilter("source")));
+        assertEquals(0, retrieveReport.getRetrievedFiles().size());
+        assertFalse(file.exists());
+        assertFalse(file.getParentFile().exists());
+        assertTrue(new File("build/test/retrieve").exists());
+    }
+
     @Test
     public void testRetrieveWithSymlinks() throws Exception {
         // mod1.1 depends on mod1.2
@@ -306,6 +354,91 @@ public class RetrieveTest {
             "jar", "default"));
     }
 
+    @Test
+    public void testRetrieveWithHardLinks() throws Exception {
+        // mod1.1 depends on mod1.2
+        ResolveReport report = ivy.resolve(new File(
+                "test/repositories/1/org1/mod1.1/ivys/ivy-1.0.xml").toURI().toURL(),
+            getResolveOptions(new String[] {"*"}));
+        ModuleDescriptor md = report.getModuleDescriptor();
+
+        String pattern = "build/test/retrieve/[module]/[conf]/[artifact]-[revision].[ext]";
+        RetrieveReport retrieveReport = ivy.retrieve(md.getModuleRevisionId(),
+            getRetrieveOptions().setMethod(RetrieveOptions.METHOD_HARDLINK)
+                    .setDestArtifactPattern(pattern));
+        File dest = new File(IvyPatternHelper.substitute(pattern, "org1", "mod1.2", "2.0",
+            "mod1.2", "jar", "jar", "default")).getAbsoluteFile();
+        File cached = retrieveReport.getDownloadReport().get(dest).getLocalFile();
+        String method = retrieveReport.getRetrieveMethod(dest);
+        Assume.assumeTrue("hard links not supported",
+            RetrieveOptions.METHOD_HARDLINK.equals(method));
+        assertTrue(Files.isSameFile(cached.toPath(), dest.toPath()));
+
+        // copying again replaces the link, instead of writing to the cache through it
+        retrieveReport = ivy.retrieve(md.getModuleRevisionId(),
+            getRetrieveOptions().setOverwriteMode(RetrieveOptions.OVERWRITEMODE_ALWAYS)
+                    .setDestArtifactPattern(pattern));
+        assertEquals(RetrieveOptions.METHOD_COPY, retrieveReport.getRetrieveMethod(dest));
+        assertTrue(dest.exists());
+        assertTrue(cached.exists());
+    }
+
+    @Test
+    public void testRetrieveWithCopyAfterHardLinks() throws Exception {
+        // mod1.1 depends on mod1.2
+        ResolveReport report = ivy.resolve(new File(
+                "test/repositories/1/org1/mod1.1/ivys/ivy-1.0.xml").toURI().toURL(),
+            getResolveOptions(new String[] {"*"}));
+        ModuleDescriptor md = report.getModuleDescriptor();
+
+        String pattern = "build/test/retrieve/[module]/[conf]/[artifact]-[revision].[ext]";
+        RetrieveReport retrieveReport = ivy.retrieve(md.getModuleRevisionId(),
+            getRetrieveOptions().setMethod(RetrieveOptions.METHOD_HARDLINK)
+                    .setDestArtifactPattern(pattern));
+        File dest = new File(IvyPatternHelper.substitute(pattern, "org1", "mod1.2", "2.0",
+            "mod1.2", "jar", "jar", "default")).getAbsoluteFile();
+        File cached = retrieveReport.getDownloadReport().get(dest).getLocalFile();
+        Assume.assumeTrue("hard links not supported",
+            RetrieveOptions.METHOD_HARDLINK.equals(retrieveReport.getRetrieveMethod(dest)));
+
+        // the link looks up to date, but isn't retrieved with the copy method
+        retrieveReport = ivy.retrieve(md.getModuleRevisionId(),
+            getRetrieveOptions().setMethod(RetrieveOptions.METHOD_COPY)
+                    .setDestArtifactPattern(pattern));
+        assertEquals(RetrieveOptions.METHOD_COPY, retrieveReport.getRetrieveMethod(dest));
+        assertFalse(Files.isSameFile(cached.toPath(), dest.toPath()));
+        assertArrayEquals(Files.readAllBytes(cached.toPath()), Files.readAllBytes(dest.toPath()));
+
+        // once copied, the file is up to date
+        retrieveReport = ivy.retrieve(md.getModuleRevisionId(),
+            getRetrieveOptions().setMethod(RetrieveOptions.METHOD_COPY)
+                    .setDestArtifactPattern(pattern));
+        assertEquals(0, retrieveReport.getNbrArtifactsCopied());
+    }
+
+    @Test
+    public void testRetrieveWithReflinks() throws Exception {
+        // mod1.1 depends on mod1.2
+        ResolveReport report = ivy.resolve(new File(
+                "test/repositories/1/org1/mod1.1/ivys/ivy-1.0.xml").toURI().toURL(),
+            getResolveOptions(new String[] {"*"}));
+        ModuleDescriptor md = report.getModuleDescriptor();
+
+        String pattern = "build/test/retrieve/[module]/[conf]/[artifact]-[revision].[ext]";
+        RetrieveReport retrieveReport = ivy.retrieve(md.getModuleRevisionId(),
+            getRetrieveOptions().setMethod(RetrieveOptions.METHOD_REFLINK)
+                    .setDestArtifactPattern(pattern));
+        File dest = new File(IvyPatternHelper.substitute(pattern, "org1", "mod1.2", "2.0",
+            "mod1.2", "jar", "jar", "default")).getAbsoluteFile();
+        File cached = retrieveReport.getDownloadReport().get(dest).getLocalFile();
+        // falls back to a copy on filesystems without reflinks
+        String method = retrieveReport.getRetrieveMethod(dest);
+        assertTrue(method, RetrieveOptions.METHOD_REFLINK.equals(method)
+                || RetrieveOptions.METHOD_COPY.equals(method));
+        assertFalse(Files.isSameFile(cached.toPath(), dest.toPath()));
+        assertArrayEquals(Files.readAllBytes(cached.toPath()), Files.readAllBytes(dest.toPath()));
+    }
+
     /**
      * Tests that retrieve, when invoked with "symlink" enabled, creates the necessary symlink
      * when the artifact being retrieved is a directory instead of a regular file
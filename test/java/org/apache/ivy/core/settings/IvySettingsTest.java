@@ -19,17 +19,26 @@ package org.apache.ivy.core.settings;
 
 import java.io.IOException;
 import java.text.ParseException;
+import java.util.Collections;
 
 import org.apache.ivy.Ivy;
+import org.apache.ivy.core.IvyPatternHelper;
+import org.apache.ivy.core.module.id.ModuleId;
+import org.apache.ivy.core.module.id.ModuleRevisionId;
+import org.apache.ivy.plugins.conflict.StrictConflictManager;
+import org.apache.ivy.plugins.matcher.ExactPatternMatcher;
 import org.apache.ivy.plugins.resolver.DependencyResolver;
+import org.apache.ivy.plugins.resolver.FileSystemResolver;
 
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 public class IvySettingsTest {
 
@@ -106,4 +115,37 @@ public class IvySettingsTest {
         settings.setVariable("ivy", "rocks", true, "foo", "noexist");
         assertEquals("rocks", settings.getVariable("ivy"));
     }
+
+    @Test
+    public void testChangeFrozenSettings() throws ParseException, IOException {
+        assertFalse(new IvySettings().isFrozen());
+
+        Ivy ivy = new Ivy();
+        ivy.configureDefault();
+        IvySettings settings = ivy.getSettings();
+        assertTrue(settings.isFrozen());
+
+        ModuleRevisionId mrid = ModuleRevisionId.newInstance("org", "mod", "1.0");
+        assertSame(settings.getResolver("default"), settings.getResolver(mrid));
+        assertSame(settings.getDefaultConflictManager(),
+            settings.getConflictManager(mrid.getModuleId()));
+
+        // changes made once frozen are taken into account
+        FileSystemResolver resolver = new FileSystemResolver();
+        resolver.setName("other");
+        settings.addResolver(resolver);
+        settings.addConflictManager("strict", new StrictConflictManager());
+        settings.addModuleConfiguration(
+            Collections.singletonMap(IvyPatternHelper.ORGANISATION_KEY, "org"),
+            ExactPatternMatcher.INSTANCE, "other", "trunk", "strict", null);
+        assertSame(resolver, settings.getResolver("other"));
+        assertSame(resolver, settings.getResolver(mrid));
+        assertEquals("trunk", settings.getDefaultBranch(mrid.getModuleId()));
+        assertSame(settings.getConflictManager("strict"),
+            settings.getConflictManager(mrid.getModuleId()));
+        assertSame(settings.getResolver("default"),
+            settings.getResolver(ModuleRevisionId.newInstance("other", "mod", "1.0")));
+        assertEquals(settings.getDefaultResolveMode(),
+            settings.getResolveMode(new ModuleId("org", "mod")));
+    }
 }
@@ -236,6 +236,10 @@ public class XmlSettingsParserTest {
                 c.getTTL(ModuleRevisionId.newInstance("org2", "A", "A")));
         assertEquals(60 * 3600 * 1000, // 2d 12h = 60h
                 c.getTTL(ModuleRevisionId.newInstance("org3", "A", "A")));
+        assertEquals(10 * 60 * 1000, c.getDefaultMissingTTL());
+        assertEquals(3600 * 1000, c.getMissingTTL(ModuleRevisionId.newInstance("org1", "A", "A")));
+        assertEquals(10 * 60 * 1000,
+                c.getMissingTTL(ModuleRevisionId.newInstance("org2", "A", "A")));
         assertEquals(new File("mycache").getCanonicalFile(), c.getBasedir().getCanonicalFile());
         assertFalse(c.isUseOrigin());
         assertEquals("no-lock", c.getLockStrategy().getName());
@@ -275,6 +279,22 @@ public class XmlSettingsParserTest {
         parser.parse(XmlSettingsParserTest.class.getResource("ivysettings-cache-invalid.xml"));
     }
 
+    /**
+     * Test of an HTTP connection pool setting which isn't a number.
+     *
+     * @throws Exception if something goes wrong
+     */
+    @Test
+    public void testInvalidHttpPoolSetting() throws Exception {
+        expExc.expect(ParseException.class);
+        expExc.expectMessage("invalid value for attribute httpMaxConnections: many");
+
+        IvySettings settings = new IvySettings();
+        XmlSettingsParser parser = new XmlSettingsParser(settings);
+
+        parser.parse(XmlSettingsParserTest.class.getResource("ivysettings-http-pool-invalid.xml"));
+    }
+
     @Test
     public void testVersionMatchers1() throws Exception {
         IvySettings settings = new IvySettings();
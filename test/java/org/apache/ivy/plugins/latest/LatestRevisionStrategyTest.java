@@ -17,13 +17,18 @@
  */
 package org.apache.ivy.plugins.latest;
 
+import org.apache.ivy.core.module.id.ModuleRevisionId;
 import org.junit.Test;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.Date;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
@@ -90,6 +95,99 @@ public class LatestRevisionStrategyTest {
         assertEquals(Arrays.asList(revs), shuffled);
     }
 
+    /**
+     * Checks that revisions are compared exactly as they were with regular expressions.
+     */
+    @Test
+    public void testSameOrderAsRegexpComparison() {
+        String[] fixed = {"", ".", "..", "1.", ".1", "-1", "1--2", "a", "A1b2", "1A", "_", "+x",
+                "1.0", "01.0", "1.0.0", "1.0-SNAPSHOT", "1.0-snapshot", "1.0.RC1", "1.0rc",
+                "1.0_final", "1.0-Final", "1.0-dev", "2.0b", "2.0beta10", "2.0beta9", "3.0+build.1",
+                "99999999999999999999", "1.99999999999999999999"};
+        String chars = "019aZrcdevfinal.-_+";
+        Random random = new Random(1234);
+        List<String> revisions = new ArrayList<>(Arrays.asList(fixed));
+        for (int i = 0; i < 2000; i++) {
+            StringBuilder rev = new StringBuilder();
+            int length = random.nextInt(10);
+            for (int j = 0; j < length; j++) {
+                rev.append(chars.charAt(random.nextInt(chars.length())));
+            }
+            revisions.add(rev.toString());
+        }
+
+        LatestRevisionStrategy strategy = new LatestRevisionStrategy();
+        Comparator<ModuleRevisionId> comparator = strategy.new MridComparator();
+        for (String rev1 : revisions) {
+            for (String rev2 : fixed) {
+                ModuleRevisionId mrid1 = ModuleRevisionId.newInstance("org", "mod", rev1);
+                ModuleRevisionId mrid2 = ModuleRevisionId.newInstance("org", "mod", rev2);
+                String expected = compareWithRegexps(strategy, rev1, rev2);
+                String actual;
+                try {
+                    actual = String.valueOf(comparator.compare(mrid1, mrid2));
+                } catch (NumberFormatException e) {
+                    actual = "NumberFormatException";
+                }
+                assertEquals(rev1 + " <> " + rev2, expected, actual);
+            }
+        }
+    }
+
+    /**
+     * The comparison algorithm as it was implemented with regular expressions.
+     */
+    private static String compareWithRegexps(LatestRevisionStrategy strategy, String rev1,
+            String rev2) {
+        rev1 = rev1.replaceAll("([a-zA-Z])(\\d)", "$1.$2");
+        rev1 = rev1.replaceAll("(\\d)([a-zA-Z])", "$1.$2");
+        rev2 = rev2.replaceAll("([a-zA-Z])(\\d)", "$1.$2");
+        rev2 = rev2.replaceAll("(\\d)([a-zA-Z])", "$1.$2");
+
+        String[] parts1 = rev1.split("[\\._\\-\\+]");
+        String[] parts2 = rev2.split("[\\._\\-\\+]");
+
+        int i = 0;
+        for (; i < parts1.length && i < parts2.length; i++) {
+            if (parts1[i].equals(parts2[i])) {
+                continue;
+            }
+            boolean is1Number = parts1[i].matches("\\d+");
+            boolean is2Number = parts2[i].matches("\\d+");
+            if (is1Number && !is2Number) {
+                return "1";
+            }
+            if (is2Number && !is1Number) {
+                return "-1";
+            }
+            if (is1Number && is2Number) {
+                try {
+                    return String.valueOf(
+                        Long.valueOf(parts1[i]).compareTo(Long.valueOf(parts2[i])));
+                } catch (NumberFormatException e) {
+                    return "NumberFormatException";
+                }
+            }
+            Map<String, Integer> specialMeanings = strategy.getSpecialMeanings();
+            Integer sm1 = specialMeanings.get(parts1[i].toLowerCase(Locale.US));
+            Integer sm2 = specialMeanings.get(parts2[i].toLowerCase(Locale.US));
+            if (sm1 != null) {
+                return String.valueOf(sm1.compareTo(sm2 == null ? 0 : sm2));
+            }
+            if (sm2 != null) {
+                return String.valueOf(Integer.valueOf(0).compareTo(sm2));
+            }
+            return String.valueOf(parts1[i].compareTo(parts2[i]));
+        }
+        if (i < parts1.length) {
+            return parts1[i].matches("\\d+") ? "1" : "-1";
+        }
+        if (i < parts2.length) {
+            return parts2[i].matches("\\d+") ? "-1" : "1";
+        }
+        return "0";
+    }
+
     private static class MockArtifactInfo implements ArtifactInfo {
 
         private long lastModified;
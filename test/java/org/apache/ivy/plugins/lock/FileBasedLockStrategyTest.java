@@ -0,0 +1,131 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.plugins.lock;
+
+import java.io.File;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.ivy.util.FileUtil;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class FileBasedLockStrategyTest {
+    private File lockDir;
+
+    @Before
+    public void setUp() {
+        lockDir = new File("build/test/locks");
+        FileUtil.forceDelete(lockDir);
+    }
+
+    @After
+    public void tearDown() {
+        FileUtil.forceDelete(lockDir);
+    }
+
+    @Test
+    public void testReentrantLock() throws Exception {
+        FileBasedLockStrategy strategy = new CreateFileLockStrategy(false);
+        File file = new File(lockDir, "reentrant.lck");
+
+        assertTrue(strategy.acquireLock(file));
+        assertTrue(strategy.acquireLock(file));
+        assertTrue(file.exists());
+
+        strategy.releaseLock(file);
+        assertTrue(file.exists());
+        strategy.releaseLock(file);
+        assertFalse(file.exists());
+
+        assertEquals(1, strategy.getAcquiredLockCount());
+        assertEquals(0, strategy.getTimedOutLockCount());
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testReleaseNotHeldLock() {
+        new CreateFileLockStrategy(false).releaseLock(new File(lockDir, "notheld.lck"));
+    }
+
+    @Test
+    public void testConcurrentLockWithCreateFileLocker() throws Exception {
+        checkMutualExclusion(new CreateFileLockStrategy(false));
+    }
+
+    @Test
+    public void testConcurrentLockWithNIOFileLocker() throws Exception {
+        checkMutualExclusion(new NIOFileLockStrategy(false));
+    }
+
+    /**
+     * Makes several threads lock the same file repeatedly, checking that no two of them ever hold
+     * the lock at the same time, while other threads lock their own files.
+     */
+    private void checkMutualExclusion(final FileBasedLockStrategy strategy) throws Exception {
+        final File shared = new File(lockDir, "shared.lck");
+        final AtomicInteger holders = new AtomicInteger();
+        final AtomicInteger overlaps = new AtomicInteger();
+        final AtomicInteger failures = new AtomicInteger();
+        final int iterations = 50;
+
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            final File own = new File(lockDir, "own-" + i + ".lck");
+            threads[i] = new Thread() {
+                public void run() {
+                    try {
+                        for (int j = 0; j < iterations; j++) {
+                            if (!strategy.acquireLock(shared)) {
+                                failures.incrementAndGet();
+                                continue;
+                            }
+                            try {
+                                if (holders.incrementAndGet() > 1) {
+                                    overlaps.incrementAndGet();
+                                }
+                                if (!strategy.acquireLock(own)) {
+                                    failures.incrementAndGet();
+                                } else {
+                                    strategy.releaseLock(own);
+                                }
+                                holders.decrementAndGet();
+                            } finally {
+                                strategy.releaseLock(shared);
+                            }
+                        }
+                    } catch (InterruptedException e) {
+                        failures.incrementAndGet();
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join(60000);
+        }
+
+        assertEquals(0, failures.get());
+        assertEquals(0, overlaps.get());
+        assertEquals(2 * threads.length * iterations, strategy.getAcquiredLockCount());
+        assertEquals(0, strategy.getTimedOutLockCount());
+    }
+}
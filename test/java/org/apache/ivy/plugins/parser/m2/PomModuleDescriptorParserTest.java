@@ -1058,6 +1058,26 @@ public class PomModuleDescriptorParserTest extends AbstractModuleDescriptorParse
         assertNotNull(md);
     }
 
+    /**
+     * The text of an element is made of its text and CDATA content, entities included, but not
+     * of its comments and child elements.
+     *
+     * @throws Exception if something goes wrong
+     */
+    @Test
+    public void testText() throws Exception {
+        ModuleDescriptor md = PomModuleDescriptorParser.getInstance().parseDescriptor(settings,
+            getClass().getResource("test-text.pom"), false);
+        assertEquals(ModuleRevisionId.newInstance("org.apache", "test-text", "1.0"),
+            md.getModuleRevisionId());
+        assertEquals("Caf\u00e9 & bar", md.getDescription());
+
+        DependencyDescriptor[] dds = md.getDependencies();
+        assertEquals(1, dds.length);
+        assertEquals(ModuleRevisionId.newInstance("commons-logging", "commons-logging", "1.0.4"),
+            dds[0].getDependencyRevisionId());
+    }
+
     @Test
     public void testModel() throws Exception {
         ModuleDescriptor md = PomModuleDescriptorParser.getInstance().parseDescriptor(settings,
@@ -18,13 +18,22 @@
 package org.apache.ivy.plugins.repository.file;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
+import org.apache.ivy.plugins.repository.Resource;
+import org.apache.ivy.plugins.repository.TransferEvent;
+import org.apache.ivy.plugins.repository.TransferListener;
 import org.apache.ivy.util.FileUtil;
 
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -82,4 +91,62 @@ public class FileRepositoryTest {
         }
     }
 
+    @Test
+    public void getResourcesReadsAttributesOnce() throws Exception {
+        FileRepository fp = new FileRepository(repoDir);
+        fp.put(new File("build.xml"), "foo/bar/baz.xml", true);
+        List<Resource> resources = fp.getResources(Arrays.asList("foo/bar/baz.xml",
+            "foo/bar/missing.xml"));
+        assertEquals(2, resources.size());
+
+        Resource baz = resources.get(0);
+        File bazFile = new File(repoDir, "foo/bar/baz.xml");
+        assertTrue(baz.exists());
+        assertEquals(bazFile.length(), baz.getContentLength());
+        assertEquals(bazFile.lastModified(), baz.getLastModified());
+        assertFalse(resources.get(1).exists());
+        assertEquals(0, resources.get(1).getLastModified());
+
+        // the resources reflect the state of the files when they were obtained
+        assertTrue(bazFile.delete());
+        assertTrue(baz.exists());
+        assertFalse(fp.getResource("foo/bar/baz.xml").exists());
+    }
+
+    @Test
+    public void concurrentGetsReportTheirOwnTransfers() throws Exception {
+        final FileRepository fp = new FileRepository(repoDir);
+        fp.put(new File("build.xml"), "a.xml", true);
+        fp.put(new File("test/repositories/ivysettings.xml"), "b.txt", true);
+        final List<String> errors = Collections.synchronizedList(new ArrayList<String>());
+        fp.addTransferListener(new TransferListener() {
+            public void transferProgress(TransferEvent evt) {
+                if (evt.getEventType() == TransferEvent.TRANSFER_COMPLETED
+                        && evt.getTotalLength() != evt.getResource().getContentLength()) {
+                    errors.add(evt.getResource() + ": " + evt.getTotalLength());
+                }
+            }
+        });
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            final String source = i % 2 == 0 ? "a.xml" : "b.txt";
+            final File destination = new File(repoDir, "get" + i);
+            threads[i] = new Thread() {
+                public void run() {
+                    try {
+                        for (int j = 0; j < 50; j++) {
+                            fp.get(source, destination);
+                        }
+                    } catch (Exception e) {
+                        errors.add(e.toString());
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(Collections.<String>emptyList(), errors);
+    }
 }
@@ -0,0 +1,112 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.plugins.repository.url;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class URLResourceBatchTest {
+    private final List<Integer> loaded = Collections.synchronizedList(new ArrayList<Integer>());
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private CountDownLatch loads;
+
+    /**
+     * Only the resources following the accessed one in the order of the caller are loaded in the
+     * background, at most as many as the parallelism.
+     *
+     * @throws Exception if something goes wrong
+     */
+    @Test
+    public void testLoadsAheadInCallerOrder() throws Exception {
+        List<URLResource> resources = newResources(6);
+        URLResourceBatch batch = new URLResourceBatch(resources, 2);
+        List<URLResource> order = new ArrayList<>(resources);
+        Collections.reverse(order);
+        batch.setOrder(order);
+        release.countDown();
+        loads = new CountDownLatch(2);
+
+        batch.accessed(resources.get(5));
+        assertTrue(loaded.isEmpty());
+        batch.accessed(resources.get(4));
+        assertTrue(loads.await(10, TimeUnit.SECONDS));
+        batch.cancel();
+
+        assertEquals(new HashSet<>(Arrays.asList(3, 2)), new HashSet<>(loaded));
+    }
+
+    /**
+     * The loads still waiting when the batch is cancelled never happen, and no load is started
+     * afterwards.
+     *
+     * @throws Exception if something goes wrong
+     */
+    @Test
+    public void testCancelDropsPendingLoads() throws Exception {
+        List<URLResource> resources = newResources(6);
+        URLResourceBatch batch = new URLResourceBatch(resources, 1);
+        loads = new CountDownLatch(1);
+
+        batch.accessed(resources.get(0));
+        batch.accessed(resources.get(1));
+        // the load of the third resource blocks the only thread of the batch
+        assertTrue(loads.await(10, TimeUnit.SECONDS));
+        batch.accessed(resources.get(2));
+        batch.cancel();
+        batch.accessed(resources.get(3));
+        release.countDown();
+        Thread.sleep(100);
+
+        assertEquals(Collections.singletonList(2), loaded);
+    }
+
+    private List<URLResource> newResources(int count) throws MalformedURLException {
+        List<URLResource> resources = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            final int index = i;
+            URLResource res = new URLResource(new URL("http://localhost/repo/" + i)) {
+                @Override
+                void load() {
+                    loaded.add(index);
+                    loads.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            };
+            resources.add(res);
+        }
+        return resources;
+    }
+}
@@ -20,12 +20,19 @@ package org.apache.ivy.plugins.resolver;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
 import java.util.GregorianCalendar;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.ivy.TestHelper;
 import org.apache.ivy.core.IvyContext;
@@ -46,7 +53,9 @@ import org.apache.ivy.core.settings.IvySettings;
 import org.apache.ivy.core.settings.XmlSettingsParser;
 import org.apache.ivy.core.sort.SortEngine;
 import org.apache.ivy.plugins.latest.LatestRevisionStrategy;
+import org.apache.ivy.plugins.latest.LatestStrategy;
 import org.apache.ivy.plugins.latest.LatestTimeStrategy;
+import org.apache.ivy.plugins.resolver.util.ResolvedResource;
 import org.apache.ivy.util.MockMessageLogger;
 import org.junit.After;
 import org.junit.Before;
@@ -420,6 +429,210 @@ public class ChainResolverTest extends AbstractDependencyResolverTest {
         }
     }
 
+    @Test
+    public void testParallelLatestRevisionResolve() throws Exception {
+        ChainResolver chain = new ChainResolver();
+        chain.setName("chain");
+        chain.setSettings(settings);
+        chain.setParallel(true);
+        chain.setLatestStrategy(new LatestRevisionStrategy());
+        MockResolver[] resolvers = new MockResolver[] {
+                MockResolver.buildMockResolver(settings, "1", true,
+                    ModuleRevisionId.newInstance("org", "mod", "1"),
+                    new GregorianCalendar(2005, 1, 20).getTime()),
+                MockResolver.buildMockResolver(settings, "2", false, null),
+                MockResolver.buildMockResolver(settings, "3", true,
+                    ModuleRevisionId.newInstance("org", "mod", "4"),
+                    new GregorianCalendar(2005, 1, 25).getTime()),
+                    // latest -> should the one kept
+                MockResolver.buildMockResolver(settings, "4", true,
+                    ModuleRevisionId.newInstance("org", "mod", "4"),
+                    new GregorianCalendar(2005, 1, 22).getTime()),
+                MockResolver.buildMockResolver(settings, "5", true,
+                    ModuleRevisionId.newInstance("org", "mod", "3"),
+                    new GregorianCalendar(2005, 1, 18).getTime())};
+        for (MockResolver resolver : resolvers) {
+            chain.add(resolver);
+        }
+
+        DefaultDependencyDescriptor dd = new DefaultDependencyDescriptor(
+                ModuleRevisionId.newInstance("org", "mod", "latest.integration"), false);
+        ResolvedModuleRevision rmr = chain.getDependency(dd, data);
+        assertNotNull(rmr);
+        assertEquals("3", rmr.getResolver().getName());
+        assertEquals("4", rmr.getId().getRevision());
+        assertFalse(rmr.isForce());
+    }
+
+    /**
+     * The latest strategy of the chain is only used by its resolvers when they are asked through
+     * the chain, not by other threads using the same resolvers at the same time.
+     */
+    @Test
+    public void testLatestStrategyOnlyUsedThroughChain() throws Exception {
+        final LatestStrategy chainLatest = new LatestRevisionStrategy();
+        final LatestStrategy ownLatest = new LatestTimeStrategy();
+        final List<LatestStrategy> used = Collections.synchronizedList(
+            new ArrayList<LatestStrategy>());
+        MockResolver resolver = new MockResolver() {
+            public ResolvedModuleRevision getDependency(DependencyDescriptor dd,
+                    ResolveData data) throws ParseException {
+                used.add(getLatestStrategy());
+                Thread other = new Thread() {
+                    public void run() {
+                        used.add(getLatestStrategy());
+                    }
+                };
+                other.start();
+                try {
+                    other.join();
+                } catch (InterruptedException e) {
+                    throw new RuntimeException(e);
+                }
+                return super.getDependency(dd, data);
+            }
+        };
+        resolver.setName("1");
+        resolver.setSettings(settings);
+        resolver.setLatest("latest-time");
+        resolver.setLatestStrategy(ownLatest);
+
+        ChainResolver chain = new ChainResolver();
+        chain.setName("chain");
+        chain.setSettings(settings);
+        chain.setLatestStrategy(chainLatest);
+        chain.add(resolver);
+        chain.add(MockResolver.buildMockResolver(settings, "2", false, null));
+        DefaultDependencyDescriptor dd = new DefaultDependencyDescriptor(
+                ModuleRevisionId.newInstance("org", "mod", "latest.integration"), false);
+
+        chain.getDependency(dd, data);
+        chain.setParallel(true);
+        chain.getDependency(dd, data);
+
+        assertEquals(Arrays.asList(chainLatest, ownLatest, chainLatest, ownLatest), used);
+        assertSame(ownLatest, resolver.getLatestStrategy());
+    }
+
+    @Test
+    public void testParallelReturnFirst() throws Exception {
+        ChainResolver chain = new ChainResolver();
+        chain.setName("chain");
+        chain.setSettings(settings);
+        chain.setParallel(true);
+        chain.setReturnFirst(true);
+        MockResolver[] resolvers = new MockResolver[] {
+                MockResolver.buildMockResolver(settings, "1", false, null),
+                MockResolver.buildMockResolver(settings, "2", true,
+                    new GregorianCalendar(2005, 1, 20).getTime()),
+                    // first found -> should the one kept
+                MockResolver.buildMockResolver(settings, "3", true,
+                    new GregorianCalendar(2005, 1, 25).getTime())};
+        for (MockResolver resolver : resolvers) {
+            chain.add(resolver);
+        }
+
+        DefaultDependencyDescriptor dd = new DefaultDependencyDescriptor(
+                ModuleRevisionId.newInstance("org", "mod", "latest.integration"), false);
+        ResolvedModuleRevision rmr = chain.getDependency(dd, data);
+        assertNotNull(rmr);
+        assertEquals("2", rmr.getResolver().getName());
+        assertTrue(rmr.isForce());
+    }
+
+    @Test
+    public void testParallelErrors() throws Exception {
+        ChainResolver chain = new ChainResolver();
+        chain.setName("chain");
+        chain.setSettings(settings);
+        chain.setParallel(true);
+        chain.add(buildFailingResolver("1"));
+        chain.add(MockResolver.buildMockResolver(settings, "2", false, null));
+        chain.add(buildFailingResolver("3"));
+
+        DefaultDependencyDescriptor dd = new DefaultDependencyDescriptor(
+                ModuleRevisionId.newInstance("org", "mod", "rev"), false);
+        try {
+            chain.getDependency(dd, data);
+            fail("expected an exception");
+        } catch (RuntimeException ex) {
+            assertTrue(ex.getMessage(), ex.getMessage().startsWith("several problems occurred"));
+            assertTrue(ex.getMessage(), ex.getMessage().contains("failure of 1"));
+            assertTrue(ex.getMessage(), ex.getMessage().contains("failure of 3"));
+        }
+
+        // errors are ignored when the module is found
+        chain.add(MockResolver.buildMockResolver(settings, "4", true, null));
+        assertEquals("4", chain.getDependency(dd, data).getResolver().getName());
+    }
+
+    /**
+     * The repositories are looked up concurrently, but the resolvers are asked for the module one
+     * after the other, so that they never put the same module in the cache at the same time.
+     */
+    @Test
+    public void testParallelLookupsResolveInChainOrder() throws Exception {
+        final Thread caller = Thread.currentThread();
+        final CountDownLatch lookedUp = new CountDownLatch(2);
+        final List<String> asked = Collections.synchronizedList(new ArrayList<String>());
+        ChainResolver chain = new ChainResolver();
+        chain.setName("chain");
+        chain.setSettings(settings);
+        chain.setParallel(true);
+        for (String name : new String[] {"1", "2", "3"}) {
+            FileSystemResolver resolver = new FileSystemResolver() {
+                @Override
+                public ResolvedResource findIvyFileRef(DependencyDescriptor dd,
+                        ResolveData data) {
+                    if (Thread.currentThread() != caller) {
+                        lookedUp.countDown();
+                    }
+                    return super.findIvyFileRef(dd, data);
+                }
+
+                @Override
+                public ResolvedModuleRevision getDependency(DependencyDescriptor dd,
+                        ResolveData data) throws ParseException {
+                    ResolvedModuleRevision previous = data.getCurrentResolvedModuleRevision();
+                    asked.add(previous == null ? getName()
+                            : getName() + " after " + previous.getResolver().getName());
+                    try {
+                        assertTrue(lookedUp.await(10, TimeUnit.SECONDS));
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                    return super.getDependency(dd, data);
+                }
+            };
+            resolver.setName(name);
+            resolver.setSettings(settings);
+            resolver.addIvyPattern(settings.getBaseDir()
+                    + "/test/repositories/1/[organisation]/[module]/ivys/ivy-[revision].xml");
+            chain.add(resolver);
+        }
+
+        DefaultDependencyDescriptor dd = new DefaultDependencyDescriptor(
+                ModuleRevisionId.newInstance("org1", "mod1.1", "1.0"), false);
+        ResolvedModuleRevision rmr = chain.getDependency(dd, data);
+        assertNotNull(rmr);
+        assertEquals("1", rmr.getResolver().getName());
+        // the following resolvers are given the module found by the first one
+        assertEquals(Arrays.asList("1", "2 after 1", "3 after 1"), asked);
+    }
+
+    private MockResolver buildFailingResolver(final String name) {
+        MockResolver resolver = new MockResolver() {
+            @Override
+            public ResolvedModuleRevision getDependency(DependencyDescriptor dd,
+                    ResolveData data) {
+                throw new IllegalStateException("failure of " + name);
+            }
+        };
+        resolver.setName(name);
+        resolver.setSettings(settings);
+        return resolver;
+    }
+
     /**
      * Test case for IVY-389.
      *
@@ -18,12 +18,14 @@
 package org.apache.ivy.plugins.resolver;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
 import java.util.Date;
 import java.util.GregorianCalendar;
 
+import org.apache.ivy.core.IvyPatternHelper;
 import org.apache.ivy.core.cache.DefaultRepositoryCacheManager;
 import org.apache.ivy.core.event.EventManager;
 import org.apache.ivy.core.module.descriptor.Artifact;
@@ -175,6 +177,74 @@ public class FileSystemResolverTest extends AbstractDependencyResolverTest {
      * @throws Exception if something goes wrong
      * @see <a href="https://issues.apache.org/jira/browse/IVY-676">IVY-676</a>
      */
+    @Test
+    public void testKnownMissingResource() throws Exception {
+        FileSystemResolver resolver = new FileSystemResolver();
+        resolver.setName("test");
+        resolver.setSettings(settings);
+        resolver.addIvyPattern(IVY_PATTERN);
+        cacheManager.setDefaultMissingTTL("1h");
+
+        ModuleRevisionId mrid = ModuleRevisionId.newInstance("myorg", "mymodule", "1.0");
+        DefaultDependencyDescriptor dd = new DefaultDependencyDescriptor(mrid, false);
+        assertNull(resolver.getDependency(dd, data));
+
+        File ivyFile = new File("test/repositories/1/myorg/mymodule/ivys/ivy-1.0.xml");
+        ivyFile.getParentFile().mkdirs();
+        FileUtil.copy(new ByteArrayInputStream(("<ivy-module version=\"1.0\">"
+                + "<info organisation=\"myorg\" module=\"mymodule\" revision=\"1.0\"/>"
+                + "</ivy-module>").getBytes("UTF-8")), ivyFile, null);
+
+        // the miss is remembered
+        assertNull(resolver.getDependency(dd, data));
+
+        // but not used when refreshing
+        ResolveData refreshData = new ResolveData(engine, new ResolveOptions().setRefresh(true));
+        assertNotNull(resolver.getDependency(dd, refreshData));
+        String resource = resolver.getRepository().getResource(IvyPatternHelper.substitute(
+            IVY_PATTERN, mrid, DefaultArtifact.newIvyArtifact(mrid, null))).getName();
+        assertFalse(cacheManager.isKnownMissing("test", mrid, resource));
+    }
+
+    /**
+     * Checksum files not found next to a downloaded artifact are remembered as missing too.
+     *
+     * @throws Exception if something goes wrong
+     */
+    @Test
+    public void testKnownMissingChecksum() throws Exception {
+        String artifactPattern = settings.getBaseDir()
+                + "/test/repositories/1/[organisation]/[module]/[type]s/[artifact]-[revision].[type]";
+        FileSystemResolver resolver = new FileSystemResolver();
+        resolver.setName("test");
+        resolver.setSettings(settings);
+        resolver.setChecksums("sha1");
+        resolver.addArtifactPattern(artifactPattern);
+        cacheManager.setDefaultMissingTTL("1h");
+
+        ModuleRevisionId mrid = ModuleRevisionId.newInstance("myorg", "mymodule", "1.0");
+        DefaultArtifact artifact = new DefaultArtifact(mrid, new Date(), "mymodule", "jar", "jar");
+        File jar = new File("test/repositories/1/myorg/mymodule/jars/mymodule-1.0.jar");
+        jar.getParentFile().mkdirs();
+        FileUtil.copy(new ByteArrayInputStream("content".getBytes("UTF-8")), jar, null);
+
+        DownloadReport report = resolver.download(new Artifact[] {artifact}, getDownloadOptions());
+        assertEquals(DownloadStatus.SUCCESSFUL,
+            report.getArtifactReport(artifact).getDownloadStatus());
+        String checksum = resolver.getRepository()
+                .getResource(IvyPatternHelper.substitute(artifactPattern, artifact)).getName()
+                + ".sha1";
+        assertTrue(cacheManager.isKnownMissing("test", mrid, checksum));
+
+        // a checksum published since is not looked for while the miss is remembered
+        FileUtil.copy(new ByteArrayInputStream("0000".getBytes("UTF-8")),
+            new File(jar.getPath() + ".sha1"), null);
+        assertTrue(cacheManager.getArchiveFileInCache(artifact).delete());
+        report = resolver.download(new Artifact[] {artifact}, getDownloadOptions());
+        assertEquals(DownloadStatus.SUCCESSFUL,
+            report.getArtifactReport(artifact).getDownloadStatus());
+    }
+
     @Test
     public void testFindIvyFileRefWithMultipleIvyPatterns() throws Exception {
         FileSystemResolver resolver = new FileSystemResolver();
@@ -24,15 +24,24 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.ivy.TestHelper;
 import org.apache.ivy.core.IvyContext;
 import org.apache.ivy.core.IvyPatternHelper;
+import org.apache.ivy.core.cache.DefaultRepositoryCacheManager;
 import org.apache.ivy.core.event.EventManager;
 import org.apache.ivy.core.module.descriptor.DefaultDependencyDescriptor;
 import org.apache.ivy.core.module.id.ModuleRevisionId;
@@ -50,6 +59,10 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
 /**
  *
  */
@@ -215,4 +228,135 @@ public class IBiblioResolverTest extends AbstractDependencyResolverTest {
                 .assertLogContains("tried http://unknown.host.comx/org/apache/commons-fileupload/1.0/commons-fileupload-1.0.jar");
     }
 
+    @Test
+    public void testMavenMetadataCache() throws Exception {
+        final Path repoRoot = new File("test/repositories/m2").toPath();
+        final AtomicInteger metadataRequests = new AtomicInteger();
+        final AtomicInteger notModified = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/m2/", new HttpHandler() {
+            public void handle(HttpExchange exchange) throws IOException {
+                try {
+                    Path file = repoRoot.resolve(exchange.getRequestURI().getPath()
+                            .substring("/m2/".length()));
+                    if (!Files.isRegularFile(file)) {
+                        exchange.sendResponseHeaders(404, -1);
+                        return;
+                    }
+                    if (file.endsWith("maven-metadata.xml")) {
+                        metadataRequests.incrementAndGet();
+                    }
+                    exchange.getResponseHeaders().add("ETag", "\"v1\"");
+                    if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                        notModified.incrementAndGet();
+                        exchange.sendResponseHeaders(304, -1);
+                        return;
+                    }
+                    byte[] content = Files.readAllBytes(file);
+                    exchange.sendResponseHeaders(200, content.length);
+                    try (OutputStream out = exchange.getResponseBody()) {
+                        out.write(content);
+                    }
+                } finally {
+                    exchange.close();
+                }
+            }
+        });
+        server.start();
+        try {
+            IBiblioResolver resolver = new IBiblioResolver();
+            resolver.setName("test");
+            resolver.setSettings(settings);
+            resolver.setM2compatible(true);
+            resolver.setRoot("http://localhost:" + server.getAddress().getPort() + "/m2/");
+            ModuleEntry mod = new ModuleEntry(new OrganisationEntry(resolver, "org.apache"),
+                    "test-metadata");
+            DefaultRepositoryCacheManager cache = (DefaultRepositoryCacheManager) resolver
+                    .getRepositoryCacheManager();
+
+            // parsed once per resolve
+            cache.setDefaultTTL(0);
+            IvyContext.getContext().setResolveData(data);
+            try {
+                assertRevisions(resolver.listRevisions(mod), "1.0", "1.1");
+                assertRevisions(resolver.listRevisions(mod), "1.0", "1.1");
+            } finally {
+                IvyContext.getContext().setResolveData(null);
+            }
+            assertEquals(1, metadataRequests.get());
+
+            // revalidated once the TTL has expired
+            assertRevisions(resolver.listRevisions(mod), "1.0", "1.1");
+            int requests = metadataRequests.get();
+            assertTrue(requests > 1);
+            assertEquals(requests - 1, notModified.get());
+
+            // not requested during the TTL
+            cache.setDefaultTTL("1h");
+            assertRevisions(resolver.listRevisions(mod), "1.0", "1.1");
+            assertEquals(requests, metadataRequests.get());
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    public void testMavenMetadataServerErrorNotRemembered() throws Exception {
+        final Path repoRoot = new File("test/repositories/m2").toPath();
+        final AtomicInteger metadataRequests = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/m2/", new HttpHandler() {
+            public void handle(HttpExchange exchange) throws IOException {
+                try {
+                    Path file = repoRoot.resolve(exchange.getRequestURI().getPath()
+                            .substring("/m2/".length()));
+                    if (!Files.isRegularFile(file)) {
+                        exchange.sendResponseHeaders(404, -1);
+                        return;
+                    }
+                    if (file.endsWith("maven-metadata.xml")
+                            && metadataRequests.incrementAndGet() == 1) {
+                        exchange.sendResponseHeaders(503, -1);
+                        return;
+                    }
+                    byte[] content = Files.readAllBytes(file);
+                    exchange.sendResponseHeaders(200, content.length);
+                    try (OutputStream out = exchange.getResponseBody()) {
+                        out.write(content);
+                    }
+                } finally {
+                    exchange.close();
+                }
+            }
+        });
+        server.start();
+        try {
+            IBiblioResolver resolver = new IBiblioResolver();
+            resolver.setName("test");
+            resolver.setSettings(settings);
+            resolver.setM2compatible(true);
+            resolver.setRoot("http://localhost:" + server.getAddress().getPort() + "/m2/");
+            ModuleEntry mod = new ModuleEntry(new OrganisationEntry(resolver, "org.apache"),
+                    "test-metadata");
+
+            IvyContext.getContext().setResolveData(data);
+            try {
+                // the server error isn't taken as a missing metadata file for the resolve
+                assertRevisions(resolver.listRevisions(mod), "1.0", "1.1");
+                assertEquals(2, metadataRequests.get());
+            } finally {
+                IvyContext.getContext().setResolveData(null);
+            }
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    private static void assertRevisions(RevisionEntry[] revisions, String... expected) {
+        Set<String> revs = new HashSet<>();
+        for (RevisionEntry revision : revisions) {
+            revs.add(revision.getRevision());
+        }
+        assertEquals(new HashSet<>(Arrays.asList(expected)), revs);
+    }
 }
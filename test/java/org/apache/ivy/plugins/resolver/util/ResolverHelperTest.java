@@ -20,12 +20,15 @@ package org.apache.ivy.plugins.resolver.util;
 import java.io.File;
 import java.util.Arrays;
 
+import org.apache.ivy.core.module.descriptor.DefaultArtifact;
+import org.apache.ivy.core.module.id.ModuleRevisionId;
 import org.apache.ivy.plugins.repository.file.FileRepository;
 
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
 
 public class ResolverHelperTest {
 
@@ -43,4 +46,22 @@ public class ResolverHelperTest {
         assertEquals("2.0", revisions[1]);
     }
 
+
+    @Test
+    public void testFindAll() {
+        FileRepository rep = new FileRepository(new File(".").getAbsoluteFile());
+        ResolvedResource[] found = ResolverHelper.findAll(rep,
+            ModuleRevisionId.newInstance("ivy-org", "modA", "latest.integration"),
+            "test/repositories/IVY-1238/[organisation]/[module]/v[revision]/ivy.xml",
+            DefaultArtifact.newIvyArtifact(
+                ModuleRevisionId.newInstance("ivy-org", "modA", "latest.integration"), null));
+
+        assertNotNull(found);
+        assertEquals(2, found.length);
+        for (ResolvedResource rres : found) {
+            assertTrue(rres.getResource().exists());
+            assertEquals(new File("test/repositories/IVY-1238/ivy-org/modA/v" + rres.getRevision()
+                    + "/ivy.xml").lastModified(), rres.getLastModified());
+        }
+    }
 }
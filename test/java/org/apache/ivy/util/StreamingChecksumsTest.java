@@ -0,0 +1,89 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class StreamingChecksumsTest {
+    private File dir;
+
+    @Before
+    public void setUp() {
+        dir = new File("build/test/checksums");
+        FileUtil.forceDelete(dir);
+    }
+
+    @After
+    public void tearDown() {
+        FileUtil.forceDelete(dir);
+    }
+
+    @Test
+    public void testChecksumsComputedWhileCopying() throws IOException {
+        File dest = new File(dir, "dest.txt");
+        StreamingChecksums checksums = StreamingChecksums.start("sha1", "md5", "unknown");
+        try {
+            FileUtil.copy(new ByteArrayInputStream("first content".getBytes("UTF-8")), dest, null);
+            // only the last copy is taken into account
+            FileUtil.copy(new ByteArrayInputStream("some content".getBytes("UTF-8")), dest, null);
+        } finally {
+            checksums.stop();
+        }
+        assertNull(StreamingChecksums.current());
+        String sha1 = ChecksumHelper.computeAsString(dest, "sha1");
+        String md5 = ChecksumHelper.computeAsString(dest, "md5");
+
+        // the file is not read again: a change keeping its length is not seen
+        write(dest, "some CONTENT");
+        assertEquals(sha1, checksums.getChecksum("sha1", dest));
+        assertEquals(md5, checksums.getChecksum("md5", dest));
+
+        // but the file is read when its length doesn't match the copied data
+        write(dest, "other content");
+        assertEquals(ChecksumHelper.computeAsString(dest, "sha1"),
+            checksums.getChecksum("sha1", dest));
+    }
+
+    @Test
+    public void testNestedChecksums() {
+        StreamingChecksums outer = StreamingChecksums.start("sha1");
+        StreamingChecksums inner = StreamingChecksums.start("md5");
+        assertSame(inner, StreamingChecksums.current());
+        inner.stop();
+        assertSame(outer, StreamingChecksums.current());
+        outer.stop();
+        assertNull(StreamingChecksums.current());
+    }
+
+    private static void write(File file, String content) throws IOException {
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            out.write(content.getBytes("UTF-8"));
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ *  Licensed to the Apache Software Foundation (ASF) under one or more
+ *  contributor license agreements.  See the NOTICE file distributed with
+ *  this work for additional information regarding copyright ownership.
+ *  The ASF licenses this file to You under the Apache License, Version 2.0
+ *  (the "License"); you may not use this file except in compliance with
+ *  the License.  You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ */
+package org.apache.ivy.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.apache.ivy.plugins.parser.xml.XmlModuleDescriptorParser;
+import org.junit.Test;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+import org.xml.sax.ext.DefaultHandler2;
+import org.xml.sax.helpers.DefaultHandler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class XMLHelperTest {
+
+    /**
+     * Parsers are reused, but nothing set for a parse is kept for the next one.
+     *
+     * @throws Exception if something goes wrong
+     */
+    @Test
+    public void testReusedParser() throws Exception {
+        CommentsHandler first = new CommentsHandler();
+        parse("<a><!--first--></a>", first, first);
+        assertEquals("[first]", first.comments.toString());
+
+        CommentsHandler second = new CommentsHandler();
+        parse("<a><!--second--></a>", second, null);
+        assertEquals("[]", second.comments.toString());
+    }
+
+    /**
+     * The schema is read once, but still used to validate each document.
+     *
+     * @throws Exception if something goes wrong
+     */
+    @Test
+    public void testValidationWithCachedSchema() throws Exception {
+        URL schema = XmlModuleDescriptorParser.class.getResource("ivy.xsd");
+        String invalid = "<ivy-module version=\"2.0\"><info organisation=\"org\"/></ivy-module>";
+        List<String> first = validate(invalid, schema);
+        assertFalse(first.isEmpty());
+        // how many times an error is reported depends on the JDK
+        assertEquals(first, validate(invalid, schema));
+    }
+
+    private static List<String> validate(String xml, URL schema) throws Exception {
+        ErrorsHandler handler = new ErrorsHandler();
+        XMLHelper.parse(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), schema,
+            handler, null);
+        List<String> messages = new ArrayList<>();
+        for (SAXParseException error : handler.errors) {
+            messages.add(error.getMessage());
+        }
+        return messages;
+    }
+
+    private static void parse(String xml, DefaultHandler handler, CommentsHandler lexicalHandler)
+            throws SAXException, IOException, ParserConfigurationException {
+        XMLHelper.parse(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), null,
+            handler, lexicalHandler);
+    }
+
+    private static final class CommentsHandler extends DefaultHandler2 {
+        private final List<String> comments = new ArrayList<>();
+
+        @Override
+        public void comment(char[] ch, int start, int length) {
+            comments.add(new String(ch, start, length));
+        }
+    }
+
+    private static final class ErrorsHandler extends DefaultHandler {
+        private final List<SAXParseException> errors = new ArrayList<>();
+
+        @Override
+        public void error(SAXParseException e) {
+            errors.add(e);
+        }
+    }
+}
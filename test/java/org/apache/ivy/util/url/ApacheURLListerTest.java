@@ -17,13 +17,26 @@
  */
 package org.apache.ivy.util.url;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import org.junit.Test;
 
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -115,4 +128,71 @@ public class ApacheURLListerTest {
         assertNotNull(d);
         assertEquals(3, d.size());
     }
+
+    @Test
+    public void testRetrieveListingEntries() throws Exception {
+        ApacheURLLister lister = new ApacheURLLister();
+
+        URL url = ApacheURLListerTest.class.getResource("maven-proxy-listing.html");
+        ApacheURLLister.Listing listing = lister.retrieveListing(url, null);
+        assertEquals(lister.listAll(url), lister.getURLs(url, listing, true, true));
+        for (String entry : listing.getEntries()) {
+            assertTrue("found an absolute entry: " + entry, !entry.contains(":"));
+        }
+    }
+
+    /**
+     * Tests that a listing is only read again when the server tells it has changed.
+     *
+     * @throws Exception if something goes wrong
+     */
+    @SuppressWarnings("deprecation")
+    @Test
+    public void testRetrieveListingRevalidation() throws Exception {
+        final byte[] html = Files.readAllBytes(Paths.get(ApacheURLListerTest.class
+                .getResource("apache-dir-listing.html").toURI()));
+        final List<String> requests = new ArrayList<>();
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/repo/", new HttpHandler() {
+            public void handle(HttpExchange exchange) throws IOException {
+                try (InputStream in = exchange.getRequestBody()) {
+                    String etag = exchange.getRequestHeaders().getFirst("If-None-Match");
+                    requests.add(String.valueOf(etag));
+                    exchange.getResponseHeaders().add("ETag", "\"v1\"");
+                    if ("\"v1\"".equals(etag)) {
+                        exchange.sendResponseHeaders(304, -1);
+                        return;
+                    }
+                    exchange.getResponseHeaders().add("Content-Type", "text/html");
+                    exchange.sendResponseHeaders(200, html.length);
+                    try (OutputStream out = exchange.getResponseBody()) {
+                        out.write(html);
+                    }
+                } finally {
+                    exchange.close();
+                }
+            }
+        });
+        server.start();
+        URLHandler defaultHandler = URLHandlerRegistry.getDefault();
+        try {
+            URL url = new URL("http://localhost:" + server.getAddress().getPort() + "/repo/");
+            ApacheURLLister lister = new ApacheURLLister();
+            for (URLHandler handler : Arrays.<URLHandler>asList(new BasicURLHandler(),
+                HttpClientHandler.DELETE_ON_EXIT_INSTANCE)) {
+                URLHandlerRegistry.setDefault(handler);
+                requests.clear();
+
+                ApacheURLLister.Listing listing = lister.retrieveListing(url, null);
+                assertEquals("\"v1\"", listing.getETag());
+                assertEquals(4, lister.getURLs(url, listing, false, true).size());
+
+                assertSame(listing, lister.retrieveListing(url, listing));
+                assertEquals(Arrays.asList("null", "\"v1\""), requests);
+            }
+        } finally {
+            URLHandlerRegistry.setDefault(defaultHandler);
+            server.stop(0);
+        }
+    }
 }
@@ -124,6 +124,33 @@ public class HttpclientURLHandlerTest {
                 new File(testDir, "nh80-deflate.pdf"));
     }
 
+    @Test
+    public void testIdleConnectionsAreClosed() throws Exception {
+        handler.setMaxConnectionsPerRoute(4);
+        handler.setKeepAlive(60000);
+        handler.setIdleTimeout(200);
+        final InetSocketAddress serverBindAddr = new InetSocketAddress("localhost",
+                TestHelper.getMaybeAvailablePort());
+        final String contextRoot = "/testHttpClientHandlerPool";
+        final Path repoRoot = new File("test/repositories").toPath();
+        try (final AutoCloseable server = TestHelper.createHttpServerBackedRepository(
+            serverBindAddr, contextRoot, repoRoot)) {
+            final File target = new File(testDir, "downloaded.xml");
+            final URL src = new URL("http://localhost:" + serverBindAddr.getPort() + "/"
+                    + contextRoot + "/ivysettings.xml");
+            handler.download(src, target, null, defaultTimeoutConstraint);
+            assertTrue("File " + target + " was not downloaded from " + src, target.isFile());
+            assertEquals(1, handler.getConnectionPoolStats().getAvailable());
+
+            long deadline = System.currentTimeMillis() + 5000;
+            while (handler.getConnectionPoolStats().getAvailable() > 0
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(50);
+            }
+            assertEquals(0, handler.getConnectionPoolStats().getAvailable());
+        }
+    }
+
     /**
      * Tests that the {@link HttpClientHandler}, backed by
      * {@link CredentialsStore Ivy credentials store} works as expected when it interacts